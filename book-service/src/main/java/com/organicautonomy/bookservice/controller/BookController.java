@@ -16,6 +16,8 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/books")
 public class BookController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     @Autowired
     private BookRepository repository;
 
@@ -31,6 +33,17 @@ public class BookController {
         return repository.save(book);
     }
 
+    // one round trip for callers resolving many ids, unknown ids are left out of the result.
+    @GetMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<Book> getBooksByIds(@RequestParam List<Integer> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids can be requested at once.");
+        }
+
+        return repository.findAllById(ids);
+    }
+
     @GetMapping("/{bookId}")
     @ResponseStatus(HttpStatus.OK)
     public Book getBookById(@PathVariable int bookId) {
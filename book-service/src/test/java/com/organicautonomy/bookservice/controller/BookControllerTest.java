@@ -17,8 +17,11 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -261,4 +264,30 @@ class BookControllerTest {
                         result.getResolvedException().getMessage()))
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetBooksByIds() throws Exception {
+        List<Book> books = new ArrayList<>();
+        books.add(HOLES);
+        books.add(THE_PRINCE);
+
+        String outputJson = mapper.writeValueAsString(books);
+
+        when(repository.findAllById(Arrays.asList(1, 2, 3))).thenReturn(books);
+
+        this.mockMvc.perform(get("/books/batch").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(outputJson))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetBooksByIdsWithTooManyIds() throws Exception {
+        String ids = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        this.mockMvc.perform(get("/books/batch").param("ids", ids))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andDo(print());
+    }
+}
@@ -0,0 +1,26 @@
+package com.organicautonomy.reviewapi.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class FanOutConfig {
+    public static final String EXECUTOR = "fanOutExecutor";
+
+    // bounded both ways: a burst past threads + queue is rejected instead of piling up behind slow services.
+    @Bean(name = EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService fanOutExecutor(@Value("${api.fan-out.threads:16}") int threads,
+                                          @Value("${api.fan-out.queue-capacity:256}") int queueCapacity) {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("fan-out-"), new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
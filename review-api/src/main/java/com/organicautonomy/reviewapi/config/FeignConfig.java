@@ -0,0 +1,75 @@
+package com.organicautonomy.reviewapi.config;
+
+import com.organicautonomy.reviewapi.util.feign.CacheInvalidationInterceptor;
+import com.organicautonomy.reviewapi.util.feign.GuardedFeignClient;
+import com.organicautonomy.reviewapi.util.feign.HedgingFeignClient;
+import com.organicautonomy.reviewapi.util.feign.PooledFeignClient;
+import com.organicautonomy.reviewapi.util.resilience.DownstreamGuard;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.RetryableFeignBlockingLoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+public class FeignConfig {
+    public static final String HEDGE_EXECUTOR = "hedgeExecutor";
+
+    @Bean(destroyMethod = "close")
+    public PooledFeignClient pooledFeignClient(MeterRegistry registry,
+                                               @Value("${api.feign.pool.max-connections:50}") int maxConnections,
+                                               @Value("${api.feign.pool.max-idle-ms:30000}") long maxIdleMs,
+                                               @Value("${api.feign.pool.time-to-live-ms:300000}") long timeToLiveMs) {
+        return new PooledFeignClient(maxConnections, maxIdleMs, timeToLiveMs, registry);
+    }
+
+    // no queue: with every thread busy a GET is sent unhedged on the caller's thread instead of waiting for one.
+    @Bean(name = HEDGE_EXECUTOR, destroyMethod = "shutdown")
+    public ExecutorService hedgeExecutor(@Value("${api.feign.hedging.threads:64}") int threads) {
+        return new ThreadPoolExecutor(0, threads, 60, TimeUnit.SECONDS, new SynchronousQueue<>(),
+                new CustomizableThreadFactory("hedge-"), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    // the client every @FeignClient uses: writes drop the cached entity, the service's bulkhead and breaker admit
+    // the call, the load balancer picks an instance, hedging may add a second one, and the pooled client sends
+    // the requests.
+    @Bean
+    @Primary
+    public Client feignClient(PooledFeignClient pooledFeignClient, LoadBalancerClient loadBalancerClient,
+                              LoadBalancerProperties properties, LoadBalancerClientFactory loadBalancerClientFactory,
+                              ObjectProvider<LoadBalancedRetryFactory> retryFactory, DiscoveryClient discoveryClient,
+                              DownstreamGuard downstreamGuard, CacheInvalidationInterceptor cacheInvalidation,
+                              @Qualifier(HEDGE_EXECUTOR) ExecutorService hedgeExecutor, MeterRegistry registry,
+                              @Value("${api.feign.hedging.services:}") List<String> hedgedServices,
+                              @Value("${api.feign.hedging.budget-percent:10}") double budgetPercent,
+                              @Value("${api.feign.hedging.min-delay-ms:10}") long minDelayMs) {
+        Client transport = pooledFeignClient;
+        if (!hedgedServices.isEmpty()) {
+            transport = new HedgingFeignClient(pooledFeignClient, discoveryClient, hedgeExecutor, hedgedServices,
+                    budgetPercent, minDelayMs, registry);
+        }
+
+        LoadBalancedRetryFactory retry = properties.getRetry().isEnabled() ? retryFactory.getIfAvailable() : null;
+        Client loadBalanced = retry != null
+                ? new RetryableFeignBlockingLoadBalancerClient(transport, loadBalancerClient, retry, properties, loadBalancerClientFactory)
+                : new FeignBlockingLoadBalancerClient(transport, loadBalancerClient, properties, loadBalancerClientFactory);
+        return cacheInvalidation.wrap(new GuardedFeignClient(loadBalanced, downstreamGuard));
+    }
+}
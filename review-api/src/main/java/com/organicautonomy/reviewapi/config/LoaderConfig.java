@@ -0,0 +1,73 @@
+package com.organicautonomy.reviewapi.config;
+
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.util.loader.BatchRoute;
+import com.organicautonomy.reviewapi.util.loader.EntityCache;
+import com.organicautonomy.reviewapi.util.loader.RequestCollapser;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveBookClient;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveUserClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+public class LoaderConfig {
+    @Value("${api.loader.max-batch-size:100}")
+    private int maxBatchSize;
+    @Value("${api.loader.parallelism:4}")
+    private int parallelism;
+    @Value("${api.loader.batch-retry-ms:60000}")
+    private long batchRetryMs;
+    @Value("${api.loader.window-ms:2}")
+    private long windowMs;
+
+    // only closes collapser windows, the downstream calls run on the WebClient event loop.
+    @Bean(destroyMethod = "shutdown")
+    public ScheduledExecutorService collapserTimer() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("collapser-");
+        threadFactory.setDaemon(true);
+        return Executors.newSingleThreadScheduledExecutor(threadFactory);
+    }
+
+    @Bean
+    public RequestCollapser<Integer, User> userCollapser(ReactiveUserClient client, ScheduledExecutorService collapserTimer,
+                                                         MeterRegistry registry) {
+        BatchRoute<Integer, User> route = new BatchRoute<>("user-service", ids -> client.getUsersByIds(ids).collectList().toFuture(),
+                User::getId, id -> client.getUserById(id).toFuture(), maxBatchSize, parallelism, batchRetryMs);
+        return new RequestCollapser<>(route, collapserTimer, windowMs, registry);
+    }
+
+    @Bean
+    public RequestCollapser<Integer, Book> bookCollapser(ReactiveBookClient client, ScheduledExecutorService collapserTimer,
+                                                         MeterRegistry registry) {
+        BatchRoute<Integer, Book> route = new BatchRoute<>("book-service", ids -> client.getBooksByIds(ids).collectList().toFuture(),
+                Book::getId, id -> client.getBookById(id).toFuture(), maxBatchSize, parallelism, batchRetryMs);
+        return new RequestCollapser<>(route, collapserTimer, windowMs, registry);
+    }
+
+    @Bean
+    public EntityCache<Integer, User> userCache(RequestCollapser<Integer, User> userCollapser,
+                                                @Qualifier(FanOutConfig.EXECUTOR) ExecutorService executor, MeterRegistry registry,
+                                                @Value("${api.cache.users.ttl-ms:60000}") long ttlMs,
+                                                @Value("${api.cache.users.stale-if-error-ms:600000}") long staleIfErrorMs,
+                                                @Value("${api.cache.users.max-size:10000}") long maxSize) {
+        return new EntityCache<>("users", userCollapser, ttlMs, staleIfErrorMs, maxSize, executor, registry);
+    }
+
+    @Bean
+    public EntityCache<Integer, Book> bookCache(RequestCollapser<Integer, Book> bookCollapser,
+                                                @Qualifier(FanOutConfig.EXECUTOR) ExecutorService executor, MeterRegistry registry,
+                                                @Value("${api.cache.books.ttl-ms:300000}") long ttlMs,
+                                                @Value("${api.cache.books.stale-if-error-ms:3600000}") long staleIfErrorMs,
+                                                @Value("${api.cache.books.max-size:10000}") long maxSize) {
+        return new EntityCache<>("books", bookCollapser, ttlMs, staleIfErrorMs, maxSize, executor, registry);
+    }
+}
@@ -1,6 +1,10 @@
 package com.organicautonomy.reviewapi.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.core.TopicExchange;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
@@ -9,13 +13,32 @@ import org.springframework.context.annotation.Configuration;
 
 @Configuration
 public class MessageConfig {
+    public static final String QUEUE = "REVIEW_QUEUE";
     public static final String EXCHANGE = "REVIEW_EXCHANGE";
     public static final String ROUTING_KEY = "REVIEW_ROUTING_KEY";
 
+    // declared as review-queue declares them, so accepted reviews wait in the queue even before review-queue starts.
+    @Bean
+    public Queue queue() {
+        return new Queue(QUEUE);
+    }
+
+    @Bean
+    public TopicExchange exchange() {
+        return new TopicExchange(EXCHANGE);
+    }
+
+    @Bean
+    public Binding binding(Queue queue, TopicExchange exchange) {
+        return BindingBuilder.bind(queue).to(exchange).with(ROUTING_KEY);
+    }
+
+    // mandatory: a message the exchange cannot route is returned, and its submission fails, instead of being dropped.
     @Bean
     public RabbitTemplate rabbitTemplate(ConnectionFactory connectionFactory) {
         RabbitTemplate rabbitTemplate = new RabbitTemplate(connectionFactory);
         rabbitTemplate.setMessageConverter(jackson2JsonMessageConverter());
+        rabbitTemplate.setMandatory(true);
         return rabbitTemplate;
     }
 
@@ -0,0 +1,23 @@
+package com.organicautonomy.reviewapi.config;
+
+import com.organicautonomy.reviewapi.util.loadbalancer.PeakEwmaLoadBalancer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Built in each service's own load balancer context through LoadBalancerConfig, which is why it
+ * is not annotated: component scanning must not put it in the application context.
+ */
+public class PeakEwmaLoadBalancerConfiguration {
+    @Bean
+    public PeakEwmaLoadBalancer peakEwmaLoadBalancer(Environment environment, LoadBalancerClientFactory factory,
+                                                     @Value("${api.loadbalancer.decay-ms:10000}") long decayMs,
+                                                     @Value("${api.loadbalancer.failure-penalty-ms:1000}") long failurePenaltyMs) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new PeakEwmaLoadBalancer(factory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class), serviceId,
+                decayMs, failurePenaltyMs);
+    }
+}
@@ -0,0 +1,24 @@
+package com.organicautonomy.reviewapi.config;
+
+import com.organicautonomy.reviewapi.util.resilience.DownstreamGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class ResilienceConfig {
+    // one bulkhead and one circuit breaker per downstream service, shared by the Feign and the reactive clients.
+    @Bean
+    public DownstreamGuard downstreamGuard(MeterRegistry registry,
+                                           @Value("${api.resilience.max-concurrent-calls:50}") int maxConcurrentCalls,
+                                           @Value("${api.resilience.failure-rate-percent:50}") float failureRatePercent,
+                                           @Value("${api.resilience.slow-call-ms:1000}") long slowCallMs,
+                                           @Value("${api.resilience.sliding-window-size:50}") int slidingWindowSize,
+                                           @Value("${api.resilience.minimum-calls:20}") int minimumCalls,
+                                           @Value("${api.resilience.open-ms:5000}") long openMs,
+                                           @Value("${api.resilience.half-open-calls:5}") int halfOpenCalls) {
+        return new DownstreamGuard(maxConcurrentCalls, failureRatePercent, slowCallMs, slidingWindowSize, minimumCalls,
+                openMs, halfOpenCalls, registry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.organicautonomy.reviewapi.config;
+
+import com.organicautonomy.reviewapi.util.feign.CacheInvalidationInterceptor;
+import com.organicautonomy.reviewapi.util.resilience.DownstreamGuard;
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+@Configuration
+public class WebClientConfig {
+    // one keep-alive pool for every reactive client, past max-connections + pending-acquire-max callers fail fast.
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(@Value("${api.web-client.max-connections:200}") int maxConnections,
+                                                 @Value("${api.web-client.pending-acquire-max:1000}") int pendingAcquireMax,
+                                                 @Value("${api.web-client.pending-acquire-timeout-ms:1000}") long pendingAcquireTimeoutMs,
+                                                 @Value("${api.web-client.max-idle-ms:30000}") long maxIdleMs) {
+        return ConnectionProvider.builder("review-api")
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMax)
+                .pendingAcquireTimeout(Duration.ofMillis(pendingAcquireTimeoutMs))
+                .maxIdleTime(Duration.ofMillis(maxIdleMs))
+                .build();
+    }
+
+    // service names in the URLs are resolved through the load balancer, the same instances Feign picks from.
+    // The guard filters first, while the URL still names the service; the load balancer adds its filter last.
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder(ConnectionProvider connectionProvider,
+                                                         ObjectProvider<WebClientCustomizer> customizers,
+                                                         CacheInvalidationInterceptor cacheInvalidation,
+                                                         DownstreamGuard downstreamGuard,
+                                                         @Value("${api.web-client.connect-timeout-ms:1000}") int connectTimeoutMs,
+                                                         @Value("${api.web-client.response-timeout-ms:2000}") long responseTimeoutMs) {
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+                .responseTimeout(Duration.ofMillis(responseTimeoutMs));
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .filter(cacheInvalidation)
+                .filter(downstreamGuard);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+
+        return builder;
+    }
+}
@@ -1,7 +1,21 @@
 package com.organicautonomy.reviewapi.controller;
 
-import org.springframework.web.bind.annotation.RestController;
+import com.organicautonomy.reviewapi.dto.BookDetail;
+import com.organicautonomy.reviewapi.util.detail.BookDetailLoader;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 
 @RestController
+@RequestMapping("/api/books")
 public class BookController {
+    @Autowired
+    private BookDetailLoader detailLoader;
+
+    @GetMapping("/{bookId}/detail")
+    @ResponseStatus(HttpStatus.OK)
+    public Mono<BookDetail> getBookDetail(@PathVariable Integer bookId) {
+        return detailLoader.load(bookId);
+    }
 }
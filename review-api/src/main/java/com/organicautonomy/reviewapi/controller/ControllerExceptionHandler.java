@@ -1,7 +1,11 @@
 package com.organicautonomy.reviewapi.controller;
 
+import com.organicautonomy.reviewapi.exception.DownstreamTimeoutException;
 import com.organicautonomy.reviewapi.exception.ErrorDetails;
 import com.organicautonomy.reviewapi.exception.ResourceNotFoundException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.springframework.amqp.AmqpException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -14,6 +18,7 @@ import org.springframework.web.context.request.WebRequest;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestControllerAdvice
 public class ControllerExceptionHandler {
@@ -24,6 +29,33 @@ public class ControllerExceptionHandler {
         return new ResponseEntity(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(DownstreamTimeoutException.class)
+    public ResponseEntity<Error> handleDownstreamTimeoutException(DownstreamTimeoutException e, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), e.getMessage(), request.getDescription(false));
+        return new ResponseEntity(errorDetails, HttpStatus.GATEWAY_TIMEOUT);
+    }
+
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<Error> handleRejectedExecutionException(RejectedExecutionException e, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), "Too many requests in flight, try again shortly.",
+                request.getDescription(false));
+        return new ResponseEntity(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler({CallNotPermittedException.class, BulkheadFullException.class})
+    public ResponseEntity<Error> handleDownstreamRejection(RuntimeException e, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), "A downstream service is unavailable, try again shortly.",
+                request.getDescription(false));
+        return new ResponseEntity(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    @ExceptionHandler(AmqpException.class)
+    public ResponseEntity<Error> handleAmqpException(AmqpException e, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), "The review could not be queued, try again shortly.",
+                request.getDescription(false));
+        return new ResponseEntity(errorDetails, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Error> handleIllegalArgumentException(IllegalArgumentException e, WebRequest request) {
         ErrorDetails errorDetails = new ErrorDetails(new Date(), e.getMessage(), request.getDescription(false));
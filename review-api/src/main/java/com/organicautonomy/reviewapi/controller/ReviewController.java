@@ -1,8 +1,34 @@
 package com.organicautonomy.reviewapi.controller;
 
-import org.springframework.web.bind.annotation.RestController;
+import com.organicautonomy.reviewapi.dto.Review;
+import com.organicautonomy.reviewapi.dto.ReviewSubmission;
+import com.organicautonomy.reviewapi.util.submission.ReviewSubmitter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.net.URI;
 
 @RestController
+@RequestMapping("/api/reviews")
 public class ReviewController {
+    @Autowired
+    private ReviewSubmitter submitter;
+
+    @PostMapping
+    public Mono<ResponseEntity<ReviewSubmission>> submitReview(@RequestBody @Valid Review review) {
+        return submitter.submit(review).map(submission -> ResponseEntity
+                .accepted()
+                .location(URI.create("/api/reviews/submissions/" + submission.getTrackingId()))
+                .body(submission));
+    }
 
+    @GetMapping("/submissions/{trackingId}")
+    @ResponseStatus(HttpStatus.OK)
+    public ReviewSubmission getSubmission(@PathVariable String trackingId) {
+        return submitter.getSubmission(trackingId);
+    }
 }
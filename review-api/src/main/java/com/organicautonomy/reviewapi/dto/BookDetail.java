@@ -0,0 +1,57 @@
+package com.organicautonomy.reviewapi.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+public class BookDetail {
+    private Book book;
+    private List<ReviewDetail> reviews;
+    // false when some reviewer names were still missing at the deadline.
+    private boolean complete;
+
+    public BookDetail() {
+    }
+
+    public BookDetail(Book book, List<ReviewDetail> reviews, boolean complete) {
+        this.book = book;
+        this.reviews = reviews;
+        this.complete = complete;
+    }
+
+    public Book getBook() {
+        return book;
+    }
+
+    public void setBook(Book book) {
+        this.book = book;
+    }
+
+    public List<ReviewDetail> getReviews() {
+        return reviews;
+    }
+
+    public void setReviews(List<ReviewDetail> reviews) {
+        this.reviews = reviews;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public void setComplete(boolean complete) {
+        this.complete = complete;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookDetail that = (BookDetail) o;
+        return complete == that.complete && Objects.equals(book, that.book) && Objects.equals(reviews, that.reviews);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(book, reviews, complete);
+    }
+}
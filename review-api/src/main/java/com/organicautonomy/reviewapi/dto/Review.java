@@ -18,6 +18,8 @@ public class Review {
     private BigDecimal rating;
     @NotNull
     private String text;
+    // review-service list routes return the first characters of the text instead of all of it.
+    private String snippet;
 
     public Review() {
     }
@@ -79,6 +81,14 @@ public class Review {
         this.text = text;
     }
 
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -86,11 +96,11 @@ public class Review {
         Review review = (Review) o;
         return Objects.equals(id, review.id) && Objects.equals(userId, review.userId)
                 && Objects.equals(bookId, review.bookId) && Objects.equals(rating, review.rating)
-                && Objects.equals(text, review.text);
+                && Objects.equals(text, review.text) && Objects.equals(snippet, review.snippet);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, userId, bookId, rating, text);
+        return Objects.hash(id, userId, bookId, rating, text, snippet);
     }
 }
@@ -0,0 +1,85 @@
+package com.organicautonomy.reviewapi.dto;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+public class ReviewDetail {
+    private Integer id;
+    private Integer userId;
+    // null when user-service did not answer before the detail deadline.
+    private String username;
+    private BigDecimal rating;
+    private String snippet;
+
+    public ReviewDetail() {
+    }
+
+    public ReviewDetail(Integer id, Integer userId, String username, BigDecimal rating, String snippet) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.rating = rating;
+        this.snippet = snippet;
+    }
+
+    public static ReviewDetail of(Review review, String username) {
+        String snippet = review.getSnippet() != null ? review.getSnippet() : review.getText();
+
+        return new ReviewDetail(review.getId(), review.getUserId(), username, review.getRating(), snippet);
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public BigDecimal getRating() {
+        return rating;
+    }
+
+    public void setRating(BigDecimal rating) {
+        this.rating = rating;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReviewDetail that = (ReviewDetail) o;
+        return Objects.equals(id, that.id) && Objects.equals(userId, that.userId)
+                && Objects.equals(username, that.username) && Objects.equals(rating, that.rating)
+                && Objects.equals(snippet, that.snippet);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, userId, username, rating, snippet);
+    }
+}
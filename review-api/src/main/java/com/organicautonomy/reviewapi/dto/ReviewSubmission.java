@@ -0,0 +1,54 @@
+package com.organicautonomy.reviewapi.dto;
+
+import java.util.Objects;
+
+public class ReviewSubmission {
+    private String trackingId;
+    private Status status;
+
+    public ReviewSubmission() {
+    }
+
+    public ReviewSubmission(String trackingId, Status status) {
+        this.trackingId = trackingId;
+        this.status = status;
+    }
+
+    public String getTrackingId() {
+        return trackingId;
+    }
+
+    public void setTrackingId(String trackingId) {
+        this.trackingId = trackingId;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReviewSubmission that = (ReviewSubmission) o;
+        return Objects.equals(trackingId, that.trackingId) && status == that.status;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(trackingId, status);
+    }
+
+    public enum Status {
+        // published, the broker has not confirmed it yet.
+        PENDING,
+        // the broker has routed it to the review queue.
+        QUEUED,
+        // the broker refused it or had no queue to route it to, the review has to be submitted again.
+        FAILED
+    }
+}
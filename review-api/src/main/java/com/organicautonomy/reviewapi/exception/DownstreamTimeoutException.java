@@ -0,0 +1,7 @@
+package com.organicautonomy.reviewapi.exception;
+
+public class DownstreamTimeoutException extends RuntimeException {
+    public DownstreamTimeoutException(String msg) {
+        super(msg);
+    }
+}
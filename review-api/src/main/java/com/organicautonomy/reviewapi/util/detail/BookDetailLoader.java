@@ -0,0 +1,96 @@
+package com.organicautonomy.reviewapi.util.detail;
+
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.BookDetail;
+import com.organicautonomy.reviewapi.dto.Review;
+import com.organicautonomy.reviewapi.dto.ReviewDetail;
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.exception.DownstreamTimeoutException;
+import com.organicautonomy.reviewapi.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewapi.util.loader.BatchLoader;
+import com.organicautonomy.reviewapi.util.loader.RequestLoaders;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveReviewClient;
+import com.organicautonomy.reviewapi.util.resilience.DownstreamGuard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Builds a book's detail from book-service, review-service and user-service. The book and its
+ * reviews are fetched at the same time and reviewer names as soon as the reviews arrive, so the
+ * response takes about as long as the slowest path rather than the sum of the calls. The book and
+ * the names go through the request's loaders, merged with other requests' lookups. Nothing blocks:
+ * the calls run on the WebClient event loop and no thread waits for them. Everything shares one
+ * deadline: a missing book or review list at the deadline fails the request, missing names only
+ * leave the detail incomplete. While review-service's breaker or bulkhead rejects calls the detail
+ * is served without reviews, also marked incomplete; a rejected book lookup fails the request
+ * unless the book is cached.
+ */
+@Component
+public class BookDetailLoader {
+    private final long deadlineNanos;
+
+    @Autowired
+    private ReactiveReviewClient reviewClient;
+    @Autowired
+    private RequestLoaders loaders;
+
+    public BookDetailLoader(@Value("${api.book-detail.deadline-ms:2000}") long deadlineMs) {
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+    }
+
+    /**
+     * Must be called on the request thread, the loaders are request scoped.
+     */
+    public Mono<BookDetail> load(int bookId) {
+        long deadline = System.nanoTime() + deadlineNanos;
+        BatchLoader<Integer, Book> books = loaders.books();
+        BatchLoader<Integer, User> users = loaders.users();
+
+        Mono<Book> book = Mono.defer(() -> {
+            CompletableFuture<Book> lookup = books.load(bookId);
+            books.dispatch();
+            return Mono.fromFuture(lookup);
+        }).switchIfEmpty(Mono.error(() -> new ResourceNotFoundException("There is no book associated with the id provided.")));
+        // empty while review-service rejects calls.
+        Mono<Optional<List<Review>>> reviews = reviewClient.getReviewsByBookId(bookId).collectList()
+                .map(Optional::of)
+                .onErrorResume(DownstreamGuard::isRejected, e -> Mono.just(Optional.empty()));
+
+        return Mono.zip(book, reviews)
+                .timeout(Duration.ofNanos(deadlineNanos),
+                        Mono.error(() -> new DownstreamTimeoutException("The downstream services did not answer in time.")))
+                .flatMap(found -> withNames(users, found.getT1(), found.getT2().orElse(Collections.emptyList()),
+                        found.getT2().isPresent(), deadline));
+    }
+
+    private static Mono<BookDetail> withNames(BatchLoader<Integer, User> users, Book book, List<Review> reviews,
+                                              boolean reviewsComplete, long deadline) {
+        Map<Integer, CompletableFuture<User>> lookups = users.loadMany(reviews.stream().map(Review::getUserId)
+                .collect(Collectors.toCollection(LinkedHashSet::new)));
+        users.dispatch();
+
+        // names are optional, whatever has arrived by the deadline is used.
+        return Mono.fromFuture(CompletableFuture.allOf(lookups.values().toArray(new CompletableFuture[0])))
+                .timeout(Duration.ofNanos(Math.max(0, deadline - System.nanoTime())))
+                .onErrorResume(e -> Mono.empty())
+                .then(Mono.fromSupplier(() -> {
+                    boolean complete = reviewsComplete;
+                    List<ReviewDetail> details = new ArrayList<>(reviews.size());
+                    for (Review review : reviews) {
+                        CompletableFuture<User> lookup = lookups.get(review.getUserId());
+                        User user = lookup.isDone() && !lookup.isCompletedExceptionally() ? lookup.join() : null;
+                        complete &= user != null;
+                        details.add(ReviewDetail.of(review, user == null ? null : user.getUsername()));
+                    }
+                    return new BookDetail(book, details, complete);
+                }));
+    }
+}
@@ -17,6 +17,9 @@ public interface BookClient {
     @GetMapping
     List<Book> getAllBooks();
 
+    @GetMapping("/batch")
+    List<Book> getBooksByIds(@RequestParam List<Integer> ids);
+
     @GetMapping("/{bookId}")
     Book getBookById(@PathVariable Integer bookId);
 
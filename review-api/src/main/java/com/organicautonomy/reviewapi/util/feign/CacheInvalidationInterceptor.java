@@ -0,0 +1,77 @@
+package com.organicautonomy.reviewapi.util.feign;
+
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.util.loader.EntityCache;
+import feign.Client;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Drops a cached user or book around a write to it, through Feign or WebClient, so the next read
+ * goes downstream. The entry is dropped as the write leaves and again once it has completed: a
+ * read in between can reload the old value, which would otherwise be served for a whole ttl. The
+ * caches are looked up lazily because they are built on the clients this interceptor is
+ * installed in.
+ */
+@Component
+public class CacheInvalidationInterceptor implements ExchangeFilterFunction {
+    private static final Pattern ENTITY_PATH = Pattern.compile("^/(users|books)/(\\d+)$");
+
+    @Autowired
+    private ObjectProvider<EntityCache<Integer, User>> userCache;
+    @Autowired
+    private ObjectProvider<EntityCache<Integer, Book>> bookCache;
+
+    /**
+     * The Feign client that invalidates around each call to the delegate.
+     */
+    public Client wrap(Client delegate) {
+        return (request, options) -> {
+            String path = URI.create(request.url()).getPath();
+            invalidate(request.httpMethod().name(), path);
+            try {
+                return delegate.execute(request, options);
+            } finally {
+                invalidate(request.httpMethod().name(), path);
+            }
+        };
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        String method = request.method().name();
+        String path = request.url().getPath();
+        invalidate(method, path);
+        // a failed or abandoned write may still have been applied.
+        return next.exchange(request).doFinally(signal -> invalidate(method, path));
+    }
+
+    private void invalidate(String method, String path) {
+        if ("GET".equals(method) || path == null) {
+            return;
+        }
+
+        Matcher matcher = ENTITY_PATH.matcher(path);
+        if (!matcher.matches()) {
+            return;
+        }
+
+        Integer id = Integer.valueOf(matcher.group(2));
+        if ("users".equals(matcher.group(1))) {
+            userCache.ifAvailable(cache -> cache.invalidate(id));
+        } else {
+            bookCache.ifAvailable(cache -> cache.invalidate(id));
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.organicautonomy.reviewapi.util.feign;
+
+import com.organicautonomy.reviewapi.util.resilience.DownstreamGuard;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.net.URI;
+import java.nio.charset.Charset;
+
+/**
+ * Sends every Feign call through the service's bulkhead and circuit breaker. It wraps the load
+ * balancer client, the URL still names the service, and a rejected call never reaches the load
+ * balancer. Rejections are thrown as they are, Feign only wraps IOExceptions.
+ * <p>
+ * The call holds its bulkhead permit until the response is closed, a service still streaming a
+ * body is still busy. Feign closes the response once it decoded it.
+ */
+public class GuardedFeignClient implements Client {
+    private final Client delegate;
+    private final DownstreamGuard guard;
+
+    public GuardedFeignClient(Client delegate, DownstreamGuard guard) {
+        this.delegate = delegate;
+        this.guard = guard;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        DownstreamGuard.Permit permit = guard.acquire(URI.create(request.url()).getHost());
+        try {
+            Response response = delegate.execute(request, options);
+            if (response.body() == null) {
+                permit.completed(response.status());
+                return response;
+            }
+            return response.toBuilder().body(new GuardedBody(response.body(), response.status(), permit)).build();
+        } catch (IOException | RuntimeException e) {
+            permit.failed(e);
+            throw e;
+        }
+    }
+
+    private static class GuardedBody implements Response.Body {
+        private final Response.Body delegate;
+        private final int status;
+        private final DownstreamGuard.Permit permit;
+
+        GuardedBody(Response.Body delegate, int status, DownstreamGuard.Permit permit) {
+            this.delegate = delegate;
+            this.status = status;
+            this.permit = permit;
+        }
+
+        @Override
+        public Integer length() {
+            return delegate.length();
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return delegate.isRepeatable();
+        }
+
+        @Override
+        public InputStream asInputStream() throws IOException {
+            return delegate.asInputStream();
+        }
+
+        @Override
+        public Reader asReader(Charset charset) throws IOException {
+            return delegate.asReader(charset);
+        }
+
+        @Override
+        public void close() throws IOException {
+            try {
+                delegate.close();
+            } finally {
+                permit.completed(status);
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.organicautonomy.reviewapi.util.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerUriTools;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Hedges GETs to the opted-in services against a slow instance. It sits between the load balancer
+ * and the transport: when the instance the load balancer picked has not answered within the
+ * service's recent p95 latency, the same request goes to another instance of the service, and
+ * whichever answers first is returned. The other response is closed when it arrives, a blocking
+ * call cannot be aborted, so until then it keeps its connection and thread.
+ * <p>
+ * Hedges are paid for from a per-service budget that each request adds budgetPercent/100 to, so
+ * hedging adds at most budgetPercent more load, and none are sent before a service has
+ * MIN_SAMPLES latencies to derive its p95 from. Counted as api.feign.hedges tagged service and
+ * result: sent, won (the hedge answered first) or denied (over budget or no other instance).
+ */
+public class HedgingFeignClient implements Client {
+    static final int MIN_SAMPLES = 20;
+    private static final int WINDOW = 256;
+    private static final int RECOMPUTE_EVERY = 10;
+    // hedges that can be banked during quiet spells and spent in one burst.
+    private static final double MAX_TOKENS = 10;
+
+    private final Client delegate;
+    private final DiscoveryClient discoveryClient;
+    private final ExecutorService executor;
+    private final long minDelayNanos;
+    private final Map<String, Hedge> hedges = new HashMap<>();
+
+    public HedgingFeignClient(Client delegate, DiscoveryClient discoveryClient, ExecutorService executor, Collection<String> services,
+                              double budgetPercent, long minDelayMs, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.discoveryClient = discoveryClient;
+        this.executor = executor;
+        this.minDelayNanos = TimeUnit.MILLISECONDS.toNanos(minDelayMs);
+        for (String service : services) {
+            hedges.put(service, new Hedge(service, budgetPercent / 100, registry));
+        }
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        String service = serviceOf(request);
+        Hedge hedge = request.httpMethod() == Request.HttpMethod.GET && service != null ? hedges.get(service) : null;
+        if (hedge == null) {
+            return delegate.execute(request, options);
+        }
+
+        hedge.deposit();
+        long delay = hedge.delayNanos(minDelayNanos);
+        CompletableFuture<Response> first = delay < 0 ? null : attempt(hedge, request, options);
+        if (first == null) {
+            long start = System.nanoTime();
+            Response response = delegate.execute(request, options);
+            hedge.record(System.nanoTime() - start);
+            return response;
+        }
+
+        try {
+            return first.get(delay, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            // the instance is slower than usual, hedged below.
+        } catch (InterruptedException | ExecutionException e) {
+            throw unwrap(e);
+        }
+
+        Request other = otherInstance(service, request);
+        if (other == null || !hedge.withdraw()) {
+            hedge.denied.increment();
+            return await(first);
+        }
+        CompletableFuture<Response> second = attempt(hedge, other, options);
+        if (second == null) {
+            hedge.denied.increment();
+            return await(first);
+        }
+        hedge.sent.increment();
+
+        Response response = await(race(first, second));
+        if (second.isDone() && !second.isCompletedExceptionally() && second.join() == response) {
+            hedge.won.increment();
+        }
+        return response;
+    }
+
+    private CompletableFuture<Response> attempt(Hedge hedge, Request request, Request.Options options) {
+        long start = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    Response response = delegate.execute(request, options);
+                    hedge.record(System.nanoTime() - start);
+                    return response;
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            return null;
+        }
+    }
+
+    // the first response wins and the later one is closed, the request only fails when both attempts do.
+    private static CompletableFuture<Response> race(CompletableFuture<Response> first, CompletableFuture<Response> second) {
+        CompletableFuture<Response> winner = new CompletableFuture<>();
+        AtomicInteger failures = new AtomicInteger();
+        BiConsumer<Response, Throwable> finish = (response, e) -> {
+            if (e != null) {
+                if (failures.incrementAndGet() == 2) {
+                    winner.completeExceptionally(e);
+                }
+            } else if (!winner.complete(response)) {
+                response.close();
+            }
+        };
+        first.whenComplete(finish);
+        second.whenComplete(finish);
+        return winner;
+    }
+
+    private Request otherInstance(String service, Request request) {
+        URI uri = URI.create(request.url());
+        List<ServiceInstance> others = discoveryClient.getInstances(service).stream()
+                .filter(instance -> !(instance.getHost().equalsIgnoreCase(uri.getHost()) && instance.getPort() == uri.getPort()))
+                .collect(Collectors.toList());
+        if (others.isEmpty()) {
+            return null;
+        }
+
+        ServiceInstance instance = others.get(ThreadLocalRandom.current().nextInt(others.size()));
+        return Request.create(request.httpMethod(), LoadBalancerUriTools.reconstructURI(instance, uri).toString(),
+                request.headers(), request.body(), request.charset(), request.requestTemplate());
+    }
+
+    private static String serviceOf(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        return template != null && template.feignTarget() != null ? template.feignTarget().name() : null;
+    }
+
+    private static Response await(CompletableFuture<Response> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw unwrap(e);
+        }
+    }
+
+    private static IOException unwrap(Exception e) {
+        if (e instanceof InterruptedException) {
+            Thread.currentThread().interrupt();
+            return new InterruptedIOException("Interrupted while waiting for a response.");
+        }
+
+        Throwable cause = e.getCause() instanceof CompletionException ? e.getCause().getCause() : e.getCause();
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    private static class Hedge {
+        private final double perRequest;
+        private final long[] samples = new long[WINDOW];
+        private final Counter sent;
+        private final Counter won;
+        private final Counter denied;
+        private long count;
+        private volatile long p95 = -1;
+        private double tokens;
+
+        Hedge(String service, double perRequest, MeterRegistry registry) {
+            this.perRequest = perRequest;
+            this.sent = registry.counter("api.feign.hedges", "service", service, "result", "sent");
+            this.won = registry.counter("api.feign.hedges", "service", service, "result", "won");
+            this.denied = registry.counter("api.feign.hedges", "service", service, "result", "denied");
+        }
+
+        synchronized void record(long nanos) {
+            samples[(int) (count++ % WINDOW)] = nanos;
+            if (count >= MIN_SAMPLES && count % RECOMPUTE_EVERY == 0) {
+                long[] window = Arrays.copyOf(samples, (int) Math.min(count, WINDOW));
+                Arrays.sort(window);
+                p95 = window[(int) Math.ceil(window.length * 0.95) - 1];
+            }
+        }
+
+        // negative until there are enough samples.
+        long delayNanos(long minDelayNanos) {
+            long current = p95;
+            return current < 0 ? -1 : Math.max(current, minDelayNanos);
+        }
+
+        synchronized void deposit() {
+            tokens = Math.min(MAX_TOKENS, tokens + perRequest);
+        }
+
+        synchronized boolean withdraw() {
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+    }
+}
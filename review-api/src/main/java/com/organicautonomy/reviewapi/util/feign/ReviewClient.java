@@ -28,7 +28,7 @@ public interface ReviewClient {
     @GetMapping("/books/{bookId}")
     List<Review> getReviewsByBookId(@PathVariable Integer bookId);
 
-    @GetMapping("/user/{userId}")
+    @GetMapping("/users/{userId}")
     List<Review> getReviewsByUserId(@PathVariable Integer userId);
 
     @GetMapping("/ratings/{rating}")
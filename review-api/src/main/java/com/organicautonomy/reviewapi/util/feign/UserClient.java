@@ -17,6 +17,9 @@ public interface UserClient {
     @GetMapping
     List<User> getAllUsers();
 
+    @GetMapping("/batch")
+    List<User> getUsersByIds(@RequestParam List<Integer> ids);
+
     @GetMapping("/{userId}")
     User getUserById(@PathVariable Integer userId);
 
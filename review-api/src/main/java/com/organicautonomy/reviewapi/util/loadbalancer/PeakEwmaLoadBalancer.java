@@ -0,0 +1,157 @@
+package com.organicautonomy.reviewapi.util.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Picks the less loaded of two randomly drawn instances (power of two choices). Load is the
+ * instance's peak EWMA response time multiplied by its requests in flight plus one: a slower
+ * response than the average replaces it at once, faster ones pull it down over decayMs, and an
+ * instance that gets no traffic decays towards zero so it is tried again. A failed call counts
+ * as at least failurePenaltyMs, so an instance refusing connections does not look fast. An
+ * instance without a response time yet takes one request at a time until it has one.
+ * <p>
+ * The response times come from the load balancer lifecycle, which the Feign and WebClient
+ * integrations call around every request they route.
+ */
+public class PeakEwmaLoadBalancer implements ReactorServiceInstanceLoadBalancer,
+        LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+    private static final double UNKNOWN_PENALTY = Long.MAX_VALUE >> 16;
+
+    private final ObjectProvider<ServiceInstanceListSupplier> suppliers;
+    private final String serviceId;
+    private final double decayNanos;
+    private final long failurePenaltyNanos;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+    private final Map<Request<?>, Long> started = Collections.synchronizedMap(new IdentityHashMap<>());
+
+    public PeakEwmaLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> suppliers, String serviceId, long decayMs,
+                                long failurePenaltyMs) {
+        this.suppliers = suppliers;
+        this.serviceId = serviceId;
+        this.decayNanos = TimeUnit.MILLISECONDS.toNanos(decayMs);
+        this.failurePenaltyNanos = TimeUnit.MILLISECONDS.toNanos(failurePenaltyMs);
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = suppliers.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(this::choose);
+    }
+
+    Response<ServiceInstance> choose(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        long now = System.nanoTime();
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return new DefaultResponse(stats(a).cost(now) <= stats(b).cost(now) ? a : b);
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (lbResponse.hasServer()) {
+            stats(lbResponse.getServer()).start();
+            started.put(request, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Long start = started.remove(completionContext.getLoadBalancerRequest());
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (start == null || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+
+        long now = System.nanoTime();
+        long rtt = now - start;
+        switch (completionContext.status()) {
+            case FAILED:
+                stats(lbResponse.getServer()).complete(Math.max(rtt, failurePenaltyNanos), now);
+                break;
+            case DISCARD:
+                // cancelled by the caller, says nothing about the instance.
+                stats(lbResponse.getServer()).complete(-1, now);
+                break;
+            default:
+                stats(lbResponse.getServer()).complete(rtt, now);
+        }
+    }
+
+    public String getServiceId() {
+        return serviceId;
+    }
+
+    private Stats stats(ServiceInstance instance) {
+        return stats.computeIfAbsent(instance.getHost() + ":" + instance.getPort(), key -> new Stats());
+    }
+
+    private class Stats {
+        private double ewma;
+        private long stamp = System.nanoTime();
+        private int outstanding;
+
+        synchronized void start() {
+            outstanding++;
+        }
+
+        synchronized void complete(long rtt, long now) {
+            outstanding = Math.max(0, outstanding - 1);
+            if (rtt < 0) {
+                return;
+            }
+
+            if (rtt > ewma) {
+                ewma = rtt;
+            } else {
+                double weight = Math.exp(-(now - stamp) / decayNanos);
+                ewma = ewma * weight + rtt * (1 - weight);
+            }
+            stamp = now;
+        }
+
+        synchronized double cost(long now) {
+            if (ewma == 0) {
+                return outstanding == 0 ? 0 : UNKNOWN_PENALTY + outstanding;
+            }
+            double decayed = ewma * Math.exp(-Math.max(0, now - stamp) / decayNanos);
+            return decayed * (outstanding + 1);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.organicautonomy.reviewapi.util.loader;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Collects the ids a request asks for and resolves them together. {@link #load} only queues an
+ * id, {@link #dispatch} hands everything queued since the last dispatch to the source, the
+ * shared cache or the collapser behind it, which sends what it can't answer downstream as batch
+ * calls merged with other requests' ids. Every id is fetched at most once per loader and the
+ * result, null for an unknown id, is kept for the loader's lifetime, which is one request.
+ */
+public class BatchLoader<K, V> {
+    private final EntitySource<K, V> source;
+    private final Map<K, CompletableFuture<V>> cache = new HashMap<>();
+    private Map<K, CompletableFuture<V>> pending = new LinkedHashMap<>();
+
+    public BatchLoader(EntitySource<K, V> source) {
+        this.source = source;
+    }
+
+    public synchronized CompletableFuture<V> load(K key) {
+        CompletableFuture<V> future = cache.get(key);
+        if (future == null) {
+            future = new CompletableFuture<>();
+            cache.put(key, future);
+            pending.put(key, future);
+        }
+
+        return future;
+    }
+
+    public synchronized Map<K, CompletableFuture<V>> loadMany(Collection<K> keys) {
+        Map<K, CompletableFuture<V>> futures = new LinkedHashMap<>();
+        for (K key : keys) {
+            futures.put(key, load(key));
+        }
+
+        return futures;
+    }
+
+    public void dispatch() {
+        Map<K, CompletableFuture<V>> queued;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            queued = pending;
+            pending = new LinkedHashMap<>();
+        }
+
+        source.submit(queued);
+    }
+
+    /**
+     * Loads and dispatches the id and waits for it.
+     */
+    public V get(K key) {
+        CompletableFuture<V> future = load(key);
+        dispatch();
+        return join(future);
+    }
+
+    /**
+     * Loads and dispatches the ids and waits for all of them, unknown ids map to null.
+     */
+    public Map<K, V> getAll(Collection<K> keys) {
+        Map<K, CompletableFuture<V>> futures = loadMany(keys);
+        dispatch();
+
+        Map<K, V> values = new LinkedHashMap<>();
+        for (Map.Entry<K, CompletableFuture<V>> entry : futures.entrySet()) {
+            values.put(entry.getKey(), join(entry.getValue()));
+        }
+        return values;
+    }
+
+    private static <V> V join(CompletableFuture<V> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
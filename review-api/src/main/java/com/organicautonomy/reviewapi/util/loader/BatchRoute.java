@@ -0,0 +1,205 @@
+package com.organicautonomy.reviewapi.util.loader;
+
+import feign.FeignException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * How one kind of entity is fetched downstream: a batch route taking many ids, and the single-id
+ * route used while the batch route is unavailable. Both are asynchronous, a single lookup
+ * completes with null when the service does not know the id. A service deployed before its batch
+ * route existed answers 404, 405 or 400, and every caller shares this state, so once one call
+ * finds the route missing the others go straight to single calls until the retry interval has
+ * passed.
+ */
+public class BatchRoute<K, V> {
+    private static final Logger log = LoggerFactory.getLogger(BatchRoute.class);
+
+    private final String name;
+    private final Function<List<K>, CompletableFuture<List<V>>> batch;
+    private final Function<V, K> keyOf;
+    private final Function<K, CompletableFuture<V>> single;
+    private final int maxBatchSize;
+    private final int parallelism;
+    private final long retryNanos;
+    private volatile boolean unavailable;
+    private volatile long retryAt;
+
+    public BatchRoute(String name, Function<List<K>, CompletableFuture<List<V>>> batch, Function<V, K> keyOf,
+                      Function<K, CompletableFuture<V>> single, int maxBatchSize, int parallelism, long retryMs) {
+        if (maxBatchSize < 1 || parallelism < 1) {
+            throw new IllegalArgumentException("The batch size and parallelism must be at least 1.");
+        }
+
+        this.name = name;
+        this.batch = batch;
+        this.keyOf = keyOf;
+        this.single = single;
+        this.maxBatchSize = maxBatchSize;
+        this.parallelism = parallelism;
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMs);
+    }
+
+    /**
+     * A route over blocking calls, such as the Feign clients', each run on the executor. A single
+     * lookup answering 404 counts as an unknown id.
+     */
+    public static <K, V> BatchRoute<K, V> blocking(String name, Function<List<K>, List<V>> batch, Function<V, K> keyOf,
+                                                   Function<K, V> single, int maxBatchSize, int parallelism, long retryMs,
+                                                   Executor executor) {
+        return new BatchRoute<>(name, keys -> CompletableFuture.supplyAsync(() -> batch.apply(keys), executor), keyOf,
+                key -> CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return single.apply(key);
+                    } catch (FeignException.NotFound e) {
+                        return null;
+                    }
+                }, executor), maxBatchSize, parallelism, retryMs);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public boolean isBatchAvailable() {
+        return !unavailable || System.nanoTime() - retryAt >= 0;
+    }
+
+    /**
+     * Completes every future with its entity, or null when the service does not know the id, as
+     * batch calls of at most maxBatchSize ids or, while the batch route is unavailable, as single
+     * calls with at most parallelism of them in flight.
+     */
+    public void fetch(Map<K, CompletableFuture<V>> calls) {
+        if (!isBatchAvailable()) {
+            fetchEach(calls);
+            return;
+        }
+
+        for (Map<K, CompletableFuture<V>> chunk : chunks(calls, maxBatchSize)) {
+            fetchBatch(chunk);
+        }
+    }
+
+    private void fetchBatch(Map<K, CompletableFuture<V>> chunk) {
+        call(batch, new ArrayList<>(chunk.keySet())).whenComplete((values, e) -> {
+            if (e != null) {
+                Throwable cause = unwrap(e);
+                if (isMissingRoute(cause)) {
+                    fetchEach(chunk);
+                } else {
+                    fail(chunk.values(), cause);
+                }
+                return;
+            }
+
+            unavailable = false;
+            Map<K, V> found = new HashMap<>();
+            for (V value : values) {
+                found.put(keyOf.apply(value), value);
+            }
+            chunk.forEach((key, future) -> future.complete(found.get(key)));
+        });
+    }
+
+    private boolean isMissingRoute(Throwable e) {
+        int status;
+        if (e instanceof FeignException) {
+            status = ((FeignException) e).status();
+        } else if (e instanceof WebClientResponseException) {
+            status = ((WebClientResponseException) e).getRawStatusCode();
+        } else {
+            return false;
+        }
+        if (status != 400 && status != 404 && status != 405) {
+            return false;
+        }
+
+        if (!unavailable) {
+            log.warn("Batch route {} is unavailable ({}), falling back to single calls.", name, status);
+        }
+        retryAt = System.nanoTime() + retryNanos;
+        unavailable = true;
+        return true;
+    }
+
+    private void fetchEach(Map<K, CompletableFuture<V>> calls) {
+        Queue<Map.Entry<K, CompletableFuture<V>>> queue = new ConcurrentLinkedQueue<>(calls.entrySet());
+        int workers = Math.min(parallelism, calls.size());
+        for (int i = 0; i < workers; i++) {
+            fetchNext(queue);
+        }
+    }
+
+    // each worker starts the next single call when its previous one completes.
+    private void fetchNext(Queue<Map.Entry<K, CompletableFuture<V>>> queue) {
+        Map.Entry<K, CompletableFuture<V>> entry = queue.poll();
+        if (entry == null) {
+            return;
+        }
+
+        call(single, entry.getKey()).whenComplete((value, e) -> {
+            if (e != null) {
+                entry.getValue().completeExceptionally(unwrap(e));
+            } else {
+                entry.getValue().complete(value);
+            }
+            fetchNext(queue);
+        });
+    }
+
+    private static <T, R> CompletableFuture<R> call(Function<T, CompletableFuture<R>> function, T argument) {
+        try {
+            return function.apply(argument);
+        } catch (RuntimeException e) {
+            // a rejected executor or a client failing before it sends anything.
+            CompletableFuture<R> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+
+    private static <K, V> List<Map<K, CompletableFuture<V>>> chunks(Map<K, CompletableFuture<V>> calls, int size) {
+        if (calls.size() <= size) {
+            return Collections.singletonList(calls);
+        }
+
+        List<Map<K, CompletableFuture<V>>> chunks = new ArrayList<>();
+        Map<K, CompletableFuture<V>> chunk = new LinkedHashMap<>();
+        for (Map.Entry<K, CompletableFuture<V>> entry : calls.entrySet()) {
+            chunk.put(entry.getKey(), entry.getValue());
+            if (chunk.size() == size) {
+                chunks.add(chunk);
+                chunk = new LinkedHashMap<>();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            chunks.add(chunk);
+        }
+
+        return chunks;
+    }
+
+    private static <V> void fail(Collection<CompletableFuture<V>> futures, Throwable e) {
+        for (CompletableFuture<V> future : futures) {
+            future.completeExceptionally(e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.organicautonomy.reviewapi.util.loader;
+
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Shared cache in front of a collapser. An entry is fresh for ttlMs; after that it is still
+ * served at once while a refresh runs in the background (stale-while-revalidate), and if
+ * refreshes keep failing it is served for up to staleIfErrorMs more before it expires
+ * (stale-if-error). Misses are loaded in bulk through the collapser, unknown ids are not cached.
+ * Size is bounded by maxSize, evicting by frequency as well as recency (Caffeine's W-TinyLFU),
+ * so a burst of one-off ids doesn't push out the hot ones. A ttl of 0 turns the cache off.
+ * <p>
+ * Cache metrics are published as cache.* tagged with the cache name.
+ */
+public class EntityCache<K, V> implements EntitySource<K, V> {
+    private final RequestCollapser<K, V> collapser;
+    private final AsyncLoadingCache<K, V> cache;
+
+    public EntityCache(String name, RequestCollapser<K, V> collapser, long ttlMs, long staleIfErrorMs, long maxSize,
+                       Executor executor, MeterRegistry registry) {
+        this(name, collapser, ttlMs, staleIfErrorMs, maxSize, executor, registry, Ticker.systemTicker());
+    }
+
+    EntityCache(String name, RequestCollapser<K, V> collapser, long ttlMs, long staleIfErrorMs, long maxSize,
+                Executor executor, MeterRegistry registry, Ticker ticker) {
+        this.collapser = collapser;
+        if (ttlMs <= 0) {
+            this.cache = null;
+            return;
+        }
+
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .refreshAfterWrite(ttlMs, TimeUnit.MILLISECONDS)
+                .expireAfterWrite(ttlMs + staleIfErrorMs, TimeUnit.MILLISECONDS)
+                .executor(executor)
+                .ticker(ticker)
+                .recordStats()
+                .buildAsync(new CollapsingLoader());
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    @Override
+    public void submit(Map<K, CompletableFuture<V>> calls) {
+        if (cache == null) {
+            collapser.submit(calls);
+            return;
+        }
+
+        // hits are read one by one, the bulk read does not start refreshes.
+        Map<K, CompletableFuture<V>> misses = new LinkedHashMap<>();
+        calls.forEach((key, future) -> {
+            CompletableFuture<V> cached = cache.getIfPresent(key);
+            if (cached != null) {
+                complete(future, cached);
+            } else {
+                misses.put(key, future);
+            }
+        });
+        if (misses.isEmpty()) {
+            return;
+        }
+
+        cache.getAll(misses.keySet()).whenComplete((found, e) -> misses.forEach((key, future) -> {
+            if (e != null) {
+                future.completeExceptionally(e);
+            } else {
+                future.complete(found.get(key));
+            }
+        }));
+    }
+
+    private static <V> void complete(CompletableFuture<V> future, CompletableFuture<V> cached) {
+        cached.whenComplete((value, e) -> {
+            if (e != null) {
+                future.completeExceptionally(e);
+            } else {
+                future.complete(value);
+            }
+        });
+    }
+
+    /**
+     * Drops the id, the next lookup goes downstream.
+     */
+    public void invalidate(K key) {
+        if (cache != null) {
+            cache.synchronous().invalidate(key);
+        }
+    }
+
+    private class CollapsingLoader implements AsyncCacheLoader<K, V> {
+        @Override
+        public CompletableFuture<V> asyncLoad(K key, Executor executor) {
+            return collapser.load(key);
+        }
+
+        @Override
+        public CompletableFuture<Map<K, V>> asyncLoadAll(Iterable<? extends K> keys, Executor executor) {
+            Map<K, CompletableFuture<V>> calls = new LinkedHashMap<>();
+            for (K key : keys) {
+                calls.put(key, new CompletableFuture<>());
+            }
+            collapser.submit(calls);
+
+            return CompletableFuture.allOf(calls.values().toArray(new CompletableFuture[0])).thenApply(done -> {
+                Map<K, V> found = new HashMap<>();
+                calls.forEach((key, future) -> {
+                    V value = future.join();
+                    if (value != null) {
+                        found.put(key, value);
+                    }
+                });
+                return found;
+            });
+        }
+
+        // a failed refresh keeps the old value until it expires, a refresh that finds nothing removes it.
+        @Override
+        public CompletableFuture<V> asyncReload(K key, V oldValue, Executor executor) {
+            return collapser.load(key);
+        }
+    }
+}
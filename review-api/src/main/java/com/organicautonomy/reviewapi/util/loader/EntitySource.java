@@ -0,0 +1,14 @@
+package com.organicautonomy.reviewapi.util.loader;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Where a {@link BatchLoader} sends the ids it has collected.
+ */
+public interface EntitySource<K, V> {
+    /**
+     * Completes every future with its entity, or null when the service does not know the id.
+     */
+    void submit(Map<K, CompletableFuture<V>> calls);
+}
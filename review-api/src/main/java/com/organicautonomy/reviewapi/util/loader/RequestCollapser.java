@@ -0,0 +1,152 @@
+package com.organicautonomy.reviewapi.util.loader;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+
+/**
+ * Merges the lookups of concurrent requests into shared downstream calls. The first id submitted
+ * opens a window, and everything submitted until it closes windowMs later, or until it holds
+ * maxBatchSize distinct ids, goes out through the route together. Callers asking for an id
+ * already in the window share its result. A window of 0 sends every submit on its own.
+ * <p>
+ * Recorded per route: api.collapser.batch.size, distinct ids per downstream dispatch,
+ * api.collapser.queue.delay, how long each id waited for its window to close, and
+ * api.collapser.collapsed, ids answered by another caller's call.
+ */
+public class RequestCollapser<K, V> implements EntitySource<K, V> {
+    private final BatchRoute<K, V> route;
+    private final ScheduledExecutorService timer;
+    private final long windowNanos;
+    private final DistributionSummary batchSizes;
+    private final Timer queueDelay;
+    private final Counter collapsed;
+    private Window<K, V> open;
+
+    public RequestCollapser(BatchRoute<K, V> route, ScheduledExecutorService timer, long windowMs, MeterRegistry registry) {
+        this.route = route;
+        this.timer = timer;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(windowMs);
+        this.batchSizes = DistributionSummary.builder("api.collapser.batch.size")
+                .tag("route", route.getName())
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.queueDelay = Timer.builder("api.collapser.queue.delay")
+                .tag("route", route.getName())
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.collapsed = Counter.builder("api.collapser.collapsed")
+                .tag("route", route.getName())
+                .register(registry);
+    }
+
+    public CompletableFuture<V> load(K key) {
+        Map<K, CompletableFuture<V>> call = new LinkedHashMap<>();
+        call.put(key, new CompletableFuture<>());
+        submit(call);
+
+        return call.get(key);
+    }
+
+    /**
+     * Adds the calls to the open window, each future is completed once its id has been fetched.
+     */
+    @Override
+    public void submit(Map<K, CompletableFuture<V>> calls) {
+        long now = System.nanoTime();
+        List<Window<K, V>> ready = new ArrayList<>();
+
+        synchronized (this) {
+            for (Map.Entry<K, CompletableFuture<V>> call : calls.entrySet()) {
+                if (open == null) {
+                    open = new Window<>();
+                    if (windowNanos > 0) {
+                        Window<K, V> window = open;
+                        window.timeout = timer.schedule(() -> close(window), windowNanos, TimeUnit.NANOSECONDS);
+                    }
+                }
+                if (!open.add(call.getKey(), call.getValue(), now)) {
+                    collapsed.increment();
+                }
+                if (open.calls.size() >= route.getMaxBatchSize()) {
+                    ready.add(detach());
+                }
+            }
+            if (windowNanos == 0 && open != null) {
+                ready.add(detach());
+            }
+        }
+
+        for (Window<K, V> window : ready) {
+            flush(window);
+        }
+    }
+
+    private Window<K, V> detach() {
+        Window<K, V> window = open;
+        open = null;
+        if (window.timeout != null) {
+            window.timeout.cancel(false);
+        }
+
+        return window;
+    }
+
+    private void close(Window<K, V> window) {
+        synchronized (this) {
+            // already sent because it filled up.
+            if (open != window) {
+                return;
+            }
+            open = null;
+        }
+
+        flush(window);
+    }
+
+    private void flush(Window<K, V> window) {
+        long now = System.nanoTime();
+        batchSizes.record(window.calls.size());
+        for (long arrival : window.arrivals) {
+            queueDelay.record(now - arrival, TimeUnit.NANOSECONDS);
+        }
+
+        route.fetch(window.calls);
+    }
+
+    private static class Window<K, V> {
+        private final Map<K, CompletableFuture<V>> calls = new LinkedHashMap<>();
+        private final List<Long> arrivals = new ArrayList<>();
+        private ScheduledFuture<?> timeout;
+
+        /**
+         * @return false when the id was already in the window and the caller shares that call
+         */
+        boolean add(K key, CompletableFuture<V> future, long now) {
+            arrivals.add(now);
+            // callers only ever see their own future, so one of them cancelling it can't fail the others.
+            CompletableFuture<V> shared = calls.get(key);
+            boolean first = shared == null;
+            if (first) {
+                shared = new CompletableFuture<>();
+                calls.put(key, shared);
+            }
+
+            shared.whenComplete((value, e) -> {
+                if (e != null) {
+                    future.completeExceptionally(e);
+                } else {
+                    future.complete(value);
+                }
+            });
+            return first;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.organicautonomy.reviewapi.util.loader;
+
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+/**
+ * The user and book loaders of the current request. Injected as a request-scoped proxy, so take
+ * the loader on the request thread before handing it to work on other threads.
+ */
+@Component
+@RequestScope
+public class RequestLoaders {
+    private final BatchLoader<Integer, User> users;
+    private final BatchLoader<Integer, Book> books;
+
+    @Autowired
+    public RequestLoaders(@Qualifier("userCache") EntitySource<Integer, User> userSource,
+                          @Qualifier("bookCache") EntitySource<Integer, Book> bookSource) {
+        this.users = new BatchLoader<>(userSource);
+        this.books = new BatchLoader<>(bookSource);
+    }
+
+    public BatchLoader<Integer, User> users() {
+        return users;
+    }
+
+    public BatchLoader<Integer, Book> books() {
+        return books;
+    }
+}
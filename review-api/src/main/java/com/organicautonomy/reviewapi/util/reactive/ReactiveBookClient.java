@@ -0,0 +1,68 @@
+package com.organicautonomy.reviewapi.util.reactive;
+
+import com.organicautonomy.reviewapi.dto.Book;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of BookClient. Lookups that book-service answers with 404 complete
+ * empty, other errors are signalled as WebClientResponseException.
+ */
+@Component
+public class ReactiveBookClient {
+    private final WebClient client;
+
+    @Autowired
+    public ReactiveBookClient(@LoadBalanced WebClient.Builder builder) {
+        this.client = builder.clone().baseUrl("http://book-service/books").build();
+    }
+
+    public Mono<Book> createBook(Book book) {
+        return client.post().bodyValue(book).retrieve().bodyToMono(Book.class);
+    }
+
+    public Flux<Book> getAllBooks() {
+        return client.get().retrieve().bodyToFlux(Book.class);
+    }
+
+    public Flux<Book> getBooksByIds(List<Integer> ids) {
+        return client.get().uri(uri -> uri.path("/batch").queryParam("ids", ids.toArray()).build())
+                .retrieve().bodyToFlux(Book.class);
+    }
+
+    public Mono<Book> getBookById(Integer bookId) {
+        return client.get().uri("/{bookId}", bookId).retrieve().bodyToMono(Book.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    public Mono<Void> updateBook(Integer bookId, Book book) {
+        return client.put().uri("/{bookId}", bookId).bodyValue(book).retrieve().bodyToMono(Void.class);
+    }
+
+    public Mono<Void> deleteBook(Integer bookId) {
+        return client.delete().uri("/{bookId}", bookId).retrieve().bodyToMono(Void.class);
+    }
+
+    public Mono<Book> getBookByTitle(String title) {
+        return client.get().uri("/title/{title}", title).retrieve().bodyToMono(Book.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    public Flux<Book> getBooksByReleaseDate(LocalDate releaseDate) {
+        return client.get().uri("/date/{releaseDate}", releaseDate).retrieve().bodyToFlux(Book.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Flux.empty());
+    }
+
+    public Flux<Book> getBooksByAuthor(String author) {
+        return client.get().uri("/authors/{author}", author).retrieve().bodyToFlux(Book.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Flux.empty());
+    }
+}
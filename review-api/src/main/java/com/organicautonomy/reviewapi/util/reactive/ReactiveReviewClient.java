@@ -0,0 +1,60 @@
+package com.organicautonomy.reviewapi.util.reactive;
+
+import com.organicautonomy.reviewapi.dto.Review;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of ReviewClient. Lookups that review-service answers with 404 complete
+ * empty, other errors are signalled as WebClientResponseException.
+ */
+@Component
+public class ReactiveReviewClient {
+    private final WebClient client;
+
+    @Autowired
+    public ReactiveReviewClient(@LoadBalanced WebClient.Builder builder) {
+        this.client = builder.clone().baseUrl("http://review-service/reviews").build();
+    }
+
+    public Mono<Review> createReview(Review review) {
+        return client.post().bodyValue(review).retrieve().bodyToMono(Review.class);
+    }
+
+    public Flux<Review> getAllReviews() {
+        return client.get().retrieve().bodyToFlux(Review.class);
+    }
+
+    public Mono<Review> getReviewById(Integer reviewId) {
+        return client.get().uri("/{reviewId}", reviewId).retrieve().bodyToMono(Review.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    public Mono<Void> updateReview(Integer reviewId, Review review) {
+        return client.put().uri("/{reviewId}", reviewId).bodyValue(review).retrieve().bodyToMono(Void.class);
+    }
+
+    public Mono<Void> deleteReview(Integer reviewId) {
+        return client.delete().uri("/{reviewId}", reviewId).retrieve().bodyToMono(Void.class);
+    }
+
+    public Flux<Review> getReviewsByBookId(Integer bookId) {
+        return client.get().uri("/books/{bookId}", bookId).retrieve().bodyToFlux(Review.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Flux.empty());
+    }
+
+    public Flux<Review> getReviewsByUserId(Integer userId) {
+        return client.get().uri("/users/{userId}", userId).retrieve().bodyToFlux(Review.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Flux.empty());
+    }
+
+    public Flux<Review> getReviewsByRating(Integer rating) {
+        return client.get().uri("/ratings/{rating}", rating).retrieve().bodyToFlux(Review.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Flux.empty());
+    }
+}
@@ -0,0 +1,62 @@
+package com.organicautonomy.reviewapi.util.reactive;
+
+import com.organicautonomy.reviewapi.dto.User;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Non-blocking counterpart of UserClient. Lookups that user-service answers with 404 complete
+ * empty, other errors are signalled as WebClientResponseException.
+ */
+@Component
+public class ReactiveUserClient {
+    private final WebClient client;
+
+    @Autowired
+    public ReactiveUserClient(@LoadBalanced WebClient.Builder builder) {
+        this.client = builder.clone().baseUrl("http://user-service/users").build();
+    }
+
+    public Mono<User> createUser(User user) {
+        return client.post().bodyValue(user).retrieve().bodyToMono(User.class);
+    }
+
+    public Flux<User> getAllUsers() {
+        return client.get().retrieve().bodyToFlux(User.class);
+    }
+
+    public Flux<User> getUsersByIds(List<Integer> ids) {
+        return client.get().uri(uri -> uri.path("/batch").queryParam("ids", ids.toArray()).build())
+                .retrieve().bodyToFlux(User.class);
+    }
+
+    public Mono<User> getUserById(Integer userId) {
+        return client.get().uri("/{userId}", userId).retrieve().bodyToMono(User.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    public Mono<Void> updateUser(Integer userId, User user) {
+        return client.put().uri("/{userId}", userId).bodyValue(user).retrieve().bodyToMono(Void.class);
+    }
+
+    public Mono<Void> deleteUser(Integer userId) {
+        return client.delete().uri("/{userId}", userId).retrieve().bodyToMono(Void.class);
+    }
+
+    public Mono<User> getUserByUsername(String username) {
+        return client.get().uri("/username/{username}", username).retrieve().bodyToMono(User.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    public Mono<User> getUserByEmail(String email) {
+        return client.get().uri("/email/{email}", email).retrieve().bodyToMono(User.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+}
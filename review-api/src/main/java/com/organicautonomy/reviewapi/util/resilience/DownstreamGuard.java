@@ -0,0 +1,182 @@
+package com.organicautonomy.reviewapi.util.resilience;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Isolates each downstream service from the others. A semaphore bulkhead caps the calls in flight
+ * to a service at maxConcurrentCalls, so a slow service holds at most that many connections and
+ * callers while the others are unaffected. A circuit breaker opens once failureRatePercent of the
+ * service's recent calls failed (an error or a 5xx answer) or took longer than slowCallMs, and
+ * rejects its calls for openMs before letting a few trial calls decide whether to close again.
+ * Rejected calls fail at once with BulkheadFullException or CallNotPermittedException, see
+ * isRejected.
+ * <p>
+ * Services are told apart by the host of the request URL, which is the service name until the
+ * load balancer resolves it, so the guard must come before the load balancer. The Feign and the
+ * reactive clients share it, both see the same breaker for a service. A reactive call holds its
+ * permit until the response body completed, errored or was cancelled, so the caller must consume
+ * or release the body as WebClient's retrieve does.
+ * <p>
+ * Rejections are counted as api.downstream.rejections tagged with service and reason (bulkhead or
+ * circuit-open); breaker state and call outcomes are published as resilience4j.circuitbreaker.*,
+ * free bulkhead permits as resilience4j.bulkhead.*, all tagged with the service as name.
+ */
+public class DownstreamGuard implements ExchangeFilterFunction {
+    private final CircuitBreakerRegistry breakers;
+    private final BulkheadRegistry bulkheads;
+    private final MeterRegistry registry;
+
+    public DownstreamGuard(int maxConcurrentCalls, float failureRatePercent, long slowCallMs, int slidingWindowSize,
+                           int minimumCalls, long openMs, int halfOpenCalls, MeterRegistry registry) {
+        CircuitBreakerConfig breakerConfig = CircuitBreakerConfig.custom()
+                .failureRateThreshold(failureRatePercent)
+                .slowCallRateThreshold(failureRatePercent)
+                .slowCallDurationThreshold(Duration.ofMillis(slowCallMs))
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumCalls)
+                .waitDurationInOpenState(Duration.ofMillis(openMs))
+                .permittedNumberOfCallsInHalfOpenState(halfOpenCalls)
+                .writableStackTraceEnabled(false)
+                .build();
+        BulkheadConfig bulkheadConfig = BulkheadConfig.custom()
+                .maxConcurrentCalls(maxConcurrentCalls)
+                .maxWaitDuration(Duration.ZERO)
+                .writableStackTraceEnabled(false)
+                .build();
+
+        this.breakers = CircuitBreakerRegistry.of(breakerConfig);
+        this.bulkheads = BulkheadRegistry.of(bulkheadConfig);
+        this.registry = registry;
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(breakers).bindTo(registry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheads).bindTo(registry);
+    }
+
+    public static boolean isRejected(Throwable e) {
+        return e instanceof CallNotPermittedException || e instanceof BulkheadFullException;
+    }
+
+    public CircuitBreaker.State getState(String service) {
+        return breakers.circuitBreaker(service).getState();
+    }
+
+    /**
+     * Admits one call to the service or throws the rejection. The caller must end the permit
+     * exactly once, later calls to it are ignored.
+     */
+    public Permit acquire(String service) {
+        Bulkhead bulkhead = bulkheads.bulkhead(service);
+        if (!bulkhead.tryAcquirePermission()) {
+            reject(service, "bulkhead");
+            throw BulkheadFullException.createBulkheadFullException(bulkhead);
+        }
+
+        CircuitBreaker breaker = breakers.circuitBreaker(service);
+        if (!breaker.tryAcquirePermission()) {
+            bulkhead.onComplete();
+            reject(service, "circuit-open");
+            throw CallNotPermittedException.createCallNotPermittedException(breaker);
+        }
+
+        return new Permit(breaker, bulkhead);
+    }
+
+    private void reject(String service, String reason) {
+        Counter.builder("api.downstream.rejections")
+                .tag("service", service)
+                .tag("reason", reason)
+                .register(registry)
+                .increment();
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            Permit permit = acquire(request.url().getHost());
+            return next.exchange(request)
+                    .map(response -> response.mutate()
+                            .body(body -> body
+                                    .doOnComplete(() -> permit.completed(response.rawStatusCode()))
+                                    .doOnError(permit::failed)
+                                    .doOnCancel(permit::abandoned))
+                            .build())
+                    .doOnSuccess(response -> {
+                        if (response == null) {
+                            permit.completed(200);
+                        }
+                    })
+                    .doOnError(permit::failed)
+                    .doOnCancel(permit::abandoned);
+        });
+    }
+
+    public static class Permit {
+        private final CircuitBreaker breaker;
+        private final Bulkhead bulkhead;
+        private final long start = System.nanoTime();
+        private final AtomicBoolean ended = new AtomicBoolean();
+
+        private Permit(CircuitBreaker breaker, Bulkhead bulkhead) {
+            this.breaker = breaker;
+            this.bulkhead = bulkhead;
+        }
+
+        /**
+         * The service answered; a 5xx counts as a failure, anything else as a success.
+         */
+        public void completed(int status) {
+            if (status >= 500) {
+                failed(new ServerErrorException(status));
+            } else if (end()) {
+                breaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        public void failed(Throwable e) {
+            if (end()) {
+                breaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            }
+        }
+
+        // a call the caller gave up on counts with the time it had taken, a deadline cutting off
+        // calls to a slow service still opens its breaker.
+        public void abandoned() {
+            if (end()) {
+                breaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+
+        private boolean end() {
+            if (!ended.compareAndSet(false, true)) {
+                return false;
+            }
+            bulkhead.onComplete();
+            return true;
+        }
+    }
+
+    private static class ServerErrorException extends RuntimeException {
+        ServerErrorException(int status) {
+            super("The service answered " + status + ".", null, false, false);
+        }
+    }
+}
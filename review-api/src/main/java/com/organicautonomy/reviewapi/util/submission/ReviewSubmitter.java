@@ -0,0 +1,138 @@
+package com.organicautonomy.reviewapi.util.submission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.organicautonomy.reviewapi.config.FanOutConfig;
+import com.organicautonomy.reviewapi.config.MessageConfig;
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.Review;
+import com.organicautonomy.reviewapi.dto.ReviewSubmission;
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.exception.DownstreamTimeoutException;
+import com.organicautonomy.reviewapi.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewapi.util.loader.BatchLoader;
+import com.organicautonomy.reviewapi.util.loader.RequestLoaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts reviews for review-service without waiting for it. The user and the book are checked
+ * through the request's loaders, so mostly from the shared caches, then the review is published
+ * to REVIEW_EXCHANGE with a new tracking id as its message id and the caller gets the id back at
+ * once. The broker's confirm arrives later and moves the submission from PENDING to QUEUED, or
+ * to FAILED when the broker nacks it or has no queue to route it to. Statuses are kept for
+ * retentionMs, a status past that is unknown.
+ */
+@Component
+public class ReviewSubmitter {
+    private static final Logger log = LoggerFactory.getLogger(ReviewSubmitter.class);
+
+    private final long deadlineNanos;
+    private final Cache<String, ReviewSubmission> submissions;
+    private final Scheduler publisher;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+    @Autowired
+    private RequestLoaders loaders;
+
+    @Autowired
+    public ReviewSubmitter(@Qualifier(FanOutConfig.EXECUTOR) ExecutorService executor,
+                           @Value("${api.review-submission.deadline-ms:2000}") long deadlineMs,
+                           @Value("${api.review-submission.retention-ms:3600000}") long retentionMs,
+                           @Value("${api.review-submission.max-tracked:100000}") long maxTracked) {
+        this.deadlineNanos = TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+        this.submissions = Caffeine.newBuilder()
+                .expireAfterWrite(retentionMs, TimeUnit.MILLISECONDS)
+                .maximumSize(maxTracked)
+                .build();
+        // publishing blocks until the frame is written, so it stays off the event loop.
+        this.publisher = Schedulers.fromExecutorService(executor);
+    }
+
+    /**
+     * Must be called on the request thread, the loaders are request scoped.
+     */
+    public Mono<ReviewSubmission> submit(Review review) {
+        // review-service assigns ids, one sent along would point the write at an existing review.
+        if (review.getId() != null) {
+            return Mono.error(new IllegalArgumentException("A new review cannot have an id."));
+        }
+
+        BatchLoader<Integer, User> users = loaders.users();
+        BatchLoader<Integer, Book> books = loaders.books();
+
+        Mono<User> user = Mono.defer(() -> {
+            CompletableFuture<User> lookup = users.load(review.getUserId());
+            users.dispatch();
+            return Mono.fromFuture(lookup);
+        }).switchIfEmpty(Mono.error(() -> new IllegalArgumentException("There is no user associated with the id provided.")));
+        Mono<Book> book = Mono.defer(() -> {
+            CompletableFuture<Book> lookup = books.load(review.getBookId());
+            books.dispatch();
+            return Mono.fromFuture(lookup);
+        }).switchIfEmpty(Mono.error(() -> new IllegalArgumentException("There is no book associated with the id provided.")));
+
+        return Mono.zip(user, book)
+                .timeout(Duration.ofNanos(deadlineNanos),
+                        Mono.error(() -> new DownstreamTimeoutException("The downstream services did not answer in time.")))
+                .publishOn(publisher)
+                .map(found -> publish(review));
+    }
+
+    public ReviewSubmission getSubmission(String trackingId) {
+        ReviewSubmission submission = submissions.getIfPresent(trackingId);
+        if (submission == null) {
+            throw new ResourceNotFoundException("There is no review submission associated with the tracking id provided.");
+        }
+
+        return submission;
+    }
+
+    private ReviewSubmission publish(Review review) {
+        String trackingId = UUID.randomUUID().toString();
+        ReviewSubmission pending = new ReviewSubmission(trackingId, ReviewSubmission.Status.PENDING);
+        submissions.put(trackingId, pending);
+
+        CorrelationData correlation = new CorrelationData(trackingId);
+        correlation.getFuture().addCallback(confirm -> {
+            boolean queued = confirm != null && confirm.isAck() && correlation.getReturned() == null;
+            if (!queued) {
+                String reason = correlation.getReturned() != null ? correlation.getReturned().getReplyText()
+                        : confirm != null ? confirm.getReason() : null;
+                log.warn("Review submission {} was not queued: {}.", trackingId, reason);
+            }
+            submissions.put(trackingId, new ReviewSubmission(trackingId,
+                    queued ? ReviewSubmission.Status.QUEUED : ReviewSubmission.Status.FAILED));
+        }, e -> submissions.put(trackingId, new ReviewSubmission(trackingId, ReviewSubmission.Status.FAILED)));
+
+        try {
+            rabbitTemplate.convertAndSend(MessageConfig.EXCHANGE, MessageConfig.ROUTING_KEY, review, message -> {
+                message.getMessageProperties().setMessageId(trackingId);
+                return message;
+            }, correlation);
+        } catch (AmqpException e) {
+            // the caller never sees this tracking id.
+            submissions.invalidate(trackingId);
+            throw e;
+        }
+
+        return pending;
+    }
+}
@@ -1,13 +1,45 @@
 package com.organicautonomy.reviewapi;
 
+import com.organicautonomy.reviewapi.util.loadbalancer.PeakEwmaLoadBalancer;
+import com.organicautonomy.reviewapi.util.loader.RequestLoaders;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @SpringBootTest
 class ReviewApiApplicationTests {
+	@Autowired
+	private LoadBalancerClientFactory loadBalancerClientFactory;
+	@Autowired
+	private RequestLoaders loaders;
 
 	@Test
 	void contextLoads() {
 	}
 
+	// the loaders are built per request, only a request scope shows whether their sources resolve.
+	@Test
+	void requestLoadersResolveInARequestScope() {
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+		try {
+			assertNotNull(loaders.users());
+			assertNotNull(loaders.books());
+		} finally {
+			RequestContextHolder.resetRequestAttributes();
+		}
+	}
+
+	@Test
+	void servicesUsePeakEwmaLoadBalancer() {
+		assertTrue(loadBalancerClientFactory.getInstance("book-service") instanceof PeakEwmaLoadBalancer);
+		assertTrue(loadBalancerClientFactory.getInstance("user-service") instanceof PeakEwmaLoadBalancer);
+	}
+
 }
@@ -0,0 +1,253 @@
+package com.organicautonomy.reviewapi.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.BookDetail;
+import com.organicautonomy.reviewapi.dto.Review;
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.util.detail.BookDetailLoader;
+import com.organicautonomy.reviewapi.util.loader.BatchRoute;
+import com.organicautonomy.reviewapi.util.loader.RequestCollapser;
+import com.organicautonomy.reviewapi.util.loader.RequestLoaders;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveBookClient;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveReviewClient;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveUserClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.resources.LoopResources;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Load test for the book detail pipeline, run by hand rather than by the build:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.organicautonomy.reviewapi.benchmark.BookDetailLoadBenchmark \
+ *     -Dexec.args="threads concurrency seconds latency-ms"
+ * </pre>
+ * A stub of book-service, review-service and user-service answers every call after latency-ms.
+ * The same loader, collapsers and batch routes are driven with concurrency requests in flight,
+ * once over blocking RestTemplate calls on a pool of threads and once over WebClient on an event
+ * loop of the same number of threads, and the completed requests per second are printed.
+ */
+public class BookDetailLoadBenchmark {
+    private static final ObjectMapper MAPPER = Jackson2ObjectMapperBuilder.json().build();
+    private static final int BOOKS = 1000;
+    private static final int REVIEWS_PER_BOOK = 5;
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int concurrency = args.length > 1 ? Integer.parseInt(args[1]) : 256;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 10;
+        long latencyMs = args.length > 3 ? Long.parseLong(args[3]) : 50;
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        LoopResources serverLoop = LoopResources.create("stub", 2, true);
+        DisposableServer server = stub(serverLoop, Duration.ofMillis(latencyMs));
+        String base = "http://127.0.0.1:" + server.port();
+        System.out.printf("%d threads, %d requests in flight, %d ms downstream latency, %d s per run%n",
+                threads, concurrency, latencyMs, seconds);
+
+        try {
+            run("blocking RestTemplate", () -> blocking(base, threads), concurrency, seconds);
+            run("WebClient event loop", () -> reactive(base, threads), concurrency, seconds);
+        } finally {
+            server.disposeNow();
+            serverLoop.dispose();
+        }
+    }
+
+    private static void run(String name, Supplier<Transport> transports, int concurrency, int seconds) {
+        try (Transport transport = transports.get()) {
+            // warm up connections and JIT before measuring.
+            drive(transport, concurrency, Duration.ofSeconds(2));
+            Result result = drive(transport, concurrency, Duration.ofSeconds(seconds));
+            System.out.printf("%-22s %8.1f requests/s, mean latency %7.1f ms, %d failed%n", name,
+                    result.completed.get() / (double) seconds,
+                    result.completed.get() == 0 ? 0 : result.latencyNanos.get() / 1e6 / result.completed.get(), result.failed.get());
+        }
+    }
+
+    // closed loop: each of the concurrency slots starts a new request as soon as its last one completes.
+    private static Result drive(Transport transport, int concurrency, Duration duration) {
+        long end = System.nanoTime() + duration.toNanos();
+        Result result = new Result();
+        Flux.range(0, concurrency)
+                .flatMap(slot -> Mono.defer(() -> {
+                    long start = System.nanoTime();
+                    return transport.load(1 + ThreadLocalRandom.current().nextInt(BOOKS))
+                            .doOnNext(detail -> {
+                                result.latencyNanos.addAndGet(System.nanoTime() - start);
+                                result.completed.incrementAndGet();
+                            })
+                            .onErrorResume(e -> {
+                                result.failed.incrementAndGet();
+                                return Mono.empty();
+                            });
+                }).repeat(() -> System.nanoTime() < end), concurrency)
+                .blockLast(duration.plusSeconds(60));
+        return result;
+    }
+
+    private static Transport blocking(String base, int threads) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        RestTemplate rest = new RestTemplate();
+        ReactiveReviewClient reviews = new ReactiveReviewClient(WebClient.builder()) {
+            @Override
+            public Flux<Review> getReviewsByBookId(Integer bookId) {
+                return Mono.fromFuture(CompletableFuture.supplyAsync(() -> Arrays.asList(
+                        rest.getForObject(base + "/reviews/books/{bookId}", Review[].class, bookId)), pool))
+                        .flatMapMany(Flux::fromIterable);
+            }
+        };
+        BatchRoute<Integer, User> users = BatchRoute.blocking("users",
+                ids -> Arrays.asList(rest.getForObject(batchUri(base + "/users/batch", ids), User[].class)), User::getId,
+                id -> rest.getForObject(base + "/users/{id}", User.class, id), 100, 4, 60000, pool);
+        BatchRoute<Integer, Book> books = BatchRoute.blocking("books",
+                ids -> Arrays.asList(rest.getForObject(batchUri(base + "/books/batch", ids), Book[].class)), Book::getId,
+                id -> rest.getForObject(base + "/books/{id}", Book.class, id), 100, 4, 60000, pool);
+
+        return new Transport(reviews, users, books, pool::shutdownNow);
+    }
+
+    private static Transport reactive(String base, int threads) {
+        LoopResources loop = LoopResources.create("bench", threads, true);
+        ConnectionProvider connections = ConnectionProvider.builder("bench").maxConnections(500).pendingAcquireMaxCount(-1).build();
+        URI target = URI.create(base);
+        // stands in for the load balancer, sending service names to the stub.
+        WebClient.Builder builder = WebClient.builder()
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connections).runOn(loop)))
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .url(UriComponentsBuilder.fromUri(request.url()).host(target.getHost()).port(target.getPort()).build(true).toUri())
+                        .build()));
+        ReactiveUserClient userClient = new ReactiveUserClient(builder);
+        ReactiveBookClient bookClient = new ReactiveBookClient(builder);
+
+        BatchRoute<Integer, User> users = new BatchRoute<>("users", ids -> userClient.getUsersByIds(ids).collectList().toFuture(),
+                User::getId, id -> userClient.getUserById(id).toFuture(), 100, 4, 60000);
+        BatchRoute<Integer, Book> books = new BatchRoute<>("books", ids -> bookClient.getBooksByIds(ids).collectList().toFuture(),
+                Book::getId, id -> bookClient.getBookById(id).toFuture(), 100, 4, 60000);
+
+        return new Transport(new ReactiveReviewClient(builder), users, books, () -> {
+            connections.disposeLater().block();
+            loop.disposeLater().block();
+        });
+    }
+
+    private static URI batchUri(String path, List<Integer> ids) {
+        return UriComponentsBuilder.fromUriString(path).queryParam("ids", ids.toArray()).build().toUri();
+    }
+
+    private static DisposableServer stub(LoopResources loop, Duration latency) {
+        return HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .runOn(loop)
+                .route(routes -> routes
+                        .get("/books/batch", (request, response) -> respond(response, latency,
+                                ids(request.uri()).stream().map(BookDetailLoadBenchmark::book).collect(Collectors.toList())))
+                        .get("/users/batch", (request, response) -> respond(response, latency,
+                                ids(request.uri()).stream().map(BookDetailLoadBenchmark::user).collect(Collectors.toList())))
+                        .get("/reviews/books/{bookId}", (request, response) -> respond(response, latency,
+                                reviews(Integer.parseInt(request.param("bookId"))))))
+                .bindNow();
+    }
+
+    private static Mono<Void> respond(HttpServerResponse response, Duration latency, Object body) {
+        String json;
+        try {
+            json = MAPPER.writeValueAsString(body);
+        } catch (Exception e) {
+            return Mono.error(e);
+        }
+        return response.header("Content-Type", "application/json")
+                .sendString(Mono.delay(latency).map(tick -> json))
+                .then();
+    }
+
+    private static List<Integer> ids(String uri) {
+        return new QueryStringDecoder(uri).parameters().getOrDefault("ids", Collections.emptyList()).stream()
+                .flatMap(ids -> Arrays.stream(ids.split(",")))
+                .map(Integer::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    private static Book book(int id) {
+        return new Book(id, "Book " + id, "Author " + id % 50, LocalDate.of(2000, 1, 1).plusDays(id));
+    }
+
+    private static User user(int id) {
+        return new User(id, "user" + id, "user" + id + "@example.com");
+    }
+
+    private static List<Review> reviews(int bookId) {
+        return IntStream.range(0, REVIEWS_PER_BOOK)
+                .mapToObj(i -> new Review(bookId * REVIEWS_PER_BOOK + i, 1 + (bookId * 7 + i * 13) % 500, bookId,
+                        new BigDecimal("4.00"), "Review " + i + " of book " + bookId + "."))
+                .collect(Collectors.toList());
+    }
+
+    private static class Result {
+        private final AtomicLong completed = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicLong latencyNanos = new AtomicLong();
+    }
+
+    private static class Transport implements AutoCloseable {
+        private final ReactiveReviewClient reviews;
+        private final RequestCollapser<Integer, User> users;
+        private final RequestCollapser<Integer, Book> books;
+        private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor();
+        private final Runnable close;
+
+        Transport(ReactiveReviewClient reviews, BatchRoute<Integer, User> users, BatchRoute<Integer, Book> books, Runnable close) {
+            SimpleMeterRegistry registry = new SimpleMeterRegistry();
+            this.reviews = reviews;
+            this.users = new RequestCollapser<>(users, timer, 2, registry);
+            this.books = new RequestCollapser<>(books, timer, 2, registry);
+            this.close = close;
+        }
+
+        // a fresh loader per request, as the request scope would give.
+        Mono<BookDetail> load(int bookId) {
+            BookDetailLoader loader = new BookDetailLoader(60_000);
+            ReflectionTestUtils.setField(loader, "reviewClient", reviews);
+            ReflectionTestUtils.setField(loader, "loaders", new RequestLoaders(users, books));
+            return loader.load(bookId);
+        }
+
+        @Override
+        public void close() {
+            timer.shutdownNow();
+            close.run();
+        }
+    }
+}
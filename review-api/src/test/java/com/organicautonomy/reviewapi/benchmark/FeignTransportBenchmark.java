@@ -0,0 +1,108 @@
+package com.organicautonomy.reviewapi.benchmark;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import com.organicautonomy.reviewapi.util.feign.PooledFeignClient;
+import com.organicautonomy.reviewapi.util.feign.UserClient;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Load test for the Feign transport, run by hand rather than by the build:
+ * <pre>
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.organicautonomy.reviewapi.benchmark.FeignTransportBenchmark \
+ *     -Dexec.args="threads seconds"
+ * </pre>
+ * A stub user-service answers GET /users/1 with a small JSON body. The given number of threads
+ * call it back to back, once through Feign's default HttpURLConnection client and once through
+ * PooledFeignClient, and the requests per second and connections opened are printed.
+ */
+public class FeignTransportBenchmark {
+    private static final String USER = "{\"id\":1,\"username\":\"brooke\",\"email\":\"brooke@gmail.com\"}";
+    private static final AtomicLong CONNECTIONS = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        int threads = args.length > 0 ? Integer.parseInt(args[0]) : 16;
+        int seconds = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        ((Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        LoopResources serverLoop = LoopResources.create("stub", 2, true);
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .runOn(serverLoop)
+                .doOnChannelInit((observer, channel, address) -> CONNECTIONS.incrementAndGet())
+                .route(routes -> routes.get("/users/1", (request, response) -> response
+                        .header("Content-Type", "application/json")
+                        .sendString(Mono.just(USER))))
+                .bindNow();
+        String url = "http://127.0.0.1:" + server.port() + "/users/1";
+        System.out.printf("%d threads, %d s per run%n", threads, seconds);
+
+        try {
+            run("HttpURLConnection", new Client.Default(null, null), url, threads, seconds);
+            try (PooledFeignClient pooled = new PooledFeignClient(threads, 30000, 300000, new SimpleMeterRegistry())) {
+                run("pooled Apache client", pooled, url, threads, seconds);
+            }
+        } finally {
+            server.disposeNow();
+            serverLoop.dispose();
+        }
+    }
+
+    private static void run(String name, Client client, String url, int threads, int seconds) throws Exception {
+        Request.Options options = new Request.Options(1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS, true);
+        RequestTemplate template = new RequestTemplate().method(Request.HttpMethod.GET).uri("/users/1")
+                .feignTarget(new Target.HardCodedTarget<>(UserClient.class, "user-service", "http://user-service"));
+        Request request = Request.create(Request.HttpMethod.GET, url, Collections.emptyMap(), null, StandardCharsets.UTF_8, template);
+
+        // warm up connections and JIT before measuring.
+        drive(client, request, options, threads, 2);
+        long opened = CONNECTIONS.get();
+        long[] result = drive(client, request, options, threads, seconds);
+        System.out.printf("%-22s %9.1f requests/s, %d connections opened, %d failed%n", name, result[0] / (double) seconds,
+                CONNECTIONS.get() - opened, result[1]);
+    }
+
+    private static long[] drive(Client client, Request request, Request.Options options, int threads, int seconds)
+            throws InterruptedException {
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        AtomicLong completed = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            pool.execute(() -> {
+                byte[] buffer = new byte[1024];
+                while (System.nanoTime() < end) {
+                    try (Response response = client.execute(request, options); InputStream body = response.body().asInputStream()) {
+                        while (body.read(buffer) != -1) {
+                            // drained so the connection can be reused.
+                        }
+                        completed.incrementAndGet();
+                    } catch (Exception e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        pool.awaitTermination(seconds + 30, TimeUnit.SECONDS);
+        return new long[]{completed.get(), failed.get()};
+    }
+}
@@ -0,0 +1,74 @@
+package com.organicautonomy.reviewapi.controller;
+
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.BookDetail;
+import com.organicautonomy.reviewapi.dto.ReviewDetail;
+import com.organicautonomy.reviewapi.exception.DownstreamTimeoutException;
+import com.organicautonomy.reviewapi.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewapi.util.detail.BookDetailLoader;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(BookController.class)
+class BookControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private BookDetailLoader detailLoader;
+
+    @Test
+    void testGetBookDetail() throws Exception {
+        Book book = new Book(1, "The Fifth Season", "N. K. Jemisin", LocalDate.of(2015, 8, 4));
+        ReviewDetail review = new ReviewDetail(1, 10, "essun", new BigDecimal("4.50"), "Stunning.");
+        when(detailLoader.load(1)).thenReturn(Mono.just(new BookDetail(book, Collections.singletonList(review), true)));
+
+        mockMvc.perform(asyncDispatch(detail(1)))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.book.title").value("The Fifth Season"))
+                .andExpect(jsonPath("$.reviews[0].username").value("essun"))
+                .andExpect(jsonPath("$.complete").value(true));
+    }
+
+    @Test
+    void testGetBookDetailErrors() throws Exception {
+        when(detailLoader.load(2)).thenReturn(Mono.error(new ResourceNotFoundException("There is no book associated with the id provided.")));
+        when(detailLoader.load(3)).thenReturn(Mono.error(new DownstreamTimeoutException("The downstream services did not answer in time.")));
+        when(detailLoader.load(4)).thenReturn(Mono.error(new RejectedExecutionException()));
+        when(detailLoader.load(5)).thenReturn(Mono.error(BulkheadFullException.createBulkheadFullException(Bulkhead.ofDefaults("book-service"))));
+
+        mockMvc.perform(asyncDispatch(detail(2))).andExpect(status().isNotFound());
+        mockMvc.perform(asyncDispatch(detail(3))).andExpect(status().isGatewayTimeout());
+        mockMvc.perform(asyncDispatch(detail(4))).andExpect(status().isServiceUnavailable());
+        mockMvc.perform(asyncDispatch(detail(5))).andExpect(status().isServiceUnavailable());
+    }
+
+    private MvcResult detail(int bookId) throws Exception {
+        return mockMvc.perform(get("/api/books/{bookId}/detail", bookId))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+}
@@ -0,0 +1,171 @@
+package com.organicautonomy.reviewapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewapi.config.MessageConfig;
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.Review;
+import com.organicautonomy.reviewapi.dto.ReviewSubmission;
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveBookClient;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveReviewClient;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveUserClient;
+import org.apache.qpid.server.SystemLauncher;
+import org.apache.qpid.server.model.SystemConfig;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Flux;
+
+import java.math.BigDecimal;
+import java.net.ServerSocket;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// runs against an embedded AMQP 0-9-1 broker (Qpid Broker-J) holding everything in memory.
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class ReviewControllerTest {
+    private static SystemLauncher broker;
+    private static int port;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @MockBean
+    private ReactiveUserClient userClient;
+    @MockBean
+    private ReactiveBookClient bookClient;
+    @MockBean
+    private ReactiveReviewClient reviewClient;
+
+    @BeforeAll
+    static void startBroker() throws Exception {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+
+        Map<String, Object> attributes = new HashMap<>();
+        attributes.put(SystemConfig.TYPE, "Memory");
+        attributes.put(SystemConfig.INITIAL_CONFIGURATION_LOCATION,
+                ReviewControllerTest.class.getResource("/qpid-config.json").toExternalForm());
+        attributes.put(SystemConfig.CONTEXT, Collections.singletonMap("qpid.amqp_port", port));
+        attributes.put(SystemConfig.STARTUP_LOGGED_TO_SYSTEM_OUT, false);
+        broker = new SystemLauncher();
+        broker.startup(attributes);
+    }
+
+    @AfterAll
+    static void stopBroker() {
+        broker.shutdown();
+    }
+
+    @DynamicPropertySource
+    static void brokerProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.rabbitmq.host", () -> "127.0.0.1");
+        registry.add("spring.rabbitmq.port", () -> port);
+    }
+
+    @Test
+    void testSubmittedReviewIsQueued() throws Exception {
+        when(userClient.getUsersByIds(Collections.singletonList(10))).thenReturn(Flux.just(new User(10, "essun", "essun@example.com")));
+        when(bookClient.getBooksByIds(Collections.singletonList(1))).thenReturn(Flux.just(
+                new Book(1, "The Fifth Season", "N. K. Jemisin", LocalDate.of(2015, 8, 4))));
+        Review review = new Review(10, 1, new BigDecimal("4.50"), "Stunning.");
+
+        MvcResult result = mockMvc.perform(asyncDispatch(submit(review)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.status").value("PENDING"))
+                .andReturn();
+        String trackingId = objectMapper.readValue(result.getResponse().getContentAsString(), ReviewSubmission.class).getTrackingId();
+        assertEquals("/api/reviews/submissions/" + trackingId, result.getResponse().getHeader("Location"));
+
+        Message message = rabbitTemplate.receive(MessageConfig.QUEUE, 5000);
+        assertNotNull(message);
+        assertEquals(trackingId, message.getMessageProperties().getMessageId());
+        assertEquals(review, rabbitTemplate.getMessageConverter().fromMessage(message));
+
+        assertEquals(ReviewSubmission.Status.QUEUED, awaitSettled(trackingId));
+        verifyNoInteractions(reviewClient);
+    }
+
+    @Test
+    void testReviewOfUnknownUserIsNotQueued() throws Exception {
+        when(userClient.getUsersByIds(Collections.singletonList(20))).thenReturn(Flux.empty());
+        when(bookClient.getBooksByIds(Collections.singletonList(2))).thenReturn(Flux.just(
+                new Book(2, "The Obelisk Gate", "N. K. Jemisin", LocalDate.of(2016, 8, 16))));
+
+        mockMvc.perform(asyncDispatch(submit(new Review(20, 2, new BigDecimal("4.00"), "Better."))))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("There is no user associated with the id provided."));
+        assertNull(rabbitTemplate.receive(MessageConfig.QUEUE, 200));
+    }
+
+    @Test
+    void testReviewWithIdIsNotQueued() throws Exception {
+        Review review = new Review(10, 1, new BigDecimal("4.50"), "Stunning.");
+        review.setId(7);
+
+        mockMvc.perform(asyncDispatch(submit(review)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("A new review cannot have an id."));
+        assertNull(rabbitTemplate.receive(MessageConfig.QUEUE, 200));
+        verifyNoInteractions(userClient, bookClient);
+    }
+
+    @Test
+    void testInvalidReviewAndUnknownTrackingId() throws Exception {
+        mockMvc.perform(post("/api/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new Review(10, 1, new BigDecimal("7"), "Off the scale."))))
+                .andExpect(status().isUnprocessableEntity());
+        mockMvc.perform(get("/api/reviews/submissions/{trackingId}", "unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    private MvcResult submit(Review review) throws Exception {
+        return mockMvc.perform(post("/api/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(review)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+
+    // the broker's confirm arrives after the 202.
+    private ReviewSubmission.Status awaitSettled(String trackingId) throws Exception {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while (true) {
+            String body = mockMvc.perform(get("/api/reviews/submissions/{trackingId}", trackingId))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            ReviewSubmission.Status status = objectMapper.readValue(body, ReviewSubmission.class).getStatus();
+            if (status != ReviewSubmission.Status.PENDING || System.nanoTime() > deadline) {
+                return status;
+            }
+            Thread.sleep(20);
+        }
+    }
+}
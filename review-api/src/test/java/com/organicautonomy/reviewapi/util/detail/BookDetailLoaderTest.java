@@ -0,0 +1,166 @@
+package com.organicautonomy.reviewapi.util.detail;
+
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.BookDetail;
+import com.organicautonomy.reviewapi.dto.Review;
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.exception.DownstreamTimeoutException;
+import com.organicautonomy.reviewapi.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewapi.util.loader.BatchRoute;
+import com.organicautonomy.reviewapi.util.loader.RequestCollapser;
+import com.organicautonomy.reviewapi.util.loader.RequestLoaders;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveBookClient;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveReviewClient;
+import com.organicautonomy.reviewapi.util.reactive.ReactiveUserClient;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BookDetailLoaderTest {
+    private static final Book BOOK = new Book(1, "The Fifth Season", "N. K. Jemisin", LocalDate.of(2015, 8, 4));
+    private static final Review REVIEW1 = new Review(1, 10, 1, new BigDecimal("4.50"), "Stunning.");
+    private static final Review REVIEW2 = new Review(2, 20, 1, new BigDecimal("3.00"), "Dense but rewarding.");
+
+    private final ReactiveBookClient bookClient = mock(ReactiveBookClient.class);
+    private final ReactiveReviewClient reviewClient = mock(ReactiveReviewClient.class);
+    private final ReactiveUserClient userClient = mock(ReactiveUserClient.class);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private ScheduledExecutorService timer;
+
+    @BeforeEach
+    void setUp() {
+        timer = Executors.newSingleThreadScheduledExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    void testLoadCallsBookAndReviewsConcurrently() {
+        when(bookClient.getBooksByIds(Collections.singletonList(1))).thenReturn(delayed(300, BOOK));
+        when(reviewClient.getReviewsByBookId(1)).thenReturn(delayed(300, REVIEW1, REVIEW2));
+        when(userClient.getUsersByIds(Arrays.asList(10, 20))).thenReturn(Flux.just(
+                new User(10, "essun", "essun@example.com"), new User(20, "alabaster", "alabaster@example.com")));
+
+        long start = System.nanoTime();
+        BookDetail detail = loader(2000).load(1).block();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMs < 550, "took " + elapsedMs + " ms");
+        assertEquals(BOOK, detail.getBook());
+        assertTrue(detail.isComplete());
+        assertEquals("essun", detail.getReviews().get(0).getUsername());
+        assertEquals("alabaster", detail.getReviews().get(1).getUsername());
+        assertEquals("Stunning.", detail.getReviews().get(0).getSnippet());
+    }
+
+    @Test
+    void testLoadLooksUpEachReviewerOnce() {
+        Review again = new Review(3, 10, 1, new BigDecimal("5.00"), "Reread it.");
+        when(bookClient.getBooksByIds(Collections.singletonList(1))).thenReturn(Flux.just(BOOK));
+        when(reviewClient.getReviewsByBookId(1)).thenReturn(Flux.just(REVIEW1, again));
+        when(userClient.getUsersByIds(Collections.singletonList(10))).thenReturn(Flux.just(new User(10, "essun", "essun@example.com")));
+
+        BookDetail detail = loader(2000).load(1).block();
+
+        assertEquals(2, detail.getReviews().size());
+        assertTrue(detail.isComplete());
+        verify(userClient, times(1)).getUsersByIds(Collections.singletonList(10));
+        verify(userClient, never()).getUserById(10);
+    }
+
+    @Test
+    void testSlowBookFailsAtDeadline() {
+        when(bookClient.getBooksByIds(Collections.singletonList(1))).thenReturn(delayed(1000, BOOK));
+        when(reviewClient.getReviewsByBookId(1)).thenReturn(Flux.empty());
+
+        long start = System.nanoTime();
+        assertThrows(DownstreamTimeoutException.class, () -> loader(200).load(1).block());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 600);
+    }
+
+    @Test
+    void testSlowUserLeavesDetailIncomplete() {
+        when(bookClient.getBooksByIds(Collections.singletonList(1))).thenReturn(Flux.just(BOOK));
+        when(reviewClient.getReviewsByBookId(1)).thenReturn(Flux.just(REVIEW1, REVIEW2));
+        // a user-service without the batch route, so each name is looked up on its own.
+        when(userClient.getUsersByIds(anyList())).thenReturn(Flux.error(notFound()));
+        when(userClient.getUserById(10)).thenReturn(Mono.just(new User(10, "essun", "essun@example.com")));
+        when(userClient.getUserById(20)).thenReturn(Mono.delay(Duration.ofMillis(1000))
+                .thenReturn(new User(20, "alabaster", "alabaster@example.com")));
+
+        long start = System.nanoTime();
+        BookDetail detail = loader(200).load(1).block();
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 600);
+
+        assertFalse(detail.isComplete());
+        assertEquals("essun", detail.getReviews().get(0).getUsername());
+        assertNull(detail.getReviews().get(1).getUsername());
+    }
+
+    @Test
+    void testRejectedReviewsLeaveDetailIncomplete() {
+        when(bookClient.getBooksByIds(Collections.singletonList(1))).thenReturn(Flux.just(BOOK));
+        when(reviewClient.getReviewsByBookId(1)).thenReturn(Flux.error(
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults("review-service"))));
+
+        BookDetail detail = loader(2000).load(1).block();
+
+        assertEquals(BOOK, detail.getBook());
+        assertTrue(detail.getReviews().isEmpty());
+        assertFalse(detail.isComplete());
+    }
+
+    @Test
+    void testMissingBookAndReviews() {
+        // the client turns review-service's 404 for a book without reviews into an empty list.
+        when(bookClient.getBooksByIds(Collections.singletonList(1))).thenReturn(Flux.just(BOOK));
+        when(reviewClient.getReviewsByBookId(1)).thenReturn(Flux.empty());
+        when(bookClient.getBooksByIds(Collections.singletonList(2))).thenReturn(Flux.empty());
+        when(reviewClient.getReviewsByBookId(2)).thenReturn(Flux.empty());
+
+        assertTrue(loader(2000).load(1).block().getReviews().isEmpty());
+        assertThrows(ResourceNotFoundException.class, () -> loader(2000).load(2).block());
+    }
+
+    private BookDetailLoader loader(long deadlineMs) {
+        BookDetailLoader loader = new BookDetailLoader(deadlineMs);
+        ReflectionTestUtils.setField(loader, "reviewClient", reviewClient);
+        ReflectionTestUtils.setField(loader, "loaders", new RequestLoaders(
+                new RequestCollapser<>(new BatchRoute<>("users", ids -> userClient.getUsersByIds(ids).collectList().toFuture(),
+                        User::getId, id -> userClient.getUserById(id).toFuture(), 100, 4, 60000), timer, 2, registry),
+                new RequestCollapser<>(new BatchRoute<>("books", ids -> bookClient.getBooksByIds(ids).collectList().toFuture(),
+                        Book::getId, id -> bookClient.getBookById(id).toFuture(), 100, 4, 60000), timer, 2, registry)));
+        return loader;
+    }
+
+    @SafeVarargs
+    private static <T> Flux<T> delayed(long millis, T... results) {
+        return Mono.delay(Duration.ofMillis(millis)).thenMany(Flux.just(results));
+    }
+
+    private static WebClientResponseException notFound() {
+        return WebClientResponseException.create(404, "Not Found", null, null, null);
+    }
+}
@@ -11,6 +11,7 @@ import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.Mockito.doNothing;
@@ -52,6 +53,19 @@ class BookClientTest {
         assertEquals(2, fromClient.size());
     }
 
+    @Test
+    void testGetBooksByIds() {
+        List<Book> books = new ArrayList<>();
+        books.add(HOLES);
+        books.add(UPDATED);
+
+        when(client.getBooksByIds(Arrays.asList(HOLES.getId(), UPDATED.getId()))).thenReturn(books);
+
+        List<Book> fromClient = client.getBooksByIds(Arrays.asList(HOLES.getId(), UPDATED.getId()));
+
+        assertEquals(books, fromClient);
+    }
+
     @Test
     void testGetBookById() {
         when(client.getBookById(HOLES.getId())).thenReturn(HOLES);
@@ -0,0 +1,96 @@
+package com.organicautonomy.reviewapi.util.feign;
+
+import com.organicautonomy.reviewapi.dto.Book;
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.util.loader.EntityCache;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import static org.mockito.Mockito.*;
+
+class CacheInvalidationInterceptorTest {
+    @SuppressWarnings("unchecked")
+    private final EntityCache<Integer, User> userCache = mock(EntityCache.class);
+    @SuppressWarnings("unchecked")
+    private final EntityCache<Integer, Book> bookCache = mock(EntityCache.class);
+    private final CacheInvalidationInterceptor interceptor = new CacheInvalidationInterceptor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(interceptor, "userCache", provider(userCache));
+        ReflectionTestUtils.setField(interceptor, "bookCache", provider(bookCache));
+    }
+
+    // a read between the first invalidation and the write's commit reloads the old entity, the second drops it.
+    @Test
+    void testWritesInvalidateTheEntityBeforeAndAfter() throws Exception {
+        Client client = interceptor.wrap((request, options) -> {
+            verify(userCache, times(1)).invalidate(7);
+            return response(request);
+        });
+
+        client.execute(request(Request.HttpMethod.PUT, "http://user-service/users/7"), new Request.Options());
+
+        verify(userCache, times(2)).invalidate(7);
+    }
+
+    @Test
+    void testReadsAndOtherRoutesAreIgnored() throws Exception {
+        Client client = interceptor.wrap((request, options) -> response(request));
+
+        client.execute(request(Request.HttpMethod.GET, "http://user-service/users/7"), new Request.Options());
+        client.execute(request(Request.HttpMethod.POST, "http://book-service/books"), new Request.Options());
+        client.execute(request(Request.HttpMethod.PUT, "http://review-service/reviews/7"), new Request.Options());
+
+        verifyNoInteractions(userCache, bookCache);
+    }
+
+    @Test
+    void testWebClientWritesInvalidateTheEntityBeforeAndAfter() {
+        ExchangeFunction next = request -> Mono.fromSupplier(() -> {
+            verify(userCache, times(1)).invalidate(7);
+            return ClientResponse.create(HttpStatus.NO_CONTENT).build();
+        });
+
+        interceptor.filter(ClientRequest.create(HttpMethod.DELETE, URI.create("http://user-service/users/7")).build(), next).block();
+        interceptor.filter(ClientRequest.create(HttpMethod.GET, URI.create("http://book-service/books/3")).build(),
+                request -> Mono.just(ClientResponse.create(HttpStatus.OK).build())).block();
+
+        verify(userCache, times(2)).invalidate(7);
+        verifyNoInteractions(bookCache);
+    }
+
+    private static Request request(Request.HttpMethod method, String url) {
+        return Request.create(method, url, Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+    }
+
+    private static Response response(Request request) {
+        return Response.builder().status(204).request(request).headers(Collections.emptyMap()).build();
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> ObjectProvider<T> provider(T bean) {
+        ObjectProvider<T> provider = mock(ObjectProvider.class);
+        doAnswer(invocation -> {
+            ((Consumer<T>) invocation.getArgument(0)).accept(bean);
+            return null;
+        }).when(provider).ifAvailable(any());
+        return provider;
+    }
+}
@@ -0,0 +1,98 @@
+package com.organicautonomy.reviewapi.util.feign;
+
+import com.organicautonomy.reviewapi.util.resilience.DownstreamGuard;
+import feign.Client;
+import feign.Request;
+import feign.Response;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GuardedFeignClientTest {
+    private final Request.Options options = new Request.Options(1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS, true);
+    private final DownstreamGuard guard = new DownstreamGuard(2, 50, 1000, 10, 4, 60000, 2, new SimpleMeterRegistry());
+    private final AtomicInteger calls = new AtomicInteger();
+    private DisposableServer server;
+    private GuardedFeignClient client;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes
+                        .get("/users/1", (request, response) -> {
+                            calls.incrementAndGet();
+                            return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send();
+                        })
+                        .get("/users/2", (request, response) -> response.sendString(Mono.just("brooke"))))
+                .bindNow();
+        // stands in for the load balancer, user-service is the stub and book-service refuses connections.
+        Client transport = new Client.Default(null, null);
+        client = new GuardedFeignClient((request, options) -> transport.execute(Request.create(request.httpMethod(),
+                request.url().replace("user-service", "127.0.0.1:" + server.port()).replace("book-service", "127.0.0.1:1"),
+                request.headers(), null, StandardCharsets.UTF_8, null), options), guard);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.disposeNow();
+    }
+
+    @Test
+    void testServerErrorsOpenTheBreaker() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            try (Response response = client.execute(request("http://user-service/users/1"), options)) {
+                assertEquals(503, response.status());
+            }
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState("user-service"));
+        assertThrows(CallNotPermittedException.class, () -> client.execute(request("http://user-service/users/1"), options));
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    void testConnectionFailuresOpenTheBreaker() {
+        for (int i = 0; i < 4; i++) {
+            assertThrows(IOException.class, () -> client.execute(request("http://book-service/books/1"), options));
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState("book-service"));
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState("user-service"));
+    }
+
+    @Test
+    void testOpenResponsesHoldTheirPermits() throws Exception {
+        Response first = client.execute(request("http://user-service/users/2"), options);
+        Response second = client.execute(request("http://user-service/users/2"), options);
+
+        assertThrows(BulkheadFullException.class, () -> client.execute(request("http://user-service/users/2"), options));
+        first.close();
+        try (Response third = client.execute(request("http://user-service/users/2"), options)) {
+            assertEquals(200, third.status());
+        }
+        second.close();
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState("user-service"));
+    }
+
+    private static Request request(String url) {
+        return Request.create(Request.HttpMethod.GET, url, Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+    }
+}
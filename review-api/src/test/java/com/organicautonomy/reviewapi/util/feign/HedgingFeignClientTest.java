@@ -0,0 +1,167 @@
+package com.organicautonomy.reviewapi.util.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class HedgingFeignClientTest {
+    private static final String SLOW = "http://10.0.0.1:8080";
+    private static final String FAST = "http://10.0.0.2:8080";
+
+    private final DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, Long> delaysMs = new ConcurrentHashMap<>();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final Set<String> closed = ConcurrentHashMap.newKeySet();
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        delaysMs.put(SLOW, 0L);
+        delaysMs.put(FAST, 0L);
+        when(discoveryClient.getInstances("book-service")).thenReturn(Arrays.asList(instance(SLOW), instance(FAST)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testSlowInstanceIsHedgedToAnotherOne() throws Exception {
+        HedgingFeignClient client = client(100);
+        warmUp(client);
+        delaysMs.put(SLOW, 1000L);
+
+        long start = System.nanoTime();
+        Response response = client.execute(get("book-service", SLOW), options());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        assertEquals(FAST, response.reason());
+        assertTrue(elapsedMs < 500, "took " + elapsedMs + " ms");
+        assertEquals(1, count("sent"));
+        assertEquals(1, count("won"));
+        Thread.sleep(1100);
+        assertTrue(closed.contains(SLOW));
+    }
+
+    @Test
+    void testBudgetCapsHedges() throws Exception {
+        HedgingFeignClient client = client(10);
+        warmUp(client);
+        delaysMs.put(SLOW, 50L);
+
+        for (int i = 0; i < 20; i++) {
+            client.execute(get("book-service", SLOW), options());
+        }
+
+        // 40 requests at 10% pay for 4 hedges.
+        assertTrue(count("sent") <= 4, count("sent") + " hedges");
+        assertTrue(count("denied") >= 1, count("denied") + " denied");
+    }
+
+    @Test
+    void testOnlyGetsToOptedInServicesAreHedged() throws Exception {
+        HedgingFeignClient client = client(100);
+        warmUp(client);
+        delaysMs.put(SLOW, 100L);
+
+        client.execute(request(Request.HttpMethod.PUT, "book-service", SLOW), options());
+        client.execute(get("user-service", SLOW), options());
+
+        assertEquals(HedgingFeignClient.MIN_SAMPLES + 2, sent.size());
+        assertEquals(0, count("sent"));
+    }
+
+    @Test
+    void testNoHedgeWithoutSamplesOrAnotherInstance() throws Exception {
+        HedgingFeignClient client = client(100);
+        delaysMs.put(SLOW, 100L);
+        client.execute(get("book-service", SLOW), options());
+        assertEquals(1, sent.size());
+
+        warmUp(client);
+        when(discoveryClient.getInstances("book-service")).thenReturn(Collections.singletonList(instance(SLOW)));
+        assertEquals(SLOW, client.execute(get("book-service", SLOW), options()).reason());
+        assertEquals(0, count("sent"));
+        assertEquals(1, count("denied"));
+    }
+
+    private HedgingFeignClient client(double budgetPercent) {
+        Client delegate = (request, options) -> {
+            String instance = request.url().substring(0, request.url().indexOf('/', "http://".length()));
+            sent.add(instance);
+            try {
+                Thread.sleep(delaysMs.get(instance));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Response.builder()
+                    .status(200)
+                    .reason(instance)
+                    .request(request)
+                    .headers(Collections.emptyMap())
+                    .body(new ByteArrayInputStream(new byte[0]) {
+                        @Override
+                        public void close() {
+                            closed.add(instance);
+                        }
+                    }, 0)
+                    .build();
+        };
+        return new HedgingFeignClient(delegate, discoveryClient, executor, Collections.singletonList("book-service"),
+                budgetPercent, 1, registry);
+    }
+
+    // fast answers to learn the p95 from.
+    private void warmUp(HedgingFeignClient client) throws Exception {
+        for (int i = 0; i < HedgingFeignClient.MIN_SAMPLES; i++) {
+            client.execute(get("book-service", FAST), options());
+        }
+    }
+
+    private double count(String result) {
+        return registry.get("api.feign.hedges").tag("result", result).counter().count();
+    }
+
+    private static Request get(String service, String instance) {
+        return request(Request.HttpMethod.GET, service, instance);
+    }
+
+    private static Request request(Request.HttpMethod method, String service, String instance) {
+        RequestTemplate template = new RequestTemplate()
+                .method(method)
+                .uri("/books/1")
+                .feignTarget(new Target.HardCodedTarget<>(BookClient.class, service, "http://" + service));
+        return Request.create(method, instance + "/books/1", Collections.emptyMap(), null, StandardCharsets.UTF_8, template);
+    }
+
+    private static Request.Options options() {
+        return new Request.Options(1, TimeUnit.SECONDS, 5, TimeUnit.SECONDS, true);
+    }
+
+    private static ServiceInstance instance(String url) {
+        URI uri = URI.create(url);
+        return new DefaultServiceInstance(url, "book-service", uri.getHost(), uri.getPort(), false);
+    }
+}
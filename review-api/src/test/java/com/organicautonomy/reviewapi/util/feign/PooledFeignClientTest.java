@@ -0,0 +1,77 @@
+package com.organicautonomy.reviewapi.util.feign;
+
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PooledFeignClientTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Request.Options options = new Request.Options(1, TimeUnit.SECONDS, 1, TimeUnit.SECONDS, true);
+    private DisposableServer server;
+    private PooledFeignClient client;
+
+    @BeforeEach
+    void setUp() {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/users/1", (request, response) -> response.sendString(Mono.just("brooke"))))
+                .bindNow();
+        client = new PooledFeignClient(10, 30000, 300000, registry);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        client.close();
+        server.disposeNow();
+    }
+
+    @Test
+    void testConnectionsAreKeptAlivePerService() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            assertEquals("brooke", body(client.execute(request("user-service"), options)));
+        }
+        body(client.execute(request("book-service"), options));
+
+        assertEquals(1, registry.get("api.feign.connect").tag("pool", "user-service").timer().count());
+        assertEquals(1, registry.get("api.feign.connect").tag("pool", "book-service").timer().count());
+        assertEquals(1, registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "user-service").tag("state", "available").gauge().value());
+        assertEquals(0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "user-service").tag("state", "leased").gauge().value());
+        assertEquals(10, registry.get("httpcomponents.httpclient.pool.total.max").tag("httpclient", "book-service").gauge().value());
+    }
+
+    private Request request(String service) {
+        RequestTemplate template = new RequestTemplate()
+                .method(Request.HttpMethod.GET)
+                .uri("/users/1")
+                .feignTarget(new Target.HardCodedTarget<>(UserClient.class, service, "http://" + service));
+        return Request.create(Request.HttpMethod.GET, "http://127.0.0.1:" + server.port() + "/users/1",
+                Collections.emptyMap(), null, StandardCharsets.UTF_8, template);
+    }
+
+    private static String body(Response response) throws Exception {
+        try (Response closing = response; InputStream body = closing.body().asInputStream()) {
+            assertEquals(200, closing.status());
+            return StreamUtils.copyToString(body, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.mockito.Mockito.doNothing;
@@ -51,6 +52,19 @@ class UserClientTest {
         assertEquals(2, fromClient.size());
     }
 
+    @Test
+    void testGetUsersByIds() {
+        List<User> users = new ArrayList<>();
+        users.add(USER1);
+        users.add(USER2);
+
+        when(client.getUsersByIds(Arrays.asList(USER1.getId(), USER2.getId()))).thenReturn(users);
+
+        List<User> fromClient = client.getUsersByIds(Arrays.asList(USER1.getId(), USER2.getId()));
+
+        assertEquals(users, fromClient);
+    }
+
     @Test
     void testGetUserById() {
         when(client.getUserById(USER1.getId())).thenReturn(USER1);
@@ -0,0 +1,173 @@
+package com.organicautonomy.reviewapi.util.loadbalancer;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.*;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.util.StreamUtils;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class PeakEwmaLoadBalancerTest {
+    private final List<DisposableServer> servers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        servers.forEach(DisposableServer::disposeNow);
+    }
+
+    @Test
+    void testInstanceWithoutResponseTimeTakesOneRequestAtATime() {
+        List<ServiceInstance> instances = Arrays.asList(instance("a", 8081), instance("b", 8082));
+        PeakEwmaLoadBalancer balancer = balancer(instances);
+
+        Request<Object> request = new DefaultRequest<>();
+        Response<ServiceInstance> first = balancer.choose(request).block();
+        balancer.onStartRequest(request, first);
+
+        for (int i = 0; i < 10; i++) {
+            assertNotEquals(first.getServer(), balancer.choose(new DefaultRequest<>()).block().getServer());
+        }
+    }
+
+    @Test
+    void testFailedCallsCountAsSlow() {
+        ServiceInstance refusing = instance("a", 8081);
+        ServiceInstance healthy = instance("b", 8082);
+        PeakEwmaLoadBalancer balancer = balancer(Arrays.asList(refusing, healthy));
+
+        complete(balancer, refusing, CompletionContext.Status.FAILED);
+        complete(balancer, healthy, CompletionContext.Status.SUCCESS);
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(healthy, balancer.choose(new DefaultRequest<>()).block().getServer());
+        }
+    }
+
+    @Test
+    void testSlowInstanceImprovesTailLatencyOverRoundRobin() throws Exception {
+        List<ServiceInstance> instances = Arrays.asList(
+                standIn("fast-1", Duration.ofMillis(5)), standIn("fast-2", Duration.ofMillis(5)), standIn("slow", Duration.ofMillis(200)));
+
+        long[] roundRobin = simulate(new RoundRobinLoadBalancer(provider(instances), "book-service"), null);
+        PeakEwmaLoadBalancer peakEwma = balancer(instances);
+        long[] ewma = simulate(peakEwma, peakEwma);
+
+        long roundRobinP99 = percentile(roundRobin, 0.99);
+        long ewmaP99 = percentile(ewma, 0.99);
+        String latencies = String.format("p50/p99 ms: round robin %d/%d, peak EWMA %d/%d",
+                percentile(roundRobin, 0.5), roundRobinP99, percentile(ewma, 0.5), ewmaP99);
+        assertTrue(roundRobinP99 >= 200, latencies);
+        assertTrue(ewmaP99 * 2 < roundRobinP99, latencies);
+    }
+
+    // 4 callers sending 100 requests each, latencies in ms.
+    private static long[] simulate(ReactorServiceInstanceLoadBalancer balancer,
+                                   LoadBalancerLifecycle<Object, Object, ServiceInstance> lifecycle) throws Exception {
+        int callers = 4;
+        int requests = 100;
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        List<Future<long[]>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    long[] latencies = new long[requests];
+                    for (int j = 0; j < requests; j++) {
+                        Request<Object> request = new DefaultRequest<>();
+                        @SuppressWarnings("unchecked")
+                        Response<ServiceInstance> chosen = (Response<ServiceInstance>) (Response<?>) balancer.choose(request).block();
+                        if (lifecycle != null) {
+                            lifecycle.onStartRequest(request, chosen);
+                        }
+                        long start = System.nanoTime();
+                        HttpURLConnection connection = (HttpURLConnection) chosen.getServer().getUri().resolve("/books/1").toURL().openConnection();
+                        try (InputStream body = connection.getInputStream()) {
+                            StreamUtils.drain(body);
+                        }
+                        latencies[j] = (System.nanoTime() - start) / 1_000_000;
+                        if (lifecycle != null) {
+                            lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, chosen));
+                        }
+                    }
+                    return latencies;
+                }));
+            }
+
+            long[] all = new long[callers * requests];
+            for (int i = 0; i < callers; i++) {
+                System.arraycopy(results.get(i).get(60, TimeUnit.SECONDS), 0, all, i * requests, requests);
+            }
+            return all;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static long percentile(long[] latencies, double percentile) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * percentile) - 1];
+    }
+
+    private static void complete(PeakEwmaLoadBalancer balancer, ServiceInstance instance, CompletionContext.Status status) {
+        Request<Object> request = new DefaultRequest<>();
+        Response<ServiceInstance> response = new DefaultResponse(instance);
+        balancer.onStartRequest(request, response);
+        balancer.onComplete(new CompletionContext<>(status, request, response));
+    }
+
+    private ServiceInstance standIn(String id, Duration latency) {
+        DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .route(routes -> routes.get("/books/1", (request, response) -> response.sendString(
+                        Mono.delay(latency).map(tick -> id))))
+                .bindNow();
+        servers.add(server);
+        return new DefaultServiceInstance(id, "book-service", "127.0.0.1", server.port(), false);
+    }
+
+    private static PeakEwmaLoadBalancer balancer(List<ServiceInstance> instances) {
+        return new PeakEwmaLoadBalancer(provider(instances), "book-service", 10000, 1000);
+    }
+
+    private static ServiceInstance instance(String id, int port) {
+        return new DefaultServiceInstance(id, "book-service", "10.0.0." + port % 10, port, false);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ObjectProvider<ServiceInstanceListSupplier> provider(List<ServiceInstance> instances) {
+        ServiceInstanceListSupplier supplier = new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return "book-service";
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(instances);
+            }
+        };
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(supplier);
+        return provider;
+    }
+}
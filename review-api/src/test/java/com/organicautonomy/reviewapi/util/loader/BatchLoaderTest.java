@@ -0,0 +1,152 @@
+package com.organicautonomy.reviewapi.util.loader;
+
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.util.feign.UserClient;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class BatchLoaderTest {
+    private final UserClient client = mock(UserClient.class);
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testDispatchBatchesAndDedupsQueuedIds() {
+        when(client.getUsersByIds(anyList())).thenAnswer(invocation -> users(invocation.getArgument(0)));
+        BatchLoader<Integer, User> loader = loader(route(100, 60000));
+
+        loader.load(1);
+        loader.load(2);
+        loader.load(1);
+        Map<Integer, User> found = loader.getAll(Arrays.asList(2, 3));
+
+        assertEquals(Arrays.asList(2, 3), found.values().stream().map(User::getId).collect(Collectors.toList()));
+        assertEquals(1, loader.get(1).getId());
+        verify(client, times(1)).getUsersByIds(Arrays.asList(1, 2, 3));
+        verifyNoMoreInteractions(client);
+    }
+
+    @Test
+    void testUnknownIdsResolveToNull() {
+        when(client.getUsersByIds(anyList())).thenReturn(Collections.singletonList(user(1)));
+        BatchLoader<Integer, User> loader = loader(route(100, 60000));
+
+        Map<Integer, User> found = loader.getAll(Arrays.asList(1, 99));
+
+        assertEquals(1, found.get(1).getId());
+        assertTrue(found.containsKey(99));
+        assertNull(found.get(99));
+    }
+
+    @Test
+    void testLargeDispatchIsSplitIntoBatches() {
+        when(client.getUsersByIds(anyList())).thenAnswer(invocation -> users(invocation.getArgument(0)));
+        BatchLoader<Integer, User> loader = loader(route(10, 60000));
+
+        Map<Integer, User> found = loader.getAll(IntStream.rangeClosed(1, 25).boxed().collect(Collectors.toList()));
+
+        assertEquals(25, found.values().stream().filter(Objects::nonNull).count());
+        verify(client, times(3)).getUsersByIds(anyList());
+    }
+
+    @Test
+    void testMissingBatchRouteFallsBackToBoundedSingleCalls() {
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(client.getUsersByIds(anyList())).thenThrow(notFound());
+        when(client.getUserById(anyInt())).thenAnswer(invocation -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            inFlight.decrementAndGet();
+            int id = invocation.getArgument(0);
+            if (id == 13) {
+                throw notFound();
+            }
+            return user(id);
+        });
+        BatchRoute<Integer, User> route = route(100, 60000);
+
+        Map<Integer, User> found = loader(route)
+                .getAll(IntStream.rangeClosed(1, 20).boxed().collect(Collectors.toList()));
+
+        assertEquals(19, found.values().stream().filter(Objects::nonNull).count());
+        assertNull(found.get(13));
+        assertTrue(maxInFlight.get() <= 4, "max in flight " + maxInFlight.get());
+        assertFalse(route.isBatchAvailable());
+
+        // the next request goes straight to single calls.
+        assertEquals(21, loader(route).get(21).getId());
+        verify(client, times(1)).getUsersByIds(anyList());
+    }
+
+    @Test
+    void testBatchRouteIsRetriedAfterInterval() {
+        when(client.getUsersByIds(anyList())).thenThrow(notFound())
+                .thenAnswer(invocation -> users(invocation.getArgument(0)));
+        when(client.getUserById(1)).thenReturn(user(1));
+        BatchRoute<Integer, User> route = route(100, 0);
+
+        assertEquals(1, loader(route).get(1).getId());
+        assertTrue(route.isBatchAvailable());
+        assertEquals(2, loader(route).get(2).getId());
+        verify(client, times(2)).getUsersByIds(anyList());
+        verify(client, never()).getUserById(2);
+    }
+
+    @Test
+    void testOtherBatchFailuresAreNotRetriedOneByOne() {
+        Request request = Request.create(Request.HttpMethod.GET, "/", Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+        when(client.getUsersByIds(anyList())).thenThrow(new FeignException.InternalServerError("boom", request, null));
+        BatchRoute<Integer, User> route = route(100, 60000);
+        BatchLoader<Integer, User> loader = loader(route);
+
+        assertThrows(FeignException.InternalServerError.class, () -> loader.getAll(Arrays.asList(1, 2)));
+        assertTrue(route.isBatchAvailable());
+        verify(client, never()).getUserById(anyInt());
+    }
+
+    private BatchLoader<Integer, User> loader(BatchRoute<Integer, User> route) {
+        return new BatchLoader<>(new RequestCollapser<>(route, null, 0, new SimpleMeterRegistry()));
+    }
+
+    private BatchRoute<Integer, User> route(int maxBatchSize, long retryMs) {
+        return BatchRoute.blocking("users", client::getUsersByIds, User::getId, client::getUserById, maxBatchSize, 4, retryMs, executor);
+    }
+
+    private static List<User> users(List<Integer> ids) {
+        return ids.stream().map(BatchLoaderTest::user).collect(Collectors.toList());
+    }
+
+    private static User user(int id) {
+        return new User(id, "user" + id, "user" + id + "@example.com");
+    }
+
+    private static FeignException notFound() {
+        Request request = Request.create(Request.HttpMethod.GET, "/", Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("Not Found", request, null);
+    }
+}
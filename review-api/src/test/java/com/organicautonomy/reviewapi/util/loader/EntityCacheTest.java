@@ -0,0 +1,153 @@
+package com.organicautonomy.reviewapi.util.loader;
+
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.util.feign.UserClient;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class EntityCacheTest {
+    private static final long TTL_MS = 1000;
+    private static final long STALE_IF_ERROR_MS = 5000;
+
+    private final UserClient client = mock(UserClient.class);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong();
+    // loads and refreshes run on the calling thread, so each lookup has fully settled when it returns.
+    private final Executor executor = Runnable::run;
+    private EntityCache<Integer, User> cache;
+
+    @BeforeEach
+    void setUp() {
+        BatchRoute<Integer, User> route = BatchRoute.blocking("users", client::getUsersByIds, User::getId, client::getUserById, 100, 4, 60000, executor);
+        cache = new EntityCache<>("users", new RequestCollapser<>(route, null, 0, registry),
+                TTL_MS, STALE_IF_ERROR_MS, 100, executor, registry, now::get);
+        when(client.getUsersByIds(anyList())).thenAnswer(invocation -> users(invocation.getArgument(0), "v1"));
+    }
+
+    @Test
+    void testHitsDoNotGoDownstream() throws Exception {
+        assertEquals("v1-1", get(1).getUsername());
+        assertEquals(Arrays.asList("v1-1", "v1-2"), names(getAll(1, 2)));
+
+        verify(client, times(1)).getUsersByIds(Arrays.asList(1));
+        verify(client, times(1)).getUsersByIds(Arrays.asList(2));
+        assertEquals("v1-1", get(1).getUsername());
+        assertEquals(2, registry.get("cache.gets").tag("cache", "users").tag("result", "hit").functionCounter().count());
+    }
+
+    @Test
+    void testUnknownIdsAreNotCached() throws Exception {
+        when(client.getUsersByIds(anyList())).thenReturn(Collections.emptyList());
+
+        assertNull(get(1));
+        assertNull(get(1));
+        verify(client, times(2)).getUsersByIds(Arrays.asList(1));
+    }
+
+    @Test
+    void testStaleEntryIsServedWhileRefreshing() throws Exception {
+        get(1);
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS + 1));
+        when(client.getUsersByIds(anyList())).thenAnswer(invocation -> users(invocation.getArgument(0), "v2"));
+
+        assertEquals("v1-1", get(1).getUsername());
+        assertEquals("v2-1", get(1).getUsername());
+        verify(client, times(2)).getUsersByIds(Arrays.asList(1));
+    }
+
+    @Test
+    void testStaleEntryIsServedWhileDownstreamFails() throws Exception {
+        get(1);
+        when(client.getUsersByIds(anyList())).thenThrow(serverError());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(TTL_MS + 1));
+        assertEquals("v1-1", get(1).getUsername());
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(STALE_IF_ERROR_MS - 10));
+        assertEquals("v1-1", get(1).getUsername());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(20));
+        ExecutionException e = assertThrows(ExecutionException.class, () -> get(1));
+        assertTrue(e.getCause() instanceof FeignException.InternalServerError);
+    }
+
+    @Test
+    void testFailedMissDoesNotFailCachedIds() throws Exception {
+        get(1);
+        when(client.getUsersByIds(anyList())).thenThrow(serverError());
+
+        Map<Integer, CompletableFuture<User>> calls = calls(1, 2);
+        cache.submit(calls);
+
+        assertEquals("v1-1", calls.get(1).get(1, TimeUnit.SECONDS).getUsername());
+        assertThrows(ExecutionException.class, () -> calls.get(2).get(1, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testInvalidatedEntryIsLoadedAgain() throws Exception {
+        get(1);
+        when(client.getUsersByIds(anyList())).thenAnswer(invocation -> users(invocation.getArgument(0), "v2"));
+
+        cache.invalidate(1);
+
+        assertEquals("v2-1", get(1).getUsername());
+    }
+
+    @Test
+    void testZeroTtlPassesThrough() throws Exception {
+        BatchRoute<Integer, User> route = BatchRoute.blocking("users", client::getUsersByIds, User::getId, client::getUserById, 100, 4, 60000, executor);
+        cache = new EntityCache<>("off", new RequestCollapser<>(route, null, 0, registry), 0, 0, 100, executor, registry);
+
+        get(1);
+        get(1);
+        verify(client, times(2)).getUsersByIds(Arrays.asList(1));
+    }
+
+    private User get(int id) throws Exception {
+        return getAll(id).get(id);
+    }
+
+    private Map<Integer, User> getAll(Integer... ids) throws Exception {
+        Map<Integer, CompletableFuture<User>> calls = calls(ids);
+        cache.submit(calls);
+
+        Map<Integer, User> found = new LinkedHashMap<>();
+        for (Map.Entry<Integer, CompletableFuture<User>> call : calls.entrySet()) {
+            found.put(call.getKey(), call.getValue().get(1, TimeUnit.SECONDS));
+        }
+        return found;
+    }
+
+    private static Map<Integer, CompletableFuture<User>> calls(Integer... ids) {
+        Map<Integer, CompletableFuture<User>> calls = new LinkedHashMap<>();
+        for (Integer id : ids) {
+            calls.put(id, new CompletableFuture<>());
+        }
+        return calls;
+    }
+
+    private static List<String> names(Map<Integer, User> users) {
+        return users.values().stream().map(User::getUsername).collect(Collectors.toList());
+    }
+
+    private static List<User> users(List<Integer> ids, String version) {
+        return ids.stream().map(id -> new User(id, version + "-" + id, "user" + id + "@example.com")).collect(Collectors.toList());
+    }
+
+    private static FeignException serverError() {
+        Request request = Request.create(Request.HttpMethod.GET, "/", Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+        return new FeignException.InternalServerError("Internal Server Error", request, null);
+    }
+}
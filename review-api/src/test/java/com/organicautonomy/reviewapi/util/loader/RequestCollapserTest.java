@@ -0,0 +1,142 @@
+package com.organicautonomy.reviewapi.util.loader;
+
+import com.organicautonomy.reviewapi.dto.User;
+import com.organicautonomy.reviewapi.util.feign.UserClient;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RequestCollapserTest {
+    private final UserClient client = mock(UserClient.class);
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private ExecutorService executor;
+    private ScheduledExecutorService timer;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(8);
+        timer = Executors.newSingleThreadScheduledExecutor();
+        when(client.getUsersByIds(anyList())).thenAnswer(invocation -> users(invocation.getArgument(0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        timer.shutdownNow();
+    }
+
+    @Test
+    void testCallsWithinWindowShareOneDownstreamCall() throws Exception {
+        RequestCollapser<Integer, User> collapser = collapser(100, 50);
+
+        CompletableFuture<User> first = collapser.load(1);
+        CompletableFuture<User> second = collapser.load(2);
+        CompletableFuture<User> again = collapser.load(1);
+
+        assertEquals(1, first.get(1, TimeUnit.SECONDS).getId());
+        assertEquals(2, second.get(1, TimeUnit.SECONDS).getId());
+        assertEquals(1, again.get(1, TimeUnit.SECONDS).getId());
+        verify(client, times(1)).getUsersByIds(Arrays.asList(1, 2));
+
+        DistributionSummary batchSize = registry.get("api.collapser.batch.size").tag("route", "users").summary();
+        assertEquals(1, batchSize.count());
+        assertEquals(2, batchSize.totalAmount());
+        Timer queueDelay = registry.get("api.collapser.queue.delay").timer();
+        assertEquals(3, queueDelay.count());
+        assertTrue(queueDelay.max(TimeUnit.MILLISECONDS) >= 40, "waited " + queueDelay.max(TimeUnit.MILLISECONDS) + " ms");
+        assertEquals(1, registry.get("api.collapser.collapsed").counter().count());
+    }
+
+    @Test
+    void testConcurrentCallersAreMerged() throws Exception {
+        RequestCollapser<Integer, User> collapser = collapser(100, 20);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<User>> results = new CopyOnWriteArrayList<>();
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+
+        try {
+            for (int i = 0; i < 64; i++) {
+                int id = 1 + i % 4;
+                callers.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    results.add(collapser.load(id));
+                });
+            }
+            start.countDown();
+            callers.shutdown();
+            assertTrue(callers.awaitTermination(1, TimeUnit.SECONDS));
+        } finally {
+            callers.shutdownNow();
+        }
+
+        for (Future<User> result : results) {
+            assertNotNull(result.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(64, results.size());
+        long downstreamCalls = mockingDetails(client).getInvocations().size();
+        assertTrue(downstreamCalls < 8, downstreamCalls + " downstream calls");
+        double sent = registry.get("api.collapser.batch.size").summary().totalAmount();
+        assertEquals(64 - sent, registry.get("api.collapser.collapsed").counter().count());
+    }
+
+    @Test
+    void testFullWindowIsSentWithoutWaiting() throws Exception {
+        RequestCollapser<Integer, User> collapser = collapser(3, 10_000);
+
+        List<CompletableFuture<User>> futures = Arrays.asList(collapser.load(1), collapser.load(2), collapser.load(3));
+        CompletableFuture<User> next = collapser.load(4);
+
+        for (CompletableFuture<User> future : futures) {
+            assertNotNull(future.get(1, TimeUnit.SECONDS));
+        }
+        assertFalse(next.isDone());
+        verify(client, times(1)).getUsersByIds(Arrays.asList(1, 2, 3));
+    }
+
+    @Test
+    void testZeroWindowSendsEachSubmit() throws Exception {
+        RequestCollapser<Integer, User> collapser = collapser(100, 0);
+
+        assertEquals(1, collapser.load(1).get(1, TimeUnit.SECONDS).getId());
+        assertEquals(1, collapser.load(1).get(1, TimeUnit.SECONDS).getId());
+
+        verify(client, times(2)).getUsersByIds(Arrays.asList(1));
+    }
+
+    @Test
+    void testCancelledCallerDoesNotFailOthers() throws Exception {
+        RequestCollapser<Integer, User> collapser = collapser(100, 50);
+
+        CompletableFuture<User> cancelled = collapser.load(1);
+        CompletableFuture<User> other = collapser.load(1);
+        cancelled.cancel(false);
+
+        assertEquals(1, other.get(1, TimeUnit.SECONDS).getId());
+    }
+
+    private RequestCollapser<Integer, User> collapser(int maxBatchSize, long windowMs) {
+        BatchRoute<Integer, User> route = BatchRoute.blocking("users", client::getUsersByIds, User::getId, client::getUserById,
+                maxBatchSize, 4, 60000, executor);
+        return new RequestCollapser<>(route, timer, windowMs, registry);
+    }
+
+    private static List<User> users(List<Integer> ids) {
+        return ids.stream().map(id -> new User(id, "user" + id, "user" + id + "@example.com")).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,51 @@
+package com.organicautonomy.reviewapi.util.reactive;
+
+import com.organicautonomy.reviewapi.dto.Review;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveReviewClientTest {
+    private final List<ClientRequest> requests = new ArrayList<>();
+
+    @Test
+    void testGetReviewsByUserId() {
+        ReactiveReviewClient client = client(HttpStatus.OK,
+                "[{\"id\":1,\"userId\":10,\"bookId\":1,\"rating\":\"4.50\",\"text\":\"Stunning.\"}]");
+
+        List<Review> reviews = client.getReviewsByUserId(10).collectList().block();
+
+        assertEquals(Collections.singletonList(new Review(1, 10, 1, new BigDecimal("4.50"), "Stunning.")), reviews);
+        assertEquals("http://review-service/reviews/users/10", requests.get(0).url().toString());
+    }
+
+    @Test
+    void testGetReviewsByBookIdNotFoundIsEmpty() {
+        ReactiveReviewClient client = client(HttpStatus.NOT_FOUND, "");
+
+        assertTrue(client.getReviewsByBookId(1).collectList().block().isEmpty());
+        assertEquals("http://review-service/reviews/books/1", requests.get(0).url().toString());
+    }
+
+    private ReactiveReviewClient client(HttpStatus status, String body) {
+        return new ReactiveReviewClient(WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(ClientResponse.create(status)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+        }));
+    }
+}
@@ -0,0 +1,60 @@
+package com.organicautonomy.reviewapi.util.reactive;
+
+import com.organicautonomy.reviewapi.dto.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReactiveUserClientTest {
+    private final List<ClientRequest> requests = new ArrayList<>();
+
+    @Test
+    void testGetUsersByIds() {
+        ReactiveUserClient client = client(HttpStatus.OK,
+                "[{\"id\":1,\"username\":\"brooke\",\"email\":\"brooke@gmail.com\"},"
+                        + "{\"id\":2,\"username\":\"$GMEtothemoon\",\"email\":\"bagholder@gmail.com\"}]");
+
+        List<User> users = client.getUsersByIds(Arrays.asList(1, 2)).collectList().block();
+
+        assertEquals(Arrays.asList(new User(1, "brooke", "brooke@gmail.com"), new User(2, "$GMEtothemoon", "bagholder@gmail.com")), users);
+        assertEquals("http://user-service/users/batch?ids=1&ids=2", requests.get(0).url().toString());
+    }
+
+    @Test
+    void testGetUserByIdNotFoundIsEmpty() {
+        ReactiveUserClient client = client(HttpStatus.NOT_FOUND, "");
+
+        assertNull(client.getUserById(3).block());
+        assertEquals("http://user-service/users/3", requests.get(0).url().toString());
+    }
+
+    @Test
+    void testServerErrorsAreSignalled() {
+        ReactiveUserClient client = client(HttpStatus.INTERNAL_SERVER_ERROR, "");
+
+        assertThrows(WebClientResponseException.InternalServerError.class, () -> client.getUserById(3).block());
+        assertThrows(WebClientResponseException.InternalServerError.class, () -> client.getUsersByIds(Arrays.asList(1)).blockLast());
+    }
+
+    private ReactiveUserClient client(HttpStatus status, String body) {
+        return new ReactiveUserClient(WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return Mono.just(ClientResponse.create(status)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+        }));
+    }
+}
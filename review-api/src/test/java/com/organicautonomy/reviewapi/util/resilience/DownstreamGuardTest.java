@@ -0,0 +1,159 @@
+package com.organicautonomy.reviewapi.util.resilience;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import org.springframework.web.util.UriComponentsBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DownstreamGuardTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final Map<String, Integer> ports = new HashMap<>();
+    private final AtomicBoolean reviewsFailing = new AtomicBoolean(true);
+    private final AtomicInteger reviewCalls = new AtomicInteger();
+    private DisposableServer userService;
+    private DisposableServer bookService;
+    private DisposableServer reviewService;
+
+    @BeforeEach
+    void setUp() {
+        userService = stub("user-service", HttpServer.create().route(routes -> routes.get("/users/1",
+                (request, response) -> response.sendString(Mono.delay(Duration.ofMillis(500)).thenReturn("slow")))));
+        bookService = stub("book-service", HttpServer.create().route(routes -> routes
+                .get("/books/1", (request, response) -> response.sendString(Mono.just("fast")))
+                .get("/books/stream", (request, response) -> response.sendString(
+                        Flux.concat(Mono.just("first"), Mono.delay(Duration.ofMillis(400)).thenReturn(" last"))))));
+        reviewService = stub("review-service", HttpServer.create().route(routes -> routes.get("/reviews/1", (request, response) -> {
+            reviewCalls.incrementAndGet();
+            return reviewsFailing.get()
+                    ? response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).send()
+                    : response.sendString(Mono.just("ok"));
+        })));
+    }
+
+    @AfterEach
+    void tearDown() {
+        userService.disposeNow();
+        bookService.disposeNow();
+        reviewService.disposeNow();
+    }
+
+    @Test
+    void testSlowServiceOnlyFillsItsOwnBulkhead() {
+        WebClient client = client(guard(1000));
+        // the first connection of the run pays for setting up the client, keep it out of the timing.
+        assertEquals("fast", get(client, "http://book-service/books/1").block());
+        Disposable first = get(client, "http://user-service/users/1").subscribe();
+        Disposable second = get(client, "http://user-service/users/1").subscribe();
+
+        long start = System.nanoTime();
+        assertThrows(BulkheadFullException.class, () -> get(client, "http://user-service/users/1").block());
+        assertEquals("fast", get(client, "http://book-service/books/1").block());
+        assertTrue((System.nanoTime() - start) / 1_000_000 < 300);
+
+        assertEquals(0, registry.get("resilience4j.bulkhead.available.concurrent.calls").tag("name", "user-service").gauge().value());
+        assertEquals(1, registry.get("api.downstream.rejections").tag("service", "user-service").tag("reason", "bulkhead").counter().count());
+        first.dispose();
+        second.dispose();
+        assertEquals(2, registry.get("resilience4j.bulkhead.available.concurrent.calls").tag("name", "user-service").gauge().value());
+    }
+
+    @Test
+    void testStreamingBodiesHoldTheirPermitsUntilTheyEnd() throws Exception {
+        WebClient client = client(guard(1000));
+        CompletableFuture<String> first = get(client, "http://book-service/books/stream").toFuture();
+        CompletableFuture<String> second = get(client, "http://book-service/books/stream").toFuture();
+        Thread.sleep(200);
+
+        assertThrows(BulkheadFullException.class, () -> get(client, "http://book-service/books/1").block());
+        assertEquals("first last", first.get());
+        assertEquals("first last", second.get());
+        assertEquals(2, registry.get("resilience4j.bulkhead.available.concurrent.calls").tag("name", "book-service").gauge().value());
+        assertEquals("fast", get(client, "http://book-service/books/1").block());
+    }
+
+    @Test
+    void testBreakerOpensOnServerErrorsAndCloses() throws Exception {
+        DownstreamGuard guard = guard(1000);
+        WebClient client = client(guard);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(WebClientResponseException.InternalServerError.class, () -> get(client, "http://review-service/reviews/1").block());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState("review-service"));
+        assertThrows(CallNotPermittedException.class, () -> get(client, "http://review-service/reviews/1").block());
+        assertEquals(4, reviewCalls.get());
+        assertEquals(1, registry.get("resilience4j.circuitbreaker.state").tag("name", "review-service").tag("state", "open").gauge().value());
+        assertEquals(1, registry.get("api.downstream.rejections").tag("service", "review-service").tag("reason", "circuit-open").counter().count());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState("book-service"));
+
+        reviewsFailing.set(false);
+        Thread.sleep(250);
+        assertEquals("ok", get(client, "http://review-service/reviews/1").block());
+        assertEquals(CircuitBreaker.State.HALF_OPEN, guard.getState("review-service"));
+        assertEquals("ok", get(client, "http://review-service/reviews/1").block());
+        assertEquals(CircuitBreaker.State.CLOSED, guard.getState("review-service"));
+    }
+
+    @Test
+    void testCallsCutOffByTheCallerCountAsSlow() {
+        DownstreamGuard guard = guard(100);
+        WebClient client = client(guard);
+        for (int i = 0; i < 4; i++) {
+            assertThrows(RuntimeException.class, () -> get(client, "http://user-service/users/1").timeout(Duration.ofMillis(200)).block());
+        }
+
+        assertEquals(CircuitBreaker.State.OPEN, guard.getState("user-service"));
+        assertEquals(4, registry.get("resilience4j.circuitbreaker.slow.calls").tag("name", "user-service").tag("kind", "successful")
+                .gauge().value());
+    }
+
+    // 2 calls in flight per service; the breaker judges from 4 calls, opens at half of them failing and
+    // half-opens after 200 ms for 2 trial calls.
+    private DownstreamGuard guard(long slowCallMs) {
+        return new DownstreamGuard(2, 50, slowCallMs, 10, 4, 200, 2, registry);
+    }
+
+    // the guard sees service names, a stand-in for the load balancer sends them to the stubs.
+    private WebClient client(DownstreamGuard guard) {
+        return WebClient.builder()
+                .filter(guard)
+                .filter((request, next) -> next.exchange(ClientRequest.from(request)
+                        .url(UriComponentsBuilder.fromUri(request.url()).host("127.0.0.1").port(ports.get(request.url().getHost()))
+                                .build(true).toUri())
+                        .build()))
+                .build();
+    }
+
+    private static Mono<String> get(WebClient client, String url) {
+        return client.get().uri(url).retrieve().bodyToMono(String.class);
+    }
+
+    private DisposableServer stub(String service, HttpServer server) {
+        DisposableServer bound = server.host("127.0.0.1").port(0).bindNow();
+        ports.put(service, bound.port());
+        return bound;
+    }
+}
@@ -0,0 +1,41 @@
+package com.organicautonomy.reviewqueue.config;
+
+import com.organicautonomy.reviewqueue.util.feign.PooledFeignClient;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.loadbalancer.LoadBalancedRetryFactory;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerClient;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.cloud.openfeign.loadbalancer.FeignBlockingLoadBalancerClient;
+import org.springframework.cloud.openfeign.loadbalancer.RetryableFeignBlockingLoadBalancerClient;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class FeignConfig {
+    @Bean(destroyMethod = "close")
+    public PooledFeignClient pooledFeignClient(MeterRegistry registry,
+                                               @Value("${queue.feign.pool.max-connections:50}") int maxConnections,
+                                               @Value("${queue.feign.pool.max-idle-ms:30000}") long maxIdleMs,
+                                               @Value("${queue.feign.pool.time-to-live-ms:300000}") long timeToLiveMs) {
+        return new PooledFeignClient(maxConnections, maxIdleMs, timeToLiveMs, registry);
+    }
+
+    // the client every @FeignClient uses: the load balancer picks an instance, the pooled client sends the request.
+    @Bean
+    @Primary
+    public Client feignClient(PooledFeignClient pooledFeignClient, LoadBalancerClient loadBalancerClient,
+                              LoadBalancerProperties properties, LoadBalancerClientFactory loadBalancerClientFactory,
+                              ObjectProvider<LoadBalancedRetryFactory> retryFactory) {
+        LoadBalancedRetryFactory retry = properties.getRetry().isEnabled() ? retryFactory.getIfAvailable() : null;
+        if (retry != null) {
+            return new RetryableFeignBlockingLoadBalancerClient(pooledFeignClient, loadBalancerClient, retry, properties,
+                    loadBalancerClientFactory);
+        }
+        return new FeignBlockingLoadBalancerClient(pooledFeignClient, loadBalancerClient, properties, loadBalancerClientFactory);
+    }
+}
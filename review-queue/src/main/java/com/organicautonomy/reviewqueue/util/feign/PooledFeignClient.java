@@ -0,0 +1,139 @@
+package com.organicautonomy.reviewqueue.util.feign;
+
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.httpclient.ApacheHttpClient;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpHost;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.protocol.HttpContext;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign transport keeping a pool of HTTP/1.1 keep-alive connections per downstream service, so a
+ * slow service can only tie up its own connections. The pool is picked by the Feign client's name,
+ * the service id, which survives the load balancer rewriting the URL to an instance. Connections
+ * idle for maxIdleMs are closed, and none lives past timeToLiveMs so new instances get traffic.
+ * <p>
+ * Each pool publishes httpcomponents.httpclient.pool.* gauges (leased, pending and available
+ * connections) tagged httpclient with the service id, and queue.feign.connect, the time to open a
+ * connection, tagged pool.
+ */
+public class PooledFeignClient implements Client, Closeable {
+    private final int maxConnections;
+    private final long maxIdleMs;
+    private final long timeToLiveMs;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, Pool> pools = new ConcurrentHashMap<>();
+
+    public PooledFeignClient(int maxConnections, long maxIdleMs, long timeToLiveMs, MeterRegistry registry) {
+        if (maxConnections < 1) {
+            throw new IllegalArgumentException("The pools need at least 1 connection.");
+        }
+
+        this.maxConnections = maxConnections;
+        this.maxIdleMs = maxIdleMs;
+        this.timeToLiveMs = timeToLiveMs;
+        this.registry = registry;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        return pools.computeIfAbsent(poolName(request), this::pool).client.execute(request, options);
+    }
+
+    @Override
+    public void close() throws IOException {
+        for (Pool pool : pools.values()) {
+            pool.http.close();
+        }
+    }
+
+    private static String poolName(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        if (template != null && template.feignTarget() != null) {
+            return template.feignTarget().name();
+        }
+        return URI.create(request.url()).getAuthority();
+    }
+
+    private Pool pool(String name) {
+        Timer connectTime = Timer.builder("queue.feign.connect")
+                .description("Time to open a connection to a downstream service")
+                .tag("pool", name)
+                .publishPercentileHistogram()
+                .register(registry);
+        PoolingHttpClientConnectionManager connections = new PoolingHttpClientConnectionManager(
+                RegistryBuilder.<ConnectionSocketFactory>create()
+                        .register("http", new TimedSocketFactory(PlainConnectionSocketFactory.getSocketFactory(), connectTime))
+                        .register("https", new TimedSocketFactory(SSLConnectionSocketFactory.getSocketFactory(), connectTime))
+                        .build(),
+                null, null, null, timeToLiveMs, TimeUnit.MILLISECONDS);
+        // a service is reached through its instances, the whole pool may go to one of them.
+        connections.setMaxTotal(maxConnections);
+        connections.setDefaultMaxPerRoute(maxConnections);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connections, name).bindTo(registry);
+
+        CloseableHttpClient http = HttpClients.custom()
+                .setConnectionManager(connections)
+                .evictIdleConnections(maxIdleMs, TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
+                .disableCookieManagement()
+                .build();
+        return new Pool(http, new ApacheHttpClient(http));
+    }
+
+    private static class Pool {
+        private final CloseableHttpClient http;
+        private final Client client;
+
+        Pool(CloseableHttpClient http, Client client) {
+            this.http = http;
+            this.client = client;
+        }
+    }
+
+    private static class TimedSocketFactory implements ConnectionSocketFactory {
+        private final ConnectionSocketFactory delegate;
+        private final Timer connectTime;
+
+        TimedSocketFactory(ConnectionSocketFactory delegate, Timer connectTime) {
+            this.delegate = delegate;
+            this.connectTime = connectTime;
+        }
+
+        @Override
+        public Socket createSocket(HttpContext context) throws IOException {
+            return delegate.createSocket(context);
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket socket, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return delegate.connectSocket(connectTimeout, socket, host, remoteAddress, localAddress, context);
+            } finally {
+                connectTime.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+}
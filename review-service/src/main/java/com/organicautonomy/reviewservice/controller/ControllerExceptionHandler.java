@@ -1,7 +1,9 @@
 package com.organicautonomy.reviewservice.controller;
 
 import com.organicautonomy.reviewservice.exception.ErrorDetails;
+import com.organicautonomy.reviewservice.exception.ResourceConflictException;
 import com.organicautonomy.reviewservice.exception.ResourceNotFoundException;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
@@ -24,6 +26,20 @@ public class ControllerExceptionHandler {
         return new ResponseEntity(errorDetails, HttpStatus.NOT_FOUND);
     }
 
+    @ExceptionHandler(ResourceConflictException.class)
+    public ResponseEntity<Error> handleResourceConflictException(ResourceConflictException e, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), e.getMessage(), request.getDescription(false));
+        return new ResponseEntity(errorDetails, HttpStatus.CONFLICT);
+    }
+
+    // a concurrent write won the race past the in-memory duplicate check.
+    @ExceptionHandler(DataIntegrityViolationException.class)
+    public ResponseEntity<Error> handleDataIntegrityViolationException(DataIntegrityViolationException e, WebRequest request) {
+        ErrorDetails errorDetails = new ErrorDetails(new Date(), "The request conflicts with an existing review.",
+                request.getDescription(false));
+        return new ResponseEntity(errorDetails, HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<Error> handleIllegalArgumentException(IllegalArgumentException e, WebRequest request) {
         ErrorDetails errorDetails = new ErrorDetails(new Date(), e.getMessage(), request.getDescription(false));
@@ -0,0 +1,73 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.organicautonomy.reviewservice.dto.RatingDistribution;
+import com.organicautonomy.reviewservice.dto.RatingStats;
+import com.organicautonomy.reviewservice.util.analytics.ReviewColumnStore;
+import com.organicautonomy.reviewservice.util.analytics.ReviewFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/reviews/analytics")
+public class ReviewAnalyticsController {
+    @Autowired
+    private ReviewColumnStore store;
+
+    @GetMapping("/stats")
+    @ResponseStatus(HttpStatus.OK)
+    public RatingStats getRatingStats(@RequestParam(required = false) Integer bookId,
+                                      @RequestParam(required = false) Integer userId,
+                                      @RequestParam(defaultValue = "0") BigDecimal minRating,
+                                      @RequestParam(defaultValue = "5") BigDecimal maxRating) {
+        return store.aggregate(toFilter(bookId, userId, minRating, maxRating));
+    }
+
+    @GetMapping("/distribution")
+    @ResponseStatus(HttpStatus.OK)
+    public RatingDistribution getRatingDistribution(@RequestParam(required = false) Integer bookId,
+                                                    @RequestParam(required = false) Integer userId,
+                                                    @RequestParam(defaultValue = "0.5") BigDecimal bucketWidth) {
+        int scaledWidth = bucketWidth.setScale(2, RoundingMode.HALF_UP).movePointRight(2).intValue();
+
+        return store.histogram(toFilter(bookId, userId, BigDecimal.ZERO, new BigDecimal("5")), scaledWidth);
+    }
+
+    @GetMapping("/groups")
+    @ResponseStatus(HttpStatus.OK)
+    public List<RatingStats> getRatingStatsByGroup(@RequestParam(defaultValue = "book") String by,
+                                                   @RequestParam(defaultValue = "0") BigDecimal minRating,
+                                                   @RequestParam(defaultValue = "5") BigDecimal maxRating,
+                                                   @RequestParam(defaultValue = "1") long minCount) {
+        ReviewColumnStore.Column column;
+        if ("book".equals(by)) {
+            column = ReviewColumnStore.Column.BOOK;
+        } else if ("user".equals(by)) {
+            column = ReviewColumnStore.Column.USER;
+        } else {
+            throw new IllegalArgumentException("Reviews can only be grouped by book or user.");
+        }
+
+        return store.groupBy(column, toFilter(null, null, minRating, maxRating)).stream()
+                .filter(stats -> stats.getCount() >= minCount)
+                .collect(Collectors.toList());
+    }
+
+    private ReviewFilter toFilter(Integer bookId, Integer userId, BigDecimal minRating, BigDecimal maxRating) {
+        if (minRating.compareTo(maxRating) > 0) {
+            throw new IllegalArgumentException("Minimum rating cannot be greater than maximum rating.");
+        }
+
+        short min = (short) Math.max(ReviewFilter.MIN_RATING,
+                minRating.setScale(2, RoundingMode.CEILING).movePointRight(2).intValue());
+        short max = (short) Math.min(ReviewFilter.MAX_RATING,
+                maxRating.setScale(2, RoundingMode.FLOOR).movePointRight(2).intValue());
+
+        return new ReviewFilter(bookId, userId, min, max);
+    }
+}
@@ -1,32 +1,160 @@
 package com.organicautonomy.reviewservice.controller;
 
 import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.BatchItemError;
+import com.organicautonomy.reviewservice.dto.BatchResult;
 import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewCursor;
+import com.organicautonomy.reviewservice.dto.ReviewImport;
+import com.organicautonomy.reviewservice.dto.ReviewPage;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import com.organicautonomy.reviewservice.exception.ResourceConflictException;
 import com.organicautonomy.reviewservice.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewservice.util.collection.LongHashSet;
+import com.organicautonomy.reviewservice.util.dedupe.ReviewKeyIndex;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validator;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/reviews")
 public class ReviewController {
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_BATCH_SIZE = 10000;
+    private static final BigDecimal MAX_RATING = new BigDecimal(5);
+    private static final String DUPLICATE_REVIEW = "This user has already reviewed this book.";
+
     @Autowired
     private ReviewRepository repository;
+    @Autowired
+    private ApplicationEventPublisher publisher;
+    @Autowired
+    private Validator validator;
+    @Autowired
+    private ReviewKeyIndex keyIndex;
 
     @GetMapping
     @ResponseStatus(HttpStatus.OK)
-    public List<Review> getAllReviews() {
-        return repository.findAll();
+    public List<ReviewSummary> getAllReviews() {
+        return repository.findAllSummaries();
     }
 
     @PostMapping
-    @ResponseStatus(HttpStatus.CREATED)
-    public Review createReview(@RequestBody @Valid Review review) {
-        return repository.save(review);
+    public ResponseEntity<Review> createReview(@RequestBody @Valid Review review,
+                                               @RequestParam(defaultValue = "false") boolean upsert) {
+        // save would merge over the review holding that id.
+        if (review.getId() != null) {
+            throw new IllegalArgumentException("A new review cannot have an id.");
+        }
+
+        if (keyIndex.contains(review.getUserId(), review.getBookId())) {
+            if (!upsert) {
+                throw new ResourceConflictException(DUPLICATE_REVIEW);
+            }
+
+            Review updated = updateExistingReview(review);
+            if (updated != null) {
+                return new ResponseEntity<>(updated, HttpStatus.OK);
+            }
+        }
+
+        Review saved;
+        try {
+            saved = repository.save(review);
+        } catch (DataIntegrityViolationException e) {
+            // written since the key index was checked, an upsert updates that review instead.
+            Review updated = upsert ? updateExistingReview(review) : null;
+            if (updated == null) {
+                throw e;
+            }
+            return new ResponseEntity<>(updated, HttpStatus.OK);
+        }
+        publisher.publishEvent(ReviewEvent.created(saved));
+
+        return new ResponseEntity<>(saved, HttpStatus.CREATED);
+    }
+
+    @PostMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public BatchResult createReviews(@RequestBody List<ReviewImport> reviews) {
+        if (reviews.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch cannot contain more than " + MAX_BATCH_SIZE + " reviews.");
+        }
+
+        List<Review> valid = new ArrayList<>(reviews.size());
+        List<Integer> validIndexes = new ArrayList<>(reviews.size());
+        List<BatchItemError> errors = new ArrayList<>();
+        LongHashSet batchKeys = new LongHashSet(reviews.size());
+
+        for (int i = 0; i < reviews.size(); i++) {
+            ReviewImport item = reviews.get(i);
+            if (item == null) {
+                errors.add(new BatchItemError(i, "Review cannot be null."));
+                continue;
+            }
+
+            Set<ConstraintViolation<ReviewImport>> violations = validator.validate(item);
+            if (!violations.isEmpty()) {
+                errors.add(new BatchItemError(i, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", "))));
+                continue;
+            }
+
+            Review review = item.toReview();
+            // duplicates are rejected against the table and within the batch itself.
+            if (keyIndex.contains(review.getUserId(), review.getBookId())
+                    || !batchKeys.add(ReviewKeyIndex.key(review.getUserId(), review.getBookId()))) {
+                errors.add(new BatchItemError(i, DUPLICATE_REVIEW));
+                continue;
+            }
+
+            valid.add(review);
+            validIndexes.add(i);
+        }
+
+        List<Review> created = new ArrayList<>(valid.size());
+        if (!valid.isEmpty()) {
+            // a review written since the key index check is caught by the table's unique key.
+            List<Review> stored = repository.insertAll(valid);
+            for (int i = 0; i < stored.size(); i++) {
+                if (stored.get(i) == null) {
+                    errors.add(new BatchItemError(validIndexes.get(i), DUPLICATE_REVIEW));
+                } else {
+                    created.add(stored.get(i));
+                }
+            }
+            errors.sort(Comparator.comparingInt(BatchItemError::getIndex));
+            if (!created.isEmpty()) {
+                publisher.publishEvent(new ReviewBatchEvent(created));
+            }
+        }
+
+        List<Integer> ids = created.stream().map(Review::getId).collect(Collectors.toList());
+        return new BatchResult(created.size(), ids, errors);
     }
 
     @GetMapping("/{reviewId}")
@@ -40,7 +168,7 @@ public class ReviewController {
     @PutMapping("/{reviewId}")
     @ResponseStatus(HttpStatus.NO_CONTENT)
     public void updateReview(@PathVariable Integer reviewId, @RequestBody @Valid Review review) {
-        if (!reviewId.equals(review.getBookId())) {
+        if (!reviewId.equals(review.getId())) {
             throw new IllegalArgumentException("Path id must match review object id.");
         }
 
@@ -50,8 +178,16 @@ public class ReviewController {
             throw new ResourceNotFoundException("There are no reviews associated with the id provided.");
         }
 
+        // copy before saving, the merge writes the new state onto the managed instance.
+        Review previous = new Review(compare.get());
+        if (!previous.getBookId().equals(review.getBookId())) {
+            throw new IllegalArgumentException("A review cannot be moved to another book.");
+        }
+        review.setCreatedAt(previous.getCreatedAt());
+
         // if we successfully arrive here, the path and object have same id and object exists in db.
-        repository.save(review);
+        Review saved = repository.save(review);
+        publisher.publishEvent(ReviewEvent.updated(previous, saved));
     }
 
     @DeleteMapping("/{reviewId}")
@@ -64,12 +200,13 @@ public class ReviewController {
         }
         // if we successfully arrive here, the object exists in db and we can safely delete it.
         repository.delete(review.get());
+        publisher.publishEvent(ReviewEvent.deleted(review.get()));
     }
 
     @GetMapping("/books/{bookId}")
     @ResponseStatus(HttpStatus.OK)
-    public List<Review> getReviewsByBookId(@PathVariable Integer bookId) {
-        List<Review> reviews = repository.findReviewsByBookId(bookId);
+    public List<ReviewSummary> getReviewsByBookId(@PathVariable Integer bookId) {
+        List<ReviewSummary> reviews = repository.findSummariesByBookId(bookId);
 
         if (reviews.size() == 0) {
             throw new ResourceNotFoundException("There are no reviews associated with the book id provided.");
@@ -78,10 +215,28 @@ public class ReviewController {
         return reviews;
     }
 
+    @GetMapping("/books/{bookId}/page")
+    @ResponseStatus(HttpStatus.OK)
+    public ReviewPage getReviewPageByBookId(@PathVariable Integer bookId,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = keysetPageable(size);
+        List<ReviewSummary> reviews;
+
+        if (cursor == null) {
+            reviews = repository.findLatestSummariesByBookId(bookId, pageable);
+        } else {
+            ReviewCursor from = ReviewCursor.decode(cursor);
+            reviews = repository.findSummariesByBookIdBefore(bookId, from.getCreatedAt(), from.getId(), pageable);
+        }
+
+        return toReviewPage(reviews, size);
+    }
+
     @GetMapping("/users/{userId}")
     @ResponseStatus(HttpStatus.OK)
-    public List<Review> getReviewsByUserId(@PathVariable Integer userId) {
-        List<Review> reviews = repository.findReviewsByUserId(userId);
+    public List<ReviewSummary> getReviewsByUserId(@PathVariable Integer userId) {
+        List<ReviewSummary> reviews = repository.findSummariesByUserId(userId);
 
         if (reviews.size() == 0) {
             throw new ResourceNotFoundException("There are no reviews associated with the user id provided.");
@@ -90,10 +245,28 @@ public class ReviewController {
         return reviews;
     }
 
+    @GetMapping("/users/{userId}/page")
+    @ResponseStatus(HttpStatus.OK)
+    public ReviewPage getReviewPageByUserId(@PathVariable Integer userId,
+                                           @RequestParam(required = false) String cursor,
+                                           @RequestParam(defaultValue = "20") int size) {
+        Pageable pageable = keysetPageable(size);
+        List<ReviewSummary> reviews;
+
+        if (cursor == null) {
+            reviews = repository.findLatestSummariesByUserId(userId, pageable);
+        } else {
+            ReviewCursor from = ReviewCursor.decode(cursor);
+            reviews = repository.findSummariesByUserIdBefore(userId, from.getCreatedAt(), from.getId(), pageable);
+        }
+
+        return toReviewPage(reviews, size);
+    }
+
     @GetMapping("/ratings/{rating}")
     @ResponseStatus(HttpStatus.OK)
-    public List<Review> getReviewsByRating(@PathVariable Integer rating) {
-        List<Review> reviews = repository.findReviewsByRating(rating);
+    public List<ReviewSummary> getReviewsByRating(@PathVariable Integer rating) {
+        List<ReviewSummary> reviews = repository.findSummariesByRating(rating);
 
         if (reviews.size() == 0) {
             throw new ResourceNotFoundException("There are no reviews with the rating provided.");
@@ -102,4 +275,84 @@ public class ReviewController {
         return reviews;
     }
 
+    @GetMapping("/ratings")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ReviewSummary> getReviewsByRatingRange(@RequestParam(defaultValue = "0") BigDecimal minRating,
+                                                @RequestParam(defaultValue = "5") BigDecimal maxRating,
+                                                @RequestParam(required = false) Integer bookId,
+                                                @RequestParam(defaultValue = "0") int page,
+                                                @RequestParam(defaultValue = "20") int size) {
+        // out of range values would overflow the short bucket.
+        if (minRating.signum() < 0 || maxRating.signum() < 0
+                || minRating.compareTo(MAX_RATING) > 0 || maxRating.compareTo(MAX_RATING) > 0) {
+            throw new IllegalArgumentException("Ratings must be between 0 and 5.");
+        }
+        if (minRating.compareTo(maxRating) > 0) {
+            throw new IllegalArgumentException("Minimum rating cannot be greater than maximum rating.");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be non-negative and size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+
+        // ceiling/floor keep the bucket range inside the requested decimal range.
+        short minBucket = minRating.setScale(2, RoundingMode.CEILING).movePointRight(2).shortValue();
+        short maxBucket = maxRating.setScale(2, RoundingMode.FLOOR).movePointRight(2).shortValue();
+        Pageable pageable = PageRequest.of(page, size, Sort.by("ratingBucket", "id").descending());
+
+        List<ReviewSummary> reviews = bookId == null
+                ? repository.findSummariesByRatingBucketBetween(minBucket, maxBucket, pageable).getContent()
+                : repository.findSummariesByBookIdAndRatingBucketBetween(bookId, minBucket, maxBucket, pageable).getContent();
+
+        if (reviews.size() == 0) {
+            throw new ResourceNotFoundException("There are no reviews within the rating range provided.");
+        }
+
+        return reviews;
+    }
+
+    /**
+     * Reads the user's review of the book and then rewrites it by the unique key, two statements
+     * rather than one, the read only supplies the previous state for the update event.
+     *
+     * @return the updated review, null when there is none to update and the caller should insert
+     */
+    private Review updateExistingReview(Review review) {
+        Review existing = repository.findReviewByUserIdAndBookId(review.getUserId(), review.getBookId());
+        if (existing == null) {
+            return null;
+        }
+
+        Review previous = new Review(existing);
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        int rows = repository.updateReviewByUserIdAndBookId(review.getUserId(), review.getBookId(), review.getRating(),
+                Review.toRatingBucket(review.getRating()), review.getText(), now);
+        if (rows == 0) {
+            // deleted between the read and the update.
+            return null;
+        }
+
+        Review updated = new Review(previous.getId(), review.getUserId(), review.getBookId(), review.getRating(), review.getText());
+        updated.setCreatedAt(previous.getCreatedAt());
+        updated.setUpdatedAt(now);
+        publisher.publishEvent(ReviewEvent.updated(previous, updated));
+
+        return updated;
+    }
+
+    private Pageable keysetPageable(int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Size must be between 1 and " + MAX_PAGE_SIZE + ".");
+        }
+        // one extra row tells us whether there is a next page without a count query.
+        return PageRequest.of(0, size + 1);
+    }
+
+    private ReviewPage toReviewPage(List<ReviewSummary> reviews, int size) {
+        if (reviews.size() <= size) {
+            return new ReviewPage(reviews, null);
+        }
+
+        List<ReviewSummary> page = reviews.subList(0, size);
+        return new ReviewPage(page, ReviewCursor.of(page.get(size - 1)).encode());
+    }
 }
@@ -0,0 +1,50 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.organicautonomy.reviewservice.util.export.ExportFormat;
+import com.organicautonomy.reviewservice.util.export.ReviewExporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+
+@RestController
+@RequestMapping("/reviews/export")
+public class ReviewExportController {
+    @Autowired
+    private ReviewExporter exporter;
+
+    // written to the response as rows are read, nothing is collected first.
+    @GetMapping
+    public void exportReviews(@RequestParam(defaultValue = "ndjson") String format,
+                              @RequestParam(required = false) Integer bookId,
+                              @RequestParam(required = false) String since,
+                              HttpServletResponse response) throws IOException {
+        ExportFormat exportFormat = ExportFormat.of(format);
+        Instant sinceInstant = parseSince(since);
+
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"reviews." + exportFormat.getFileExtension() + "\"");
+
+        exporter.export(exportFormat, bookId, sinceInstant, response.getOutputStream());
+    }
+
+    private static Instant parseSince(String since) {
+        if (since == null) {
+            return null;
+        }
+
+        try {
+            return Instant.parse(since);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("The since provided is invalid, use an ISO-8601 instant.");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.organicautonomy.reviewservice.dto.BookScore;
+import com.organicautonomy.reviewservice.util.leaderboard.BookLeaderboard;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/reviews/leaderboard")
+public class ReviewLeaderboardController {
+    private static final int MAX_ENTRIES = 1000;
+
+    @Autowired
+    private BookLeaderboard leaderboard;
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public List<BookScore> getLeaderboard(@RequestParam(defaultValue = "10") int n,
+                                          @RequestParam(defaultValue = "0") long minReviews) {
+        if (n < 1 || n > MAX_ENTRIES) {
+            throw new IllegalArgumentException("n must be between 1 and " + MAX_ENTRIES + ".");
+        }
+
+        return leaderboard.top(n, minReviews);
+    }
+}
@@ -0,0 +1,32 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.organicautonomy.reviewservice.dto.RelatedBook;
+import com.organicautonomy.reviewservice.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewservice.util.related.RelatedBooks;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/reviews/books")
+public class ReviewRelatedController {
+    @Autowired
+    private RelatedBooks relatedBooks;
+
+    @GetMapping("/{bookId}/related")
+    @ResponseStatus(HttpStatus.OK)
+    public List<RelatedBook> getRelatedBooks(@PathVariable Integer bookId, @RequestParam(defaultValue = "10") int k) {
+        if (k < 1 || k > RelatedBooks.MAX_K) {
+            throw new IllegalArgumentException("k must be between 1 and " + RelatedBooks.MAX_K + ".");
+        }
+
+        List<RelatedBook> related = relatedBooks.related(bookId, k);
+        if (related.isEmpty()) {
+            throw new ResourceNotFoundException("There are no related books for the book id provided.");
+        }
+
+        return related;
+    }
+}
@@ -0,0 +1,36 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.organicautonomy.reviewservice.dto.ReviewerCount;
+import com.organicautonomy.reviewservice.util.cardinality.BookReviewerCounts;
+import com.organicautonomy.reviewservice.util.cardinality.HyperLogLog;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Base64;
+import java.util.List;
+
+@RestController
+@RequestMapping("/reviews/reviewers")
+public class ReviewReviewersController {
+    private static final int MAX_BOOKS = 1000;
+
+    @Autowired
+    private BookReviewerCounts reviewerCounts;
+
+    // an author's reach is the union over their books, the caller supplies the book ids.
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public ReviewerCount getReviewerCount(@RequestParam List<Integer> bookId,
+                                          @RequestParam(defaultValue = "false") boolean includeSketch) {
+        if (bookId.isEmpty() || bookId.size() > MAX_BOOKS) {
+            throw new IllegalArgumentException("Between 1 and " + MAX_BOOKS + " book ids must be provided.");
+        }
+
+        HyperLogLog union = reviewerCounts.union(bookId);
+        String sketch = includeSketch ? Base64.getEncoder().encodeToString(union.toBytes()) : null;
+
+        return new ReviewerCount(bookId, union.estimate(),
+                HyperLogLog.relativeStandardError(union.getPrecision()), sketch);
+    }
+}
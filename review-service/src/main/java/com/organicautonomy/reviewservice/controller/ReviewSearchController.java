@@ -0,0 +1,48 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import com.organicautonomy.reviewservice.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewservice.util.search.ReviewSearchIndex;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Comparator;
+import java.util.List;
+
+@RestController
+@RequestMapping("/reviews/search")
+public class ReviewSearchController {
+    private static final int MAX_RESULTS = 100;
+
+    @Autowired
+    private ReviewSearchIndex index;
+    @Autowired
+    private ReviewRepository repository;
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public List<ReviewSummary> searchReviews(@RequestParam String q,
+                                             @RequestParam(required = false) Integer bookId,
+                                             @RequestParam(defaultValue = "20") int limit) {
+        if (q.trim().isEmpty()) {
+            throw new IllegalArgumentException("Search query cannot be empty.");
+        }
+        if (limit < 1 || limit > MAX_RESULTS) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RESULTS + ".");
+        }
+
+        List<Integer> ids = index.search(q, bookId, limit);
+
+        if (ids.size() == 0) {
+            throw new ResourceNotFoundException("There are no reviews matching the query provided.");
+        }
+
+        List<ReviewSummary> reviews = repository.findSummariesByIdIn(ids);
+        // keep the index order, newest first.
+        reviews.sort(Comparator.comparingInt(review -> ids.indexOf(review.getId())));
+
+        return reviews;
+    }
+}
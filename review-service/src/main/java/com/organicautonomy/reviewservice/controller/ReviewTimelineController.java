@@ -0,0 +1,33 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import com.organicautonomy.reviewservice.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewservice.util.timeline.UserTimelineCache;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/reviews/users")
+public class ReviewTimelineController {
+    @Autowired
+    private UserTimelineCache timelineCache;
+
+    @GetMapping("/{userId}/recent")
+    @ResponseStatus(HttpStatus.OK)
+    public List<ReviewSummary> getRecentReviews(@PathVariable Integer userId, @RequestParam(defaultValue = "20") int limit) {
+        int maxLimit = timelineCache.getTimelineLength();
+        if (limit < 1 || limit > maxLimit) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + maxLimit + ".");
+        }
+
+        List<ReviewSummary> recent = timelineCache.recent(userId, limit);
+        if (recent.isEmpty()) {
+            throw new ResourceNotFoundException("There are no reviews associated with the user id provided.");
+        }
+
+        return recent;
+    }
+}
@@ -0,0 +1,30 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.organicautonomy.reviewservice.dto.TrendingBook;
+import com.organicautonomy.reviewservice.util.trending.TrendingBooks;
+import com.organicautonomy.reviewservice.util.trending.TrendingWindow;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/reviews/trending")
+public class ReviewTrendingController {
+    private static final int MAX_ENTRIES = 100;
+
+    @Autowired
+    private TrendingBooks trendingBooks;
+
+    @GetMapping
+    @ResponseStatus(HttpStatus.OK)
+    public List<TrendingBook> getTrendingBooks(@RequestParam(defaultValue = "24h") String window,
+                                               @RequestParam(defaultValue = "10") int n) {
+        if (n < 1 || n > MAX_ENTRIES) {
+            throw new IllegalArgumentException("n must be between 1 and " + MAX_ENTRIES + ".");
+        }
+
+        return trendingBooks.trending(TrendingWindow.of(window), n);
+    }
+}
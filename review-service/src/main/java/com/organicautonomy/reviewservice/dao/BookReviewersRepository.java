@@ -0,0 +1,9 @@
+package com.organicautonomy.reviewservice.dao;
+
+import com.organicautonomy.reviewservice.dto.BookReviewers;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BookReviewersRepository extends JpaRepository<BookReviewers, Integer> {
+}
@@ -1,16 +1,97 @@
 package com.organicautonomy.reviewservice.dao;
 
+import com.organicautonomy.reviewservice.dao.partition.PartitionKey;
 import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.QueryHint;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
-public interface ReviewRepository extends JpaRepository<Review, Integer> {
-    List<Review> findReviewsByBookId(int bookId);
+public interface ReviewRepository extends JpaRepository<Review, Integer>, ReviewRepositoryCustom {
+    // list routes select summaries so the review text column is never read past the snippet.
+    String SUMMARY = "SELECT new com.organicautonomy.reviewservice.dto.ReviewSummary(r.id, r.userId, r.bookId, " +
+            "r.rating, SUBSTRING(r.text, 1, " + ReviewSummary.SNIPPET_LENGTH + "), r.createdAt) FROM Review r ";
+
+    List<Review> findReviewsByBookId(@PartitionKey int bookId);
     List<Review> findReviewsByUserId(int userId);
-    @Query(value = "SELECT * FROM review WHERE rating > ?1", nativeQuery = true)
+    Review findReviewByUserIdAndBookId(int userId, @PartitionKey int bookId);
+    // upsert path: rewrites the user's review of the book by the unique key, 0 when there is none.
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Review r SET r.rating = :rating, r.ratingBucket = :ratingBucket, r.text = :text, " +
+            "r.updatedAt = :updatedAt WHERE r.userId = :userId AND r.bookId = :bookId")
+    int updateReviewByUserIdAndBookId(@Param("userId") int userId, @PartitionKey @Param("bookId") int bookId,
+                                      @Param("rating") BigDecimal rating, @Param("ratingBucket") short ratingBucket,
+                                      @Param("text") String text, @Param("updatedAt") Instant updatedAt);
+    @Query(value = "SELECT * FROM review WHERE rating_bucket > ?1 * 100", nativeQuery = true)
     List<Review> findReviewsByRating(int rating);
+
+    @Query(SUMMARY)
+    List<ReviewSummary> findAllSummaries();
+    @Query(SUMMARY + "WHERE r.id IN ?1")
+    List<ReviewSummary> findSummariesByIdIn(Collection<Integer> ids);
+    @Query(SUMMARY + "WHERE r.bookId = ?1")
+    List<ReviewSummary> findSummariesByBookId(@PartitionKey int bookId);
+    @Query(SUMMARY + "WHERE r.userId = ?1")
+    List<ReviewSummary> findSummariesByUserId(int userId);
+    @Query(SUMMARY + "WHERE r.ratingBucket > ?1 * 100")
+    List<ReviewSummary> findSummariesByRating(int rating);
+    @Query(SUMMARY + "WHERE r.ratingBucket BETWEEN ?1 AND ?2")
+    Slice<ReviewSummary> findSummariesByRatingBucketBetween(short minBucket, short maxBucket, Pageable pageable);
+    @Query(SUMMARY + "WHERE r.bookId = ?1 AND r.ratingBucket BETWEEN ?2 AND ?3")
+    Slice<ReviewSummary> findSummariesByBookIdAndRatingBucketBetween(@PartitionKey int bookId, short minBucket, short maxBucket, Pageable pageable);
+
+    @Query(SUMMARY + "WHERE r.bookId = :bookId ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewSummary> findLatestSummariesByBookId(@PartitionKey @Param("bookId") int bookId, Pageable pageable);
+    @Query(SUMMARY + "WHERE r.userId = :userId ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewSummary> findLatestSummariesByUserId(@Param("userId") int userId, Pageable pageable);
+    // the leading createdAt <= bound keeps the seek a single range scan over the (book_id|user_id, created_at, id) indexes.
+    @Query(SUMMARY + "WHERE r.bookId = :bookId AND r.createdAt <= :createdAt " +
+            "AND (r.createdAt < :createdAt OR r.id < :id) ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewSummary> findSummariesByBookIdBefore(@PartitionKey @Param("bookId") int bookId, @Param("createdAt") Instant createdAt,
+                                                    @Param("id") int id, Pageable pageable);
+    @Query(SUMMARY + "WHERE r.userId = :userId AND r.createdAt <= :createdAt " +
+            "AND (r.createdAt < :createdAt OR r.id < :id) ORDER BY r.createdAt DESC, r.id DESC")
+    List<ReviewSummary> findSummariesByUserIdBefore(@Param("userId") int userId, @Param("createdAt") Instant createdAt,
+                                                    @Param("id") int id, Pageable pageable);
+
+    // scalar columns only, used to rebuild the in-memory views without materializing entities.
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT r.id, r.userId, r.bookId, r.ratingBucket FROM Review r")
+    Stream<Object[]> streamRatingColumns();
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT r.id FROM Review r")
+    Stream<Integer> streamIds();
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT r.id, r.bookId, r.text FROM Review r")
+    Stream<Object[]> streamTexts();
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT r.id, r.bookId, r.text FROM Review r WHERE r.updatedAt >= ?1")
+    Stream<Object[]> streamTextsUpdatedSince(Instant since);
+    @Query("SELECT r.id, r.bookId, r.text FROM Review r WHERE r.id IN ?1")
+    List<Object[]> findTextsByIdIn(Collection<Integer> ids);
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT r.id, r.bookId, r.createdAt FROM Review r WHERE r.createdAt >= ?1 ORDER BY r.createdAt")
+    Stream<Object[]> streamActivitySince(Instant since);
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT r.userId, r.bookId FROM Review r")
+    Stream<Object[]> streamReviewers();
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "1000"))
+    @Query("SELECT r.userId, r.bookId FROM Review r WHERE r.updatedAt >= ?1")
+    Stream<Object[]> streamReviewersUpdatedSince(Instant since);
 }
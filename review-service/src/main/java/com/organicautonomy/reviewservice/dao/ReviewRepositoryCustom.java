@@ -0,0 +1,16 @@
+package com.organicautonomy.reviewservice.dao;
+
+import com.organicautonomy.reviewservice.dto.Review;
+
+import java.util.List;
+
+public interface ReviewRepositoryCustom {
+    /**
+     * Inserts the reviews with JDBC batching, bypassing the persistence context. Ids are assigned
+     * by the entity's id generator and written back onto the given objects. A review that breaks
+     * the unique user and book key is left out, the others are still inserted.
+     *
+     * @return the reviews in argument order, null where the user had already reviewed the book
+     */
+    List<Review> insertAll(List<Review> reviews);
+}
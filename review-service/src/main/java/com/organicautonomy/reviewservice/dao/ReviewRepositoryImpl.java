@@ -0,0 +1,102 @@
+package com.organicautonomy.reviewservice.dao;
+
+import com.organicautonomy.reviewservice.dao.partition.ReviewPartitions;
+import com.organicautonomy.reviewservice.dto.Review;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.IdentifierGenerator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ReviewRepositoryImpl implements ReviewRepositoryCustom {
+    private static final int BATCH_SIZE = 1000;
+    private static final String INSERT = "INSERT INTO %s (id, user_id, book_id, rating, rating_bucket, text, created_at, "
+            + "updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public List<Review> insertAll(List<Review> reviews) {
+        // the entity's own generator, both insert paths draw from its one pooled-lo optimizer.
+        SharedSessionContractImplementor session = entityManager.unwrap(SharedSessionContractImplementor.class);
+        IdentifierGenerator generator = session.getFactory().getMetamodel().entityPersister(Review.class).getIdentifierGenerator();
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        for (Review review : reviews) {
+            review.setId((Integer) generator.generate(session, review));
+            review.setUpdatedAt(now);
+            if (review.getCreatedAt() == null) {
+                review.setCreatedAt(now);
+            }
+        }
+
+        String insert = String.format(INSERT, ReviewPartitions.currentTable());
+        List<Review> stored = new ArrayList<>(reviews);
+        for (int from = 0; from < reviews.size(); from += BATCH_SIZE) {
+            List<Review> chunk = reviews.subList(from, Math.min(from + BATCH_SIZE, reviews.size()));
+            if (!inSavepoint(() -> jdbcTemplate.batchUpdate(insert, chunk, chunk.size(), ReviewRepositoryImpl::setValues))) {
+                // the batch does not say which rows failed, retrying them one by one does.
+                for (int i = 0; i < chunk.size(); i++) {
+                    Review review = chunk.get(i);
+                    if (!inSavepoint(() -> jdbcTemplate.update(insert, ps -> setValues(ps, review)))) {
+                        stored.set(from + i, null);
+                    }
+                }
+            }
+        }
+
+        return stored;
+    }
+
+    /**
+     * Runs the insert behind a JDBC savepoint of the surrounding transaction, a duplicate key only
+     * rolls back the insert itself. The JPA transaction manager does not offer savepoints, the
+     * connection it shares with JDBC does.
+     *
+     * @return false when the insert broke a unique key
+     */
+    private boolean inSavepoint(Runnable insert) {
+        Connection connection = DataSourceUtils.getConnection(jdbcTemplate.getDataSource());
+        try {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                insert.run();
+            } catch (DuplicateKeyException e) {
+                connection.rollback(savepoint);
+                return false;
+            }
+            connection.releaseSavepoint(savepoint);
+            return true;
+        } catch (SQLException e) {
+            throw jdbcTemplate.getExceptionTranslator().translate("savepoint", null, e);
+        }
+    }
+
+    private static void setValues(PreparedStatement ps, Review review) throws SQLException {
+        ps.setInt(1, review.getId());
+        ps.setInt(2, review.getUserId());
+        ps.setInt(3, review.getBookId());
+        ps.setBigDecimal(4, review.getRating());
+        ps.setShort(5, Review.toRatingBucket(review.getRating()));
+        ps.setString(6, review.getText());
+        ps.setTimestamp(7, Timestamp.from(review.getCreatedAt()));
+        ps.setTimestamp(8, Timestamp.from(review.getUpdatedAt()));
+    }
+}
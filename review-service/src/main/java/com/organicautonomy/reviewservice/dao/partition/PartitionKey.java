@@ -0,0 +1,15 @@
+package com.organicautonomy.reviewservice.dao.partition;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks the bookId parameter of a repository method, the call is then routed to that book's
+ * partition instead of fanning out to all of them.
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface PartitionKey {
+}
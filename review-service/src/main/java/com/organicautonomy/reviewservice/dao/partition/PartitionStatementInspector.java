@@ -0,0 +1,31 @@
+package com.organicautonomy.reviewservice.dao.partition;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Points every Hibernate statement on the review table at the partition bound to the current
+ * thread. Inspection happens as each statement is prepared, so one transaction can read several
+ * partitions in turn. A review statement with no partition bound is a routing bug and fails
+ * rather than silently using the unpartitioned table.
+ */
+class PartitionStatementInspector implements StatementInspector {
+    // review_seq, book_reviewers and the review0_ aliases are not whole words, so they are left alone.
+    private static final Pattern TABLE = Pattern.compile("\\b" + ReviewPartitions.TABLE + "\\b", Pattern.CASE_INSENSITIVE);
+
+    @Override
+    public String inspect(String sql) {
+        Matcher matcher = TABLE.matcher(sql);
+        if (!matcher.find()) {
+            return sql;
+        }
+
+        Integer partition = ReviewPartitions.current();
+        if (partition == null) {
+            throw new IllegalStateException("Review statement issued outside a partition: " + sql);
+        }
+        return matcher.replaceAll(ReviewPartitions.table(partition));
+    }
+}
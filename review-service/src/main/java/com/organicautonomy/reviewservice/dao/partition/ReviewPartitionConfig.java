@@ -0,0 +1,39 @@
+package com.organicautonomy.reviewservice.dao.partition;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.lang.reflect.Proxy;
+
+@Configuration
+public class ReviewPartitionConfig {
+    @Bean
+    public HibernatePropertiesCustomizer partitionStatementInspector(ReviewPartitions partitions) {
+        return properties -> {
+            if (partitions.isEnabled()) {
+                properties.put(AvailableSettings.STATEMENT_INSPECTOR, new PartitionStatementInspector());
+            }
+        };
+    }
+
+    // static so the post processor doesn't pull this configuration in early, partitions are resolved lazily.
+    @Bean
+    public static BeanPostProcessor reviewRepositoryRouter(ObjectProvider<ReviewPartitions> partitions) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof ReviewRepository) || !partitions.getObject().isEnabled()) {
+                    return bean;
+                }
+
+                return Proxy.newProxyInstance(ReviewRepository.class.getClassLoader(), new Class<?>[]{ReviewRepository.class},
+                        new ReviewRepositoryRouter((ReviewRepository) bean, partitions.getObject()));
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.organicautonomy.reviewservice.dao.partition;
+
+import com.organicautonomy.reviewservice.dto.Review;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Index;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Creates the partition tables as copies of the review table Hibernate generated, with the indexes
+ * and unique constraints declared on {@link Review}. Rows already in the plain review table are not
+ * moved, partitioning is meant to be chosen before the first review is written.
+ */
+@Component
+public class ReviewPartitionTables {
+    private static final Logger log = LoggerFactory.getLogger(ReviewPartitionTables.class);
+
+    private final ReviewPartitions partitions;
+    private final JdbcTemplate jdbcTemplate;
+
+    // the entity manager factory is only here so the review table exists before it is copied.
+    public ReviewPartitionTables(ReviewPartitions partitions, JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.partitions = partitions;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void create() {
+        if (!partitions.isEnabled()) {
+            return;
+        }
+
+        Table table = Review.class.getAnnotation(Table.class);
+        // CREATE TABLE AS copies column types but not nullability.
+        List<String> notNull = jdbcTemplate.queryForList("SELECT column_name FROM information_schema.columns "
+                + "WHERE LOWER(table_name) = ? AND is_nullable = 'NO'", String.class, ReviewPartitions.TABLE);
+        for (int partition = 0; partition < partitions.getCount(); partition++) {
+            String name = ReviewPartitions.table(partition);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + name + " AS SELECT * FROM " + ReviewPartitions.TABLE + " WHERE 1 = 0");
+            for (String column : notNull) {
+                jdbcTemplate.execute("ALTER TABLE " + name + " ALTER COLUMN " + column + " SET NOT NULL");
+            }
+            jdbcTemplate.execute("ALTER TABLE " + name + " ADD CONSTRAINT IF NOT EXISTS pk_" + name + " PRIMARY KEY (id)");
+            for (Index index : table.indexes()) {
+                jdbcTemplate.execute("CREATE " + (index.unique() ? "UNIQUE " : "") + "INDEX IF NOT EXISTS "
+                        + index.name() + "_p" + partition + " ON " + name + " (" + columns(index.columnList().split(",")) + ")");
+            }
+            for (UniqueConstraint constraint : table.uniqueConstraints()) {
+                jdbcTemplate.execute("CREATE UNIQUE INDEX IF NOT EXISTS " + constraint.name() + "_p" + partition
+                        + " ON " + name + " (" + columns(constraint.columnNames()) + ")");
+            }
+        }
+
+        Integer unpartitioned = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + ReviewPartitions.TABLE, Integer.class);
+        if (unpartitioned != null && unpartitioned > 0) {
+            log.warn("{} reviews in the unpartitioned review table are not visible with {} partitions.",
+                    unpartitioned, partitions.getCount());
+        }
+    }
+
+    // entity properties to the physical column names Spring's naming strategy gives them.
+    private static String columns(String[] properties) {
+        return Arrays.stream(properties)
+                .map(property -> property.trim().replaceAll("([a-z0-9])([A-Z])", "$1_$2").toLowerCase())
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,123 @@
+package com.organicautonomy.reviewservice.dao.partition;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Spreads the review table over reviews.partitions.count physical tables, review_p0 to review_pN-1,
+ * by a hash of the bookId. A book's reviews all live in one table, so book scoped reads and writes
+ * touch a single partition and the per user and book unique key still holds globally. A count of 1
+ * leaves everything on the plain review table.
+ *
+ * The partition a statement runs against is bound to the calling thread, see {@link #inPartition},
+ * and cross partition reads are forked on a dedicated pool with one task per partition.
+ */
+@Component
+public class ReviewPartitions {
+    public static final String TABLE = "review";
+    private static final ThreadLocal<Integer> CURRENT = new ThreadLocal<>();
+
+    private final int count;
+    private final ForkJoinPool pool;
+
+    public ReviewPartitions(@Value("${reviews.partitions.count:1}") int count,
+                            @Value("${reviews.partitions.parallelism:0}") int parallelism) {
+        if (count < 1) {
+            throw new IllegalArgumentException("reviews.partitions.count must be at least 1.");
+        }
+        this.count = count;
+        this.pool = count == 1 ? null : new ForkJoinPool(parallelism > 0 ? parallelism : count);
+    }
+
+    public boolean isEnabled() {
+        return count > 1;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public int partitionOf(int bookId) {
+        // the multiply spreads sequential ids, the fold brings the high bits into the modulus.
+        int h = bookId * 0x9E3779B9;
+        return Math.floorMod(h ^ (h >>> 16), count);
+    }
+
+    public static String table(int partition) {
+        return TABLE + "_p" + partition;
+    }
+
+    public List<String> tables() {
+        if (!isEnabled()) {
+            return Collections.singletonList(TABLE);
+        }
+
+        List<String> tables = new ArrayList<>(count);
+        for (int partition = 0; partition < count; partition++) {
+            tables.add(table(partition));
+        }
+        return tables;
+    }
+
+    static Integer current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * The table statements on this thread should use, the plain review table outside a partition.
+     */
+    public static String currentTable() {
+        Integer partition = CURRENT.get();
+
+        return partition == null ? TABLE : table(partition);
+    }
+
+    public <T> T inPartition(int partition, Supplier<T> call) {
+        Integer previous = CURRENT.get();
+        CURRENT.set(partition);
+        try {
+            return call.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    /**
+     * Runs call once per partition in parallel and returns the results indexed by partition. Each
+     * task runs outside the caller's transaction, so only independent reads and per partition
+     * writes belong here.
+     */
+    public <T> List<T> forkEach(IntFunction<T> call) {
+        List<ForkJoinTask<T>> tasks = new ArrayList<>(count);
+        for (int partition = 0; partition < count; partition++) {
+            int p = partition;
+            tasks.add(pool.submit(() -> inPartition(p, () -> call.apply(p))));
+        }
+
+        List<T> results = new ArrayList<>(count);
+        for (ForkJoinTask<T> task : tasks) {
+            results.add(task.join());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    public void close() {
+        if (pool != null) {
+            pool.shutdown();
+        }
+    }
+}
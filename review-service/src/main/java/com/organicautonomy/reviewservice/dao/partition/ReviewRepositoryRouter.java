@@ -0,0 +1,312 @@
+package com.organicautonomy.reviewservice.dao.partition;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.*;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Sits in front of the Spring Data review repository when partitioning is on, so callers keep using
+ * {@link ReviewRepository} unchanged:
+ * <ul>
+ *     <li>a method with a {@link PartitionKey} argument, or taking a single review, runs on that
+ *     book's partition;</li>
+ *     <li>a method taking a collection of reviews is split by partition and the parts run in parallel,
+ *     results come back in argument order;</li>
+ *     <li>anything else fans out to every partition: lists and lookups fork one task per partition
+ *     and merge, streams are opened one partition after another on the calling thread so they share
+ *     its transaction, and paged queries are merged by their sort order, a page's total summed from a
+ *     count per partition.</li>
+ * </ul>
+ * Writes that span partitions commit per partition, not atomically, and saving an existing review
+ * under a book in another partition is refused rather than copied there.
+ */
+class ReviewRepositoryRouter implements InvocationHandler {
+    private static final int NO_KEY = -1;
+
+    private final ReviewRepository target;
+    private final ReviewPartitions partitions;
+    private final Map<Method, Integer> keyParameters = new ConcurrentHashMap<>();
+
+    ReviewRepositoryRouter(ReviewRepository target, ReviewPartitions partitions) {
+        this.target = target;
+        this.partitions = partitions;
+        checkPages(ReviewRepository.class);
+    }
+
+    // a page needs its total and only findAll has a count to fan out; Example and Sort queries are refused per call.
+    static void checkPages(Class<?> repository) {
+        for (Method method : repository.getMethods()) {
+            if (Page.class.isAssignableFrom(method.getReturnType()) && !isFindAllPage(method)
+                    && Arrays.stream(method.getParameterTypes()).noneMatch(type -> type == Example.class || type == Sort.class)) {
+                throw unsupported(method);
+            }
+        }
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) {
+        switch (method.getName()) {
+            case "equals":
+                return proxy == args[0];
+            case "hashCode":
+                return System.identityHashCode(proxy);
+            case "toString":
+                return "Partitioned " + target;
+            case "flush":
+                return call(method, args);
+            case "deleteById":
+                deleteById((Integer) args[0]);
+                return null;
+        }
+
+        int key = keyParameters.computeIfAbsent(method, ReviewRepositoryRouter::keyParameter);
+        if (key != NO_KEY) {
+            return routed(partitions.partitionOf((Integer) args[key]), method, args);
+        }
+        if (args != null && args.length == 1 && args[0] instanceof Review) {
+            Review review = (Review) args[0];
+            if (method.getName().equals("save") && review.getId() != null) {
+                checkNotMoved(review);
+            }
+            return routed(partitionOf(review), method, args);
+        }
+        if (args != null && args.length == 1 && args[0] instanceof Iterable) {
+            return split(method, args);
+        }
+        return fanOut(method, args);
+    }
+
+    private Object routed(int partition, Method method, Object[] args) {
+        return partitions.inPartition(partition, () -> call(method, args));
+    }
+
+    private Object split(Method method, Object[] args) {
+        List<List<Object>> parts = new ArrayList<>();
+        List<List<Integer>> positions = new ArrayList<>();
+        for (int partition = 0; partition < partitions.getCount(); partition++) {
+            parts.add(new ArrayList<>());
+            positions.add(new ArrayList<>());
+        }
+
+        int position = 0;
+        for (Object element : (Iterable<?>) args[0]) {
+            if (!(element instanceof Review)) {
+                return fanOut(method, args);
+            }
+            int partition = partitionOf((Review) element);
+            parts.get(partition).add(element);
+            positions.get(partition).add(position++);
+        }
+
+        List<Object> results = partitions.forkEach(partition -> parts.get(partition).isEmpty() ? null
+                : call(method, new Object[]{parts.get(partition)}));
+        if (!List.class.isAssignableFrom(method.getReturnType())) {
+            return null;
+        }
+
+        Object[] merged = new Object[position];
+        for (int partition = 0; partition < results.size(); partition++) {
+            if (results.get(partition) == null) {
+                continue;
+            }
+            Iterator<Integer> at = positions.get(partition).iterator();
+            for (Object element : (Iterable<?>) results.get(partition)) {
+                merged[at.next()] = element;
+            }
+        }
+        return new ArrayList<>(Arrays.asList(merged));
+    }
+
+    private Object fanOut(Method method, Object[] args) {
+        Class<?> type = method.getReturnType();
+        if (args != null) {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i] instanceof Pageable) {
+                    return page(method, args, i);
+                }
+                if (args[i] instanceof Sort || args[i] instanceof Example) {
+                    throw unsupported(method);
+                }
+            }
+        }
+
+        if (Stream.class.isAssignableFrom(type)) {
+            // opened lazily by flatMap, each partition's cursor is closed before the next one starts.
+            return IntStream.range(0, partitions.getCount()).boxed()
+                    .flatMap(partition -> (Stream<?>) routed(partition, method, args));
+        }
+        if (Optional.class.isAssignableFrom(type)) {
+            return partitions.forkEach(partition -> (Optional<?>) call(method, args)).stream()
+                    .filter(Optional::isPresent).findFirst().orElse(Optional.empty());
+        }
+        if (type == long.class) {
+            return partitions.forkEach(partition -> (Long) call(method, args)).stream().mapToLong(Long::longValue).sum();
+        }
+        if (type == boolean.class) {
+            return partitions.forkEach(partition -> (Boolean) call(method, args)).contains(true);
+        }
+        if (type == void.class) {
+            partitions.forkEach(partition -> call(method, args));
+            return null;
+        }
+        if (List.class.isAssignableFrom(type)) {
+            List<Object> merged = new ArrayList<>();
+            for (Object part : partitions.forkEach(partition -> call(method, args))) {
+                merged.addAll((List<?>) part);
+            }
+            return merged;
+        }
+        throw unsupported(method);
+    }
+
+    /**
+     * Each partition returns its first offset + size rows in the query's order, so the requested
+     * page is the same window over the merge of those heads. Rows are reviews or review summaries,
+     * both are ordered through their summary.
+     */
+    private Object page(Method method, Object[] args, int pageableIndex) {
+        Pageable pageable = (Pageable) args[pageableIndex];
+        Comparator<ReviewSummary> order = queryOrder(method.getName(), pageable.getSort());
+        int offset = (int) pageable.getOffset();
+        int end = offset + pageable.getPageSize();
+
+        Object[] headArgs = args.clone();
+        headArgs[pageableIndex] = PageRequest.of(0, end, pageable.getSort());
+        List<Object> heads = partitions.forkEach(partition -> call(method, headArgs));
+
+        List<Map.Entry<ReviewSummary, Object>> merged = new ArrayList<>();
+        boolean hasNext = false;
+        for (Object head : heads) {
+            List<?> rows = head instanceof Slice ? ((Slice<?>) head).getContent() : (List<?>) head;
+            hasNext |= head instanceof Slice && ((Slice<?>) head).hasNext();
+            for (Object row : rows) {
+                merged.add(new AbstractMap.SimpleImmutableEntry<>(
+                        row instanceof Review ? ReviewSummary.of((Review) row) : (ReviewSummary) row, row));
+            }
+        }
+        merged.sort(Map.Entry.comparingByKey(order));
+
+        List<Object> content = new ArrayList<>();
+        for (Map.Entry<ReviewSummary, Object> row : merged.subList(Math.min(offset, merged.size()), Math.min(end, merged.size()))) {
+            content.add(row.getValue());
+        }
+        if (Page.class.isAssignableFrom(method.getReturnType())) {
+            long total = partitions.forkEach(partition -> target.count()).stream().mapToLong(Long::longValue).sum();
+            return new PageImpl<>(content, pageable, total);
+        }
+        if (Slice.class.isAssignableFrom(method.getReturnType())) {
+            return new SliceImpl<>(content, pageable, hasNext || merged.size() > end);
+        }
+        return content;
+    }
+
+    private static boolean isFindAllPage(Method method) {
+        return method.getName().equals("findAll") && Arrays.equals(method.getParameterTypes(), new Class<?>[]{Pageable.class});
+    }
+
+    private static Comparator<ReviewSummary> queryOrder(String query, Sort sort) {
+        switch (query) {
+            // keyset queries carry their order in the JPQL rather than in the Pageable.
+            case "findLatestSummariesByUserId":
+            case "findSummariesByUserIdBefore":
+                return ReviewSummary.NEWEST_FIRST;
+            default:
+                return summaryOrder(sort);
+        }
+    }
+
+    private static Comparator<ReviewSummary> summaryOrder(Sort sort) {
+        List<Comparator<ReviewSummary>> keys = new ArrayList<>();
+        for (Sort.Order property : sort) {
+            Comparator<ReviewSummary> key = summaryProperty(property.getProperty());
+            keys.add(property.isDescending() ? key.reversed() : key);
+        }
+        if (keys.isEmpty()) {
+            return Comparator.comparing(ReviewSummary::getId);
+        }
+
+        Comparator<ReviewSummary> combined = keys.get(0);
+        for (int i = 1; i < keys.size(); i++) {
+            combined = combined.thenComparing(keys.get(i));
+        }
+        return combined;
+    }
+
+    private static Comparator<ReviewSummary> summaryProperty(String property) {
+        switch (property) {
+            case "id":
+                return Comparator.comparing(ReviewSummary::getId);
+            case "userId":
+                return Comparator.comparing(ReviewSummary::getUserId);
+            case "bookId":
+                return Comparator.comparing(ReviewSummary::getBookId);
+            // the bucket is the rating scaled by 100, so both sort the same way.
+            case "rating":
+            case "ratingBucket":
+                return Comparator.comparing(ReviewSummary::getRating);
+            case "createdAt":
+                return Comparator.comparing(ReviewSummary::getCreatedAt, Comparator.nullsFirst(Comparator.naturalOrder()));
+            default:
+                throw new UnsupportedOperationException("Sorting by " + property + " is not supported across review partitions.");
+        }
+    }
+
+    // Spring Data's deleteById looks the row up first; only the lookup needs to fan out here.
+    private void deleteById(Integer id) {
+        Method findById = ReflectionUtils.findMethod(ReviewRepository.class, "findById", Object.class);
+        Review review = (Review) ((Optional<?>) fanOut(findById, new Object[]{id})).orElseThrow(() ->
+                new EmptyResultDataAccessException(String.format("No %s entity with id %s exists!", Review.class, id), 1));
+
+        routed(partitionOf(review), ReflectionUtils.findMethod(ReviewRepository.class, "delete", Object.class),
+                new Object[]{review});
+    }
+
+    // the merge only looks in the new book's partition, a row left in another one would be duplicated.
+    private void checkNotMoved(Review review) {
+        Method existsById = ReflectionUtils.findMethod(ReviewRepository.class, "existsById", Object.class);
+        Object[] args = {review.getId()};
+        if (!(Boolean) routed(partitionOf(review), existsById, args) && (Boolean) fanOut(existsById, args)) {
+            throw new IllegalArgumentException("A review cannot be moved to another book.");
+        }
+    }
+
+    private int partitionOf(Review review) {
+        if (review.getBookId() == null) {
+            throw new IllegalArgumentException("A review needs a bookId to be stored.");
+        }
+
+        return partitions.partitionOf(review.getBookId());
+    }
+
+    private Object call(Method method, Object[] args) {
+        return ReflectionUtils.invokeMethod(method, target, args);
+    }
+
+    private static UnsupportedOperationException unsupported(Method method) {
+        return new UnsupportedOperationException(method.getName() + " is not supported across review partitions.");
+    }
+
+    private static int keyParameter(Method method) {
+        Annotation[][] annotations = method.getParameterAnnotations();
+        for (int i = 0; i < annotations.length; i++) {
+            for (Annotation annotation : annotations[i]) {
+                if (annotation instanceof PartitionKey) {
+                    return i;
+                }
+            }
+        }
+
+        return NO_KEY;
+    }
+}
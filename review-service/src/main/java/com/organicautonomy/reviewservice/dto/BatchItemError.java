@@ -0,0 +1,45 @@
+package com.organicautonomy.reviewservice.dto;
+
+import java.util.Objects;
+
+public class BatchItemError {
+    private int index;
+    private String message;
+
+    public BatchItemError() {
+    }
+
+    public BatchItemError(int index, String message) {
+        this.index = index;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BatchItemError that = (BatchItemError) o;
+        return index == that.index && Objects.equals(message, that.message);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(index, message);
+    }
+}
@@ -0,0 +1,57 @@
+package com.organicautonomy.reviewservice.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+public class BatchResult {
+    private int inserted;
+    // ids of the inserted reviews, in request order.
+    private List<Integer> ids;
+    private List<BatchItemError> errors;
+
+    public BatchResult() {
+    }
+
+    public BatchResult(int inserted, List<Integer> ids, List<BatchItemError> errors) {
+        this.inserted = inserted;
+        this.ids = ids;
+        this.errors = errors;
+    }
+
+    public int getInserted() {
+        return inserted;
+    }
+
+    public void setInserted(int inserted) {
+        this.inserted = inserted;
+    }
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    public List<BatchItemError> getErrors() {
+        return errors;
+    }
+
+    public void setErrors(List<BatchItemError> errors) {
+        this.errors = errors;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BatchResult that = (BatchResult) o;
+        return inserted == that.inserted && Objects.equals(ids, that.ids) && Objects.equals(errors, that.errors);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(inserted, ids, errors);
+    }
+}
@@ -0,0 +1,71 @@
+package com.organicautonomy.reviewservice.dto;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Lob;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Objects;
+
+// persisted HyperLogLog sketch of the users who reviewed a book.
+@Entity
+@Table(name = "book_reviewers")
+public class BookReviewers {
+    @Id
+    private Integer bookId;
+    @NotNull
+    @Lob
+    private byte[] sketch;
+    // when the sketch was written, reviews updated before it are in the sketch.
+    @NotNull
+    private Instant flushedAt;
+
+    public BookReviewers() {
+    }
+
+    public BookReviewers(Integer bookId, byte[] sketch, Instant flushedAt) {
+        this.bookId = bookId;
+        this.sketch = sketch;
+        this.flushedAt = flushedAt;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public byte[] getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(byte[] sketch) {
+        this.sketch = sketch;
+    }
+
+    public Instant getFlushedAt() {
+        return flushedAt;
+    }
+
+    public void setFlushedAt(Instant flushedAt) {
+        this.flushedAt = flushedAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookReviewers that = (BookReviewers) o;
+        return Objects.equals(bookId, that.bookId) && Arrays.equals(sketch, that.sketch)
+                && Objects.equals(flushedAt, that.flushedAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * Objects.hash(bookId, flushedAt) + Arrays.hashCode(sketch);
+    }
+}
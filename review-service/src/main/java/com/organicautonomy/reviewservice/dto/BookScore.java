@@ -0,0 +1,67 @@
+package com.organicautonomy.reviewservice.dto;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+public class BookScore {
+    private Integer bookId;
+    private long reviewCount;
+    private BigDecimal averageRating;
+    private BigDecimal score;
+
+    public BookScore() {
+    }
+
+    public BookScore(Integer bookId, long reviewCount, BigDecimal averageRating, BigDecimal score) {
+        this.bookId = bookId;
+        this.reviewCount = reviewCount;
+        this.averageRating = averageRating;
+        this.score = score;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public BigDecimal getAverageRating() {
+        return averageRating;
+    }
+
+    public void setAverageRating(BigDecimal averageRating) {
+        this.averageRating = averageRating;
+    }
+
+    public BigDecimal getScore() {
+        return score;
+    }
+
+    public void setScore(BigDecimal score) {
+        this.score = score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        BookScore bookScore = (BookScore) o;
+        return reviewCount == bookScore.reviewCount && Objects.equals(bookId, bookScore.bookId)
+                && Objects.equals(averageRating, bookScore.averageRating) && Objects.equals(score, bookScore.score);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookId, reviewCount, averageRating, score);
+    }
+}
@@ -0,0 +1,61 @@
+package com.organicautonomy.reviewservice.dto;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.Objects;
+
+public class RatingDistribution {
+    private BigDecimal bucketWidth;
+    private long total;
+    // counts[i] holds ratings in [i * bucketWidth, (i + 1) * bucketWidth), the last bucket also holds 5.00.
+    private long[] counts;
+
+    public RatingDistribution() {
+    }
+
+    public RatingDistribution(BigDecimal bucketWidth, long total, long[] counts) {
+        this.bucketWidth = bucketWidth;
+        this.total = total;
+        this.counts = counts;
+    }
+
+    public BigDecimal getBucketWidth() {
+        return bucketWidth;
+    }
+
+    public void setBucketWidth(BigDecimal bucketWidth) {
+        this.bucketWidth = bucketWidth;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long[] getCounts() {
+        return counts;
+    }
+
+    public void setCounts(long[] counts) {
+        this.counts = counts;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RatingDistribution that = (RatingDistribution) o;
+        return total == that.total && Objects.equals(bucketWidth, that.bucketWidth)
+                && Arrays.equals(counts, that.counts);
+    }
+
+    @Override
+    public int hashCode() {
+        int result = Objects.hash(bucketWidth, total);
+        result = 31 * result + Arrays.hashCode(counts);
+        return result;
+    }
+}
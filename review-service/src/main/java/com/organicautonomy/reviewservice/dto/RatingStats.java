@@ -0,0 +1,81 @@
+package com.organicautonomy.reviewservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class RatingStats {
+    private Integer groupId;
+    private long count;
+    private BigDecimal average;
+    private BigDecimal min;
+    private BigDecimal max;
+
+    public RatingStats() {
+    }
+
+    public RatingStats(Integer groupId, long count, BigDecimal average, BigDecimal min, BigDecimal max) {
+        this.groupId = groupId;
+        this.count = count;
+        this.average = average;
+        this.min = min;
+        this.max = max;
+    }
+
+    public Integer getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(Integer groupId) {
+        this.groupId = groupId;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    public BigDecimal getAverage() {
+        return average;
+    }
+
+    public void setAverage(BigDecimal average) {
+        this.average = average;
+    }
+
+    public BigDecimal getMin() {
+        return min;
+    }
+
+    public void setMin(BigDecimal min) {
+        this.min = min;
+    }
+
+    public BigDecimal getMax() {
+        return max;
+    }
+
+    public void setMax(BigDecimal max) {
+        this.max = max;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RatingStats that = (RatingStats) o;
+        return count == that.count && Objects.equals(groupId, that.groupId)
+                && Objects.equals(average, that.average) && Objects.equals(min, that.min)
+                && Objects.equals(max, that.max);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(groupId, count, average, min, max);
+    }
+}
@@ -0,0 +1,46 @@
+package com.organicautonomy.reviewservice.dto;
+
+import java.math.BigDecimal;
+import java.util.Objects;
+
+public class RelatedBook {
+    private Integer bookId;
+    private BigDecimal score;
+
+    public RelatedBook() {
+    }
+
+    public RelatedBook(Integer bookId, BigDecimal score) {
+        this.bookId = bookId;
+        this.score = score;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public BigDecimal getScore() {
+        return score;
+    }
+
+    public void setScore(BigDecimal score) {
+        this.score = score;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        RelatedBook that = (RelatedBook) o;
+        return Objects.equals(bookId, that.bookId) && Objects.equals(score, that.score);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookId, score);
+    }
+}
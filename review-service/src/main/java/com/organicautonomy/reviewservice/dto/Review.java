@@ -1,21 +1,50 @@
 package com.organicautonomy.reviewservice.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import javax.persistence.*;
 import javax.validation.constraints.DecimalMax;
 import javax.validation.constraints.DecimalMin;
 import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
 import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Objects;
 
 @Entity
-@Table(name = "review")
+@Table(name = "review", indexes = {
+        @Index(name = "idx_review_rating_bucket", columnList = "ratingBucket, id"),
+        @Index(name = "idx_review_book_rating_bucket", columnList = "bookId, ratingBucket, id"),
+        @Index(name = "idx_review_book_created_at", columnList = "bookId, createdAt, id"),
+        @Index(name = "idx_review_user_created_at", columnList = "userId, createdAt, id"),
+        @Index(name = "idx_review_updated_at", columnList = "updatedAt")
+}, uniqueConstraints = {
+        @UniqueConstraint(name = "uk_review_user_book", columnNames = {"userId", "bookId"})
+})
 public class Review {
+    public static final String ID_SEQUENCE = "review_seq";
+    public static final int ID_BLOCK_SIZE = 50;
+
+    // pooled-lo: each sequence value is the first id of a block, shared with the JDBC batch insert path.
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @GenericGenerator(name = ID_SEQUENCE, strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator", parameters = {
+            @Parameter(name = "sequence_name", value = ID_SEQUENCE),
+            @Parameter(name = "increment_size", value = "" + ID_BLOCK_SIZE),
+            @Parameter(name = "optimizer", value = "pooled-lo")
+    })
     private Integer id;
+    // positive ids also keep ReviewKeyIndex keys clear of the value LongHashSet reserves.
     @NotNull
+    @Positive(message = "Value must be greater than 0.")
     private Integer userId;
     @NotNull
+    @Positive(message = "Value must be greater than 0.")
     private Integer bookId;
     @NotNull
     @DecimalMin(value = "0", message = "Value cannot be less than 0.")
@@ -23,7 +52,18 @@ public class Review {
     @Column(precision = 7, scale = 2)
     private BigDecimal rating;
     @NotNull
+    @Lob
     private String text;
+    // rating scaled by 100 so range queries can walk a small-int index instead of the decimal column.
+    @JsonIgnore
+    private Short ratingBucket;
+    // stamped by the server, only a batch import can backdate a review, see ReviewImport.
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(updatable = false)
+    private Instant createdAt;
+    // last write of the row; in-memory views that persist their state catch up from it after a restart.
+    @JsonIgnore
+    private Instant updatedAt;
 
     public Review() {
     }
@@ -45,6 +85,13 @@ public class Review {
         this.text = text;
     }
 
+    public Review(Review other) {
+        this(other.id, other.userId, other.bookId, other.rating, other.text);
+        this.ratingBucket = other.ratingBucket;
+        this.createdAt = other.createdAt;
+        this.updatedAt = other.updatedAt;
+    }
+
     public Integer getBookId() {
         return bookId;
     }
@@ -77,6 +124,49 @@ public class Review {
         this.rating = rating;
     }
 
+    public Short getRatingBucket() {
+        return ratingBucket;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public Instant getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(Instant updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    @PrePersist
+    void prePersist() {
+        // only batch imports arrive with a timestamp, everything else is stamped on insert.
+        if (createdAt == null) {
+            createdAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        }
+        preUpdate();
+    }
+
+    @PreUpdate
+    void preUpdate() {
+        this.ratingBucket = toRatingBucket(rating);
+        this.updatedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+    }
+
+    public static Short toRatingBucket(BigDecimal rating) {
+        if (rating == null) {
+            return null;
+        }
+
+        return rating.setScale(2, RoundingMode.HALF_UP).movePointRight(2).shortValueExact();
+    }
+
     public String getText() {
         return text;
     }
@@ -92,11 +182,11 @@ public class Review {
         Review review = (Review) o;
         return Objects.equals(id, review.id) && Objects.equals(userId, review.userId)
                 && Objects.equals(bookId, review.bookId) && Objects.equals(rating, review.rating)
-                && Objects.equals(text, review.text);
+                && Objects.equals(text, review.text) && Objects.equals(createdAt, review.createdAt);
     }
 
     @Override
     public int hashCode() {
-        return Objects.hash(id, userId, bookId, rating, text);
+        return Objects.hash(id, userId, bookId, rating, text, createdAt);
     }
 }
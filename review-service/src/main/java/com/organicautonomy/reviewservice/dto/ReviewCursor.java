@@ -0,0 +1,58 @@
+package com.organicautonomy.reviewservice.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Objects;
+
+public class ReviewCursor {
+    private final Instant createdAt;
+    private final Integer id;
+
+    public ReviewCursor(Instant createdAt, Integer id) {
+        this.createdAt = createdAt;
+        this.id = id;
+    }
+
+    public static ReviewCursor of(ReviewSummary review) {
+        return new ReviewCursor(review.getCreatedAt(), review.getId());
+    }
+
+    public static ReviewCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(':');
+
+            return new ReviewCursor(Instant.ofEpochMilli(Long.parseLong(raw.substring(0, separator))),
+                    Integer.parseInt(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("The cursor provided is invalid.");
+        }
+    }
+
+    public String encode() {
+        String raw = createdAt.toEpochMilli() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReviewCursor that = (ReviewCursor) o;
+        return Objects.equals(createdAt, that.createdAt) && Objects.equals(id, that.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(createdAt, id);
+    }
+}
@@ -0,0 +1,101 @@
+package com.organicautonomy.reviewservice.dto;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PastOrPresent;
+import javax.validation.constraints.Positive;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Objects;
+
+// a row of POST /reviews/batch. Unlike a single review it may carry the time it was written elsewhere.
+public class ReviewImport {
+    @NotNull
+    @Positive(message = "Value must be greater than 0.")
+    private Integer userId;
+    @NotNull
+    @Positive(message = "Value must be greater than 0.")
+    private Integer bookId;
+    @NotNull
+    @DecimalMin(value = "0", message = "Value cannot be less than 0.")
+    @DecimalMax(value = "5", message = "Value cannot be greater than 5.")
+    private BigDecimal rating;
+    @NotNull
+    private String text;
+    // stamped on insert when missing.
+    @PastOrPresent(message = "Value cannot be in the future.")
+    private Instant createdAt;
+
+    public ReviewImport() {
+    }
+
+    public ReviewImport(Integer userId, Integer bookId, BigDecimal rating, String text, Instant createdAt) {
+        this.userId = userId;
+        this.bookId = bookId;
+        this.rating = rating;
+        this.text = text;
+        this.createdAt = createdAt;
+    }
+
+    public Review toReview() {
+        Review review = new Review(userId, bookId, rating, text);
+        review.setCreatedAt(createdAt);
+        return review;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public BigDecimal getRating() {
+        return rating;
+    }
+
+    public void setRating(BigDecimal rating) {
+        this.rating = rating;
+    }
+
+    public String getText() {
+        return text;
+    }
+
+    public void setText(String text) {
+        this.text = text;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReviewImport that = (ReviewImport) o;
+        return Objects.equals(userId, that.userId) && Objects.equals(bookId, that.bookId)
+                && Objects.equals(rating, that.rating) && Objects.equals(text, that.text)
+                && Objects.equals(createdAt, that.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, bookId, rating, text, createdAt);
+    }
+}
@@ -0,0 +1,46 @@
+package com.organicautonomy.reviewservice.dto;
+
+import java.util.List;
+import java.util.Objects;
+
+public class ReviewPage {
+    private List<ReviewSummary> reviews;
+    private String nextCursor;
+
+    public ReviewPage() {
+    }
+
+    public ReviewPage(List<ReviewSummary> reviews, String nextCursor) {
+        this.reviews = reviews;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ReviewSummary> getReviews() {
+        return reviews;
+    }
+
+    public void setReviews(List<ReviewSummary> reviews) {
+        this.reviews = reviews;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReviewPage that = (ReviewPage) o;
+        return Objects.equals(reviews, that.reviews) && Objects.equals(nextCursor, that.nextCursor);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(reviews, nextCursor);
+    }
+}
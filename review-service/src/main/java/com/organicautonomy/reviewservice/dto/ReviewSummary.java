@@ -0,0 +1,104 @@
+package com.organicautonomy.reviewservice.dto;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.Objects;
+
+public class ReviewSummary {
+    public static final int SNIPPET_LENGTH = 140;
+    // the order of the keyset routes: createdAt DESC, id DESC.
+    public static final Comparator<ReviewSummary> NEWEST_FIRST = Comparator.comparing(ReviewSummary::getCreatedAt,
+            Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(ReviewSummary::getId, Comparator.reverseOrder());
+
+    private Integer id;
+    private Integer userId;
+    private Integer bookId;
+    private BigDecimal rating;
+    private String snippet;
+    private Instant createdAt;
+
+    public ReviewSummary() {
+    }
+
+    public ReviewSummary(Integer id, Integer userId, Integer bookId, BigDecimal rating, String snippet, Instant createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.bookId = bookId;
+        this.rating = rating;
+        this.snippet = snippet;
+        this.createdAt = createdAt;
+    }
+
+    public static ReviewSummary of(Review review) {
+        String text = review.getText();
+        String snippet = text == null || text.length() <= SNIPPET_LENGTH ? text : text.substring(0, SNIPPET_LENGTH);
+
+        return new ReviewSummary(review.getId(), review.getUserId(), review.getBookId(), review.getRating(),
+                snippet, review.getCreatedAt());
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public void setId(Integer id) {
+        this.id = id;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Integer userId) {
+        this.userId = userId;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public BigDecimal getRating() {
+        return rating;
+    }
+
+    public void setRating(BigDecimal rating) {
+        this.rating = rating;
+    }
+
+    public String getSnippet() {
+        return snippet;
+    }
+
+    public void setSnippet(String snippet) {
+        this.snippet = snippet;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReviewSummary that = (ReviewSummary) o;
+        return Objects.equals(id, that.id) && Objects.equals(userId, that.userId)
+                && Objects.equals(bookId, that.bookId) && Objects.equals(rating, that.rating)
+                && Objects.equals(snippet, that.snippet) && Objects.equals(createdAt, that.createdAt);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(id, userId, bookId, rating, snippet, createdAt);
+    }
+}
@@ -0,0 +1,71 @@
+package com.organicautonomy.reviewservice.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+import java.util.Objects;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class ReviewerCount {
+    private List<Integer> bookIds;
+    private long reviewers;
+    private double relativeStandardError;
+    // base64 of the merged sketch, for callers that union it further.
+    private String sketch;
+
+    public ReviewerCount() {
+    }
+
+    public ReviewerCount(List<Integer> bookIds, long reviewers, double relativeStandardError, String sketch) {
+        this.bookIds = bookIds;
+        this.reviewers = reviewers;
+        this.relativeStandardError = relativeStandardError;
+        this.sketch = sketch;
+    }
+
+    public List<Integer> getBookIds() {
+        return bookIds;
+    }
+
+    public void setBookIds(List<Integer> bookIds) {
+        this.bookIds = bookIds;
+    }
+
+    public long getReviewers() {
+        return reviewers;
+    }
+
+    public void setReviewers(long reviewers) {
+        this.reviewers = reviewers;
+    }
+
+    public double getRelativeStandardError() {
+        return relativeStandardError;
+    }
+
+    public void setRelativeStandardError(double relativeStandardError) {
+        this.relativeStandardError = relativeStandardError;
+    }
+
+    public String getSketch() {
+        return sketch;
+    }
+
+    public void setSketch(String sketch) {
+        this.sketch = sketch;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        ReviewerCount that = (ReviewerCount) o;
+        return reviewers == that.reviewers && Double.compare(that.relativeStandardError, relativeStandardError) == 0
+                && Objects.equals(bookIds, that.bookIds) && Objects.equals(sketch, that.sketch);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookIds, reviewers, relativeStandardError, sketch);
+    }
+}
@@ -0,0 +1,76 @@
+package com.organicautonomy.reviewservice.dto;
+
+import java.util.Objects;
+
+public class TrendingBook {
+    private Integer bookId;
+    private String window;
+    private long reviewCount;
+    private long previousCount;
+    private long growth;
+
+    public TrendingBook() {
+    }
+
+    public TrendingBook(Integer bookId, String window, long reviewCount, long previousCount, long growth) {
+        this.bookId = bookId;
+        this.window = window;
+        this.reviewCount = reviewCount;
+        this.previousCount = previousCount;
+        this.growth = growth;
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public void setBookId(Integer bookId) {
+        this.bookId = bookId;
+    }
+
+    public String getWindow() {
+        return window;
+    }
+
+    public void setWindow(String window) {
+        this.window = window;
+    }
+
+    public long getReviewCount() {
+        return reviewCount;
+    }
+
+    public void setReviewCount(long reviewCount) {
+        this.reviewCount = reviewCount;
+    }
+
+    public long getPreviousCount() {
+        return previousCount;
+    }
+
+    public void setPreviousCount(long previousCount) {
+        this.previousCount = previousCount;
+    }
+
+    public long getGrowth() {
+        return growth;
+    }
+
+    public void setGrowth(long growth) {
+        this.growth = growth;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        TrendingBook that = (TrendingBook) o;
+        return reviewCount == that.reviewCount && previousCount == that.previousCount && growth == that.growth
+                && Objects.equals(bookId, that.bookId) && Objects.equals(window, that.window);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(bookId, window, reviewCount, previousCount, growth);
+    }
+}
@@ -0,0 +1,21 @@
+package com.organicautonomy.reviewservice.event;
+
+import com.organicautonomy.reviewservice.dto.Review;
+
+import java.util.List;
+
+/**
+ * Published once per bulk insert so derived views apply the whole batch in one pass instead of
+ * once per review.
+ */
+public class ReviewBatchEvent {
+    private final List<Review> created;
+
+    public ReviewBatchEvent(List<Review> created) {
+        this.created = created;
+    }
+
+    public List<Review> getCreated() {
+        return created;
+    }
+}
@@ -0,0 +1,45 @@
+package com.organicautonomy.reviewservice.event;
+
+import com.organicautonomy.reviewservice.dto.Review;
+
+public class ReviewEvent {
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    private final Type type;
+    private final Review previous;
+    private final Review review;
+
+    private ReviewEvent(Type type, Review previous, Review review) {
+        this.type = type;
+        this.previous = previous;
+        this.review = review;
+    }
+
+    public static ReviewEvent created(Review review) {
+        return new ReviewEvent(Type.CREATED, null, review);
+    }
+
+    public static ReviewEvent updated(Review previous, Review review) {
+        return new ReviewEvent(Type.UPDATED, previous, review);
+    }
+
+    public static ReviewEvent deleted(Review previous) {
+        return new ReviewEvent(Type.DELETED, previous, null);
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    // state before the write, null for creates.
+    public Review getPrevious() {
+        return previous;
+    }
+
+    // state after the write, null for deletes.
+    public Review getReview() {
+        return review;
+    }
+}
@@ -0,0 +1,7 @@
+package com.organicautonomy.reviewservice.exception;
+
+public class ResourceConflictException extends RuntimeException {
+    public ResourceConflictException(String msg) {
+        super(msg);
+    }
+}
@@ -0,0 +1,267 @@
+package com.organicautonomy.reviewservice.util.analytics;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.RatingDistribution;
+import com.organicautonomy.reviewservice.dto.RatingStats;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import com.organicautonomy.reviewservice.util.collection.IntIntHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Column-oriented mirror of the review table for dashboard aggregates. Each review is one row
+ * across parallel primitive arrays, ratings are scaled by 100, so scans never touch entities or
+ * BigDecimal. Deletes swap the last row into the hole to keep the columns dense.
+ */
+@Component
+public class ReviewColumnStore {
+    public enum Column {
+        BOOK, USER
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntIntHashMap rowsById = new IntIntHashMap(INITIAL_CAPACITY);
+    private int[] ids = new int[INITIAL_CAPACITY];
+    private int[] bookIds = new int[INITIAL_CAPACITY];
+    private int[] userIds = new int[INITIAL_CAPACITY];
+    private short[] ratings = new short[INITIAL_CAPACITY];
+    private int size;
+
+    @Autowired
+    private ReviewRepository repository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<Object[]> rows = repository.streamRatingColumns()) {
+            rows.forEach(row -> upsert((Integer) row[0], (Integer) row[1], (Integer) row[2], (Short) row[3]));
+        }
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        if (event.getType() == ReviewEvent.Type.DELETED) {
+            remove(event.getPrevious().getId());
+        } else {
+            Review review = event.getReview();
+            upsert(review.getId(), review.getUserId(), review.getBookId(), Review.toRatingBucket(review.getRating()));
+        }
+    }
+
+    @EventListener
+    public void onReviewBatch(ReviewBatchEvent event) {
+        lock.writeLock().lock();
+        try {
+            ensureCapacity(size + event.getCreated().size());
+            for (Review review : event.getCreated()) {
+                upsertRow(review.getId(), review.getUserId(), review.getBookId(), Review.toRatingBucket(review.getRating()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void upsert(int id, int userId, int bookId, short rating) {
+        lock.writeLock().lock();
+        try {
+            upsertRow(id, userId, bookId, rating);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(int id) {
+        lock.writeLock().lock();
+        try {
+            int row = rowsById.remove(id);
+            if (row == IntIntHashMap.MISSING) {
+                return false;
+            }
+
+            int last = --size;
+            if (row != last) {
+                ids[row] = ids[last];
+                userIds[row] = userIds[last];
+                bookIds[row] = bookIds[last];
+                ratings[row] = ratings[last];
+                rowsById.put(ids[row], row);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public RatingStats aggregate(ReviewFilter filter) {
+        lock.readLock().lock();
+        try {
+            long count = 0;
+            long sum = 0;
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+
+            for (int row = 0; row < size; row++) {
+                if (matches(filter, row)) {
+                    int rating = ratings[row];
+                    count++;
+                    sum += rating;
+                    min = Math.min(min, rating);
+                    max = Math.max(max, rating);
+                }
+            }
+
+            return toStats(null, count, sum, min, max);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param bucketWidth bucket width scaled by 100, e.g. 50 for half-star buckets
+     */
+    public RatingDistribution histogram(ReviewFilter filter, int bucketWidth) {
+        if (bucketWidth < 1 || bucketWidth > ReviewFilter.MAX_RATING) {
+            throw new IllegalArgumentException("Bucket width must be between 0.01 and 5.");
+        }
+
+        int buckets = (ReviewFilter.MAX_RATING + bucketWidth - 1) / bucketWidth;
+        long[] counts = new long[buckets];
+        long total = 0;
+
+        lock.readLock().lock();
+        try {
+            for (int row = 0; row < size; row++) {
+                if (matches(filter, row)) {
+                    counts[Math.min(ratings[row] / bucketWidth, buckets - 1)]++;
+                    total++;
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return new RatingDistribution(BigDecimal.valueOf(bucketWidth, 2), total, counts);
+    }
+
+    /**
+     * @return stats per distinct value of the group column, ordered by that value
+     */
+    public List<RatingStats> groupBy(Column column, ReviewFilter filter) {
+        lock.readLock().lock();
+        try {
+            int[] keys = column == Column.BOOK ? bookIds : userIds;
+            IntIntHashMap slots = new IntIntHashMap();
+            int groups = 0;
+            int[] groupKeys = new int[16];
+            long[] counts = new long[16];
+            long[] sums = new long[16];
+            int[] mins = new int[16];
+            int[] maxes = new int[16];
+
+            for (int row = 0; row < size; row++) {
+                if (!matches(filter, row)) {
+                    continue;
+                }
+
+                int slot = slots.get(keys[row]);
+                if (slot == IntIntHashMap.MISSING) {
+                    slot = groups++;
+                    slots.put(keys[row], slot);
+                    if (slot == groupKeys.length) {
+                        int capacity = groupKeys.length << 1;
+                        groupKeys = Arrays.copyOf(groupKeys, capacity);
+                        counts = Arrays.copyOf(counts, capacity);
+                        sums = Arrays.copyOf(sums, capacity);
+                        mins = Arrays.copyOf(mins, capacity);
+                        maxes = Arrays.copyOf(maxes, capacity);
+                    }
+                    groupKeys[slot] = keys[row];
+                    mins[slot] = Integer.MAX_VALUE;
+                    maxes[slot] = Integer.MIN_VALUE;
+                }
+
+                int rating = ratings[row];
+                counts[slot]++;
+                sums[slot] += rating;
+                mins[slot] = Math.min(mins[slot], rating);
+                maxes[slot] = Math.max(maxes[slot], rating);
+            }
+
+            List<RatingStats> stats = new ArrayList<>(groups);
+            for (int slot = 0; slot < groups; slot++) {
+                stats.add(toStats(groupKeys[slot], counts[slot], sums[slot], mins[slot], maxes[slot]));
+            }
+            stats.sort((a, b) -> Integer.compare(a.getGroupId(), b.getGroupId()));
+
+            return stats;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void upsertRow(int id, int userId, int bookId, short rating) {
+        int row = rowsById.get(id);
+        if (row == IntIntHashMap.MISSING) {
+            ensureCapacity(size + 1);
+            row = size++;
+            rowsById.put(id, row);
+        }
+        ids[row] = id;
+        userIds[row] = userId;
+        bookIds[row] = bookId;
+        ratings[row] = rating;
+    }
+
+    private boolean matches(ReviewFilter filter, int row) {
+        short rating = ratings[row];
+        return rating >= filter.getMinRating() && rating <= filter.getMaxRating()
+                && (filter.getBookId() == null || bookIds[row] == filter.getBookId())
+                && (filter.getUserId() == null || userIds[row] == filter.getUserId());
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+
+        int grown = Math.max(capacity, ids.length + (ids.length >> 1));
+        ids = Arrays.copyOf(ids, grown);
+        bookIds = Arrays.copyOf(bookIds, grown);
+        userIds = Arrays.copyOf(userIds, grown);
+        ratings = Arrays.copyOf(ratings, grown);
+    }
+
+    private static RatingStats toStats(Integer groupId, long count, long sum, int min, int max) {
+        if (count == 0) {
+            return new RatingStats(groupId, 0, null, null, null);
+        }
+
+        BigDecimal average = BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count * 100), 2, RoundingMode.HALF_UP);
+        return new RatingStats(groupId, count, average, BigDecimal.valueOf(min, 2), BigDecimal.valueOf(max, 2));
+    }
+}
@@ -0,0 +1,39 @@
+package com.organicautonomy.reviewservice.util.analytics;
+
+public class ReviewFilter {
+    public static final short MIN_RATING = 0;
+    public static final short MAX_RATING = 500;
+
+    private final Integer bookId;
+    private final Integer userId;
+    private final short minRating;
+    private final short maxRating;
+
+    public ReviewFilter(Integer bookId, Integer userId, short minRating, short maxRating) {
+        this.bookId = bookId;
+        this.userId = userId;
+        this.minRating = minRating;
+        this.maxRating = maxRating;
+    }
+
+    public static ReviewFilter all() {
+        return new ReviewFilter(null, null, MIN_RATING, MAX_RATING);
+    }
+
+    public Integer getBookId() {
+        return bookId;
+    }
+
+    public Integer getUserId() {
+        return userId;
+    }
+
+    // ratings are scaled by 100, matching Review.toRatingBucket.
+    public short getMinRating() {
+        return minRating;
+    }
+
+    public short getMaxRating() {
+        return maxRating;
+    }
+}
@@ -0,0 +1,158 @@
+package com.organicautonomy.reviewservice.util.cardinality;
+
+import com.organicautonomy.reviewservice.dao.BookReviewersRepository;
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.BookReviewers;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Distinct reviewers per book across all time, one HyperLogLog sketch per book. Sketches are
+ * flushed to the book_reviewers table with the time of the flush, so a restart only folds in
+ * reviews updated since, reaching back catch-up-overlap-ms for writes that were still committing.
+ * Adding a user twice changes nothing, which makes replaying reviews that were already covered
+ * harmless. Deleting a review does not take its user back out.
+ */
+@Component
+public class BookReviewerCounts {
+    private static final Logger log = LoggerFactory.getLogger(BookReviewerCounts.class);
+
+    private final int precision;
+    private final Map<Integer, HyperLogLog> sketches = new ConcurrentHashMap<>();
+    // books whose sketch changed since the last flush.
+    private final Set<Integer> dirty = ConcurrentHashMap.newKeySet();
+    private final long catchUpOverlapMs;
+
+    @Autowired
+    private ReviewRepository repository;
+    @Autowired
+    private BookReviewersRepository bookReviewersRepository;
+
+    public BookReviewerCounts(@Value("${reviews.reviewers.precision:12}") int precision,
+                              @Value("${reviews.reviewers.catch-up-overlap-ms:60000}") long catchUpOverlapMs) {
+        this.precision = new HyperLogLog(precision).getPrecision();
+        this.catchUpOverlapMs = catchUpOverlapMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        Instant flushedAt = null;
+        for (BookReviewers row : bookReviewersRepository.findAll()) {
+            HyperLogLog sketch = HyperLogLog.fromBytes(row.getSketch());
+            if (sketch.getPrecision() != precision) {
+                // the precision was reconfigured, start over from the review table.
+                sketches.clear();
+                flushedAt = null;
+                break;
+            }
+            sketches.put(row.getBookId(), sketch);
+            if (flushedAt == null || row.getFlushedAt().isAfter(flushedAt)) {
+                flushedAt = row.getFlushedAt();
+            }
+        }
+
+        try (Stream<Object[]> rows = flushedAt == null ? repository.streamReviewers()
+                : repository.streamReviewersUpdatedSince(flushedAt.minusMillis(catchUpOverlapMs))) {
+            rows.forEach(row -> record((Integer) row[0], (Integer) row[1]));
+        }
+        log.info("Reviewer sketches loaded for {} books, {} changed since the last flush.", sketches.size(), dirty.size());
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        Review review = event.getReview();
+        if (review != null) {
+            record(review.getUserId(), review.getBookId());
+        }
+    }
+
+    @EventListener
+    public void onReviewBatch(ReviewBatchEvent event) {
+        for (Review review : event.getCreated()) {
+            record(review.getUserId(), review.getBookId());
+        }
+    }
+
+    public void record(int userId, int bookId) {
+        HyperLogLog sketch = sketches.computeIfAbsent(bookId, b -> new HyperLogLog(precision));
+        synchronized (sketch) {
+            if (sketch.add(userId)) {
+                dirty.add(bookId);
+            }
+        }
+    }
+
+    /**
+     * @return the sketch of everyone who reviewed any of the books, empty for unknown books
+     */
+    public HyperLogLog union(Collection<Integer> bookIds) {
+        HyperLogLog union = new HyperLogLog(precision);
+        for (Integer bookId : bookIds) {
+            HyperLogLog sketch = sketches.get(bookId);
+            if (sketch != null) {
+                synchronized (sketch) {
+                    union.merge(sketch);
+                }
+            }
+        }
+
+        return union;
+    }
+
+    public long count(int bookId) {
+        return union(Collections.singletonList(bookId)).estimate();
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    @Scheduled(fixedDelayString = "${reviews.reviewers.flush-interval-ms:30000}")
+    public synchronized void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+
+        // taken before the sketches are copied, later records mark their books dirty again.
+        Instant flushedAt = Instant.now();
+        List<BookReviewers> rows = new ArrayList<>();
+        for (Iterator<Integer> it = dirty.iterator(); it.hasNext(); ) {
+            Integer bookId = it.next();
+            it.remove();
+
+            HyperLogLog sketch = sketches.get(bookId);
+            synchronized (sketch) {
+                rows.add(new BookReviewers(bookId, sketch.toBytes(), flushedAt));
+            }
+        }
+
+        try {
+            bookReviewersRepository.saveAll(rows);
+        } catch (RuntimeException e) {
+            rows.forEach(row -> dirty.add(row.getBookId()));
+            log.warn("Flushing reviewer sketches failed, retrying on the next flush.", e);
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        flush();
+    }
+}
@@ -0,0 +1,212 @@
+package com.organicautonomy.reviewservice.util.cardinality;
+
+import com.organicautonomy.reviewservice.util.collection.IntIntHashMap;
+
+import java.nio.ByteBuffer;
+
+/**
+ * HyperLogLog distinct counter over int ids. With 2^precision registers the relative standard
+ * error is 1.04 / sqrt(2^precision), 1.6% at the default precision of 12, whatever the number
+ * of ids added. Small sketches keep only their non-zero registers in a hash map and switch to a
+ * dense byte per register once that would no longer save space. Sketches of the same precision
+ * merge by taking the register-wise maximum, which is exactly the sketch of the union.
+ * Not thread safe, callers guard it.
+ */
+public class HyperLogLog {
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 16;
+
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+
+    private final int precision;
+    private final int registerCount;
+    private IntIntHashMap sparse;
+    private byte[] dense;
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("Precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION + ".");
+        }
+
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.sparse = new IntIntHashMap(4);
+    }
+
+    public HyperLogLog(HyperLogLog other) {
+        this.precision = other.precision;
+        this.registerCount = other.registerCount;
+        if (other.dense != null) {
+            this.dense = other.dense.clone();
+        } else {
+            this.sparse = new IntIntHashMap(other.sparse.size());
+            other.sparse.forEach(this.sparse::put);
+        }
+    }
+
+    public static double relativeStandardError(int precision) {
+        return 1.04 / Math.sqrt(1 << precision);
+    }
+
+    /**
+     * @return true if a register changed
+     */
+    public boolean add(int value) {
+        long hash = mix64(value);
+        int index = (int) (hash >>> (Long.SIZE - precision));
+        // a sentinel bit caps the rank when every remaining bit is zero.
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+
+        return update(index, rank);
+    }
+
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Only sketches of the same precision can be merged.");
+        }
+
+        if (other.dense != null) {
+            for (int i = 0; i < registerCount; i++) {
+                if (other.dense[i] != 0) {
+                    update(i, other.dense[i]);
+                }
+            }
+        } else {
+            other.sparse.forEach(this::update);
+        }
+    }
+
+    public long estimate() {
+        double sum = 0;
+        int zeros;
+
+        if (dense != null) {
+            zeros = 0;
+            for (byte register : dense) {
+                sum += Math.scalb(1.0, -register);
+                if (register == 0) {
+                    zeros++;
+                }
+            }
+        } else {
+            double[] partial = new double[1];
+            sparse.forEach((index, rank) -> partial[0] += Math.scalb(1.0, -rank));
+            zeros = registerCount - sparse.size();
+            sum = partial[0] + zeros;
+        }
+
+        double estimate = alpha() * registerCount * (double) registerCount / sum;
+        // linear counting is far more accurate while many registers are still empty.
+        if (estimate <= 2.5 * registerCount && zeros > 0) {
+            estimate = registerCount * Math.log((double) registerCount / zeros);
+        }
+
+        return Math.round(estimate);
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    public boolean isSparse() {
+        return dense == null;
+    }
+
+    /**
+     * Layout: precision, format, then either the non-zero registers as (index, rank) pairs or
+     * one byte per register.
+     */
+    public byte[] toBytes() {
+        if (dense != null) {
+            return ByteBuffer.allocate(2 + registerCount).put((byte) precision).put(DENSE).put(dense).array();
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(6 + 3 * sparse.size()).put((byte) precision).put(SPARSE).putInt(sparse.size());
+        sparse.forEach((index, rank) -> buffer.putShort((short) index).put((byte) rank));
+        return buffer.array();
+    }
+
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            HyperLogLog sketch = new HyperLogLog(buffer.get());
+            byte format = buffer.get();
+
+            if (format == DENSE) {
+                byte[] registers = new byte[sketch.registerCount];
+                buffer.get(registers);
+                for (int i = 0; i < registers.length; i++) {
+                    if (registers[i] != 0) {
+                        sketch.update(i, registers[i]);
+                    }
+                }
+            } else if (format == SPARSE) {
+                for (int n = buffer.getInt(); n > 0; n--) {
+                    sketch.update(buffer.getShort() & 0xFFFF, buffer.get());
+                }
+            } else {
+                throw new IllegalArgumentException("The sketch provided is invalid.");
+            }
+
+            return sketch;
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("The sketch provided is invalid.", e);
+        }
+    }
+
+    private boolean update(int index, int rank) {
+        if (index < 0 || index >= registerCount || rank < 1 || rank > Long.SIZE - precision + 1) {
+            throw new IllegalArgumentException("Register " + index + " cannot hold rank " + rank + ".");
+        }
+
+        if (dense != null) {
+            if (dense[index] >= rank) {
+                return false;
+            }
+            dense[index] = (byte) rank;
+            return true;
+        }
+
+        int current = sparse.get(index);
+        if (current >= rank) {
+            return false;
+        }
+        sparse.put(index, rank);
+        // the map costs roughly 16 bytes per register set, the dense array one byte per register.
+        if (sparse.size() > registerCount / 16) {
+            densify();
+        }
+        return true;
+    }
+
+    private void densify() {
+        dense = new byte[registerCount];
+        sparse.forEach((index, rank) -> dense[index] = (byte) rank);
+        sparse = null;
+    }
+
+    private double alpha() {
+        switch (registerCount) {
+            case 16:
+                return 0.673;
+            case 32:
+                return 0.697;
+            case 64:
+                return 0.709;
+            default:
+                return 0.7213 / (1 + 1.079 / registerCount);
+        }
+    }
+
+    // murmur3 finalizer, spreads sequential ids over all 64 bits.
+    private static long mix64(long value) {
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,180 @@
+package com.organicautonomy.reviewservice.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing int to int map with linear probing. Avoids boxing for the id lookups the
+ * in-memory review views do on every write. Not thread safe, callers guard it.
+ */
+public class IntIntHashMap {
+    public static final int MISSING = -1;
+
+    private static final int FREE = Integer.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private int[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    public IntIntHashMap() {
+        this(16);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public int get(int key) {
+        checkKey(key);
+        int mask = keys.length - 1;
+
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+            if (keys[slot] == FREE) {
+                return MISSING;
+            }
+        }
+    }
+
+    public boolean containsKey(int key) {
+        return get(key) != MISSING;
+    }
+
+    /**
+     * @return the previous value, or {@link #MISSING}
+     */
+    public int put(int key, int value) {
+        checkKey(key);
+        int mask = keys.length - 1;
+
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            if (keys[slot] == FREE) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size >= resizeAt) {
+                    rehash(keys.length << 1);
+                }
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * Adds delta to the value stored for key, treating a missing key as zero.
+     *
+     * @return the new value
+     */
+    public int addTo(int key, int delta) {
+        int current = get(key);
+        int updated = (current == MISSING ? 0 : current) + delta;
+        put(key, updated);
+
+        return updated;
+    }
+
+    /**
+     * @return the removed value, or {@link #MISSING}
+     */
+    public int remove(int key) {
+        checkKey(key);
+        int mask = keys.length - 1;
+
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == FREE) {
+                return MISSING;
+            }
+            if (keys[slot] == key) {
+                int previous = values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE);
+        size = 0;
+    }
+
+    public void forEach(IntIntConsumer consumer) {
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != FREE) {
+                consumer.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface IntIntConsumer {
+        void accept(int key, int value);
+    }
+
+    // backward-shift deletion keeps probe chains intact without tombstones.
+    private void shiftBack(int slot) {
+        int mask = keys.length - 1;
+        int gap = slot;
+
+        for (int next = (gap + 1) & mask; keys[next] != FREE; next = (next + 1) & mask) {
+            int home = mix(keys[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                keys[gap] = keys[next];
+                values[gap] = values[next];
+                gap = next;
+            }
+        }
+        keys[gap] = FREE;
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        size = 0;
+
+        for (int slot = 0; slot < oldKeys.length; slot++) {
+            if (oldKeys[slot] != FREE) {
+                put(oldKeys[slot], oldValues[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        Arrays.fill(keys, FREE);
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 4);
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static void checkKey(int key) {
+        if (key == FREE) {
+            throw new IllegalArgumentException("Key " + FREE + " is reserved.");
+        }
+    }
+}
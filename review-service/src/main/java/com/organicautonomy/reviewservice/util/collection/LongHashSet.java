@@ -0,0 +1,140 @@
+package com.organicautonomy.reviewservice.util.collection;
+
+import java.util.Arrays;
+
+/**
+ * Open-addressing set of primitive longs with linear probing, 8 bytes per slot instead of a boxed
+ * Long and a HashMap node. Not thread safe, callers guard it.
+ */
+public class LongHashSet {
+    private static final long FREE = Long.MIN_VALUE;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private long[] slots;
+    private int size;
+    private int resizeAt;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    public LongHashSet(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    public boolean contains(long value) {
+        checkValue(value);
+        int mask = slots.length - 1;
+
+        for (int slot = mix(value) & mask; ; slot = (slot + 1) & mask) {
+            if (slots[slot] == value) {
+                return true;
+            }
+            if (slots[slot] == FREE) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return false if the value was already present
+     */
+    public boolean add(long value) {
+        checkValue(value);
+        int mask = slots.length - 1;
+
+        for (int slot = mix(value) & mask; ; slot = (slot + 1) & mask) {
+            if (slots[slot] == value) {
+                return false;
+            }
+            if (slots[slot] == FREE) {
+                slots[slot] = value;
+                if (++size >= resizeAt) {
+                    rehash(slots.length << 1);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return false if the value was not present
+     */
+    public boolean remove(long value) {
+        checkValue(value);
+        int mask = slots.length - 1;
+
+        for (int slot = mix(value) & mask; ; slot = (slot + 1) & mask) {
+            if (slots[slot] == FREE) {
+                return false;
+            }
+            if (slots[slot] == value) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, FREE);
+        size = 0;
+    }
+
+    // backward-shift deletion keeps probe chains intact without tombstones.
+    private void shiftBack(int slot) {
+        int mask = slots.length - 1;
+        int gap = slot;
+
+        for (int next = (gap + 1) & mask; slots[next] != FREE; next = (next + 1) & mask) {
+            int home = mix(slots[next]) & mask;
+            if (((next - home) & mask) >= ((next - gap) & mask)) {
+                slots[gap] = slots[next];
+                gap = next;
+            }
+        }
+        slots[gap] = FREE;
+    }
+
+    private void rehash(int capacity) {
+        long[] old = slots;
+        allocate(capacity);
+        size = 0;
+
+        for (long value : old) {
+            if (value != FREE) {
+                add(value);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        slots = new long[capacity];
+        Arrays.fill(slots, FREE);
+        resizeAt = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        return Math.max(capacity, 4);
+    }
+
+    private static int mix(long value) {
+        long h = value * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static void checkValue(long value) {
+        if (value == FREE) {
+            throw new IllegalArgumentException("Value " + FREE + " is reserved.");
+        }
+    }
+}
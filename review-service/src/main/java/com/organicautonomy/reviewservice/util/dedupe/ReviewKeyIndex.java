@@ -0,0 +1,80 @@
+package com.organicautonomy.reviewservice.util.dedupe;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import com.organicautonomy.reviewservice.util.collection.LongHashSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Every (userId, bookId) pair that has a review, packed into one long, so duplicate reviews are
+ * rejected before any SQL. The unique constraint on the table still backs this up for races.
+ */
+@Component
+public class ReviewKeyIndex {
+    private final LongHashSet keys = new LongHashSet(1024);
+
+    @Autowired
+    private ReviewRepository repository;
+
+    public static long key(int userId, int bookId) {
+        return ((long) userId << 32) | (bookId & 0xFFFFFFFFL);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<Object[]> rows = repository.streamRatingColumns()) {
+            rows.forEach(row -> add((Integer) row[1], (Integer) row[2]));
+        }
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        Review previous = event.getPrevious();
+        Review review = event.getReview();
+
+        synchronized (keys) {
+            if (previous != null) {
+                keys.remove(key(previous.getUserId(), previous.getBookId()));
+            }
+            if (review != null) {
+                keys.add(key(review.getUserId(), review.getBookId()));
+            }
+        }
+    }
+
+    @EventListener
+    public void onReviewBatch(ReviewBatchEvent event) {
+        synchronized (keys) {
+            for (Review review : event.getCreated()) {
+                keys.add(key(review.getUserId(), review.getBookId()));
+            }
+        }
+    }
+
+    public boolean contains(int userId, int bookId) {
+        synchronized (keys) {
+            return keys.contains(key(userId, bookId));
+        }
+    }
+
+    public void add(int userId, int bookId) {
+        synchronized (keys) {
+            keys.add(key(userId, bookId));
+        }
+    }
+
+    public int size() {
+        synchronized (keys) {
+            return keys.size();
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.organicautonomy.reviewservice.util.eventlog;
+
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * A preallocated, memory-mapped file of event records. Each record is
+ * <pre>
+ *   int length | int crc | long sequence | byte type | int reviewId | int userId | int bookId
+ *   | short ratingBucket | long createdAt | int textLength | text bytes
+ * </pre>
+ * with the crc covering everything after it. The length is written last, so a zero length marks
+ * the end of the log and a record cut short by a crash either reads as the end or fails its crc
+ * when the segment is reopened. Appends are single threaded, callers hold the log's lock.
+ */
+class LogSegment {
+    static final int HEADER = 43;
+    private static final ReviewEvent.Type[] TYPES = ReviewEvent.Type.values();
+
+    private final Path path;
+    private final long firstSequence;
+    private final MappedByteBuffer buffer;
+    // written under the log's lock only, volatile so replays can read them without it.
+    private volatile int end;
+    private volatile long lastSequence;
+
+    private LogSegment(Path path, long firstSequence, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    static LogSegment create(Path path, long firstSequence, int capacity) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            return new LogSegment(path, firstSequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity));
+        }
+    }
+
+    /**
+     * Maps an existing segment and finds its end, dropping a torn record at the tail.
+     */
+    static LogSegment open(Path path, long firstSequence) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            LogSegment segment = new LogSegment(path, firstSequence, channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size()));
+            segment.recover();
+            return segment;
+        }
+    }
+
+    private void recover() {
+        CRC32 crc = new CRC32();
+        int position = 0;
+        while (position + HEADER <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length < HEADER || position + length > buffer.capacity()) {
+                break;
+            }
+
+            ByteBuffer body = view(position + 8, position + length);
+            crc.reset();
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                break;
+            }
+
+            lastSequence = buffer.getLong(position + 8);
+            position += length;
+        }
+
+        end = position;
+        // clear whatever a crash left past the last good record so it can't be mistaken for one later.
+        for (int i = end; i < Math.min(end + HEADER, buffer.capacity()); i++) {
+            buffer.put(i, (byte) 0);
+        }
+    }
+
+    static int recordLength(byte[] text) {
+        return HEADER + text.length;
+    }
+
+    boolean fits(int length) {
+        return end + length <= buffer.capacity();
+    }
+
+    void append(long sequence, ReviewEvent.Type type, int reviewId, int userId, int bookId, short ratingBucket,
+                long createdAt, byte[] text) {
+        int length = recordLength(text);
+        ByteBuffer record = view(end + 8, buffer.capacity());
+        record.putLong(sequence)
+                .put((byte) type.ordinal())
+                .putInt(reviewId)
+                .putInt(userId)
+                .putInt(bookId)
+                .putShort(ratingBucket)
+                .putLong(createdAt)
+                .putInt(text.length)
+                .put(text);
+
+        ByteBuffer body = view(end + 8, end + length);
+        CRC32 crc = new CRC32();
+        crc.update(body);
+        buffer.putInt(end + 4, (int) crc.getValue());
+        buffer.putInt(end, length);
+
+        end += length;
+        lastSequence = sequence;
+    }
+
+    /**
+     * Feeds the records before limit with a sequence past after to the projection. limit is a
+     * {@link #size} read earlier, so a record still being appended is never seen.
+     */
+    void replay(long after, int limit, ReviewLogEntry entry, ReviewLogProjection projection) {
+        ByteBuffer view = view(0, buffer.capacity());
+        int position = 0;
+        while (position < limit) {
+            int length = view.getInt(position);
+            long sequence = view.getLong(position + 8);
+            if (sequence > after) {
+                entry.set(TYPES[view.get(position + 16)], sequence, view.getInt(position + 17), view.getInt(position + 21),
+                        view.getInt(position + 25), view.getShort(position + 29), view.getLong(position + 31));
+                entry.setText(view, position + HEADER, view.getInt(position + 39));
+                projection.apply(entry);
+            }
+            position += length;
+        }
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    // called through ByteBuffer and Buffer, the covariant overrides Java 9 added don't exist on a Java 8 runtime.
+    private ByteBuffer view(int from, int to) {
+        ByteBuffer view = ((ByteBuffer) buffer).duplicate();
+        ((Buffer) view).position(from).limit(to);
+        return view;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getFirstSequence() {
+        return firstSequence;
+    }
+
+    long getLastSequence() {
+        return lastSequence;
+    }
+
+    int size() {
+        return end;
+    }
+}
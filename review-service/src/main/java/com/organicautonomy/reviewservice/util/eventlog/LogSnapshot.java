@@ -0,0 +1,150 @@
+package com.organicautonomy.reviewservice.util.eventlog;
+
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * The live reviews as of one log sequence, as fixed width rows sorted by review id:
+ * <pre>
+ *   int magic | int version | long sequence | int count | count * (int reviewId | int userId | int bookId
+ *   | short ratingBucket | long createdAt)
+ * </pre>
+ * Text is left out, it stays in the segments for the audit trail. A new snapshot is the previous one
+ * merged with the events after it, so compaction only holds the changed reviews in memory.
+ */
+class LogSnapshot {
+    private static final int MAGIC = 0x52564C53;
+    private static final int VERSION = 1;
+    private static final int HEADER = 20;
+    private static final int ROW = 22;
+
+    private final Path path;
+    private final long sequence;
+
+    LogSnapshot(Path path, long sequence) {
+        this.path = path;
+        this.sequence = sequence;
+    }
+
+    long getSequence() {
+        return sequence;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    /**
+     * The state of one review after the events since the previous snapshot, null values are deletes.
+     */
+    static class Row {
+        final int userId;
+        final int bookId;
+        final short ratingBucket;
+        final long createdAt;
+
+        Row(int userId, int bookId, short ratingBucket, long createdAt) {
+            this.userId = userId;
+            this.bookId = bookId;
+            this.ratingBucket = ratingBucket;
+            this.createdAt = createdAt;
+        }
+    }
+
+    /**
+     * Writes previous (may be null) with changes applied as a snapshot at sequence.
+     *
+     * @return the number of live reviews written
+     */
+    static int write(Path path, long sequence, LogSnapshot previous, Map<Integer, Row> changes) throws IOException {
+        int[] changed = changes.keySet().stream().mapToInt(Integer::intValue).toArray();
+        Arrays.sort(changed);
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        int count = 0;
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(sequence);
+            out.writeInt(0);
+
+            MappedByteBuffer rows = previous == null ? null : previous.map();
+            int previousCount = rows == null ? 0 : rows.getInt(HEADER - 4);
+            int next = 0;
+            for (int row = 0; row < previousCount; row++) {
+                int offset = HEADER + row * ROW;
+                int reviewId = rows.getInt(offset);
+                for (; next < changed.length && changed[next] < reviewId; next++) {
+                    count += writeChange(out, changed[next], changes);
+                }
+                if (next < changed.length && changed[next] == reviewId) {
+                    count += writeChange(out, changed[next++], changes);
+                } else {
+                    out.writeInt(reviewId);
+                    out.writeInt(rows.getInt(offset + 4));
+                    out.writeInt(rows.getInt(offset + 8));
+                    out.writeShort(rows.getShort(offset + 12));
+                    out.writeLong(rows.getLong(offset + 14));
+                    count++;
+                }
+            }
+            for (; next < changed.length; next++) {
+                count += writeChange(out, changed[next], changes);
+            }
+        }
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, count), HEADER - 4);
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE);
+        return count;
+    }
+
+    private static int writeChange(DataOutputStream out, int reviewId, Map<Integer, Row> changes) throws IOException {
+        Row row = changes.get(reviewId);
+        if (row == null) {
+            return 0;
+        }
+
+        out.writeInt(reviewId);
+        out.writeInt(row.userId);
+        out.writeInt(row.bookId);
+        out.writeShort(row.ratingBucket);
+        out.writeLong(row.createdAt);
+        return 1;
+    }
+
+    void replay(ReviewLogEntry entry, ReviewLogProjection projection) throws IOException {
+        MappedByteBuffer rows = map();
+        int count = rows.getInt(HEADER - 4);
+        for (int row = 0; row < count; row++) {
+            int offset = HEADER + row * ROW;
+            entry.set(ReviewEvent.Type.CREATED, sequence, rows.getInt(offset), rows.getInt(offset + 4), rows.getInt(offset + 8),
+                    rows.getShort(offset + 12), rows.getLong(offset + 14));
+            projection.apply(entry);
+        }
+    }
+
+    private MappedByteBuffer map() throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            MappedByteBuffer rows = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (rows.getInt(0) != MAGIC || rows.getInt(4) != VERSION) {
+                throw new IOException("Unrecognized review log snapshot " + path + ".");
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.organicautonomy.reviewservice.util.eventlog;
+
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only audit trail of every review create, update and delete, kept in memory-mapped segment
+ * files under reviews.event-log.dir (the log is off when that is empty). Every event gets the next
+ * sequence number. A periodic snapshot compacts the live reviews as of a sequence, so a projection
+ * is rebuilt by {@link #replay} from the snapshot plus the events after it instead of from the whole
+ * history or from the table. Segments are never rewritten or dropped.
+ *
+ * Events arrive after the review is committed, so a failed append is logged and counted rather than
+ * failing the request; the log then misses that event, see {@link #getDroppedEvents}.
+ */
+@Component
+public class ReviewEventLog {
+    private static final Logger log = LoggerFactory.getLogger(ReviewEventLog.class);
+    private static final String SEGMENT_PREFIX = "events-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+    private static final String SNAPSHOT_SUFFIX = ".snap";
+    private static final byte[] NO_TEXT = new byte[0];
+
+    private final Path directory;
+    private final int segmentSize;
+    private final List<LogSegment> segments = new CopyOnWriteArrayList<>();
+    // only one compaction at a time, appends and replays don't wait for it.
+    private final Object compaction = new Object();
+    private final AtomicLong droppedEvents = new AtomicLong();
+    private LogSnapshot snapshot;
+    private long sequence;
+
+    @Autowired
+    public ReviewEventLog(@Value("${reviews.event-log.dir:}") String directory,
+                          @Value("${reviews.event-log.segment-size-mb:64}") int segmentSizeMb) throws IOException {
+        this(directory.isEmpty() ? null : Paths.get(directory), segmentSizeMb << 20);
+    }
+
+    ReviewEventLog(Path directory, int segmentSize) throws IOException {
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        if (directory != null) {
+            open();
+        }
+    }
+
+    private void open() throws IOException {
+        Files.createDirectories(directory);
+        for (Path path : list(SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            LogSegment segment = LogSegment.open(path, sequenceOf(path, SEGMENT_PREFIX, SEGMENT_SUFFIX));
+            segments.add(segment);
+            sequence = Math.max(sequence, segment.getLastSequence());
+        }
+
+        List<Path> snapshots = list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        if (!snapshots.isEmpty()) {
+            Path latest = snapshots.get(snapshots.size() - 1);
+            snapshot = new LogSnapshot(latest, sequenceOf(latest, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+            sequence = Math.max(sequence, snapshot.getSequence());
+        }
+        log.info("Review event log opened at sequence {} with {} segments.", sequence, segments.size());
+    }
+
+    public boolean isEnabled() {
+        return directory != null;
+    }
+
+    public synchronized long getSequence() {
+        return sequence;
+    }
+
+    /**
+     * @return events that could not be appended since startup, non-zero means the log has gaps
+     */
+    public long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        if (directory == null) {
+            return;
+        }
+
+        Review review = event.getType() == ReviewEvent.Type.DELETED ? event.getPrevious() : event.getReview();
+        synchronized (this) {
+            tryAppend(event.getType(), review);
+        }
+    }
+
+    @EventListener
+    public void onReviewBatch(ReviewBatchEvent event) {
+        if (directory == null) {
+            return;
+        }
+
+        synchronized (this) {
+            for (Review review : event.getCreated()) {
+                tryAppend(ReviewEvent.Type.CREATED, review);
+            }
+        }
+    }
+
+    private void tryAppend(ReviewEvent.Type type, Review review) {
+        try {
+            append(type, review);
+        } catch (IOException e) {
+            log.warn("Appending {} of review {} to the event log failed, {} events dropped so far.", type, review.getId(),
+                    droppedEvents.incrementAndGet(), e);
+        }
+    }
+
+    private void append(ReviewEvent.Type type, Review review) throws IOException {
+        byte[] text = review.getText() == null ? NO_TEXT : review.getText().getBytes(StandardCharsets.UTF_8);
+        int length = LogSegment.recordLength(text);
+        long next = sequence + 1;
+
+        LogSegment active = segments.isEmpty() ? null : segments.get(segments.size() - 1);
+        if (active == null || !active.fits(length)) {
+            if (active != null) {
+                active.force();
+            }
+            active = LogSegment.create(path(SEGMENT_PREFIX, next, SEGMENT_SUFFIX), next, Math.max(segmentSize, length));
+            segments.add(active);
+        }
+
+        active.append(next, type, review.getId(), review.getUserId(), review.getBookId(), Review.toRatingBucket(review.getRating()),
+                review.getCreatedAt() == null ? ReviewLogEntry.NO_TIME : review.getCreatedAt().toEpochMilli(), text);
+        sequence = next;
+    }
+
+    @Scheduled(fixedDelayString = "${reviews.event-log.flush-interval-ms:1000}")
+    public synchronized void flush() {
+        if (!segments.isEmpty()) {
+            segments.get(segments.size() - 1).force();
+        }
+    }
+
+    /**
+     * Feeds the latest snapshot and every event logged after it to the projection.
+     *
+     * @return the sequence the projection is now current with
+     */
+    public long replay(ReviewLogProjection projection) throws IOException {
+        checkEnabled();
+
+        long upTo;
+        int count;
+        int limit;
+        LogSnapshot base;
+        synchronized (this) {
+            upTo = sequence;
+            count = segments.size();
+            limit = count == 0 ? 0 : segments.get(count - 1).size();
+            base = snapshot;
+        }
+
+        ReviewLogEntry entry = new ReviewLogEntry();
+        long after = 0;
+        if (base != null) {
+            base.replay(entry, projection);
+            after = base.getSequence();
+        }
+        replaySegments(after, count, limit, entry, projection);
+        return upTo;
+    }
+
+    /**
+     * Replays the first count segments, the last of them only up to limit, which the caller read
+     * together with count under the lock.
+     */
+    private void replaySegments(long after, int count, int limit, ReviewLogEntry entry, ReviewLogProjection projection) {
+        for (int i = 0; i < count; i++) {
+            LogSegment segment = segments.get(i);
+            if (segment.getLastSequence() > after) {
+                segment.replay(after, i == count - 1 ? limit : segment.size(), entry, projection);
+            }
+        }
+    }
+
+    /**
+     * Writes a snapshot of the live reviews as of the current sequence, merging the previous
+     * snapshot with the events after it. The snapshot before that one is deleted; the previous one
+     * stays one more round so a replay that already picked it up can still read it.
+     */
+    @Scheduled(fixedDelayString = "${reviews.event-log.snapshot-interval-ms:600000}")
+    public void snapshot() throws IOException {
+        if (directory == null) {
+            return;
+        }
+
+        synchronized (compaction) {
+            long upTo;
+            int count;
+            int limit;
+            LogSnapshot previous;
+            synchronized (this) {
+                upTo = sequence;
+                count = segments.size();
+                limit = count == 0 ? 0 : segments.get(count - 1).size();
+                previous = snapshot;
+            }
+            long after = previous == null ? 0 : previous.getSequence();
+            if (upTo == after) {
+                return;
+            }
+
+            Map<Integer, LogSnapshot.Row> changes = new HashMap<>();
+            replaySegments(after, count, limit, new ReviewLogEntry(), entry -> changes.put(entry.getReviewId(),
+                    entry.getType() == ReviewEvent.Type.DELETED ? null
+                            : new LogSnapshot.Row(entry.getUserId(), entry.getBookId(), entry.getRatingBucket(), toMillis(entry))));
+
+            Path path = path(SNAPSHOT_PREFIX, upTo, SNAPSHOT_SUFFIX);
+            int live = LogSnapshot.write(path, upTo, previous, changes);
+            synchronized (this) {
+                snapshot = new LogSnapshot(path, upTo);
+            }
+
+            for (Path old : list(SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                if (!old.equals(path) && (previous == null || !old.equals(previous.getPath()))) {
+                    Files.deleteIfExists(old);
+                }
+            }
+            log.info("Review event log snapshot at sequence {}: {} live reviews, {} changed since the last one.",
+                    upTo, live, changes.size());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        for (LogSegment segment : segments) {
+            segment.force();
+        }
+    }
+
+    private void checkEnabled() {
+        if (directory == null) {
+            throw new IllegalStateException("The review event log is disabled, set reviews.event-log.dir to enable it.");
+        }
+    }
+
+    private static long toMillis(ReviewLogEntry entry) {
+        return entry.getCreatedAt() == null ? ReviewLogEntry.NO_TIME : entry.getCreatedAt().toEpochMilli();
+    }
+
+    private Path path(String prefix, long sequence, String suffix) {
+        return directory.resolve(String.format("%s%020d%s", prefix, sequence, suffix));
+    }
+
+    private static long sequenceOf(Path path, String prefix, String suffix) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private List<Path> list(String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(prefix) && name.endsWith(suffix);
+            }).sorted().collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+}
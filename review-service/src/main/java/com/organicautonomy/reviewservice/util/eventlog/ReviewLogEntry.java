@@ -0,0 +1,95 @@
+package com.organicautonomy.reviewservice.util.eventlog;
+
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+
+import java.math.BigDecimal;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+/**
+ * One review event read back from the log. A replay reuses a single instance for every entry so
+ * nothing is allocated per event; copy out whatever a projection keeps. Entries that come from a
+ * snapshot are CREATED, carry the sequence of the snapshot, and have no text.
+ */
+public class ReviewLogEntry {
+    static final long NO_TIME = Long.MIN_VALUE;
+
+    private ReviewEvent.Type type;
+    private long sequence;
+    private int reviewId;
+    private int userId;
+    private int bookId;
+    private short ratingBucket;
+    private long createdAt;
+    private ByteBuffer text;
+    private int textOffset;
+    private int textLength;
+
+    void set(ReviewEvent.Type type, long sequence, int reviewId, int userId, int bookId, short ratingBucket, long createdAt) {
+        this.type = type;
+        this.sequence = sequence;
+        this.reviewId = reviewId;
+        this.userId = userId;
+        this.bookId = bookId;
+        this.ratingBucket = ratingBucket;
+        this.createdAt = createdAt;
+        this.text = null;
+    }
+
+    void setText(ByteBuffer text, int offset, int length) {
+        this.text = text;
+        this.textOffset = offset;
+        this.textLength = length;
+    }
+
+    public ReviewEvent.Type getType() {
+        return type;
+    }
+
+    public long getSequence() {
+        return sequence;
+    }
+
+    public int getReviewId() {
+        return reviewId;
+    }
+
+    public int getUserId() {
+        return userId;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public short getRatingBucket() {
+        return ratingBucket;
+    }
+
+    public BigDecimal getRating() {
+        return BigDecimal.valueOf(ratingBucket, 2);
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt == NO_TIME ? null : Instant.ofEpochMilli(createdAt);
+    }
+
+    public boolean isFromSnapshot() {
+        return text == null;
+    }
+
+    // decoded on demand, most projections never look at the text.
+    public String getText() {
+        if (text == null) {
+            return null;
+        }
+
+        byte[] bytes = new byte[textLength];
+        ByteBuffer view = text.duplicate();
+        ((Buffer) view).position(textOffset);
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,10 @@
+package com.organicautonomy.reviewservice.util.eventlog;
+
+/**
+ * A read model rebuilt by {@link ReviewEventLog#replay}: the latest snapshot first, in review id
+ * order, then every event logged after it in sequence order.
+ */
+@FunctionalInterface
+public interface ReviewLogProjection {
+    void apply(ReviewLogEntry entry);
+}
@@ -0,0 +1,131 @@
+package com.organicautonomy.reviewservice.util.export;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+
+/**
+ * Row layouts for the review export. Text is copied from a Reader one buffer at a time, so no
+ * format ever holds a whole review in memory.
+ */
+public enum ExportFormat {
+    NDJSON("ndjson", "application/x-ndjson") {
+        @Override
+        void writeHeader(Writer out) {
+        }
+
+        @Override
+        void writeRow(Writer out, ExportRow row, Reader text) throws IOException {
+            out.write("{\"id\":" + row.id + ",\"userId\":" + row.userId + ",\"bookId\":" + row.bookId
+                    + ",\"rating\":" + row.rating.toPlainString() + ",\"createdAt\":");
+            out.write(row.createdAt == null ? "null" : "\"" + row.createdAt + "\"");
+            out.write(",\"text\":");
+            if (text == null) {
+                out.write("null");
+            } else {
+                out.write('"');
+                copy(text, out, ExportFormat::escapeJson);
+                out.write('"');
+            }
+            out.write("}\n");
+        }
+    },
+    CSV("csv", "text/csv") {
+        @Override
+        void writeHeader(Writer out) throws IOException {
+            out.write("id,userId,bookId,rating,createdAt,text\r\n");
+        }
+
+        // RFC 4180: text is always quoted, embedded quotes doubled, line breaks kept inside the quotes.
+        @Override
+        void writeRow(Writer out, ExportRow row, Reader text) throws IOException {
+            out.write(row.id + "," + row.userId + "," + row.bookId + "," + row.rating.toPlainString() + ",");
+            out.write(row.createdAt == null ? "" : row.createdAt.toString());
+            out.write(',');
+            if (text != null) {
+                out.write('"');
+                copy(text, out, (c, writer) -> {
+                    if (c == '"') {
+                        writer.write('"');
+                    }
+                    writer.write(c);
+                });
+                out.write('"');
+            }
+            out.write("\r\n");
+        }
+    };
+
+    private static final int BUFFER_SIZE = 4096;
+
+    private final String label;
+    private final String contentType;
+
+    ExportFormat(String label, String contentType) {
+        this.label = label;
+        this.contentType = contentType;
+    }
+
+    public static ExportFormat of(String label) {
+        for (ExportFormat format : values()) {
+            if (format.label.equals(label)) {
+                return format;
+            }
+        }
+
+        throw new IllegalArgumentException("The format provided is invalid, use ndjson or csv.");
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getFileExtension() {
+        return label;
+    }
+
+    abstract void writeHeader(Writer out) throws IOException;
+
+    abstract void writeRow(Writer out, ExportRow row, Reader text) throws IOException;
+
+    private static void copy(Reader text, Writer out, CharWriter escaper) throws IOException {
+        char[] buffer = new char[BUFFER_SIZE];
+        for (int n = text.read(buffer); n != -1; n = text.read(buffer)) {
+            for (int i = 0; i < n; i++) {
+                escaper.write(buffer[i], out);
+            }
+        }
+    }
+
+    private static void escapeJson(char c, Writer out) throws IOException {
+        switch (c) {
+            case '"':
+                out.write("\\\"");
+                break;
+            case '\\':
+                out.write("\\\\");
+                break;
+            case '\n':
+                out.write("\\n");
+                break;
+            case '\r':
+                out.write("\\r");
+                break;
+            case '\t':
+                out.write("\\t");
+                break;
+            default:
+                // control characters, and the line separators some JSON parsers choke on.
+                if (c < 0x20 || c == '\u2028' || c == '\u2029') {
+                    out.write(String.format("\\u%04x", (int) c));
+                } else {
+                    out.write(c);
+                }
+        }
+    }
+
+    @FunctionalInterface
+    private interface CharWriter {
+        void write(char c, Writer out) throws IOException;
+    }
+}
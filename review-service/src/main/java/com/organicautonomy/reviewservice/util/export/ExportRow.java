@@ -0,0 +1,21 @@
+package com.organicautonomy.reviewservice.util.export;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+
+// the scalar columns of one exported review, the text is streamed separately.
+final class ExportRow {
+    final int id;
+    final int userId;
+    final int bookId;
+    final BigDecimal rating;
+    final Instant createdAt;
+
+    ExportRow(int id, int userId, int bookId, BigDecimal rating, Instant createdAt) {
+        this.id = id;
+        this.userId = userId;
+        this.bookId = bookId;
+        this.rating = rating;
+        this.createdAt = createdAt;
+    }
+}
@@ -0,0 +1,78 @@
+package com.organicautonomy.reviewservice.util.export;
+
+import com.organicautonomy.reviewservice.dao.partition.ReviewPartitions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Writes reviews straight from a forward-only JDBC cursor to an output stream. Only fetchSize rows
+ * are buffered by the driver at a time and review text is read through a character stream, so
+ * memory stays flat however many reviews there are and however long they get.
+ */
+@Component
+public class ReviewExporter {
+    private final JdbcTemplate jdbcTemplate;
+    private final ReviewPartitions partitions;
+
+    public ReviewExporter(DataSource dataSource, ReviewPartitions partitions,
+                          @Value("${reviews.export.fetch-size:1000}") int fetchSize) {
+        this.partitions = partitions;
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    public void export(ExportFormat format, Integer bookId, Instant since, OutputStream outputStream) throws IOException {
+        StringBuilder sql = new StringBuilder("SELECT id, user_id, book_id, rating, created_at, text FROM %s WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        List<String> tables = partitions.tables();
+        if (bookId != null) {
+            if (partitions.isEnabled()) {
+                tables = Collections.singletonList(ReviewPartitions.table(partitions.partitionOf(bookId)));
+            }
+            sql.append(" AND book_id = ?");
+            args.add(bookId);
+        }
+        if (since != null) {
+            sql.append(" AND created_at >= ?");
+            args.add(Timestamp.from(since));
+        }
+        sql.append(" ORDER BY id");
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+        format.writeHeader(out);
+        try {
+            // partitions are exported one after another, so rows are in id order within each partition.
+            for (String table : tables) {
+                jdbcTemplate.query(String.format(sql.toString(), table), (ResultSet rs) -> writeRow(format, out, rs), args.toArray());
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        out.flush();
+    }
+
+    private static void writeRow(ExportFormat format, Writer out, ResultSet rs) throws SQLException {
+        Timestamp createdAt = rs.getTimestamp(5);
+        ExportRow row = new ExportRow(rs.getInt(1), rs.getInt(2), rs.getInt(3), rs.getBigDecimal(4),
+                createdAt == null ? null : createdAt.toInstant());
+
+        try (Reader text = rs.getCharacterStream(6)) {
+            format.writeRow(out, row, text);
+        } catch (IOException e) {
+            // usually the client went away mid-export.
+            throw new UncheckedIOException(e);
+        }
+    }
+}
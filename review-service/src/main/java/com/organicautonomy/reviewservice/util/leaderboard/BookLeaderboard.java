@@ -0,0 +1,198 @@
+package com.organicautonomy.reviewservice.util.leaderboard;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.BookScore;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import com.organicautonomy.reviewservice.util.collection.IntIntHashMap;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.*;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.stream.Stream;
+
+/**
+ * Books ordered by Bayesian average, (priorWeight * priorMean + sum) / (priorWeight + count), so a
+ * single five star review does not outrank hundreds of good ones. The prior is fixed configuration
+ * rather than the live global mean, otherwise every write would re-key every book.
+ * <p>
+ * The load runs while the app is already serving, so until it finishes both the load and review
+ * events go through the rating each review last contributed. A review the load streams and an
+ * event also reports is then counted once, whichever of the two gets to it first.
+ */
+@Component
+public class BookLeaderboard {
+    private static final int DELETED = -2;
+    private static final Comparator<Entry> BY_SCORE_DESC = Comparator.comparingDouble((Entry e) -> e.score).reversed()
+            .thenComparingInt(e -> e.bookId);
+
+    private final double priorMean;
+    private final double priorWeight;
+    // readers walk the skip list without locking, writers serialize on this.
+    private final ConcurrentSkipListSet<Entry> ranking = new ConcurrentSkipListSet<>(BY_SCORE_DESC);
+    private final Map<Integer, Entry> entriesByBook = new HashMap<>();
+    // rating bucket by review id, or DELETED, until the load finishes.
+    private IntIntHashMap loading = new IntIntHashMap();
+
+    @Autowired
+    private ReviewRepository repository;
+
+    public BookLeaderboard(@Value("${reviews.leaderboard.prior-mean:3.0}") double priorMean,
+                           @Value("${reviews.leaderboard.prior-weight:10}") double priorWeight) {
+        this.priorMean = priorMean;
+        this.priorWeight = priorWeight;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        try (Stream<Object[]> rows = repository.streamRatingColumns()) {
+            rows.forEach(row -> loadRow((Integer) row[0], (Integer) row[2], (Short) row[3]));
+        } finally {
+            synchronized (this) {
+                loading = null;
+            }
+        }
+    }
+
+    @EventListener
+    public synchronized void onReviewEvent(ReviewEvent event) {
+        Review previous = event.getPrevious();
+        Review review = event.getReview();
+
+        if (loading != null) {
+            Review current = review == null ? previous : review;
+            track(current.getId(), current.getBookId(), review == null ? DELETED : Review.toRatingBucket(review.getRating()));
+            return;
+        }
+        if (previous != null) {
+            remove(previous.getBookId(), Review.toRatingBucket(previous.getRating()));
+        }
+        if (review != null) {
+            add(review.getBookId(), Review.toRatingBucket(review.getRating()));
+        }
+    }
+
+    // each book in the batch is re-keyed once, however many of its reviews the batch holds.
+    @EventListener
+    public void onReviewBatch(ReviewBatchEvent event) {
+        Map<Integer, long[]> totals = new HashMap<>();
+        for (Review review : event.getCreated()) {
+            long[] total = totals.computeIfAbsent(review.getBookId(), b -> new long[2]);
+            total[0]++;
+            total[1] += Review.toRatingBucket(review.getRating());
+        }
+
+        synchronized (this) {
+            if (loading != null) {
+                for (Review review : event.getCreated()) {
+                    track(review.getId(), review.getBookId(), Review.toRatingBucket(review.getRating()));
+                }
+                return;
+            }
+            totals.forEach((bookId, total) -> addAll(bookId, total[0], total[1]));
+        }
+    }
+
+    public void add(int bookId, int scaledRating) {
+        addAll(bookId, 1, scaledRating);
+    }
+
+    public synchronized void addAll(int bookId, long reviews, long scaledRatingSum) {
+        Entry current = entriesByBook.get(bookId);
+        long count = (current == null ? 0 : current.count) + reviews;
+        long sum = (current == null ? 0 : current.sum) + scaledRatingSum;
+
+        replace(current, new Entry(bookId, count, sum, score(count, sum)));
+    }
+
+    public synchronized void remove(int bookId, int scaledRating) {
+        Entry current = entriesByBook.get(bookId);
+        if (current == null) {
+            return;
+        }
+
+        long count = current.count - 1;
+        long sum = current.sum - scaledRating;
+        replace(current, count == 0 ? null : new Entry(bookId, count, sum, score(count, sum)));
+    }
+
+    public List<BookScore> top(int n, long minReviews) {
+        List<BookScore> top = new ArrayList<>(n);
+
+        for (Iterator<Entry> it = ranking.iterator(); it.hasNext() && top.size() < n; ) {
+            Entry entry = it.next();
+            if (entry.count >= minReviews) {
+                top.add(entry.toBookScore());
+            }
+        }
+
+        return top;
+    }
+
+    public synchronized int size() {
+        return entriesByBook.size();
+    }
+
+    // an event got to this review first, and its state is at least as new as the row's.
+    private synchronized void loadRow(int id, int bookId, int scaledRating) {
+        if (!loading.containsKey(id)) {
+            track(id, bookId, scaledRating);
+        }
+    }
+
+    private void track(int id, int bookId, int scaledRating) {
+        int counted = loading.put(id, scaledRating);
+        if (counted == scaledRating) {
+            return;
+        }
+        if (counted != IntIntHashMap.MISSING && counted != DELETED) {
+            remove(bookId, counted);
+        }
+        if (scaledRating != DELETED) {
+            add(bookId, scaledRating);
+        }
+    }
+
+    private void replace(Entry current, Entry updated) {
+        if (current != null) {
+            ranking.remove(current);
+            entriesByBook.remove(current.bookId);
+        }
+        if (updated != null) {
+            ranking.add(updated);
+            entriesByBook.put(updated.bookId, updated);
+        }
+    }
+
+    private double score(long count, long scaledSum) {
+        return (priorWeight * priorMean + scaledSum / 100.0) / (priorWeight + count);
+    }
+
+    private static final class Entry {
+        private final int bookId;
+        private final long count;
+        private final long sum;
+        private final double score;
+
+        private Entry(int bookId, long count, long sum, double score) {
+            this.bookId = bookId;
+            this.count = count;
+            this.sum = sum;
+            this.score = score;
+        }
+
+        private BookScore toBookScore() {
+            BigDecimal average = BigDecimal.valueOf(sum).divide(BigDecimal.valueOf(count * 100), 2, RoundingMode.HALF_UP);
+            return new BookScore(bookId, count, average, BigDecimal.valueOf(score).setScale(3, RoundingMode.HALF_UP));
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package com.organicautonomy.reviewservice.util.related;
+
+import com.organicautonomy.reviewservice.dto.RelatedBook;
+import com.organicautonomy.reviewservice.util.collection.IntIntHashMap;
+
+import java.math.BigDecimal;
+import java.util.*;
+
+/**
+ * Sparse, symmetric book by book matrix. A cell sums, over every user who reviewed both books,
+ * the product of the two ratings, in hundredths. Rows are primitive maps capped at rowCapacity;
+ * a row that outgrows it drops its weakest quarter, so popular books stay bounded at the cost of
+ * forgetting their faintest neighbors. put and remove set state rather than apply deltas, so
+ * applying the same change twice is harmless. Not thread safe, RelatedBooks guards it.
+ */
+class CoReviewMatrix {
+    private final int rowCapacity;
+    private final int topSize;
+    // user -> (book -> rating bucket), what a new review has to be paired with.
+    private final Map<Integer, IntIntHashMap> booksByUser = new HashMap<>();
+    private final Map<Integer, Row> rows = new HashMap<>();
+
+    CoReviewMatrix(int rowCapacity, int topSize) {
+        this.rowCapacity = rowCapacity;
+        this.topSize = topSize;
+    }
+
+    void put(int userId, int bookId, int ratingBucket) {
+        IntIntHashMap books = booksByUser.computeIfAbsent(userId, u -> new IntIntHashMap(4));
+        int previous = books.put(bookId, ratingBucket);
+        if (previous == ratingBucket) {
+            return;
+        }
+
+        books.forEach((other, otherBucket) -> {
+            if (other != bookId) {
+                int delta = weight(ratingBucket, otherBucket)
+                        - (previous == IntIntHashMap.MISSING ? 0 : weight(previous, otherBucket));
+                adjust(bookId, other, delta);
+                adjust(other, bookId, delta);
+            }
+        });
+    }
+
+    void remove(int userId, int bookId) {
+        IntIntHashMap books = booksByUser.get(userId);
+        int previous = books == null ? IntIntHashMap.MISSING : books.remove(bookId);
+        if (previous == IntIntHashMap.MISSING) {
+            return;
+        }
+
+        books.forEach((other, otherBucket) -> {
+            int delta = -weight(previous, otherBucket);
+            adjust(bookId, other, delta);
+            adjust(other, bookId, delta);
+        });
+        if (books.isEmpty()) {
+            booksByUser.remove(userId);
+        }
+    }
+
+    List<RelatedBook> related(int bookId, int k) {
+        Row row = rows.get(bookId);
+        if (row == null) {
+            return new ArrayList<>();
+        }
+
+        long[] top = row.top;
+        if (top == null) {
+            top = row.sortedByWeight(topSize);
+            // racing readers compute the same array, writers clear it under the write lock.
+            row.top = top;
+        }
+
+        List<RelatedBook> related = new ArrayList<>(Math.min(k, top.length));
+        for (int i = 0; i < top.length && i < k; i++) {
+            related.add(new RelatedBook(bookOf(top[i]), BigDecimal.valueOf(weightOf(top[i]), 2)));
+        }
+        return related;
+    }
+
+    int books() {
+        return rows.size();
+    }
+
+    long cells() {
+        long cells = 0;
+        for (Row row : rows.values()) {
+            cells += row.weights.size();
+        }
+        return cells;
+    }
+
+    private void adjust(int bookId, int neighbor, int delta) {
+        if (delta == 0) {
+            return;
+        }
+
+        Row row = rows.get(bookId);
+        if (row == null) {
+            if (delta < 0) {
+                return;
+            }
+            row = new Row();
+            rows.put(bookId, row);
+        }
+
+        int current = row.weights.get(neighbor);
+        if (current == IntIntHashMap.MISSING) {
+            // pruned earlier, nothing left to take away.
+            if (delta < 0) {
+                return;
+            }
+            row.weights.put(neighbor, delta);
+            if (row.weights.size() > rowCapacity) {
+                row.prune(rowCapacity - rowCapacity / 4);
+            }
+        } else if (current + delta > 0) {
+            row.weights.put(neighbor, current + delta);
+        } else {
+            row.weights.remove(neighbor);
+            if (row.weights.isEmpty()) {
+                rows.remove(bookId);
+            }
+        }
+        row.top = null;
+    }
+
+    // two ratings in hundredths, 5.00 and 5.00 give 2500.
+    private static int weight(int bucket, int otherBucket) {
+        return bucket * otherBucket / 100;
+    }
+
+    // weight in the high half and the complemented book id in the low, so ascending order is
+    // lowest weight first and, within a weight, highest book id first.
+    private static long pack(int bookId, int weight) {
+        return ((long) weight << 32) | (0xFFFFFFFFL - (bookId & 0xFFFFFFFFL));
+    }
+
+    private static int bookOf(long packed) {
+        return (int) (0xFFFFFFFFL - (packed & 0xFFFFFFFFL));
+    }
+
+    private static int weightOf(long packed) {
+        return (int) (packed >>> 32);
+    }
+
+    private static final class Row {
+        private IntIntHashMap weights = new IntIntHashMap(4);
+        // strongest neighbors first, rebuilt on the first read after a change.
+        private volatile long[] top;
+
+        private long[] sortedByWeight(int limit) {
+            long[] packed = new long[weights.size()];
+            int[] n = new int[1];
+            weights.forEach((neighbor, weight) -> packed[n[0]++] = pack(neighbor, weight));
+            Arrays.sort(packed);
+
+            long[] sorted = new long[Math.min(limit, packed.length)];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = packed[packed.length - 1 - i];
+            }
+            return sorted;
+        }
+
+        private void prune(int keep) {
+            long[] strongest = sortedByWeight(keep);
+            weights = new IntIntHashMap(keep);
+            for (long packed : strongest) {
+                weights.put(bookOf(packed), weightOf(packed));
+            }
+        }
+    }
+}
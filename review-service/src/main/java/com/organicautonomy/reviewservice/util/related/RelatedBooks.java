@@ -0,0 +1,147 @@
+package com.organicautonomy.reviewservice.util.related;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.RelatedBook;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * "Readers also reviewed": books most co-reviewed with a given book, weighted by both ratings.
+ * The co-review matrix is kept up to date from review events and rebuilt from the table at
+ * startup and on a schedule, which also restores the neighbors that row pruning dropped. The
+ * rebuild streams into a fresh matrix while the old one keeps serving, and changes that arrive
+ * meanwhile are replayed onto the new matrix before it is swapped in.
+ */
+@Component
+public class RelatedBooks {
+    public static final int MAX_K = 50;
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedBooks.class);
+
+    private final int rowCapacity;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private CoReviewMatrix matrix;
+    // changes since the running rebuild started, null when none is running.
+    private List<Consumer<CoReviewMatrix>> pending;
+
+    @Autowired
+    private ReviewRepository repository;
+
+    public RelatedBooks(@Value("${reviews.related.row-capacity:200}") int rowCapacity) {
+        if (rowCapacity < MAX_K) {
+            throw new IllegalArgumentException("Row capacity cannot be less than " + MAX_K + ".");
+        }
+
+        this.rowCapacity = rowCapacity;
+        this.matrix = new CoReviewMatrix(rowCapacity, MAX_K);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${reviews.related.rebuild-cron:0 0 4 * * *}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            if (pending != null) {
+                return;
+            }
+            pending = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        CoReviewMatrix rebuilt = new CoReviewMatrix(rowCapacity, MAX_K);
+        boolean complete = false;
+        try {
+            try (Stream<Object[]> rows = repository.streamRatingColumns()) {
+                rows.forEach(row -> rebuilt.put((Integer) row[1], (Integer) row[2], (Short) row[3]));
+            }
+            complete = true;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                if (complete) {
+                    pending.forEach(change -> change.accept(rebuilt));
+                    matrix = rebuilt;
+                }
+                pending = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info("Co-review matrix rebuilt with {} books and {} cells.", rebuilt.books(), rebuilt.cells());
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        Review previous = event.getPrevious();
+        Review review = event.getReview();
+
+        apply(matrix -> {
+            if (previous != null && (review == null || !previous.getUserId().equals(review.getUserId())
+                    || !previous.getBookId().equals(review.getBookId()))) {
+                matrix.remove(previous.getUserId(), previous.getBookId());
+            }
+            if (review != null) {
+                matrix.put(review.getUserId(), review.getBookId(), Review.toRatingBucket(review.getRating()));
+            }
+        });
+    }
+
+    @EventListener
+    public void onReviewBatch(ReviewBatchEvent event) {
+        List<Review> created = event.getCreated();
+        apply(matrix -> {
+            for (Review review : created) {
+                matrix.put(review.getUserId(), review.getBookId(), Review.toRatingBucket(review.getRating()));
+            }
+        });
+    }
+
+    public List<RelatedBook> related(int bookId, int k) {
+        lock.readLock().lock();
+        try {
+            return matrix.related(bookId, Math.min(k, MAX_K));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long cells() {
+        lock.readLock().lock();
+        try {
+            return matrix.cells();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<CoReviewMatrix> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(matrix);
+            if (pending != null) {
+                pending.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.organicautonomy.reviewservice.util.search;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Append-only segment files for the search index. Each segment holds the ids deleted since the
+ * previous one followed by the documents added since then, already tokenized, so a restart only
+ * replays files. Each segment also records its watermark, the time up to which review changes are
+ * covered by it and the segments before it. Segments are written to a temp file and moved into
+ * place, a half-written file is never picked up.
+ */
+public class IndexSegments {
+    private static final int MAGIC = 0x52565849;
+    // version 1 segments carry no watermark.
+    private static final int VERSION = 2;
+    private static final String PREFIX = "segment-";
+    private static final String SUFFIX = ".seg";
+
+    private final Path directory;
+    private long generation;
+
+    public IndexSegments(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        List<Path> segments = list();
+        this.generation = segments.isEmpty() ? 0 : generationOf(segments.get(segments.size() - 1));
+    }
+
+    public int count() throws IOException {
+        return list().size();
+    }
+
+    /**
+     * Replays every segment in write order.
+     *
+     * @return the newest watermark in epoch millis, 0 when there are no segments
+     */
+    public long replay(IntConsumer onDelete, Consumer<IndexedDocument> onAdd) throws IOException {
+        long watermark = 0;
+
+        for (Path segment : list()) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment), 1 << 16))) {
+                if (in.readInt() != MAGIC) {
+                    throw new IOException("Unrecognized search segment " + segment + ".");
+                }
+                int version = in.readInt();
+                if (version == VERSION) {
+                    watermark = Math.max(watermark, in.readLong());
+                } else if (version != 1) {
+                    throw new IOException("Unrecognized search segment " + segment + ".");
+                }
+
+                int deletes = in.readInt();
+                for (int i = 0; i < deletes; i++) {
+                    onDelete.accept(in.readInt());
+                }
+
+                int documents = in.readInt();
+                for (int i = 0; i < documents; i++) {
+                    onAdd.accept(readDocument(in));
+                }
+            }
+        }
+
+        return watermark;
+    }
+
+    public void append(int[] deletes, Collection<IndexedDocument> documents, long watermark) throws IOException {
+        write(deletes, documents, watermark);
+    }
+
+    /**
+     * Writes all live documents as one segment and drops the segments it replaces.
+     */
+    public void compact(Collection<IndexedDocument> documents, long watermark) throws IOException {
+        List<Path> replaced = list();
+        write(new int[0], documents, watermark);
+
+        for (Path segment : replaced) {
+            Files.deleteIfExists(segment);
+        }
+    }
+
+    private void write(int[] deletes, Collection<IndexedDocument> documents, long watermark) throws IOException {
+        Path target = directory.resolve(String.format("%s%012d%s", PREFIX, ++generation, SUFFIX));
+        Path temp = directory.resolve(target.getFileName() + ".tmp");
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(watermark);
+            out.writeInt(deletes.length);
+            for (int id : deletes) {
+                out.writeInt(id);
+            }
+            out.writeInt(documents.size());
+            for (IndexedDocument document : documents) {
+                writeDocument(out, document);
+            }
+        }
+
+        Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static void writeDocument(DataOutputStream out, IndexedDocument document) throws IOException {
+        out.writeInt(document.getId());
+        out.writeInt(document.getBookId());
+        out.writeInt(document.getTerms().length);
+        for (int t = 0; t < document.getTerms().length; t++) {
+            byte[] term = document.getTerms()[t].getBytes(StandardCharsets.UTF_8);
+            out.writeShort(term.length);
+            out.write(term);
+            int[] positions = document.getPositions()[t];
+            out.writeInt(positions.length);
+            for (int position : positions) {
+                out.writeInt(position);
+            }
+        }
+    }
+
+    private static IndexedDocument readDocument(DataInputStream in) throws IOException {
+        int id = in.readInt();
+        int bookId = in.readInt();
+        int termCount = in.readInt();
+        String[] terms = new String[termCount];
+        int[][] positions = new int[termCount][];
+
+        for (int t = 0; t < termCount; t++) {
+            byte[] term = new byte[in.readUnsignedShort()];
+            in.readFully(term);
+            terms[t] = new String(term, StandardCharsets.UTF_8);
+            positions[t] = new int[in.readInt()];
+            for (int p = 0; p < positions[t].length; p++) {
+                positions[t][p] = in.readInt();
+            }
+        }
+
+        return new IndexedDocument(id, bookId, terms, positions);
+    }
+
+    private List<Path> list() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith(PREFIX) && name.endsWith(SUFFIX);
+            }).sorted().collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static long generationOf(Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+}
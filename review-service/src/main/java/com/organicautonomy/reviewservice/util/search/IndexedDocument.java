@@ -0,0 +1,58 @@
+package com.organicautonomy.reviewservice.util.search;
+
+import java.util.*;
+
+/**
+ * Forward view of one indexed review: its distinct terms and, per term, the sorted token
+ * positions. The position arrays are shared with the postings, not copied.
+ */
+public class IndexedDocument {
+    private final int id;
+    private final int bookId;
+    private final String[] terms;
+    private final int[][] positions;
+
+    public IndexedDocument(int id, int bookId, String[] terms, int[][] positions) {
+        this.id = id;
+        this.bookId = bookId;
+        this.terms = terms;
+        this.positions = positions;
+    }
+
+    public static IndexedDocument of(int id, int bookId, String text) {
+        Map<String, List<Integer>> byTerm = new LinkedHashMap<>();
+        List<String> tokens = Tokenizer.tokenize(text);
+        for (int position = 0; position < tokens.size(); position++) {
+            if (tokens.get(position) != null) {
+                byTerm.computeIfAbsent(tokens.get(position), t -> new ArrayList<>()).add(position);
+            }
+        }
+
+        String[] terms = new String[byTerm.size()];
+        int[][] positions = new int[byTerm.size()][];
+        int i = 0;
+        for (Map.Entry<String, List<Integer>> entry : byTerm.entrySet()) {
+            terms[i] = entry.getKey();
+            positions[i] = entry.getValue().stream().mapToInt(Integer::intValue).toArray();
+            i++;
+        }
+
+        return new IndexedDocument(id, bookId, terms, positions);
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public int getBookId() {
+        return bookId;
+    }
+
+    public String[] getTerms() {
+        return terms;
+    }
+
+    public int[][] getPositions() {
+        return positions;
+    }
+}
@@ -0,0 +1,437 @@
+package com.organicautonomy.reviewservice.util.search;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import com.organicautonomy.reviewservice.util.collection.IntIntHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Positional inverted index over review text. Every query term must match, quoted terms must
+ * appear next to each other, and a book filter is one more posting list in the intersection.
+ * When reviews.search.index-dir is set, changes are flushed to segment files so a restart only
+ * tokenizes reviews written since. Ids are not committed in order, so the catch-up re-reads the
+ * reviews updated since the last flush, reaching back catch-up-overlap-ms for writes that were still
+ * committing, and then every live id the segments lack.
+ */
+@Component
+public class ReviewSearchIndex {
+    private static final Logger log = LoggerFactory.getLogger(ReviewSearchIndex.class);
+    private static final Pattern PHRASE = Pattern.compile("\"([^\"]*)\"");
+    private static final int FETCH_BATCH_SIZE = 1000;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, TreeMap<Integer, int[]>> postings = new HashMap<>();
+    private final Map<Integer, IndexedDocument> documents = new HashMap<>();
+    private final Map<Integer, TreeSet<Integer>> documentsByBook = new HashMap<>();
+    // changes since the last segment was written.
+    private final Map<Integer, IndexedDocument> pendingAdds = new LinkedHashMap<>();
+    private final Set<Integer> pendingDeletes = new LinkedHashSet<>();
+    private final IndexSegments segments;
+    private final int maxSegments;
+    private final long catchUpOverlapMs;
+
+    @Autowired
+    private ReviewRepository repository;
+
+    public ReviewSearchIndex(@Value("${reviews.search.index-dir:}") String indexDir,
+                             @Value("${reviews.search.max-segments:10}") int maxSegments,
+                             @Value("${reviews.search.catch-up-overlap-ms:60000}") long catchUpOverlapMs) throws IOException {
+        this.segments = indexDir.isEmpty() ? null : new IndexSegments(Paths.get(indexDir));
+        this.maxSegments = maxSegments;
+        this.catchUpOverlapMs = catchUpOverlapMs;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() throws IOException {
+        long watermark = replaySegments();
+
+        if (documentCount() == 0) {
+            try (Stream<Object[]> rows = repository.streamTexts()) {
+                rows.forEach(this::index);
+            }
+        } else {
+            try (Stream<Object[]> rows = repository.streamTextsUpdatedSince(Instant.ofEpochMilli(watermark - catchUpOverlapMs))) {
+                rows.forEach(this::index);
+            }
+            List<Integer> missing = reconcile();
+            for (int from = 0; from < missing.size(); from += FETCH_BATCH_SIZE) {
+                repository.findTextsByIdIn(missing.subList(from, Math.min(from + FETCH_BATCH_SIZE, missing.size())))
+                        .forEach(this::index);
+            }
+        }
+        log.info("Search index loaded {} reviews, {} tokenized from the table.", documentCount(), pendingAdds.size());
+    }
+
+    /**
+     * @return the watermark of the newest segment in epoch millis, 0 when there are none
+     */
+    long replaySegments() throws IOException {
+        if (segments == null) {
+            return 0;
+        }
+
+        lock.writeLock().lock();
+        try {
+            return segments.replay(this::removeDocument, this::addDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops documents whose review was deleted after the last flush.
+     *
+     * @return ids of reviews with no document
+     */
+    private List<Integer> reconcile() {
+        List<Integer> missing = new ArrayList<>();
+
+        lock.writeLock().lock();
+        try {
+            IntIntHashMap live = new IntIntHashMap(documents.size());
+            try (Stream<Integer> ids = repository.streamIds()) {
+                ids.forEach(id -> {
+                    live.put(id, 0);
+                    if (!documents.containsKey(id)) {
+                        missing.add(id);
+                    }
+                });
+            }
+            for (Integer id : new ArrayList<>(documents.keySet())) {
+                if (!live.containsKey(id)) {
+                    remove(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        return missing;
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        if (event.getType() == ReviewEvent.Type.DELETED) {
+            remove(event.getPrevious().getId());
+        } else {
+            Review review = event.getReview();
+            index(review.getId(), review.getBookId(), review.getText());
+        }
+    }
+
+    @EventListener
+    public void onReviewBatch(ReviewBatchEvent event) {
+        // tokenize outside the lock, searches only wait for the postings updates.
+        List<IndexedDocument> batch = new ArrayList<>(event.getCreated().size());
+        for (Review review : event.getCreated()) {
+            batch.add(IndexedDocument.of(review.getId(), review.getBookId(), review.getText()));
+        }
+
+        lock.writeLock().lock();
+        try {
+            batch.forEach(this::indexDocument);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void index(int id, int bookId, String text) {
+        IndexedDocument document = IndexedDocument.of(id, bookId, text);
+
+        lock.writeLock().lock();
+        try {
+            indexDocument(document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void index(Object[] row) {
+        index((Integer) row[0], (Integer) row[1], (String) row[2]);
+    }
+
+    public void remove(int id) {
+        lock.writeLock().lock();
+        try {
+            if (removeDocument(id)) {
+                trackDelete(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids of matching reviews, newest first
+     */
+    public List<Integer> search(String query, Integer bookId, int limit) {
+        List<String[]> phrases = parse(query);
+        List<Integer> matches = new ArrayList<>();
+        if (phrases.isEmpty()) {
+            return matches;
+        }
+
+        lock.readLock().lock();
+        try {
+            List<NavigableSet<Integer>> lists = new ArrayList<>();
+            for (String[] phrase : phrases) {
+                for (String term : phrase) {
+                    if (term == null) {
+                        continue;
+                    }
+                    TreeMap<Integer, int[]> termPostings = postings.get(term);
+                    if (termPostings == null) {
+                        return matches;
+                    }
+                    lists.add(termPostings.navigableKeySet());
+                }
+            }
+            if (bookId != null) {
+                TreeSet<Integer> bookDocuments = documentsByBook.get(bookId);
+                if (bookDocuments == null) {
+                    return matches;
+                }
+                lists.add(bookDocuments);
+            }
+
+            // drive the intersection from the shortest list, newest id first.
+            NavigableSet<Integer> shortest = Collections.min(lists, Comparator.comparingInt(Set::size));
+            for (Iterator<Integer> it = shortest.descendingIterator(); it.hasNext() && matches.size() < limit; ) {
+                Integer id = it.next();
+                if (containsAll(lists, id) && phrasesMatch(phrases, id)) {
+                    matches.add(id);
+                }
+            }
+
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the pending changes as a new segment. Only taking the changes holds the lock, searches
+     * and writes do not wait for the disk. Flushes run one at a time.
+     */
+    @Scheduled(fixedDelayString = "${reviews.search.flush-interval-ms:30000}")
+    public void flush() throws IOException {
+        if (segments == null) {
+            return;
+        }
+
+        synchronized (segments) {
+            int[] deletes;
+            List<IndexedDocument> adds;
+            long watermark;
+            lock.writeLock().lock();
+            try {
+                if (pendingAdds.isEmpty() && pendingDeletes.isEmpty()) {
+                    return;
+                }
+
+                deletes = pendingDeletes.stream().mapToInt(Integer::intValue).toArray();
+                adds = new ArrayList<>(pendingAdds.values());
+                watermark = System.currentTimeMillis();
+                pendingAdds.clear();
+                pendingDeletes.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            try {
+                segments.append(deletes, adds, watermark);
+            } catch (IOException | RuntimeException e) {
+                restorePending(deletes, adds);
+                throw e;
+            }
+
+            if (segments.count() > maxSegments) {
+                List<IndexedDocument> live;
+                lock.readLock().lock();
+                try {
+                    live = new ArrayList<>(documents.values());
+                    watermark = System.currentTimeMillis();
+                } finally {
+                    lock.readLock().unlock();
+                }
+                segments.compact(live, watermark);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() {
+        try {
+            flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void indexDocument(IndexedDocument document) {
+        if (documents.containsKey(document.getId())) {
+            removeDocument(document.getId());
+            trackDelete(document.getId());
+        }
+        addDocument(document);
+        if (segments != null) {
+            pendingAdds.put(document.getId(), document);
+        }
+    }
+
+    private void addDocument(IndexedDocument document) {
+        removeDocument(document.getId());
+        documents.put(document.getId(), document);
+        documentsByBook.computeIfAbsent(document.getBookId(), b -> new TreeSet<>()).add(document.getId());
+
+        String[] terms = document.getTerms();
+        for (int t = 0; t < terms.length; t++) {
+            postings.computeIfAbsent(terms[t], term -> new TreeMap<>()).put(document.getId(), document.getPositions()[t]);
+        }
+    }
+
+    private boolean removeDocument(int id) {
+        IndexedDocument document = documents.remove(id);
+        if (document == null) {
+            return false;
+        }
+
+        TreeSet<Integer> bookDocuments = documentsByBook.get(document.getBookId());
+        bookDocuments.remove(id);
+        if (bookDocuments.isEmpty()) {
+            documentsByBook.remove(document.getBookId());
+        }
+
+        for (String term : document.getTerms()) {
+            TreeMap<Integer, int[]> termPostings = postings.get(term);
+            termPostings.remove(id);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+
+        return true;
+    }
+
+    private void trackDelete(int id) {
+        if (segments != null) {
+            pendingAdds.remove(id);
+            pendingDeletes.add(id);
+        }
+    }
+
+    // puts back changes a failed flush took, anything tracked for the same id since is newer and wins.
+    private void restorePending(int[] deletes, List<IndexedDocument> adds) {
+        lock.writeLock().lock();
+        try {
+            for (IndexedDocument document : adds) {
+                if (!pendingAdds.containsKey(document.getId()) && !pendingDeletes.contains(document.getId())) {
+                    pendingAdds.put(document.getId(), document);
+                }
+            }
+            // a segment applies its deletes before its adds, a restored delete never hides a newer add.
+            for (int id : deletes) {
+                pendingDeletes.add(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean containsAll(List<NavigableSet<Integer>> lists, Integer id) {
+        for (NavigableSet<Integer> list : lists) {
+            if (!list.contains(id)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean phrasesMatch(List<String[]> phrases, Integer id) {
+        for (String[] phrase : phrases) {
+            if (phrase.length > 1 && !phraseMatches(phrase, id)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean phraseMatches(String[] phrase, Integer id) {
+        int[] starts = postings.get(phrase[0]).get(id);
+
+        for (int start : starts) {
+            boolean match = true;
+            for (int i = 1; i < phrase.length && match; i++) {
+                // a word too long to index matches whatever stands in its place.
+                match = phrase[i] == null || Arrays.binarySearch(postings.get(phrase[i]).get(id), start + i) >= 0;
+            }
+            if (match) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static List<String[]> parse(String query) {
+        List<String[]> phrases = new ArrayList<>();
+        Matcher matcher = PHRASE.matcher(query);
+        StringBuilder rest = new StringBuilder();
+        int last = 0;
+
+        while (matcher.find()) {
+            rest.append(query, last, matcher.start()).append(' ');
+            List<String> tokens = Tokenizer.tokenize(matcher.group(1));
+            while (!tokens.isEmpty() && tokens.get(0) == null) {
+                tokens.remove(0);
+            }
+            if (!tokens.isEmpty()) {
+                phrases.add(tokens.toArray(new String[0]));
+            }
+            last = matcher.end();
+        }
+        rest.append(query.substring(last));
+
+        for (String token : Tokenizer.tokenize(rest.toString())) {
+            if (token != null) {
+                phrases.add(new String[]{token});
+            }
+        }
+
+        return phrases;
+    }
+}
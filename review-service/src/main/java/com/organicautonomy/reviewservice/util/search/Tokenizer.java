@@ -0,0 +1,37 @@
+package com.organicautonomy.reviewservice.util.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+public final class Tokenizer {
+    private static final int MAX_TOKEN_LENGTH = 64;
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Splits on anything that is not a letter or digit and lower-cases the result. A token's index
+     * in the returned list is its position, which phrase matching relies on. A token too long to
+     * index is left as a null entry, so the words either side of it do not look adjacent.
+     */
+    public static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                tokens.add(i - start <= MAX_TOKEN_LENGTH ? text.substring(start, i).toLowerCase(Locale.ROOT) : null);
+                start = -1;
+            }
+        }
+
+        return tokens;
+    }
+}
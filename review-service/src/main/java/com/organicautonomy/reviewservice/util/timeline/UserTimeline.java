@@ -0,0 +1,98 @@
+package com.organicautonomy.reviewservice.util.timeline;
+
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * A user's most recent reviews, newest first, capped at a fixed length. complete means the deque
+ * holds the user's whole history, so a removal can be patched in place; otherwise the next older
+ * review is unknown and the caller has to drop the timeline instead. Not thread safe.
+ */
+class UserTimeline {
+    private final int capacity;
+    private final Deque<ReviewSummary> reviews;
+    private boolean complete;
+
+    UserTimeline(int capacity, List<ReviewSummary> newestFirst) {
+        this.capacity = capacity;
+        this.reviews = new ArrayDeque<>(newestFirst);
+        this.complete = newestFirst.size() < capacity;
+    }
+
+    void add(ReviewSummary review) {
+        remove(review.getId());
+
+        if (reviews.isEmpty() || ReviewSummary.NEWEST_FIRST.compare(review, reviews.peekFirst()) < 0) {
+            reviews.addFirst(review);
+        } else if (!complete && ReviewSummary.NEWEST_FIRST.compare(review, reviews.peekLast()) > 0) {
+            // older than everything kept and the history beyond is unknown, it does not belong here.
+            return;
+        } else {
+            List<ReviewSummary> sorted = new ArrayList<>(reviews);
+            sorted.add(review);
+            sorted.sort(ReviewSummary.NEWEST_FIRST);
+            reviews.clear();
+            reviews.addAll(sorted);
+        }
+
+        if (reviews.size() > capacity) {
+            reviews.removeLast();
+            complete = false;
+        }
+    }
+
+    boolean replace(ReviewSummary review) {
+        List<ReviewSummary> updated = new ArrayList<>(reviews.size());
+        boolean found = false;
+        for (ReviewSummary current : reviews) {
+            if (current.getId().equals(review.getId())) {
+                updated.add(review);
+                found = true;
+            } else {
+                updated.add(current);
+            }
+        }
+
+        if (found) {
+            reviews.clear();
+            reviews.addAll(updated);
+        }
+        return found;
+    }
+
+    boolean remove(int reviewId) {
+        for (Iterator<ReviewSummary> it = reviews.iterator(); it.hasNext(); ) {
+            if (it.next().getId() == reviewId) {
+                it.remove();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean contains(int reviewId) {
+        for (ReviewSummary review : reviews) {
+            if (review.getId() == reviewId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    boolean isComplete() {
+        return complete;
+    }
+
+    List<ReviewSummary> recent(int limit) {
+        List<ReviewSummary> recent = new ArrayList<>(Math.min(limit, reviews.size()));
+        for (Iterator<ReviewSummary> it = reviews.iterator(); it.hasNext() && recent.size() < limit; ) {
+            recent.add(it.next());
+        }
+        return recent;
+    }
+}
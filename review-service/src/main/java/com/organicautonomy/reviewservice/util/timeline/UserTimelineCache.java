@@ -0,0 +1,126 @@
+package com.organicautonomy.reviewservice.util.timeline;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Recent reviews per user for profile pages, held for at most maxUsers users and evicted least
+ * recently read first. A miss loads one page through the keyset query, every hit is served from
+ * memory. Review events patch the timelines of cached users; uncached users are left alone, they
+ * load fresh on their next read.
+ */
+@Component
+public class UserTimelineCache {
+    private static final int STRIPES = 1024;
+
+    private final int timelineLength;
+    private final Map<Integer, UserTimeline> timelines;
+    // bumped on every change to a user in the stripe, so a load that raced a write is not cached.
+    private final AtomicLongArray stamps = new AtomicLongArray(STRIPES);
+
+    @Autowired
+    private ReviewRepository repository;
+
+    public UserTimelineCache(@Value("${reviews.timeline.max-users:10000}") int maxUsers,
+                             @Value("${reviews.timeline.length:50}") int timelineLength) {
+        this.timelineLength = timelineLength;
+        this.timelines = new LinkedHashMap<Integer, UserTimeline>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, UserTimeline> eldest) {
+                return size() > maxUsers;
+            }
+        };
+    }
+
+    public List<ReviewSummary> recent(int userId, int limit) {
+        synchronized (timelines) {
+            UserTimeline timeline = timelines.get(userId);
+            if (timeline != null) {
+                return timeline.recent(limit);
+            }
+        }
+
+        long stamp = stamps.get(stripe(userId));
+        List<ReviewSummary> loaded = repository.findLatestSummariesByUserId(userId, PageRequest.of(0, timelineLength));
+        UserTimeline timeline = new UserTimeline(timelineLength, loaded);
+
+        synchronized (timelines) {
+            if (stamps.get(stripe(userId)) == stamp) {
+                timelines.put(userId, timeline);
+            }
+        }
+        return timeline.recent(limit);
+    }
+
+    public int getTimelineLength() {
+        return timelineLength;
+    }
+
+    public int size() {
+        synchronized (timelines) {
+            return timelines.size();
+        }
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        Review previous = event.getPrevious();
+        Review review = event.getReview();
+
+        synchronized (timelines) {
+            if (previous != null && (review == null || !previous.getUserId().equals(review.getUserId()))) {
+                removeReview(previous.getUserId(), previous.getId());
+            }
+            if (review != null) {
+                addReview(ReviewSummary.of(review));
+            }
+        }
+    }
+
+    @EventListener
+    public void onReviewBatch(ReviewBatchEvent event) {
+        synchronized (timelines) {
+            for (Review review : event.getCreated()) {
+                addReview(ReviewSummary.of(review));
+            }
+        }
+    }
+
+    private void addReview(ReviewSummary review) {
+        stamps.incrementAndGet(stripe(review.getUserId()));
+        // counts as a use, a user who is writing is likely to be read soon.
+        UserTimeline timeline = timelines.get(review.getUserId());
+        if (timeline != null && !timeline.replace(review)) {
+            timeline.add(review);
+        }
+    }
+
+    private void removeReview(int userId, int reviewId) {
+        stamps.incrementAndGet(stripe(userId));
+        UserTimeline timeline = timelines.get(userId);
+        if (timeline != null && timeline.contains(reviewId)) {
+            if (timeline.isComplete()) {
+                timeline.remove(reviewId);
+            } else {
+                timelines.remove(userId);
+            }
+        }
+    }
+
+    private static int stripe(int userId) {
+        return (userId * 0x9E3779B9) >>> (Integer.SIZE - Integer.numberOfTrailingZeros(STRIPES));
+    }
+}
@@ -0,0 +1,59 @@
+package com.organicautonomy.reviewservice.util.trending;
+
+/**
+ * Count-min sketch over a sliding window: every cell is a small ring of sub-window counters, so
+ * an estimate covers roughly the last window and old counts age out without a sweep. Estimates
+ * never undercount within the window, they may overcount by collisions.
+ */
+class CountMinSketch {
+    static final int SUB_WINDOWS = 4;
+
+    private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F, 0x165667B1, 0xD3A2646D};
+
+    private final int depth;
+    private final int width;
+    private final int shift;
+    private final long subWindowMillis;
+    private final EpochCounters counters;
+
+    CountMinSketch(int depth, int width, long windowMillis) {
+        if (depth < 1 || depth > SEEDS.length || width < 2 || Integer.bitCount(width) != 1) {
+            throw new IllegalArgumentException("Depth must be between 1 and " + SEEDS.length
+                    + " and width a power of two.");
+        }
+
+        this.depth = depth;
+        this.width = width;
+        this.shift = Integer.SIZE - Integer.numberOfTrailingZeros(width);
+        this.subWindowMillis = windowMillis / SUB_WINDOWS;
+        this.counters = new EpochCounters(depth * width * SUB_WINDOWS);
+    }
+
+    void add(int key, long timeMillis) {
+        long epoch = timeMillis / subWindowMillis;
+        for (int row = 0; row < depth; row++) {
+            counters.add(index(row, key, epoch), epoch, 1);
+        }
+    }
+
+    long estimate(int key, long nowMillis) {
+        long current = nowMillis / subWindowMillis;
+        long estimate = Long.MAX_VALUE;
+
+        for (int row = 0; row < depth; row++) {
+            long sum = 0;
+            for (long epoch = current - SUB_WINDOWS + 1; epoch <= current; epoch++) {
+                sum += counters.get(index(row, key, epoch), epoch);
+            }
+            estimate = Math.min(estimate, sum);
+        }
+
+        return estimate;
+    }
+
+    private int index(int row, int key, long epoch) {
+        // multiplicative hashing, the high bits of the product pick the column.
+        int column = (key * SEEDS[row]) >>> shift;
+        return ((row * width + column) * SUB_WINDOWS) + (int) (epoch % SUB_WINDOWS);
+    }
+}
@@ -0,0 +1,49 @@
+package com.organicautonomy.reviewservice.util.trending;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Ring of counters where each cell packs the epoch it counts for with the count itself, so a
+ * writer that lands on a stale cell resets and increments it in the same CAS. No locks, and no
+ * increment is lost to a concurrent reset.
+ */
+final class EpochCounters {
+    private static final int COUNT_BITS = 24;
+    private static final long COUNT_MASK = (1L << COUNT_BITS) - 1;
+
+    private final AtomicLongArray cells;
+
+    EpochCounters(int size) {
+        cells = new AtomicLongArray(size);
+    }
+
+    void add(int index, long epoch, long delta) {
+        for (;;) {
+            long cell = cells.get(index);
+            long cellEpoch = cell >>> COUNT_BITS;
+            long next;
+
+            if (cellEpoch == epoch) {
+                next = (epoch << COUNT_BITS) | Math.min(COUNT_MASK, (cell & COUNT_MASK) + delta);
+            } else if (cellEpoch < epoch) {
+                next = (epoch << COUNT_BITS) | Math.min(COUNT_MASK, delta);
+            } else {
+                // the cell already moved on to a newer epoch, this one has left the ring.
+                return;
+            }
+
+            if (cells.compareAndSet(index, cell, next)) {
+                return;
+            }
+        }
+    }
+
+    long get(int index, long epoch) {
+        long cell = cells.get(index);
+        return cell >>> COUNT_BITS == epoch ? cell & COUNT_MASK : 0;
+    }
+
+    int length() {
+        return cells.length();
+    }
+}
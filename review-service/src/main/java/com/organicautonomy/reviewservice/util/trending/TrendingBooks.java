@@ -0,0 +1,111 @@
+package com.organicautonomy.reviewservice.util.trending;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.TrendingBook;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import com.organicautonomy.reviewservice.util.collection.LongHashSet;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Books whose review volume grew the most between the previous window and the current one, for
+ * each of the supported windows. Only new reviews count, edits do not make a book trend, and a
+ * review counts at the time it was written, so imported history lands behind the windows rather
+ * than trending on the day of the import. The load runs while the app is already serving, so until
+ * it finishes the ids counted are remembered and a review the load and an event both see counts once.
+ */
+@Component
+public class TrendingBooks {
+    private static final int SKETCH_DEPTH = 4;
+
+    private final Map<TrendingWindow, WindowTracker> trackers = new EnumMap<>(TrendingWindow.class);
+    // ids of the reviews counted so far, until the load finishes.
+    private LongHashSet loading = new LongHashSet();
+
+    @Autowired
+    private ReviewRepository repository;
+
+    public TrendingBooks(@Value("${reviews.trending.capacity:1000}") int capacity,
+                         @Value("${reviews.trending.sketch-width:2048}") int sketchWidth) {
+        for (TrendingWindow window : TrendingWindow.values()) {
+            trackers.put(window, new WindowTracker(window, capacity, SKETCH_DEPTH, sketchWidth));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long now = System.currentTimeMillis();
+        Instant since = Instant.ofEpochMilli(now - 2 * TrendingWindow.WEEK.getMillis());
+
+        try (Stream<Object[]> rows = repository.streamActivitySince(since)) {
+            rows.forEach(row -> {
+                if (firstCount((Integer) row[0])) {
+                    record((Integer) row[1], ((Instant) row[2]).toEpochMilli(), now);
+                }
+            });
+        } finally {
+            synchronized (this) {
+                loading = null;
+            }
+        }
+    }
+
+    @EventListener
+    public void onReviewEvent(ReviewEvent event) {
+        if (event.getType() == ReviewEvent.Type.CREATED && firstCount(event.getReview().getId())) {
+            record(event.getReview());
+        }
+    }
+
+    @EventListener
+    public void onReviewBatch(ReviewBatchEvent event) {
+        for (Review review : event.getCreated()) {
+            if (firstCount(review.getId())) {
+                record(review);
+            }
+        }
+    }
+
+    public List<TrendingBook> trending(TrendingWindow window, int n) {
+        return trending(window, n, System.currentTimeMillis());
+    }
+
+    List<TrendingBook> trending(TrendingWindow window, int n, long nowMillis) {
+        return trackers.get(window).top(n, nowMillis);
+    }
+
+    void record(int bookId, long timeMillis, long nowMillis) {
+        for (Map.Entry<TrendingWindow, WindowTracker> tracker : trackers.entrySet()) {
+            // older than both halves of this window, it can only take a slot in the sketch.
+            if (timeMillis > nowMillis - 2 * tracker.getKey().getMillis()) {
+                tracker.getValue().record(bookId, timeMillis);
+            }
+        }
+    }
+
+    int tracked(TrendingWindow window) {
+        return trackers.get(window).tracked();
+    }
+
+    private synchronized boolean firstCount(int reviewId) {
+        return loading == null || loading.add(reviewId);
+    }
+
+    private void record(Review review) {
+        long now = System.currentTimeMillis();
+        record(review.getBookId(), review.getCreatedAt() == null ? now : review.getCreatedAt().toEpochMilli(), now);
+    }
+}
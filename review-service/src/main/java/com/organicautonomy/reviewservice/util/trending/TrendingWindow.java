@@ -0,0 +1,42 @@
+package com.organicautonomy.reviewservice.util.trending;
+
+import java.util.concurrent.TimeUnit;
+
+public enum TrendingWindow {
+    HOUR("1h", TimeUnit.HOURS.toMillis(1)),
+    DAY("24h", TimeUnit.DAYS.toMillis(1)),
+    WEEK("7d", TimeUnit.DAYS.toMillis(7));
+
+    // buckets per window, 1 minute wide for the hourly window.
+    static final int BUCKETS = 60;
+
+    private final String label;
+    private final long millis;
+
+    TrendingWindow(String label, long millis) {
+        this.label = label;
+        this.millis = millis;
+    }
+
+    public static TrendingWindow of(String label) {
+        for (TrendingWindow window : values()) {
+            if (window.label.equals(label)) {
+                return window;
+            }
+        }
+
+        throw new IllegalArgumentException("The window provided is invalid, use 1h, 24h or 7d.");
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    long bucketMillis() {
+        return millis / BUCKETS;
+    }
+}
@@ -0,0 +1,132 @@
+package com.organicautonomy.reviewservice.util.trending;
+
+import com.organicautonomy.reviewservice.dto.TrendingBook;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Heavy hitters for one window. Exact bucket rings are kept for at most twice the capacity, every
+ * other book only lives in the count-min sketch. A book gets a ring once its estimate beats the
+ * weakest book kept by the last prune, so the long tail costs a few sketch cells and nothing more.
+ * Every new bucket prunes again, so the bar follows the current window down as well as up.
+ */
+class WindowTracker {
+    private static final Comparator<TrendingBook> BY_GROWTH_DESC = Comparator.comparingLong(TrendingBook::getGrowth).reversed()
+            .thenComparing(Comparator.comparingLong(TrendingBook::getReviewCount).reversed())
+            .thenComparingInt(TrendingBook::getBookId);
+
+    private final TrendingWindow window;
+    private final int capacity;
+    private final long bucketMillis;
+    private final CountMinSketch sketch;
+    // current and previous window, one slot per bucket.
+    private final ConcurrentHashMap<Integer, EpochCounters> rings = new ConcurrentHashMap<>();
+    private volatile long admission;
+    private volatile long prunedEpoch;
+
+    WindowTracker(TrendingWindow window, int capacity, int sketchDepth, int sketchWidth) {
+        this.window = window;
+        this.capacity = capacity;
+        this.bucketMillis = window.bucketMillis();
+        this.sketch = new CountMinSketch(sketchDepth, sketchWidth, window.getMillis());
+    }
+
+    void record(int bookId, long timeMillis) {
+        sketch.add(bookId, timeMillis);
+        long epoch = timeMillis / bucketMillis;
+        if (epoch > prunedEpoch) {
+            prune(timeMillis);
+        }
+
+        EpochCounters ring = rings.get(bookId);
+        if (ring == null) {
+            long estimate = sketch.estimate(bookId, timeMillis);
+            if (rings.size() >= capacity && estimate <= admission) {
+                return;
+            }
+
+            // seeded with what the sketch saw, this review included, so a prune never finds it empty.
+            EpochCounters seeded = new EpochCounters(2 * TrendingWindow.BUCKETS);
+            seeded.add(slot(epoch), epoch, estimate);
+            ring = rings.putIfAbsent(bookId, seeded);
+            if (ring == null) {
+                if (rings.size() > 2 * capacity) {
+                    prune(timeMillis);
+                }
+                return;
+            }
+        }
+
+        ring.add(slot(epoch), epoch, 1);
+    }
+
+    List<TrendingBook> top(int n, long nowMillis) {
+        List<TrendingBook> growing = new ArrayList<>();
+        for (Map.Entry<Integer, EpochCounters> entry : rings.entrySet()) {
+            TrendingBook book = toTrendingBook(entry.getKey(), entry.getValue(), nowMillis);
+            if (book.getGrowth() > 0) {
+                growing.add(book);
+            }
+        }
+
+        growing.sort(BY_GROWTH_DESC);
+        return growing.size() > n ? new ArrayList<>(growing.subList(0, n)) : growing;
+    }
+
+    int tracked() {
+        return rings.size();
+    }
+
+    // drops books gone quiet in both halves of the window, keeps the busiest books of the current
+    // window when there are too many, and sets the bar for new ones to the weakest book kept.
+    private synchronized void prune(long nowMillis) {
+        long epoch = nowMillis / bucketMillis;
+        if (epoch <= prunedEpoch && rings.size() <= 2 * capacity) {
+            return;
+        }
+        prunedEpoch = Math.max(prunedEpoch, epoch);
+
+        List<TrendingBook> books = new ArrayList<>(rings.size());
+        rings.forEach((bookId, ring) -> {
+            TrendingBook book = toTrendingBook(bookId, ring, nowMillis);
+            if (book.getReviewCount() == 0 && book.getPreviousCount() == 0) {
+                rings.remove(bookId, ring);
+            } else {
+                books.add(book);
+            }
+        });
+        books.sort(Comparator.comparingLong(TrendingBook::getReviewCount).reversed());
+
+        if (books.size() > 2 * capacity) {
+            for (TrendingBook book : books.subList(capacity, books.size())) {
+                rings.remove(book.getBookId());
+            }
+        }
+        admission = books.size() < capacity ? 0 : books.get(capacity - 1).getReviewCount();
+    }
+
+    private TrendingBook toTrendingBook(int bookId, EpochCounters ring, long nowMillis) {
+        long current = nowMillis / bucketMillis;
+        long reviews = sum(ring, current - TrendingWindow.BUCKETS + 1, current);
+        long previous = sum(ring, current - 2 * TrendingWindow.BUCKETS + 1, current - TrendingWindow.BUCKETS);
+
+        return new TrendingBook(bookId, window.getLabel(), reviews, previous, reviews - previous);
+    }
+
+    private long sum(EpochCounters ring, long fromEpoch, long toEpoch) {
+        long sum = 0;
+        for (long epoch = fromEpoch; epoch <= toEpoch; epoch++) {
+            sum += ring.get(slot(epoch), epoch);
+        }
+
+        return sum;
+    }
+
+    private static int slot(long epoch) {
+        return (int) (epoch % (2 * TrendingWindow.BUCKETS));
+    }
+}
@@ -0,0 +1,105 @@
+package com.organicautonomy.reviewservice.benchmark;
+
+import com.organicautonomy.reviewservice.ReviewServiceApplication;
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The same workload against 1, 4 and 16 review partitions: a book's reviews (one partition), a
+ * user's reviews (forked over every partition) and concurrent 1000 row batch inserts. The table is
+ * seeded with users * reviewsPerUser reviews spread over books.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class PartitionedReviewBenchmark {
+    @Param({"1", "4", "16"})
+    public int partitions;
+    @Param({"20000"})
+    public int users;
+    @Param({"10000"})
+    public int books;
+    @Param({"10"})
+    public int reviewsPerUser;
+
+    private ConfigurableApplicationContext context;
+    private ReviewRepository repository;
+    // inserted reviews get fresh users so the (user, book) key never collides.
+    private final AtomicInteger nextUserId = new AtomicInteger();
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ReviewServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--reviews.partitions.count=" + partitions);
+        repository = context.getBean(ReviewRepository.class);
+
+        nextUserId.set(users);
+        List<Review> batch = new ArrayList<>();
+        for (int user = 1; user <= users; user++) {
+            for (int i = 0; i < reviewsPerUser; i++) {
+                int book = 1 + (int) (((long) user * 7919 + (long) i * books / reviewsPerUser) % books);
+                batch.add(new Review(user, book, BigDecimal.valueOf(100 + (user + i) % 401, 2), "Seeded review text."));
+            }
+            if (batch.size() >= 10_000) {
+                repository.insertAll(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        repository.insertAll(batch);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ReviewSummary> bookReviews() {
+        return repository.findSummariesByBookId(1 + ThreadLocalRandom.current().nextInt(books));
+    }
+
+    @Benchmark
+    public List<Review> userReviews() {
+        return repository.findReviewsByUserId(1 + ThreadLocalRandom.current().nextInt(users));
+    }
+
+    @Benchmark
+    @Threads(4)
+    public List<Review> insertAll() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Review> reviews = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            reviews.add(new Review(nextUserId.incrementAndGet(), 1 + random.nextInt(books),
+                    BigDecimal.valueOf(random.nextInt(501), 2), "Imported partner review text."));
+        }
+
+        return repository.insertAll(reviews);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(PartitionedReviewBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.organicautonomy.reviewservice.benchmark;
+
+import com.organicautonomy.reviewservice.dto.RelatedBook;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.util.related.RelatedBooks;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Heap held by the co-review matrix and the cost of a related-books lookup. Book popularity is
+ * skewed so a few rows hit the capacity, the way real catalogs do. The footprint is printed once
+ * per fork after setup. Run with {@code java -cp <test classpath> ...benchmark.RelatedBooksBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class RelatedBooksBenchmark {
+    @Param({"200000"})
+    public int users;
+    @Param({"50000"})
+    public int books;
+    @Param({"10"})
+    public int reviewsPerUser;
+
+    private RelatedBooks relatedBooks;
+
+    @Setup
+    public void setUp() {
+        long before = usedHeap();
+
+        relatedBooks = new RelatedBooks(200);
+        Random random = new Random(42);
+        List<Review> batch = new ArrayList<>();
+        for (int user = 1; user <= users; user++) {
+            for (int i = 0; i < reviewsPerUser; i++) {
+                // cubing a uniform draw puts most reviews on the lowest book ids.
+                int book = 1 + (int) (books * Math.pow(random.nextDouble(), 3));
+                batch.add(new Review(user, book, BigDecimal.valueOf(100 + random.nextInt(401), 2), ""));
+            }
+            if (batch.size() >= 10_000) {
+                relatedBooks.onReviewBatch(new ReviewBatchEvent(batch));
+                batch = new ArrayList<>();
+            }
+        }
+        relatedBooks.onReviewBatch(new ReviewBatchEvent(batch));
+
+        long bytes = usedHeap() - before;
+        long reviews = (long) users * reviewsPerUser;
+        System.out.printf("%nco-review matrix: %,d reviews, %,d cells, %,d MB, %.1f bytes per review%n",
+                reviews, relatedBooks.cells(), bytes >> 20, (double) bytes / reviews);
+    }
+
+    @Benchmark
+    public List<RelatedBook> related() {
+        return relatedBooks.related(1 + ThreadLocalRandom.current().nextInt(books), 10);
+    }
+
+    private static long usedHeap() {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        Runtime runtime = Runtime.getRuntime();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(RelatedBooksBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,114 @@
+package com.organicautonomy.reviewservice.benchmark;
+
+import com.organicautonomy.reviewservice.ReviewServiceApplication;
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.RatingDistribution;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.util.analytics.ReviewColumnStore;
+import com.organicautonomy.reviewservice.util.analytics.ReviewFilter;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rating distribution over every review: the column store against loading entities through JPA.
+ * Run with {@code java -cp <test classpath> ...benchmark.ReviewAnalyticsBenchmark}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ReviewAnalyticsBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class ColumnStoreState {
+        @Param({"10000000"})
+        public int rows;
+        public ReviewColumnStore store;
+
+        @Setup
+        public void setUp() {
+            store = new ReviewColumnStore();
+            Random random = new Random(42);
+            for (int id = 1; id <= rows; id++) {
+                store.upsert(id, random.nextInt(1_000_000), random.nextInt(100_000), (short) random.nextInt(501));
+            }
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class JpaState {
+        @Param({"100000"})
+        public int rows;
+        public ConfigurableApplicationContext context;
+        public ReviewRepository repository;
+
+        @Setup
+        public void setUp() {
+            context = new SpringApplicationBuilder(ReviewServiceApplication.class)
+                    .web(WebApplicationType.NONE)
+                    .run("--spring.jpa.show-sql=false");
+            repository = context.getBean(ReviewRepository.class);
+            JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+
+            Random random = new Random(42);
+            List<Object[]> batch = new ArrayList<>();
+            for (int id = 1; id <= rows; id++) {
+                int rating = random.nextInt(501);
+                batch.add(new Object[]{id, id, random.nextInt(100_000),
+                        BigDecimal.valueOf(rating, 2), (short) rating, "Benchmark review text."});
+                if (batch.size() == 10_000) {
+                    insert(jdbc, batch);
+                }
+            }
+            insert(jdbc, batch);
+        }
+
+        @TearDown
+        public void tearDown() {
+            context.close();
+        }
+
+        private static void insert(JdbcTemplate jdbc, List<Object[]> batch) {
+            jdbc.batchUpdate("INSERT INTO review (id, user_id, book_id, rating, rating_bucket, text, created_at) "
+                    + "VALUES (?, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)", batch);
+            batch.clear();
+        }
+    }
+
+    @Benchmark
+    public RatingDistribution columnStoreHistogram(ColumnStoreState state) {
+        return state.store.histogram(ReviewFilter.all(), 50);
+    }
+
+    @Benchmark
+    public long[] jpaHistogram(JpaState state) {
+        long[] counts = new long[10];
+        BigDecimal width = new BigDecimal("0.5");
+        for (Review review : state.repository.findAll()) {
+            counts[Math.min(review.getRating().divideToIntegralValue(width).intValue(), counts.length - 1)]++;
+        }
+
+        return counts;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ReviewAnalyticsBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,125 @@
+package com.organicautonomy.reviewservice.benchmark;
+
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import com.organicautonomy.reviewservice.util.eventlog.ReviewEventLog;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Rebuilding a per-book rating projection from 10M logged events: 8M creates followed by 2M
+ * updates. With snapshot on, a snapshot is taken after the first 9M events, so the replay reads the
+ * compacted rows plus a 1M event tail; off replays every event. The append rate is printed once
+ * per fork after setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ReviewEventLogBenchmark {
+    @Param({"true", "false"})
+    public boolean snapshot;
+    @Param({"8000000"})
+    public int reviews;
+    @Param({"2000000"})
+    public int updates;
+    @Param({"100000"})
+    public int books;
+
+    private Path directory;
+    private ReviewEventLog log;
+
+    @Setup
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("review-events");
+        log = new ReviewEventLog(directory.toString(), 256);
+        Random random = new Random(42);
+        Instant createdAt = Instant.parse("2021-01-01T00:00:00Z");
+        long events = (long) reviews + updates;
+        long snapshotAt = events - events / 10;
+
+        long start = System.nanoTime();
+        List<Review> batch = new ArrayList<>();
+        for (int id = 1; id <= reviews; id++) {
+            Review review = new Review(id, id, 1 + random.nextInt(books), BigDecimal.valueOf(random.nextInt(501), 2), "Logged review.");
+            review.setCreatedAt(createdAt);
+            batch.add(review);
+            if (batch.size() == 10_000) {
+                log.onReviewBatch(new ReviewBatchEvent(batch));
+                batch = new ArrayList<>();
+            }
+        }
+        log.onReviewBatch(new ReviewBatchEvent(batch));
+        for (int i = 0; i < updates; i++) {
+            if (snapshot && log.getSequence() == snapshotAt) {
+                log.snapshot();
+            }
+            int id = 1 + random.nextInt(reviews);
+            Review review = new Review(id, id, 1 + id % books, BigDecimal.valueOf(random.nextInt(501), 2), "Updated review.");
+            review.setCreatedAt(createdAt);
+            log.onReviewEvent(ReviewEvent.updated(review, review));
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%nappended %,d events in %.1f s, %,.0f events/s%n", events, seconds, events / seconds);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        log.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long replay() throws IOException {
+        // rating sum in hundredths and review count per book, the leaderboard's inputs.
+        long[] sums = new long[books + 1];
+        int[] counts = new int[books + 1];
+        int[] bookOf = new int[reviews + 1];
+        short[] ratingOf = new short[reviews + 1];
+
+        log.replay(entry -> {
+            int id = entry.getReviewId();
+            if (bookOf[id] != 0) {
+                sums[bookOf[id]] -= ratingOf[id];
+                counts[bookOf[id]]--;
+            }
+            if (entry.getType() == ReviewEvent.Type.DELETED) {
+                bookOf[id] = 0;
+                return;
+            }
+            bookOf[id] = entry.getBookId();
+            ratingOf[id] = entry.getRatingBucket();
+            sums[entry.getBookId()] += entry.getRatingBucket();
+            counts[entry.getBookId()]++;
+        });
+
+        return sums[1] + counts[1];
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ReviewEventLogBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,86 @@
+package com.organicautonomy.reviewservice.benchmark;
+
+import com.organicautonomy.reviewservice.ReviewServiceApplication;
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sustained insert rate: the JDBC batch path behind POST /reviews/batch against one save per review.
+ * Scores are rows per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(ReviewIngestBenchmark.BATCH)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xmx4g"})
+public class ReviewIngestBenchmark {
+    static final int BATCH = 1000;
+
+    private ConfigurableApplicationContext context;
+    private ReviewRepository repository;
+    private final Random random = new Random(42);
+    // one review per user and book, so each generated review gets a fresh user.
+    private int nextUserId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(ReviewServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .run();
+        repository = context.getBean(ReviewRepository.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<Review> insertAll() {
+        return repository.insertAll(batch());
+    }
+
+    @Benchmark
+    public int saveEach() {
+        int saved = 0;
+        for (Review review : batch()) {
+            repository.save(review);
+            saved++;
+        }
+
+        return saved;
+    }
+
+    private List<Review> batch() {
+        List<Review> reviews = new ArrayList<>(BATCH);
+        for (int i = 0; i < BATCH; i++) {
+            reviews.add(new Review(++nextUserId, random.nextInt(100_000),
+                    BigDecimal.valueOf(random.nextInt(501), 2), "Imported partner review text."));
+        }
+
+        return reviews;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(ReviewIngestBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,102 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewservice.dto.RatingDistribution;
+import com.organicautonomy.reviewservice.dto.RatingStats;
+import com.organicautonomy.reviewservice.util.analytics.ReviewColumnStore;
+import com.organicautonomy.reviewservice.util.analytics.ReviewFilter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReviewAnalyticsController.class)
+class ReviewAnalyticsControllerTest {
+    private final RatingStats BOOK10 = new RatingStats(10, 2, new BigDecimal("3.95"), new BigDecimal("3.10"), new BigDecimal("4.80"));
+    private final RatingStats BOOK11 = new RatingStats(11, 1, new BigDecimal("5.00"), new BigDecimal("5.00"), new BigDecimal("5.00"));
+
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewColumnStore store;
+
+    @Test
+    void testGetRatingStats() throws Exception {
+        RatingStats stats = new RatingStats(null, 2, new BigDecimal("3.95"), new BigDecimal("3.10"), new BigDecimal("4.80"));
+
+        when(store.aggregate(argThat(filter -> filter.getBookId() == 10 && filter.getUserId() == null
+                && filter.getMinRating() == 300 && filter.getMaxRating() == 500))).thenReturn(stats);
+
+        this.mockMvc.perform(get("/reviews/analytics/stats")
+                .param("bookId", "10")
+                .param("minRating", "3"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(stats)))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetRatingDistribution() throws Exception {
+        RatingDistribution distribution = new RatingDistribution(new BigDecimal("1.00"), 3, new long[]{0, 0, 0, 1, 2});
+
+        when(store.histogram(any(ReviewFilter.class), eq(100))).thenReturn(distribution);
+
+        this.mockMvc.perform(get("/reviews/analytics/distribution")
+                .param("bucketWidth", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(distribution)))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetRatingStatsByGroup() throws Exception {
+        List<RatingStats> groups = new ArrayList<>();
+        groups.add(BOOK10);
+        groups.add(BOOK11);
+
+        when(store.groupBy(eq(ReviewColumnStore.Column.BOOK), any(ReviewFilter.class))).thenReturn(groups);
+
+        List<RatingStats> expected = new ArrayList<>();
+        expected.add(BOOK10);
+
+        this.mockMvc.perform(get("/reviews/analytics/groups")
+                .param("by", "book")
+                .param("minCount", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(expected), true))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetRatingStatsByGroupWithInvalidColumn() throws Exception {
+        this.mockMvc.perform(get("/reviews/analytics/groups")
+                .param("by", "author"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andExpect(result -> assertEquals("Reviews can only be grouped by book or user.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+}
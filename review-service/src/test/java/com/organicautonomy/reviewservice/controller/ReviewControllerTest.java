@@ -2,27 +2,47 @@ package com.organicautonomy.reviewservice.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.BatchItemError;
+import com.organicautonomy.reviewservice.dto.BatchResult;
 import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewCursor;
+import com.organicautonomy.reviewservice.dto.ReviewImport;
+import com.organicautonomy.reviewservice.dto.ReviewPage;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import com.organicautonomy.reviewservice.exception.ResourceConflictException;
 import com.organicautonomy.reviewservice.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewservice.util.dedupe.ReviewKeyIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyShort;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
@@ -44,6 +64,8 @@ class ReviewControllerTest {
 
     @MockBean
     private ReviewRepository repository;
+    @MockBean
+    private ReviewKeyIndex keyIndex;
 
     @BeforeEach
     void setUp() {
@@ -51,11 +73,11 @@ class ReviewControllerTest {
 
     @Test
     void testGetAllReviews() throws Exception {
-        List<Review> reviews = new ArrayList<>();
-        reviews.add(REVIEW1);
-        reviews.add(REVIEW2);
+        List<ReviewSummary> reviews = new ArrayList<>();
+        reviews.add(ReviewSummary.of(REVIEW1));
+        reviews.add(ReviewSummary.of(REVIEW2));
 
-        when(repository.findAll()).thenReturn(reviews);
+        when(repository.findAllSummaries()).thenReturn(reviews);
 
         String outputJson = mapper.writeValueAsString(reviews);
 
@@ -79,6 +101,107 @@ class ReviewControllerTest {
                 .andExpect(content().json(outputJson));
     }
 
+    @Test
+    void testCreateReviewIgnoresClientCreatedAt() throws Exception {
+        String inputJson = "{\"userId\":1,\"bookId\":1,\"rating\":3.10,\"text\":\"Ehh, not horrible.\","
+                + "\"createdAt\":\"2001-01-01T00:00:00Z\"}";
+        Review saved = new Review(REVIEW1);
+        saved.setCreatedAt(Instant.parse("2021-03-01T12:00:00Z"));
+
+        when(repository.save(TO_SAVE)).thenReturn(saved);
+
+        this.mockMvc.perform(post("/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(inputJson))
+                .andExpect(status().isCreated())
+                .andExpect(content().json(mapper.writeValueAsString(saved)));
+    }
+
+    @Test
+    void testCreateReviewWithIdIsRejected() throws Exception {
+        this.mockMvc.perform(post("/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(REVIEW1)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertEquals("A new review cannot have an id.",
+                        result.getResolvedException().getMessage()));
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testCreateReviewWithDuplicate() throws Exception {
+        String inputJson = mapper.writeValueAsString(TO_SAVE);
+
+        when(keyIndex.contains(1, 1)).thenReturn(true);
+
+        this.mockMvc.perform(post("/reviews")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(inputJson))
+                .andExpect(status().isConflict())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResourceConflictException))
+                .andDo(print());
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testCreateReviewWithUpsert() throws Exception {
+        Review replacement = new Review(1, 1, new BigDecimal("4.20"), "Better on a second read.");
+        Review expected = new Review(1, 1, 1, new BigDecimal("4.20"), "Better on a second read.");
+        String inputJson = mapper.writeValueAsString(replacement);
+
+        when(keyIndex.contains(1, 1)).thenReturn(true);
+        when(repository.findReviewByUserIdAndBookId(1, 1)).thenReturn(REVIEW1);
+        when(repository.updateReviewByUserIdAndBookId(eq(1), eq(1), eq(new BigDecimal("4.20")), eq((short) 420),
+                eq("Better on a second read."), any())).thenReturn(1);
+
+        this.mockMvc.perform(post("/reviews")
+                .param("upsert", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(inputJson))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(expected)))
+                .andDo(print());
+
+        verify(repository, never()).save(any());
+    }
+
+    @Test
+    void testCreateReviewWithUpsertAfterConcurrentInsert() throws Exception {
+        Review replacement = new Review(1, 1, new BigDecimal("4.20"), "Better on a second read.");
+        Review expected = new Review(1, 1, 1, new BigDecimal("4.20"), "Better on a second read.");
+
+        when(repository.save(replacement)).thenThrow(new DataIntegrityViolationException("uk_review_user_book"));
+        when(repository.findReviewByUserIdAndBookId(1, 1)).thenReturn(REVIEW1);
+        when(repository.updateReviewByUserIdAndBookId(eq(1), eq(1), eq(new BigDecimal("4.20")), eq((short) 420),
+                eq("Better on a second read."), any())).thenReturn(1);
+
+        this.mockMvc.perform(post("/reviews")
+                .param("upsert", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(replacement)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(expected)))
+                .andDo(print());
+    }
+
+    @Test
+    void testCreateReviewWithUpsertAfterConcurrentDelete() throws Exception {
+        Review replacement = new Review(1, 1, new BigDecimal("4.20"), "Better on a second read.");
+
+        when(keyIndex.contains(1, 1)).thenReturn(true);
+        when(repository.findReviewByUserIdAndBookId(1, 1)).thenReturn(REVIEW1);
+        when(repository.updateReviewByUserIdAndBookId(eq(1), eq(1), any(), anyShort(), any(), any())).thenReturn(0);
+        when(repository.save(replacement)).thenReturn(new Review(3, 1, 1, new BigDecimal("4.20"), "Better on a second read."));
+
+        this.mockMvc.perform(post("/reviews")
+                .param("upsert", "true")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(replacement)))
+                .andExpect(status().isCreated())
+                .andDo(print());
+    }
+
     @Test
     void testCreateReviewWithInvalidFormat() throws Exception {
         String inputJson = mapper.writeValueAsString(INVALID);
@@ -155,6 +278,21 @@ class ReviewControllerTest {
                 .andDo(print());
     }
 
+    @Test
+    void testUpdateReviewCannotMoveItToAnotherBook() throws Exception {
+        Review moved = new Review(REVIEW1);
+        moved.setBookId(REVIEW1.getBookId() + 1);
+        when(repository.findById(REVIEW1.getId())).thenReturn(Optional.of(REVIEW1));
+
+        this.mockMvc.perform(put("/reviews/{reviewId}", REVIEW1.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(moved)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertEquals("A review cannot be moved to another book.",
+                        result.getResolvedException().getMessage()));
+        verify(repository, never()).save(any());
+    }
+
     @Test
     void testDeleteReview() throws Exception {
         when(repository.findById(REVIEW1.getId())).thenReturn(Optional.of(REVIEW1));
@@ -181,10 +319,10 @@ class ReviewControllerTest {
 
     @Test
     void testGetReviewsByBookId() throws Exception {
-        List<Review> reviews = new ArrayList<>();
-        reviews.add(REVIEW1);
+        List<ReviewSummary> reviews = new ArrayList<>();
+        reviews.add(ReviewSummary.of(REVIEW1));
 
-        when(repository.findReviewsByBookId(REVIEW1.getBookId())).thenReturn(reviews);
+        when(repository.findSummariesByBookId(REVIEW1.getBookId())).thenReturn(reviews);
 
         String outputJson = mapper.writeValueAsString(reviews);
 
@@ -196,9 +334,9 @@ class ReviewControllerTest {
 
     @Test
     void testGetReviewsByRatingWithInvalidBookId() throws Exception {
-        List<Review> reviews = new ArrayList<>();
+        List<ReviewSummary> reviews = new ArrayList<>();
 
-        when(repository.findReviewsByBookId(2)).thenReturn(reviews);
+        when(repository.findSummariesByBookId(2)).thenReturn(reviews);
 
         this.mockMvc.perform(get("/reviews/books/{bookId}", 2))
                 .andExpect(status().isNotFound())
@@ -210,10 +348,10 @@ class ReviewControllerTest {
 
     @Test
     void testGetReviewsByUserId() throws Exception {
-        List<Review> reviews = new ArrayList<>();
-        reviews.add(REVIEW2);
+        List<ReviewSummary> reviews = new ArrayList<>();
+        reviews.add(ReviewSummary.of(REVIEW2));
 
-        when(repository.findReviewsByUserId(REVIEW2.getUserId())).thenReturn(reviews);
+        when(repository.findSummariesByUserId(REVIEW2.getUserId())).thenReturn(reviews);
 
         String outputJson = mapper.writeValueAsString(reviews);
 
@@ -225,9 +363,9 @@ class ReviewControllerTest {
 
     @Test
     void testGetReviewsByUserIdWithInvalidUserId() throws Exception {
-        List<Review> reviews = new ArrayList<>();
+        List<ReviewSummary> reviews = new ArrayList<>();
 
-        when(repository.findReviewsByUserId(2)).thenReturn(reviews);
+        when(repository.findSummariesByUserId(2)).thenReturn(reviews);
 
         this.mockMvc.perform(get("/reviews/users/{userId}", 2))
                 .andExpect(status().isNotFound())
@@ -239,11 +377,11 @@ class ReviewControllerTest {
 
     @Test
     void testGetReviewsByRating() throws Exception {
-        List<Review> reviews = new ArrayList<>();
-        reviews.add(REVIEW1);
-        reviews.add(REVIEW2);
+        List<ReviewSummary> reviews = new ArrayList<>();
+        reviews.add(ReviewSummary.of(REVIEW1));
+        reviews.add(ReviewSummary.of(REVIEW2));
 
-        when(repository.findReviewsByRating(3)).thenReturn(reviews);
+        when(repository.findSummariesByRating(3)).thenReturn(reviews);
 
         String outputJson = mapper.writeValueAsString(reviews);
 
@@ -255,9 +393,9 @@ class ReviewControllerTest {
 
     @Test
     void testGetReviewsByRatingWithInvalidRating() throws Exception {
-        List<Review> reviews = new ArrayList<>();
+        List<ReviewSummary> reviews = new ArrayList<>();
 
-        when(repository.findReviewsByRating(2)).thenReturn(reviews);
+        when(repository.findSummariesByRating(2)).thenReturn(reviews);
 
         this.mockMvc.perform(get("/reviews/ratings/{rating}", 2))
                 .andExpect(status().isNotFound())
@@ -266,4 +404,213 @@ class ReviewControllerTest {
                         result.getResolvedException().getMessage()))
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetReviewsByRatingRange() throws Exception {
+        List<ReviewSummary> reviews = new ArrayList<>();
+        reviews.add(ReviewSummary.of(REVIEW2));
+
+        when(repository.findSummariesByRatingBucketBetween(eq((short) 400), eq((short) 500), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(reviews));
+
+        String outputJson = mapper.writeValueAsString(reviews);
+
+        this.mockMvc.perform(get("/reviews/ratings")
+                .param("minRating", "4")
+                .param("maxRating", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(outputJson))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetReviewsByRatingRangeWithBookId() throws Exception {
+        List<ReviewSummary> reviews = new ArrayList<>();
+        reviews.add(ReviewSummary.of(REVIEW1));
+
+        when(repository.findSummariesByBookIdAndRatingBucketBetween(eq(1), eq((short) 300), eq((short) 350), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(reviews));
+
+        String outputJson = mapper.writeValueAsString(reviews);
+
+        this.mockMvc.perform(get("/reviews/ratings")
+                .param("minRating", "3")
+                .param("maxRating", "3.5")
+                .param("bookId", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(outputJson))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetReviewsByRatingRangeWithInvalidRange() throws Exception {
+        this.mockMvc.perform(get("/reviews/ratings")
+                .param("minRating", "4")
+                .param("maxRating", "3"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andExpect(result -> assertEquals("Minimum rating cannot be greater than maximum rating.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetReviewsByRatingRangeOutOfBounds() throws Exception {
+        this.mockMvc.perform(get("/reviews/ratings")
+                .param("minRating", "0")
+                .param("maxRating", "400"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertEquals("Ratings must be between 0 and 5.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+        this.mockMvc.perform(get("/reviews/ratings")
+                .param("minRating", "-1"))
+                .andExpect(status().isUnprocessableEntity())
+                .andDo(print());
+    }
+
+    @Test
+    void testGetReviewPageByBookId() throws Exception {
+        Review newer = new Review(3, 3, 1, new BigDecimal("4.00"), "Better on a reread.");
+        newer.setCreatedAt(Instant.ofEpochMilli(2000));
+        Review older = new Review(1, 1, 1, new BigDecimal("3.10"), "Ehh, not horrible.");
+        older.setCreatedAt(Instant.ofEpochMilli(1000));
+        List<ReviewSummary> reviews = new ArrayList<>();
+        reviews.add(ReviewSummary.of(newer));
+        reviews.add(ReviewSummary.of(older));
+
+        when(repository.findLatestSummariesByBookId(eq(1), any(Pageable.class))).thenReturn(reviews);
+
+        List<ReviewSummary> page = new ArrayList<>();
+        page.add(ReviewSummary.of(newer));
+        String outputJson = mapper.writeValueAsString(new ReviewPage(page, ReviewCursor.of(page.get(0)).encode()));
+
+        this.mockMvc.perform(get("/reviews/books/{bookId}/page", 1)
+                .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(outputJson))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetReviewPageByUserIdWithCursor() throws Exception {
+        Review older = new Review(1, 1, 1, new BigDecimal("3.10"), "Ehh, not horrible.");
+        older.setCreatedAt(Instant.ofEpochMilli(1000));
+        List<ReviewSummary> reviews = new ArrayList<>();
+        reviews.add(ReviewSummary.of(older));
+        ReviewCursor cursor = new ReviewCursor(Instant.ofEpochMilli(2000), 3);
+
+        when(repository.findSummariesByUserIdBefore(eq(1), eq(cursor.getCreatedAt()), eq(3), any(Pageable.class)))
+                .thenReturn(reviews);
+
+        String outputJson = mapper.writeValueAsString(new ReviewPage(reviews, null));
+
+        this.mockMvc.perform(get("/reviews/users/{userId}/page", 1)
+                .param("cursor", cursor.encode()))
+                .andExpect(status().isOk())
+                .andExpect(content().json(outputJson))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetReviewPageByBookIdWithInvalidCursor() throws Exception {
+        this.mockMvc.perform(get("/reviews/books/{bookId}/page", 1)
+                .param("cursor", "not-a-cursor"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andExpect(result -> assertEquals("The cursor provided is invalid.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+
+    @Test
+    void testCreateReviews() throws Exception {
+        List<Review> batch = new ArrayList<>();
+        batch.add(new Review(1, 1, new BigDecimal("3.10"), "Ehh, not horrible."));
+        batch.add(new Review(2, 1, new BigDecimal("7.00"), "Off the charts."));
+        batch.add(new Review(3, 1, new BigDecimal("4.80"), "Great book!"));
+        batch.add(new Review(4, 1, new BigDecimal("2.50"), "Already reviewed."));
+        batch.add(new Review(1, 1, new BigDecimal("3.50"), "Twice in one batch."));
+        batch.add(new Review(Integer.MIN_VALUE, 0, new BigDecimal("3.00"), "No such user."));
+
+        when(keyIndex.contains(4, 1)).thenReturn(true);
+
+        doAnswer(invocation -> {
+            List<Review> valid = invocation.getArgument(0);
+            for (int i = 0; i < valid.size(); i++) {
+                valid.get(i).setId(100 + i);
+            }
+            return valid;
+        }).when(repository).insertAll(any());
+
+        BatchResult expected = new BatchResult(2, Arrays.asList(100, 101),
+                Arrays.asList(new BatchItemError(1, "rating: Value cannot be greater than 5."),
+                        new BatchItemError(3, "This user has already reviewed this book."),
+                        new BatchItemError(4, "This user has already reviewed this book."),
+                        new BatchItemError(5, "bookId: Value must be greater than 0., userId: Value must be greater than 0.")));
+
+        this.mockMvc.perform(post("/reviews/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(expected), true))
+                .andDo(print());
+    }
+
+    @Test
+    void testCreateReviewsKeepsImportedCreatedAt() throws Exception {
+        Instant written = Instant.parse("2015-06-01T10:00:00Z");
+        List<ReviewImport> batch = new ArrayList<>();
+        batch.add(new ReviewImport(1, 1, new BigDecimal("3.10"), "Ehh, not horrible.", written));
+        batch.add(new ReviewImport(2, 1, new BigDecimal("4.80"), "Great book!", null));
+        batch.add(new ReviewImport(3, 1, new BigDecimal("2.50"), "From the future.", Instant.now().plusSeconds(3600)));
+
+        List<Review> inserted = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Review> valid = invocation.getArgument(0);
+            inserted.addAll(valid);
+            for (int i = 0; i < valid.size(); i++) {
+                valid.get(i).setId(100 + i);
+            }
+            return valid;
+        }).when(repository).insertAll(any());
+
+        BatchResult expected = new BatchResult(2, Arrays.asList(100, 101),
+                Arrays.asList(new BatchItemError(2, "createdAt: Value cannot be in the future.")));
+
+        this.mockMvc.perform(post("/reviews/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(expected), true));
+        assertEquals(written, inserted.get(0).getCreatedAt());
+        assertNull(inserted.get(1).getCreatedAt());
+    }
+
+    @Test
+    void testCreateReviewsReportsRowsTheTableRejected() throws Exception {
+        List<Review> batch = new ArrayList<>();
+        batch.add(new Review(1, 1, new BigDecimal("3.10"), "Ehh, not horrible."));
+        batch.add(new Review(2, 1, new BigDecimal("4.80"), "Great book!"));
+        batch.add(new Review(3, 1, new BigDecimal("2.50"), "Reviewed elsewhere meanwhile."));
+
+        doAnswer(invocation -> {
+            List<Review> valid = invocation.getArgument(0);
+            List<Review> stored = new ArrayList<>(valid);
+            stored.get(0).setId(100);
+            stored.set(1, null);
+            stored.get(2).setId(102);
+            return stored;
+        }).when(repository).insertAll(any());
+
+        BatchResult expected = new BatchResult(2, Arrays.asList(100, 102),
+                Arrays.asList(new BatchItemError(1, "This user has already reviewed this book.")));
+
+        this.mockMvc.perform(post("/reviews/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(mapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(expected), true))
+                .andDo(print());
+    }
+}
@@ -0,0 +1,76 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.organicautonomy.reviewservice.util.export.ExportFormat;
+import com.organicautonomy.reviewservice.util.export.ReviewExporter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReviewExportController.class)
+class ReviewExportControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewExporter exporter;
+
+    @Test
+    void testExportReviews() throws Exception {
+        String csv = "id,userId,bookId,rating,createdAt,text\r\n1,1,7,3.10,2020-09-13T12:26:40Z,\"Ehh.\"\r\n";
+        doAnswer(invocation -> {
+            invocation.getArgument(3, OutputStream.class).write(csv.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exporter).export(eq(ExportFormat.CSV), eq(7), eq(Instant.parse("2020-09-13T00:00:00Z")), any());
+
+        this.mockMvc.perform(get("/reviews/export")
+                .param("format", "csv")
+                .param("bookId", "7")
+                .param("since", "2020-09-13T00:00:00Z"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"reviews.csv\""))
+                .andExpect(content().string(csv))
+                .andDo(print());
+    }
+
+    @Test
+    void testExportReviewsWithInvalidFormat() throws Exception {
+        this.mockMvc.perform(get("/reviews/export")
+                .param("format", "xml"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andExpect(result -> assertEquals("The format provided is invalid, use ndjson or csv.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+
+    @Test
+    void testExportReviewsWithInvalidSince() throws Exception {
+        this.mockMvc.perform(get("/reviews/export")
+                .param("since", "yesterday"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertEquals("The since provided is invalid, use an ISO-8601 instant.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+}
@@ -0,0 +1,63 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewservice.dto.BookScore;
+import com.organicautonomy.reviewservice.util.leaderboard.BookLeaderboard;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReviewLeaderboardController.class)
+class ReviewLeaderboardControllerTest {
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookLeaderboard leaderboard;
+
+    @Test
+    void testGetLeaderboard() throws Exception {
+        List<BookScore> top = new ArrayList<>();
+        top.add(new BookScore(2, 50, new BigDecimal("4.50"), new BigDecimal("4.250")));
+        top.add(new BookScore(1, 1, new BigDecimal("5.00"), new BigDecimal("3.182")));
+
+        when(leaderboard.top(2, 1)).thenReturn(top);
+
+        this.mockMvc.perform(get("/reviews/leaderboard")
+                .param("n", "2")
+                .param("minReviews", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(top)))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetLeaderboardWithInvalidSize() throws Exception {
+        this.mockMvc.perform(get("/reviews/leaderboard")
+                .param("n", "0"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andExpect(result -> assertEquals("n must be between 1 and 1000.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+}
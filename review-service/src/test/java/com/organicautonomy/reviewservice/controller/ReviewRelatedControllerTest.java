@@ -0,0 +1,72 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewservice.dto.RelatedBook;
+import com.organicautonomy.reviewservice.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewservice.util.related.RelatedBooks;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReviewRelatedController.class)
+class ReviewRelatedControllerTest {
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private RelatedBooks relatedBooks;
+
+    @Test
+    void testGetRelatedBooks() throws Exception {
+        List<RelatedBook> related = Arrays.asList(new RelatedBook(2, new BigDecimal("25.00")),
+                new RelatedBook(3, new BigDecimal("10.00")));
+
+        when(relatedBooks.related(1, 2)).thenReturn(related);
+
+        this.mockMvc.perform(get("/reviews/books/{bookId}/related", 1)
+                .param("k", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(related)))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetRelatedBooksWithUnknownBook() throws Exception {
+        when(relatedBooks.related(9, 10)).thenReturn(new ArrayList<>());
+
+        this.mockMvc.perform(get("/reviews/books/{bookId}/related", 9))
+                .andExpect(status().isNotFound())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResourceNotFoundException))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetRelatedBooksWithInvalidK() throws Exception {
+        this.mockMvc.perform(get("/reviews/books/{bookId}/related", 1)
+                .param("k", "51"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertEquals("k must be between 1 and 50.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+}
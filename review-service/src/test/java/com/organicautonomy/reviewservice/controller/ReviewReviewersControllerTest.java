@@ -0,0 +1,82 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewservice.dto.ReviewerCount;
+import com.organicautonomy.reviewservice.util.cardinality.BookReviewerCounts;
+import com.organicautonomy.reviewservice.util.cardinality.HyperLogLog;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReviewReviewersController.class)
+class ReviewReviewersControllerTest {
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private BookReviewerCounts reviewerCounts;
+
+    @Test
+    void testGetReviewerCount() throws Exception {
+        HyperLogLog union = new HyperLogLog(12);
+        union.add(1);
+        union.add(2);
+
+        when(reviewerCounts.union(Arrays.asList(10, 11))).thenReturn(union);
+
+        ReviewerCount expected = new ReviewerCount(Arrays.asList(10, 11), 2, HyperLogLog.relativeStandardError(12), null);
+
+        this.mockMvc.perform(get("/reviews/reviewers")
+                .param("bookId", "10", "11"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(expected), true))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetReviewerCountWithSketch() throws Exception {
+        HyperLogLog union = new HyperLogLog(12);
+        union.add(1);
+
+        when(reviewerCounts.union(Arrays.asList(10))).thenReturn(union);
+
+        ReviewerCount expected = new ReviewerCount(Arrays.asList(10), 1, HyperLogLog.relativeStandardError(12),
+                Base64.getEncoder().encodeToString(union.toBytes()));
+
+        this.mockMvc.perform(get("/reviews/reviewers")
+                .param("bookId", "10")
+                .param("includeSketch", "true"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(expected), true))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetReviewerCountWithoutBooks() throws Exception {
+        this.mockMvc.perform(get("/reviews/reviewers")
+                .param("bookId", ""))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andExpect(result -> assertEquals("Between 1 and 1000 book ids must be provided.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+}
@@ -0,0 +1,85 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import com.organicautonomy.reviewservice.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewservice.util.search.ReviewSearchIndex;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReviewSearchController.class)
+class ReviewSearchControllerTest {
+    private final ReviewSummary SUMMARY1 = new ReviewSummary(1, 1, 10, new BigDecimal("3.10"), "Great ending.", null);
+    private final ReviewSummary SUMMARY2 = new ReviewSummary(2, 2, 10, new BigDecimal("4.80"), "Great characters.", null);
+
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private ReviewSearchIndex index;
+    @MockBean
+    private ReviewRepository repository;
+
+    @Test
+    void testSearchReviewsKeepsIndexOrder() throws Exception {
+        List<Integer> ids = Arrays.asList(2, 1);
+        List<ReviewSummary> fromRepository = new ArrayList<>();
+        fromRepository.add(SUMMARY1);
+        fromRepository.add(SUMMARY2);
+
+        when(index.search("great", 10, 20)).thenReturn(ids);
+        when(repository.findSummariesByIdIn(ids)).thenReturn(fromRepository);
+
+        this.mockMvc.perform(get("/reviews/search")
+                .param("q", "great")
+                .param("bookId", "10"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(Arrays.asList(SUMMARY2, SUMMARY1)), true))
+                .andDo(print());
+    }
+
+    @Test
+    void testSearchReviewsWithNoMatches() throws Exception {
+        when(index.search("nothing", null, 20)).thenReturn(Collections.emptyList());
+
+        this.mockMvc.perform(get("/reviews/search")
+                .param("q", "nothing"))
+                .andExpect(status().isNotFound())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResourceNotFoundException))
+                .andExpect(result -> assertEquals("There are no reviews matching the query provided.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+
+    @Test
+    void testSearchReviewsWithEmptyQuery() throws Exception {
+        this.mockMvc.perform(get("/reviews/search")
+                .param("q", " "))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andDo(print());
+    }
+}
@@ -0,0 +1,80 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import com.organicautonomy.reviewservice.exception.ResourceNotFoundException;
+import com.organicautonomy.reviewservice.util.timeline.UserTimelineCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReviewTimelineController.class)
+class ReviewTimelineControllerTest {
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private UserTimelineCache timelineCache;
+
+    @BeforeEach
+    void setUp() {
+        when(timelineCache.getTimelineLength()).thenReturn(50);
+    }
+
+    @Test
+    void testGetRecentReviews() throws Exception {
+        List<ReviewSummary> recent = Arrays.asList(
+                ReviewSummary.of(new Review(2, 1, 2, new BigDecimal("4.80"), "Great book!")),
+                ReviewSummary.of(new Review(1, 1, 1, new BigDecimal("3.10"), "Ehh, not horrible.")));
+
+        when(timelineCache.recent(1, 2)).thenReturn(recent);
+
+        this.mockMvc.perform(get("/reviews/users/{userId}/recent", 1)
+                .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(recent)))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetRecentReviewsWithInvalidUserId() throws Exception {
+        when(timelineCache.recent(9, 20)).thenReturn(new ArrayList<>());
+
+        this.mockMvc.perform(get("/reviews/users/{userId}/recent", 9))
+                .andExpect(status().isNotFound())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof ResourceNotFoundException))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetRecentReviewsWithInvalidLimit() throws Exception {
+        this.mockMvc.perform(get("/reviews/users/{userId}/recent", 1)
+                .param("limit", "51"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertEquals("Limit must be between 1 and 50.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+}
@@ -0,0 +1,63 @@
+package com.organicautonomy.reviewservice.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewservice.dto.TrendingBook;
+import com.organicautonomy.reviewservice.util.trending.TrendingBooks;
+import com.organicautonomy.reviewservice.util.trending.TrendingWindow;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@ExtendWith(SpringExtension.class)
+@WebMvcTest(ReviewTrendingController.class)
+class ReviewTrendingControllerTest {
+    @Autowired
+    private ObjectMapper mapper;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private TrendingBooks trendingBooks;
+
+    @Test
+    void testGetTrendingBooks() throws Exception {
+        List<TrendingBook> trending = new ArrayList<>();
+        trending.add(new TrendingBook(2, "1h", 20, 5, 15));
+        trending.add(new TrendingBook(1, "1h", 3, 0, 3));
+
+        when(trendingBooks.trending(TrendingWindow.HOUR, 2)).thenReturn(trending);
+
+        this.mockMvc.perform(get("/reviews/trending")
+                .param("window", "1h")
+                .param("n", "2"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(mapper.writeValueAsString(trending)))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetTrendingBooksWithInvalidWindow() throws Exception {
+        this.mockMvc.perform(get("/reviews/trending")
+                .param("window", "2h"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andExpect(result -> assertEquals("The window provided is invalid, use 1h, 24h or 7d.",
+                        result.getResolvedException().getMessage()))
+                .andDo(print());
+    }
+}
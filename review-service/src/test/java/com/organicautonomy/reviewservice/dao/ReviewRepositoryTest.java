@@ -1,16 +1,27 @@
 package com.organicautonomy.reviewservice.dao;
 
 import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -19,6 +30,8 @@ import static org.junit.jupiter.api.Assertions.*;
 class ReviewRepositoryTest {
     @Autowired
     private ReviewRepository repository;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
     private Review review1, review2;
 
     @BeforeEach
@@ -63,4 +76,200 @@ class ReviewRepositoryTest {
 
         assertEquals(2, reviews.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testFindSummariesByRatingBucketBetween() {
+        review1 = repository.save(review1);
+        review2 = repository.save(review2);
+
+        Slice<ReviewSummary> reviews = repository.findSummariesByRatingBucketBetween((short) 400, (short) 500, PageRequest.of(0, 10));
+
+        assertEquals(1, reviews.getNumberOfElements());
+        assertEquals(review2.getId(), reviews.getContent().get(0).getId());
+        assertFalse(reviews.hasNext());
+    }
+
+    @Test
+    void testFindSummariesByBookIdAndRatingBucketBetween() {
+        review1 = repository.save(review1);
+        review2 = repository.save(review2);
+
+        Slice<ReviewSummary> reviews = repository.findSummariesByBookIdAndRatingBucketBetween(review1.getBookId(),
+                (short) 0, (short) 500, PageRequest.of(0, 10));
+
+        assertEquals(1, reviews.getNumberOfElements());
+        assertEquals(review1.getId(), reviews.getContent().get(0).getId());
+    }
+
+    @Test
+    void testFindSummariesByBookIdKeyset() {
+        Instant now = Instant.ofEpochMilli(1_600_000_000_000L);
+        Review older = new Review(3, 1, new BigDecimal("2.00"), "Older.");
+        older.setCreatedAt(now.minusSeconds(60));
+        review1.setCreatedAt(now);
+        Review sameInstant = new Review(4, 1, new BigDecimal("1.00"), "Same time.");
+        sameInstant.setCreatedAt(now);
+
+        older = repository.save(older);
+        review1 = repository.save(review1);
+        sameInstant = repository.save(sameInstant);
+
+        List<ReviewSummary> first = repository.findLatestSummariesByBookId(1, PageRequest.of(0, 2));
+        assertEquals(2, first.size());
+        assertEquals(sameInstant.getId(), first.get(0).getId());
+        assertEquals(review1.getId(), first.get(1).getId());
+
+        ReviewSummary last = first.get(1);
+        List<ReviewSummary> second = repository.findSummariesByBookIdBefore(1, last.getCreatedAt(), last.getId(), PageRequest.of(0, 2));
+        assertEquals(1, second.size());
+        assertEquals(older.getId(), second.get(0).getId());
+    }
+
+    @Test
+    void testFindSummariesByUserIdKeyset() {
+        review1 = repository.save(review1);
+        Review another = repository.save(new Review(1, 2, new BigDecimal("4.00"), "Another one."));
+
+        List<ReviewSummary> first = repository.findLatestSummariesByUserId(1, PageRequest.of(0, 1));
+        assertEquals(1, first.size());
+        assertEquals(another.getId(), first.get(0).getId());
+
+        List<ReviewSummary> second = repository.findSummariesByUserIdBefore(1, another.getCreatedAt(), another.getId(), PageRequest.of(0, 1));
+        assertEquals(1, second.size());
+        assertEquals(review1.getId(), second.get(0).getId());
+    }
+
+    @Test
+    void testFindSummariesByBookIdTruncatesText() {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 50; i++) {
+            text.append("Long review. ");
+        }
+        review1.setText(text.toString());
+        review1 = repository.save(review1);
+
+        List<ReviewSummary> summaries = repository.findSummariesByBookId(review1.getBookId());
+
+        assertEquals(1, summaries.size());
+        assertEquals(ReviewSummary.of(review1), summaries.get(0));
+        assertEquals(ReviewSummary.SNIPPET_LENGTH, summaries.get(0).getSnippet().length());
+    }
+
+    @Test
+    void testFindAllSummaries() {
+        review1 = repository.save(review1);
+        review2 = repository.save(review2);
+
+        List<ReviewSummary> summaries = repository.findAllSummaries();
+
+        assertEquals(2, summaries.size());
+    }
+
+    @Test
+    void testInsertAll() {
+        List<Review> batch = new ArrayList<>();
+        for (int i = 0; i < 120; i++) {
+            batch.add(new Review(i, 7, new BigDecimal("4.25"), "Imported review " + i + "."));
+        }
+
+        repository.insertAll(batch);
+        review1 = repository.save(review1);
+
+        assertEquals(121, repository.count());
+        assertEquals(121, repository.findAll().stream().map(Review::getId).distinct().count());
+
+        Review fromRepository = repository.findById(batch.get(42).getId()).get();
+        assertEquals(batch.get(42), fromRepository);
+        assertEquals(Short.valueOf((short) 425), fromRepository.getRatingBucket());
+        assertNotNull(fromRepository.getUpdatedAt());
+    }
+
+    @Test
+    void testInsertAllSharesIdsWithSaveAndSkipsDuplicates() {
+        List<Review> saved = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            saved.add(repository.save(new Review(100 + i, 8, new BigDecimal("3.00"), "Saved " + i + ".")));
+            ids.add(saved.get(i).getId());
+            List<Review> stored = repository.insertAll(Arrays.asList(
+                    new Review(200 + i, 8, new BigDecimal("4.00"), "Batched " + i + "."),
+                    new Review(100 + i, 8, new BigDecimal("5.00"), "Already reviewed."),
+                    new Review(300 + i, 8, new BigDecimal("2.00"), "Batched too.")));
+
+            assertNull(stored.get(1));
+            ids.add(stored.get(0).getId());
+            ids.add(stored.get(2).getId());
+        }
+
+        // one optimizer hands out the ids, so both paths draw from the same ascending run.
+        List<Integer> sorted = new ArrayList<>(ids);
+        Collections.sort(sorted);
+        assertEquals(sorted, ids);
+        assertEquals(9, repository.count());
+        assertEquals("Saved 1.", repository.findReviewByUserIdAndBookId(101, 8).getText());
+    }
+
+    @Test
+    void testSaveDuplicateUserAndBookFails() {
+        repository.save(review1);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.save(new Review(1, 1, new BigDecimal("5.00"), "Changed my mind.")));
+    }
+
+    @Test
+    void testUpdateReviewByUserIdAndBookId() {
+        review1 = repository.save(review1);
+
+        Instant now = review1.getUpdatedAt().plusSeconds(1);
+        int updated = repository.updateReviewByUserIdAndBookId(1, 1, new BigDecimal("4.50"), (short) 450, "Grew on me.", now);
+        Review fromRepository = repository.findReviewByUserIdAndBookId(1, 1);
+
+        assertEquals(1, updated);
+        assertEquals(review1.getId(), fromRepository.getId());
+        assertEquals(new BigDecimal("4.50"), fromRepository.getRating());
+        assertEquals(Short.valueOf((short) 450), fromRepository.getRatingBucket());
+        assertEquals("Grew on me.", fromRepository.getText());
+        assertEquals(review1.getCreatedAt(), fromRepository.getCreatedAt());
+        assertEquals(now, fromRepository.getUpdatedAt());
+        assertEquals(0, repository.updateReviewByUserIdAndBookId(9, 9, new BigDecimal("1.00"), (short) 100, "None.", now));
+    }
+
+    @Test
+    void testStreamActivitySince() {
+        Instant now = Instant.ofEpochMilli(1_600_000_000_000L);
+        review1.setCreatedAt(now.minusSeconds(60));
+        review2.setCreatedAt(now.minusSeconds(3600));
+        repository.save(review1);
+        repository.save(review2);
+
+        List<Object[]> rows = transactionTemplate.execute(status -> {
+            try (Stream<Object[]> activity = repository.streamActivitySince(now.minusSeconds(600))) {
+                return activity.collect(Collectors.toList());
+            }
+        });
+
+        assertEquals(1, rows.size());
+        assertEquals(review1.getId(), rows.get(0)[0]);
+        assertEquals(review1.getBookId(), rows.get(0)[1]);
+        assertEquals(review1.getCreatedAt(), rows.get(0)[2]);
+    }
+
+    @Test
+    void testStreamTextsUpdatedSince() {
+        repository.save(review1);
+        review2 = repository.save(review2);
+        Instant later = review2.getUpdatedAt().plusSeconds(60);
+        repository.updateReviewByUserIdAndBookId(2, 2, new BigDecimal("4.50"), (short) 450, "Even better the second time.", later);
+
+        List<Object[]> rows = transactionTemplate.execute(status -> {
+            try (Stream<Object[]> texts = repository.streamTextsUpdatedSince(later)) {
+                return texts.collect(Collectors.toList());
+            }
+        });
+
+        assertEquals(1, rows.size());
+        assertEquals(review2.getId(), rows.get(0)[0]);
+        assertEquals("Even better the second time.", rows.get(0)[2]);
+    }
+}
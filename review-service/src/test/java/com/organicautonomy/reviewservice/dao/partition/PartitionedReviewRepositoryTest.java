@@ -0,0 +1,213 @@
+package com.organicautonomy.reviewservice.dao.partition;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "reviews.partitions.count=4")
+@ExtendWith(SpringExtension.class)
+class PartitionedReviewRepositoryTest {
+    @Autowired
+    private ReviewRepository repository;
+    @Autowired
+    private ReviewPartitions partitions;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void testSaveRoutesByBookId() {
+        for (int bookId = 1; bookId <= 40; bookId++) {
+            repository.save(new Review(1, bookId, new BigDecimal("3.00"), "Fine."));
+        }
+
+        for (int partition = 0; partition < partitions.getCount(); partition++) {
+            List<Integer> books = jdbcTemplate.queryForList("SELECT book_id FROM " + ReviewPartitions.table(partition), Integer.class);
+            int p = partition;
+            assertFalse(books.isEmpty());
+            assertTrue(books.stream().allMatch(bookId -> partitions.partitionOf(bookId) == p));
+        }
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM review", Integer.class));
+        assertEquals(40, repository.count());
+    }
+
+    @Test
+    void testBookScopedQueriesUseOnePartition() {
+        Review saved = repository.save(new Review(1, 7, new BigDecimal("4.00"), "Good."));
+        repository.save(new Review(2, 7, new BigDecimal("2.00"), "Meh."));
+        repository.save(new Review(1, 8, new BigDecimal("5.00"), "Great."));
+
+        assertEquals(2, repository.findReviewsByBookId(7).size());
+        assertEquals(saved, repository.findReviewByUserIdAndBookId(1, 7));
+        assertEquals(1, repository.updateReviewByUserIdAndBookId(1, 7, new BigDecimal("1.00"), (short) 100, "Changed my mind.", Instant.now()));
+        assertEquals("Changed my mind.", repository.findById(saved.getId()).get().getText());
+    }
+
+    @Test
+    void testSaveCannotMoveAReviewToAnotherPartition() {
+        int bookId = 7;
+        int otherBookId = IntStream.rangeClosed(8, 100).filter(b -> partitions.partitionOf(b) != partitions.partitionOf(bookId))
+                .findFirst().getAsInt();
+        Review saved = repository.save(new Review(1, bookId, new BigDecimal("4.00"), "Good."));
+
+        // a PUT of the same review under a book that lives in another partition.
+        Review moved = new Review(saved);
+        moved.setBookId(otherBookId);
+        moved.setText("Moved.");
+        assertThrows(IllegalArgumentException.class, () -> repository.save(moved));
+
+        assertEquals(1, repository.count());
+        assertEquals(saved, repository.findById(saved.getId()).get());
+        assertNull(repository.findReviewByUserIdAndBookId(1, otherBookId));
+    }
+
+    @Test
+    void testUniqueReviewPerUserAndBook() {
+        repository.save(new Review(1, 7, new BigDecimal("4.00"), "Good."));
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> repository.save(new Review(1, 7, new BigDecimal("3.00"), "Again.")));
+    }
+
+    @Test
+    void testUserQueriesMergeAllPartitions() {
+        for (int bookId = 1; bookId <= 20; bookId++) {
+            repository.save(new Review(1, bookId, new BigDecimal("3.00"), "Fine."));
+            repository.save(new Review(2, bookId, new BigDecimal("3.00"), "Fine."));
+        }
+
+        assertEquals(20, repository.findReviewsByUserId(1).size());
+        assertEquals(20, repository.findSummariesByUserId(2).size());
+        assertEquals(40, repository.findAll().size());
+    }
+
+    @Test
+    void testFindLatestSummariesByUserIdMergesNewestFirst() {
+        Instant start = Instant.parse("2021-01-01T00:00:00Z");
+        List<Review> reviews = new ArrayList<>();
+        for (int bookId = 1; bookId <= 20; bookId++) {
+            Review review = new Review(1, bookId, new BigDecimal("3.00"), "Fine.");
+            review.setCreatedAt(start.plusSeconds(bookId));
+            reviews.add(review);
+        }
+        repository.insertAll(reviews);
+
+        List<ReviewSummary> latest = repository.findLatestSummariesByUserId(1, PageRequest.of(0, 5));
+        assertEquals(Arrays.asList(20, 19, 18, 17, 16), books(latest));
+
+        ReviewSummary last = latest.get(latest.size() - 1);
+        List<ReviewSummary> next = repository.findSummariesByUserIdBefore(1, last.getCreatedAt(), last.getId(), PageRequest.of(0, 5));
+        assertEquals(Arrays.asList(15, 14, 13, 12, 11), books(next));
+    }
+
+    @Test
+    void testRatingSliceMergesBySort() {
+        for (int bookId = 1; bookId <= 12; bookId++) {
+            repository.save(new Review(1, bookId, BigDecimal.valueOf(bookId * 25, 2), "Fine."));
+        }
+        Sort sort = Sort.by(Sort.Order.desc("ratingBucket"), Sort.Order.desc("id"));
+
+        Slice<ReviewSummary> first = repository.findSummariesByRatingBucketBetween((short) 0, (short) 500, PageRequest.of(0, 5, sort));
+        Slice<ReviewSummary> third = repository.findSummariesByRatingBucketBetween((short) 0, (short) 500, PageRequest.of(2, 5, sort));
+
+        assertEquals(Arrays.asList(12, 11, 10, 9, 8), books(first.getContent()));
+        assertTrue(first.hasNext());
+        assertEquals(Arrays.asList(2, 1), books(third.getContent()));
+        assertFalse(third.hasNext());
+    }
+
+    @Test
+    void testFindAllPageMergesAndCounts() {
+        for (int bookId = 1; bookId <= 12; bookId++) {
+            repository.save(new Review(1, bookId, new BigDecimal("3.00"), "Fine."));
+        }
+
+        Page<Review> second = repository.findAll(PageRequest.of(1, 5, Sort.by("bookId")));
+
+        assertEquals(Arrays.asList(6, 7, 8, 9, 10), second.getContent().stream().map(Review::getBookId).collect(Collectors.toList()));
+        assertEquals(12, second.getTotalElements());
+        assertEquals(3, second.getTotalPages());
+        assertTrue(second.hasNext());
+        // any other page has no count to fan out and is refused up front.
+        assertThrows(UnsupportedOperationException.class, () -> ReviewRepositoryRouter.checkPages(PagedByUser.class));
+    }
+
+    @Test
+    void testInsertAllKeepsArgumentOrder() {
+        List<Review> reviews = new ArrayList<>();
+        for (int bookId = 1; bookId <= 30; bookId++) {
+            reviews.add(new Review(bookId, bookId, new BigDecimal("3.00"), "Fine."));
+        }
+
+        List<Review> inserted = repository.insertAll(reviews);
+
+        assertEquals(IntStream.rangeClosed(1, 30).boxed().collect(Collectors.toList()),
+                inserted.stream().map(Review::getBookId).collect(Collectors.toList()));
+        assertEquals(30, inserted.stream().map(Review::getId).distinct().count());
+        assertEquals(30, repository.count());
+    }
+
+    @Test
+    void testStreamsReadEveryPartitionInOneTransaction() {
+        for (int bookId = 1; bookId <= 20; bookId++) {
+            repository.save(new Review(1, bookId, new BigDecimal("3.00"), "Fine."));
+        }
+
+        long streamed = transactionTemplate.execute(status -> {
+            try (Stream<Object[]> rows = repository.streamRatingColumns()) {
+                return rows.count();
+            }
+        });
+        assertEquals(20, streamed);
+    }
+
+    @Test
+    void testDeleteById() {
+        Review saved = repository.save(new Review(1, 7, new BigDecimal("4.00"), "Good."));
+
+        repository.deleteById(saved.getId());
+
+        assertFalse(repository.existsById(saved.getId()));
+        assertThrows(EmptyResultDataAccessException.class, () -> repository.deleteById(saved.getId()));
+    }
+
+    private static List<Integer> books(List<ReviewSummary> summaries) {
+        return summaries.stream().map(ReviewSummary::getBookId).collect(Collectors.toList());
+    }
+
+    interface PagedByUser extends ReviewRepository {
+        Page<Review> findByUserId(int userId, Pageable pageable);
+    }
+}
@@ -0,0 +1,105 @@
+package com.organicautonomy.reviewservice.util.analytics;
+
+import com.organicautonomy.reviewservice.dto.RatingDistribution;
+import com.organicautonomy.reviewservice.dto.RatingStats;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewColumnStoreTest {
+    private ReviewColumnStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ReviewColumnStore();
+        store.upsert(1, 1, 10, (short) 310);
+        store.upsert(2, 2, 10, (short) 480);
+        store.upsert(3, 1, 11, (short) 500);
+    }
+
+    @Test
+    void testAggregate() {
+        RatingStats stats = store.aggregate(ReviewFilter.all());
+
+        assertEquals(new RatingStats(null, 3, new BigDecimal("4.30"), new BigDecimal("3.10"), new BigDecimal("5.00")), stats);
+    }
+
+    @Test
+    void testAggregateWithFilter() {
+        RatingStats stats = store.aggregate(new ReviewFilter(10, null, (short) 400, ReviewFilter.MAX_RATING));
+
+        assertEquals(new RatingStats(null, 1, new BigDecimal("4.80"), new BigDecimal("4.80"), new BigDecimal("4.80")), stats);
+    }
+
+    @Test
+    void testAggregateWithNoMatches() {
+        RatingStats stats = store.aggregate(new ReviewFilter(99, null, ReviewFilter.MIN_RATING, ReviewFilter.MAX_RATING));
+
+        assertEquals(0, stats.getCount());
+        assertNull(stats.getAverage());
+    }
+
+    @Test
+    void testHistogram() {
+        RatingDistribution distribution = store.histogram(ReviewFilter.all(), 100);
+
+        assertEquals(3, distribution.getTotal());
+        assertArrayEquals(new long[]{0, 0, 0, 1, 2}, distribution.getCounts());
+    }
+
+    @Test
+    void testGroupBy() {
+        List<RatingStats> byBook = store.groupBy(ReviewColumnStore.Column.BOOK, ReviewFilter.all());
+
+        assertEquals(2, byBook.size());
+        assertEquals(new RatingStats(10, 2, new BigDecimal("3.95"), new BigDecimal("3.10"), new BigDecimal("4.80")), byBook.get(0));
+        assertEquals(new RatingStats(11, 1, new BigDecimal("5.00"), new BigDecimal("5.00"), new BigDecimal("5.00")), byBook.get(1));
+
+        List<RatingStats> byUser = store.groupBy(ReviewColumnStore.Column.USER, ReviewFilter.all());
+        assertEquals(2, byUser.get(0).getCount());
+    }
+
+    @Test
+    void testRemoveKeepsColumnsDense() {
+        assertTrue(store.remove(1));
+        assertFalse(store.remove(1));
+
+        assertEquals(2, store.size());
+        assertEquals(new BigDecimal("4.90"), store.aggregate(ReviewFilter.all()).getAverage());
+
+        store.upsert(3, 1, 11, (short) 100);
+        assertEquals(new BigDecimal("2.90"), store.aggregate(ReviewFilter.all()).getAverage());
+    }
+
+    @Test
+    void testOnReviewEvent() {
+        Review review = new Review(4, 3, 12, new BigDecimal("2.00"), "Meh.");
+        store.onReviewEvent(ReviewEvent.created(review));
+        assertEquals(4, store.size());
+
+        Review updated = new Review(4, 3, 12, new BigDecimal("4.00"), "Better on a reread.");
+        store.onReviewEvent(ReviewEvent.updated(review, updated));
+        assertEquals(new BigDecimal("4.00"), store.aggregate(new ReviewFilter(12, null, ReviewFilter.MIN_RATING, ReviewFilter.MAX_RATING)).getAverage());
+
+        store.onReviewEvent(ReviewEvent.deleted(updated));
+        assertEquals(3, store.size());
+    }
+
+    @Test
+    void testOnReviewBatch() {
+        store.onReviewBatch(new ReviewBatchEvent(Arrays.asList(
+                new Review(4, 3, 12, new BigDecimal("2.00"), "Meh."),
+                new Review(5, 4, 12, new BigDecimal("4.00"), "Good."))));
+
+        assertEquals(5, store.size());
+        assertEquals(new BigDecimal("3.00"), store.aggregate(new ReviewFilter(12, null, ReviewFilter.MIN_RATING, ReviewFilter.MAX_RATING)).getAverage());
+    }
+}
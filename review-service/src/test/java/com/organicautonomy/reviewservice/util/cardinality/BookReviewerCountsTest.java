@@ -0,0 +1,125 @@
+package com.organicautonomy.reviewservice.util.cardinality;
+
+import com.organicautonomy.reviewservice.dao.BookReviewersRepository;
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.AutowireCapableBeanFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class BookReviewerCountsTest {
+    @Autowired
+    private ReviewRepository repository;
+    @Autowired
+    private BookReviewersRepository bookReviewersRepository;
+    @Autowired
+    private AutowireCapableBeanFactory beanFactory;
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private BookReviewerCounts reviewerCounts;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        bookReviewersRepository.deleteAll();
+
+        reviewerCounts = newReviewerCounts();
+    }
+
+    @Test
+    void testUnionAcrossBooks() {
+        reviewerCounts.record(1, 10);
+        reviewerCounts.record(2, 10);
+        reviewerCounts.record(2, 11);
+        reviewerCounts.record(3, 11);
+
+        assertEquals(2, reviewerCounts.count(10));
+        assertEquals(3, reviewerCounts.union(Arrays.asList(10, 11)).estimate());
+        assertEquals(0, reviewerCounts.count(12));
+    }
+
+    @Test
+    void testOnReviewEvent() {
+        Review review = new Review(5, 1, 10, new BigDecimal("4.00"), "Good.");
+
+        reviewerCounts.onReviewEvent(ReviewEvent.created(review));
+        reviewerCounts.onReviewEvent(ReviewEvent.deleted(review));
+
+        assertEquals(1, reviewerCounts.count(10));
+    }
+
+    @Test
+    void testRestartReplaysOnlyNewReviews() {
+        Review first = repository.save(new Review(1, 10, new BigDecimal("4.00"), "Good."));
+        Review second = repository.save(new Review(2, 10, new BigDecimal("3.00"), "Fine."));
+        load(reviewerCounts);
+        reviewerCounts.flush();
+
+        assertEquals(1, bookReviewersRepository.count());
+        assertNotNull(bookReviewersRepository.findById(10).get().getFlushedAt());
+
+        // written after the flush, only this one comes from the review table on restart.
+        repository.save(new Review(3, 10, new BigDecimal("5.00"), "Great."));
+        repository.delete(first);
+
+        BookReviewerCounts restarted = newReviewerCounts(0);
+        load(restarted);
+
+        assertEquals(3, restarted.count(10));
+        assertEquals(0, restarted.count(11));
+    }
+
+    @Test
+    void testRestartCatchesUpReviewsWithOlderIds() {
+        Review first = repository.save(new Review(1, 10, new BigDecimal("4.00"), "Good."));
+        repository.save(new Review(2, 10, new BigDecimal("3.00"), "Fine."));
+        load(reviewerCounts);
+        reviewerCounts.flush();
+
+        // after the flush: the older review moves to another user, and a review with an id below the
+        // newest one commits with its update time still inside the overlap.
+        first.setUserId(3);
+        repository.save(first);
+        Timestamp committing = Timestamp.from(bookReviewersRepository.findById(10).get().getFlushedAt().minusMillis(500));
+        jdbcTemplate.update("INSERT INTO review (id, user_id, book_id, rating, rating_bucket, text, created_at, updated_at) "
+                + "VALUES (?, 4, 10, 5.00, 10, 'Late.', ?, ?)", first.getId() - 1, committing, committing);
+
+        BookReviewerCounts restarted = newReviewerCounts(1000);
+        load(restarted);
+
+        assertEquals(4, restarted.count(10));
+    }
+
+    // built by hand rather than proxied, so the streaming load needs a transaction from here.
+    private void load(BookReviewerCounts counts) {
+        transactionTemplate.executeWithoutResult(status -> counts.load());
+    }
+
+    private BookReviewerCounts newReviewerCounts() {
+        return newReviewerCounts(60_000);
+    }
+
+    private BookReviewerCounts newReviewerCounts(long catchUpOverlapMs) {
+        BookReviewerCounts counts = new BookReviewerCounts(12, catchUpOverlapMs);
+        beanFactory.autowireBean(counts);
+        return counts;
+    }
+}
@@ -0,0 +1,80 @@
+package com.organicautonomy.reviewservice.util.cardinality;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HyperLogLogTest {
+
+    @Test
+    void testSmallCardinalitiesAreNearlyExact() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int user = 1; user <= 100; user++) {
+            sketch.add(user);
+            sketch.add(user);
+        }
+
+        assertTrue(sketch.isSparse());
+        assertEquals(100, sketch.estimate(), 2);
+    }
+
+    @Test
+    void testEstimateWithinErrorBound() {
+        HyperLogLog sketch = new HyperLogLog(12);
+        for (int user = 0; user < 1_000_000; user++) {
+            sketch.add(user);
+        }
+
+        assertFalse(sketch.isSparse());
+        // three standard errors.
+        double error = Math.abs(sketch.estimate() - 1_000_000) / 1_000_000.0;
+        assertTrue(error < 3 * HyperLogLog.relativeStandardError(12), "error was " + error);
+    }
+
+    @Test
+    void testMergeIsTheUnion() {
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        HyperLogLog both = new HyperLogLog(12);
+        for (int user = 0; user < 30_000; user++) {
+            first.add(user);
+            both.add(user);
+        }
+        for (int user = 20_000; user < 50_000; user++) {
+            second.add(user);
+            both.add(user);
+        }
+
+        HyperLogLog union = new HyperLogLog(first);
+        union.merge(second);
+
+        assertArrayEquals(both.toBytes(), union.toBytes());
+        assertEquals(30_000, first.estimate(), 30_000 * 3 * HyperLogLog.relativeStandardError(12));
+    }
+
+    @Test
+    void testMergeRejectsOtherPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(12).merge(new HyperLogLog(10)));
+    }
+
+    @Test
+    void testBytesRoundTrip() {
+        HyperLogLog sparse = new HyperLogLog(10);
+        HyperLogLog dense = new HyperLogLog(10);
+        for (int user = 0; user < 10; user++) {
+            sparse.add(user);
+        }
+        for (int user = 0; user < 10_000; user++) {
+            dense.add(user);
+        }
+
+        HyperLogLog sparseCopy = HyperLogLog.fromBytes(sparse.toBytes());
+        HyperLogLog denseCopy = HyperLogLog.fromBytes(dense.toBytes());
+
+        assertTrue(sparseCopy.isSparse());
+        assertEquals(sparse.estimate(), sparseCopy.estimate());
+        assertFalse(denseCopy.isSparse());
+        assertArrayEquals(dense.toBytes(), denseCopy.toBytes());
+        assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(new byte[]{10, 7}));
+    }
+}
@@ -0,0 +1,64 @@
+package com.organicautonomy.reviewservice.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IntIntHashMapTest {
+
+    @Test
+    void testPutGetRemove() {
+        IntIntHashMap map = new IntIntHashMap();
+
+        assertEquals(IntIntHashMap.MISSING, map.put(1, 10));
+        assertEquals(10, map.put(1, 11));
+        assertEquals(11, map.get(1));
+        assertEquals(IntIntHashMap.MISSING, map.get(2));
+        assertEquals(11, map.remove(1));
+        assertEquals(IntIntHashMap.MISSING, map.get(1));
+        assertTrue(map.isEmpty());
+    }
+
+    @Test
+    void testAddTo() {
+        IntIntHashMap map = new IntIntHashMap();
+
+        assertEquals(3, map.addTo(7, 3));
+        assertEquals(1, map.addTo(7, -2));
+        assertEquals(1, map.get(7));
+    }
+
+    @Test
+    void testMatchesHashMapUnderRandomOperations() {
+        IntIntHashMap map = new IntIntHashMap(4);
+        Map<Integer, Integer> expected = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            int key = random.nextInt(5_000) - 2_500;
+            if (random.nextInt(3) == 0) {
+                Integer removed = expected.remove(key);
+                assertEquals(removed == null ? IntIntHashMap.MISSING : removed, map.remove(key));
+            } else {
+                int value = random.nextInt(1_000);
+                Integer previous = expected.put(key, value);
+                assertEquals(previous == null ? IntIntHashMap.MISSING : previous, map.put(key, value));
+            }
+        }
+
+        assertEquals(expected.size(), map.size());
+        expected.forEach((key, value) -> assertEquals(value, map.get(key)));
+        map.forEach((key, value) -> assertEquals(expected.get(key), value));
+    }
+
+    @Test
+    void testReservedKey() {
+        IntIntHashMap map = new IntIntHashMap();
+
+        assertThrows(IllegalArgumentException.class, () -> map.put(Integer.MIN_VALUE, 1));
+    }
+}
@@ -0,0 +1,56 @@
+package com.organicautonomy.reviewservice.util.collection;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LongHashSetTest {
+
+    @Test
+    void testAddContainsRemove() {
+        LongHashSet set = new LongHashSet();
+
+        assertTrue(set.add(1L << 40));
+        assertFalse(set.add(1L << 40));
+        assertTrue(set.contains(1L << 40));
+        assertFalse(set.contains(1L));
+        assertTrue(set.remove(1L << 40));
+        assertFalse(set.remove(1L << 40));
+        assertTrue(set.isEmpty());
+    }
+
+    @Test
+    void testReservedValue() {
+        LongHashSet set = new LongHashSet();
+
+        assertThrows(IllegalArgumentException.class, () -> set.add(Long.MIN_VALUE));
+    }
+
+    @Test
+    void testMatchesHashSetUnderRandomOperations() {
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 100_000; i++) {
+            long value = ((long) random.nextInt(100) << 32) | random.nextInt(100);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+        }
+
+        assertEquals(expected.size(), set.size());
+        for (long value : expected) {
+            assertTrue(set.contains(value));
+        }
+
+        set.clear();
+        assertTrue(set.isEmpty());
+    }
+}
@@ -0,0 +1,51 @@
+package com.organicautonomy.reviewservice.util.dedupe;
+
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewKeyIndexTest {
+
+    @Test
+    void testKeyKeepsUserAndBookApart() {
+        assertNotEquals(ReviewKeyIndex.key(1, 2), ReviewKeyIndex.key(2, 1));
+        assertNotEquals(ReviewKeyIndex.key(0, -1), ReviewKeyIndex.key(-1, 0));
+    }
+
+    @Test
+    void testTracksReviewEvents() {
+        ReviewKeyIndex index = new ReviewKeyIndex();
+        Review review = new Review(1, 1, 2, new BigDecimal("3.00"), "Fine.");
+        Review moved = new Review(1, 1, 3, new BigDecimal("3.00"), "Fine.");
+
+        index.onReviewEvent(ReviewEvent.created(review));
+        assertTrue(index.contains(1, 2));
+        assertFalse(index.contains(2, 1));
+
+        index.onReviewEvent(ReviewEvent.updated(review, moved));
+        assertFalse(index.contains(1, 2));
+        assertTrue(index.contains(1, 3));
+
+        index.onReviewEvent(ReviewEvent.deleted(moved));
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void testTracksBatches() {
+        ReviewKeyIndex index = new ReviewKeyIndex();
+
+        index.onReviewBatch(new ReviewBatchEvent(Arrays.asList(
+                new Review(1, 1, 1, new BigDecimal("3.00"), "One."),
+                new Review(2, 2, 1, new BigDecimal("4.00"), "Two."))));
+
+        assertTrue(index.contains(1, 1));
+        assertTrue(index.contains(2, 1));
+        assertEquals(2, index.size());
+    }
+}
@@ -0,0 +1,174 @@
+package com.organicautonomy.reviewservice.util.eventlog;
+
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReviewEventLogTest {
+    private static final int SEGMENT_SIZE = 1 << 16;
+
+    @Test
+    void testReplayReturnsEventsInOrder(@TempDir Path directory) throws IOException {
+        ReviewEventLog log = new ReviewEventLog(directory, SEGMENT_SIZE);
+        Review review = review(1, 10, 100, "3.50", "Solid read.");
+        Review updated = review(1, 10, 100, "4.25", "Better the second time.");
+
+        log.onReviewEvent(ReviewEvent.created(review));
+        log.onReviewEvent(ReviewEvent.updated(review, updated));
+        log.onReviewEvent(ReviewEvent.deleted(updated));
+
+        List<String> replayed = new ArrayList<>();
+        long sequence = log.replay(entry -> replayed.add(entry.getSequence() + " " + entry.getType() + " " + entry.getReviewId()
+                + " " + entry.getUserId() + " " + entry.getBookId() + " " + entry.getRating() + " " + entry.getText()));
+
+        assertEquals(3, sequence);
+        assertEquals(Arrays.asList("1 CREATED 1 10 100 3.50 Solid read.", "2 UPDATED 1 10 100 4.25 Better the second time.",
+                "3 DELETED 1 10 100 4.25 Better the second time."), replayed);
+    }
+
+    @Test
+    void testSnapshotCompactsLiveReviews(@TempDir Path directory) throws IOException {
+        ReviewEventLog log = new ReviewEventLog(directory, SEGMENT_SIZE);
+        Review second = review(2, 20, 100, "2.00", "Meh.");
+        log.onReviewBatch(new ReviewBatchEvent(Arrays.asList(review(1, 10, 100, "3.00", "Fine."), second,
+                review(3, 30, 200, "5.00", "Loved it."))));
+        log.onReviewEvent(ReviewEvent.updated(second, review(2, 20, 100, "2.50", "Grew on me.")));
+        log.onReviewEvent(ReviewEvent.deleted(review(3, 30, 200, "5.00", "Loved it.")));
+
+        log.snapshot();
+        log.onReviewEvent(ReviewEvent.created(review(4, 40, 300, "1.00", "Not for me.")));
+
+        List<String> replayed = new ArrayList<>();
+        assertEquals(6, log.replay(entry -> replayed.add(entry.getType() + " " + entry.getReviewId() + " "
+                + entry.getRating() + " " + entry.isFromSnapshot())));
+        assertEquals(Arrays.asList("CREATED 1 3.00 true", "CREATED 2 2.50 true", "CREATED 4 1.00 false"), replayed);
+    }
+
+    @Test
+    void testSnapshotMergesPreviousSnapshot(@TempDir Path directory) throws IOException {
+        ReviewEventLog log = new ReviewEventLog(directory, SEGMENT_SIZE);
+        for (int id = 1; id <= 5; id++) {
+            log.onReviewEvent(ReviewEvent.created(review(id, id, id, "3.00", "Fine.")));
+        }
+        log.snapshot();
+        log.onReviewEvent(ReviewEvent.deleted(review(2, 2, 2, "3.00", "Fine.")));
+        log.onReviewEvent(ReviewEvent.created(review(6, 6, 6, "3.00", "Fine.")));
+        log.snapshot();
+        log.onReviewEvent(ReviewEvent.deleted(review(4, 4, 4, "3.00", "Fine.")));
+        log.snapshot();
+
+        assertEquals(Arrays.asList(1, 3, 5, 6), replayIds(log));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(2, files.filter(path -> path.toString().endsWith(".snap")).count());
+        }
+    }
+
+    @Test
+    void testReopenRecoversSequenceAndDropsTornRecord(@TempDir Path directory) throws IOException {
+        ReviewEventLog log = new ReviewEventLog(directory, SEGMENT_SIZE);
+        for (int id = 1; id <= 3; id++) {
+            log.onReviewEvent(ReviewEvent.created(review(id, id, id, "3.00", "Review " + id + ".")));
+        }
+        log.close();
+
+        // flip a text byte of the last record, as if the process died while writing it.
+        Path segment;
+        try (Stream<Path> files = Files.list(directory)) {
+            segment = files.filter(path -> path.toString().endsWith(".log")).findFirst().get();
+        }
+        int lastRecord = 2 * (LogSegment.HEADER + "Review 1.".length());
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[]{'X'}), lastRecord + LogSegment.HEADER);
+        }
+
+        ReviewEventLog reopened = new ReviewEventLog(directory, SEGMENT_SIZE);
+        assertEquals(2, reopened.getSequence());
+        reopened.onReviewEvent(ReviewEvent.created(review(4, 4, 4, "3.00", "Review 4.")));
+
+        assertEquals(Arrays.asList(1, 2, 4), replayIds(reopened));
+        assertEquals(3, reopened.getSequence());
+    }
+
+    @Test
+    void testSegmentsRollOver(@TempDir Path directory) throws IOException {
+        ReviewEventLog log = new ReviewEventLog(directory, 256);
+        List<Review> reviews = new ArrayList<>();
+        for (int id = 1; id <= 50; id++) {
+            reviews.add(review(id, id, id, "3.00", "A review long enough to fill a small segment quickly."));
+        }
+        log.onReviewBatch(new ReviewBatchEvent(reviews));
+        log.snapshot();
+        log.onReviewEvent(ReviewEvent.created(review(51, 51, 51, "3.00", "Last.")));
+
+        try (Stream<Path> files = Files.list(directory)) {
+            assertTrue(files.filter(path -> path.toString().endsWith(".log")).count() > 10);
+        }
+        assertEquals(51, replayIds(log).size());
+        assertEquals(51, replayIds(new ReviewEventLog(directory, 256)).size());
+    }
+
+    @Test
+    void testFailedAppendsAreCountedNotThrown(@TempDir Path directory) throws IOException {
+        ReviewEventLog log = new ReviewEventLog(directory, SEGMENT_SIZE);
+        // the first segment's file name is taken, so opening it fails.
+        Path blocked = Files.createDirectory(directory.resolve(String.format("events-%020d.log", 1)));
+
+        log.onReviewEvent(ReviewEvent.created(review(1, 10, 100, "3.00", "Fine.")));
+        log.onReviewBatch(new ReviewBatchEvent(Arrays.asList(review(2, 20, 100, "4.00", "Good."), review(3, 30, 100, "5.00", "Great."))));
+
+        assertEquals(3, log.getDroppedEvents());
+        assertEquals(0, log.getSequence());
+
+        Files.delete(blocked);
+        log.onReviewEvent(ReviewEvent.created(review(4, 40, 100, "2.00", "Meh.")));
+        assertEquals(1, log.getSequence());
+        assertEquals(Arrays.asList(4), replayIds(log));
+    }
+
+    @Test
+    void testDisabledLogIgnoresEvents() throws IOException {
+        ReviewEventLog log = new ReviewEventLog("", 64);
+
+        log.onReviewEvent(ReviewEvent.created(review(1, 1, 1, "3.00", "Fine.")));
+        log.snapshot();
+
+        assertFalse(log.isEnabled());
+        assertThrows(IllegalStateException.class, () -> log.replay(entry -> { }));
+    }
+
+    private static List<Integer> replayIds(ReviewEventLog log) throws IOException {
+        List<Integer> ids = new ArrayList<>();
+        log.replay(entry -> {
+            if (entry.getType() == ReviewEvent.Type.DELETED) {
+                ids.remove(Integer.valueOf(entry.getReviewId()));
+            } else if (!ids.contains(entry.getReviewId())) {
+                ids.add(entry.getReviewId());
+            }
+        });
+        return ids.stream().sorted().collect(Collectors.toList());
+    }
+
+    private static Review review(int id, int userId, int bookId, String rating, String text) {
+        Review review = new Review(id, userId, bookId, new BigDecimal(rating), text);
+        review.setCreatedAt(Instant.parse("2021-03-01T12:00:00Z"));
+        return review;
+    }
+}
@@ -0,0 +1,94 @@
+package com.organicautonomy.reviewservice.util.export;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit.jupiter.SpringExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ExtendWith(SpringExtension.class)
+class ReviewExporterTest {
+    private static final Instant NOW = Instant.ofEpochMilli(1_600_000_000_000L);
+
+    @Autowired
+    private ReviewRepository repository;
+    @Autowired
+    private ReviewExporter exporter;
+    @Autowired
+    private ObjectMapper mapper;
+
+    private Review review1, review2;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+
+        review1 = new Review(1, 1, new BigDecimal("3.10"), "Said \"meh\",\nthen\tleft.");
+        review1.setCreatedAt(NOW.minusSeconds(3600));
+        review2 = new Review(2, 2, new BigDecimal("4.00"), "Great book.");
+        review2.setCreatedAt(NOW);
+        review1 = repository.save(review1);
+        review2 = repository.save(review2);
+    }
+
+    @Test
+    void testExportNdjson() throws Exception {
+        String[] lines = export(ExportFormat.NDJSON, null, null).split("\n");
+
+        assertEquals(2, lines.length);
+        JsonNode first = mapper.readTree(lines[0]);
+        assertEquals(review1.getId().intValue(), first.get("id").asInt());
+        assertEquals(1, first.get("bookId").asInt());
+        assertTrue(lines[0].contains("\"rating\":3.10,"));
+        assertEquals(review1.getCreatedAt().toString(), first.get("createdAt").asText());
+        assertEquals(review1.getText(), first.get("text").asText());
+    }
+
+    @Test
+    void testExportCsv() throws Exception {
+        String csv = export(ExportFormat.CSV, null, null);
+
+        assertEquals("id,userId,bookId,rating,createdAt,text\r\n"
+                + review1.getId() + ",1,1,3.10," + review1.getCreatedAt() + ",\"Said \"\"meh\"\",\nthen\tleft.\"\r\n"
+                + review2.getId() + ",2,2,4.00," + review2.getCreatedAt() + ",\"Great book.\"\r\n", csv);
+    }
+
+    @Test
+    void testExportWithFilters() throws Exception {
+        assertEquals(1, export(ExportFormat.NDJSON, 2, null).split("\n").length);
+        assertEquals(1, export(ExportFormat.NDJSON, null, NOW.minusSeconds(60)).split("\n").length);
+        assertEquals("", export(ExportFormat.NDJSON, 1, NOW.minusSeconds(60)));
+    }
+
+    @Test
+    void testExportLongText() throws Exception {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 100_000; i++) {
+            text.append("Chapter ").append(i).append(" dragged. ");
+        }
+        repository.save(new Review(3, 3, new BigDecimal("1.00"), text.toString()));
+
+        String[] lines = export(ExportFormat.NDJSON, 3, null).split("\n");
+
+        assertEquals(text.toString(), mapper.readTree(lines[0]).get("text").asText());
+    }
+
+    private String export(ExportFormat format, Integer bookId, Instant since) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(format, bookId, since, out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,121 @@
+package com.organicautonomy.reviewservice.util.leaderboard;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.BookScore;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BookLeaderboardTest {
+    private BookLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new BookLeaderboard(3.0, 10);
+    }
+
+    @Test
+    void testSmoothingFavorsMoreReviews() {
+        // one perfect review against many very good ones.
+        leaderboard.add(1, 500);
+        for (int i = 0; i < 50; i++) {
+            leaderboard.add(2, 450);
+        }
+
+        List<BookScore> top = leaderboard.top(2, 0);
+
+        assertEquals(2, top.get(0).getBookId());
+        assertEquals(new BookScore(1, 1, new BigDecimal("5.00"), new BigDecimal("3.182")), top.get(1));
+    }
+
+    @Test
+    void testTopWithMinReviews() {
+        leaderboard.add(1, 500);
+        leaderboard.add(2, 300);
+        leaderboard.add(2, 300);
+
+        List<BookScore> top = leaderboard.top(10, 2);
+
+        assertEquals(1, top.size());
+        assertEquals(2, top.get(0).getBookId());
+    }
+
+    @Test
+    void testTopLimitsResults() {
+        for (int book = 1; book <= 20; book++) {
+            leaderboard.add(book, book * 20);
+        }
+
+        List<BookScore> top = leaderboard.top(3, 0);
+
+        assertEquals(3, top.size());
+        assertEquals(20, top.get(0).getBookId());
+        assertEquals(19, top.get(1).getBookId());
+        assertEquals(18, top.get(2).getBookId());
+    }
+
+    @Test
+    void testOnReviewEvent() {
+        Review review = new Review(1, 1, 7, new BigDecimal("1.00"), "Not for me.");
+        leaderboard.onReviewEvent(ReviewEvent.created(review));
+        leaderboard.add(8, 200);
+        assertEquals(8, leaderboard.top(1, 0).get(0).getBookId());
+
+        Review updated = new Review(1, 1, 7, new BigDecimal("5.00"), "Changed my mind.");
+        leaderboard.onReviewEvent(ReviewEvent.updated(review, updated));
+        assertEquals(7, leaderboard.top(1, 0).get(0).getBookId());
+
+        leaderboard.onReviewEvent(ReviewEvent.deleted(updated));
+        assertEquals(1, leaderboard.size());
+        assertEquals(8, leaderboard.top(1, 0).get(0).getBookId());
+    }
+
+    @Test
+    void testOnReviewBatch() {
+        leaderboard.onReviewBatch(new ReviewBatchEvent(Arrays.asList(
+                new Review(1, 1, 7, new BigDecimal("4.00"), "Good."),
+                new Review(2, 2, 7, new BigDecimal("5.00"), "Great."),
+                new Review(3, 3, 8, new BigDecimal("1.00"), "Bad."))));
+
+        List<BookScore> top = leaderboard.top(2, 0);
+
+        assertEquals(new BookScore(7, 2, new BigDecimal("4.50"), new BigDecimal("3.250")), top.get(0));
+        assertEquals(8, top.get(1).getBookId());
+    }
+
+    @Test
+    void testLoadCountsReviewsWrittenDuringItOnce() {
+        ReviewRepository repository = mock(ReviewRepository.class);
+        ReflectionTestUtils.setField(leaderboard, "repository", repository);
+        Review first = new Review(1, 1, 7, new BigDecimal("4.00"), "Good.");
+        Review second = new Review(2, 2, 7, new BigDecimal("2.00"), "Meh.");
+
+        // the first review is edited after the load read it, the second is created just before the load reads it.
+        when(repository.streamRatingColumns()).thenReturn(Stream.of(
+                new Object[]{1, 1, 7, (short) 400},
+                new Object[]{2, 2, 7, (short) 200})
+                .peek(row -> {
+                    if ((Integer) row[0] == 2) {
+                        leaderboard.onReviewEvent(ReviewEvent.updated(first, new Review(1, 1, 7, new BigDecimal("5.00"), "Great.")));
+                        leaderboard.onReviewEvent(ReviewEvent.created(second));
+                    }
+                }));
+
+        leaderboard.load();
+        leaderboard.onReviewEvent(ReviewEvent.created(new Review(3, 3, 7, new BigDecimal("3.00"), "Fine.")));
+
+        assertEquals(new BookScore(7, 3, new BigDecimal("3.33"), new BigDecimal("3.077")), leaderboard.top(1, 0).get(0));
+    }
+}
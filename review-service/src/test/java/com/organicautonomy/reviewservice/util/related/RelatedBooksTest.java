@@ -0,0 +1,103 @@
+package com.organicautonomy.reviewservice.util.related;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.RelatedBook;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class RelatedBooksTest {
+    private RelatedBooks relatedBooks;
+
+    @BeforeEach
+    void setUp() {
+        relatedBooks = new RelatedBooks(RelatedBooks.MAX_K);
+    }
+
+    @Test
+    void testRanksByRatingWeightedCoReviews() {
+        // book 2 is co-reviewed once with high ratings, book 3 twice with low ones.
+        relatedBooks.onReviewBatch(new ReviewBatchEvent(Arrays.asList(
+                review(1, 1, "5.00"), review(1, 2, "5.00"),
+                review(2, 1, "2.00"), review(2, 3, "2.00"),
+                review(3, 1, "2.00"), review(3, 3, "3.00"))));
+
+        List<RelatedBook> related = relatedBooks.related(1, 10);
+
+        assertEquals(Arrays.asList(new RelatedBook(2, new BigDecimal("25.00")), new RelatedBook(3, new BigDecimal("10.00"))),
+                related);
+        assertEquals(new RelatedBook(1, new BigDecimal("10.00")), relatedBooks.related(3, 1).get(0));
+    }
+
+    @Test
+    void testUpdatesAndDeletesAdjustWeights() {
+        Review first = review(1, 1, "4.00");
+        Review second = review(1, 2, "5.00");
+        relatedBooks.onReviewEvent(ReviewEvent.created(first));
+        relatedBooks.onReviewEvent(ReviewEvent.created(second));
+        assertEquals(new BigDecimal("20.00"), relatedBooks.related(1, 1).get(0).getScore());
+
+        Review changed = review(1, 2, "1.00");
+        relatedBooks.onReviewEvent(ReviewEvent.updated(second, changed));
+        assertEquals(new BigDecimal("4.00"), relatedBooks.related(1, 1).get(0).getScore());
+
+        relatedBooks.onReviewEvent(ReviewEvent.deleted(changed));
+        assertTrue(relatedBooks.related(1, 10).isEmpty());
+        assertEquals(0, relatedBooks.cells());
+    }
+
+    @Test
+    void testRowsArePrunedToCapacity() {
+        // one user reviewed book 1 and 200 others, rated higher the larger the book id.
+        CoReviewMatrix matrix = new CoReviewMatrix(100, 10);
+        matrix.put(1, 1, 500);
+        for (int book = 2; book <= 201; book++) {
+            matrix.put(1, book, 100 + book);
+        }
+
+        List<RelatedBook> related = matrix.related(1, 10);
+
+        assertEquals(201, related.get(0).getBookId());
+        assertEquals(10, related.size());
+        assertTrue(matrix.cells() <= 201 * 100);
+    }
+
+    @Test
+    void testRebuildReplaysChangesMadeWhileStreaming() {
+        ReviewRepository repository = mock(ReviewRepository.class);
+        ReflectionTestUtils.setField(relatedBooks, "repository", repository);
+        Review late = review(2, 1, "5.00");
+        Review lateOther = review(2, 3, "5.00");
+
+        // the table holds two reviews, and one more pair is written while it is being read.
+        when(repository.streamRatingColumns()).thenReturn(Stream.of(
+                new Object[]{1, 1, 1, (short) 400},
+                new Object[]{2, 1, 2, (short) 400})
+                .peek(row -> {
+                    if ((Integer) row[0] == 2) {
+                        relatedBooks.onReviewBatch(new ReviewBatchEvent(Arrays.asList(late, lateOther)));
+                    }
+                }));
+
+        relatedBooks.rebuild();
+
+        assertEquals(Arrays.asList(new RelatedBook(3, new BigDecimal("25.00")), new RelatedBook(2, new BigDecimal("16.00"))),
+                relatedBooks.related(1, 10));
+    }
+
+    private static Review review(int userId, int bookId, String rating) {
+        return new Review(userId, bookId, new BigDecimal(rating), "Review.");
+    }
+}
@@ -0,0 +1,153 @@
+package com.organicautonomy.reviewservice.util.search;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ReviewSearchIndexTest {
+    private ReviewSearchIndex index;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        index = new ReviewSearchIndex("", 10, 60000);
+        index.index(1, 10, "The ending was heartbreaking, but the characters were great.");
+        index.index(2, 10, "Great characters. The ending felt rushed.");
+        index.index(3, 11, "Great book, great ending!");
+    }
+
+    @Test
+    void testTermsAreIntersected() {
+        assertEquals(Arrays.asList(3, 2, 1), index.search("great ending", null, 10));
+        assertEquals(Arrays.asList(2), index.search("rushed ending", null, 10));
+        assertEquals(Collections.emptyList(), index.search("ending missing", null, 10));
+    }
+
+    @Test
+    void testPhraseQuery() {
+        assertEquals(Arrays.asList(2), index.search("\"great characters\"", null, 10));
+        assertEquals(Arrays.asList(3), index.search("\"great ending\"", null, 10));
+        assertEquals(Arrays.asList(1), index.search("\"ending was\" characters", null, 10));
+    }
+
+    @Test
+    void testOverlongWordsKeepTheirPosition() {
+        String overlong = String.join("", Collections.nCopies(70, "a"));
+        index.index(4, 12, "Slow " + overlong + " burn.");
+
+        assertEquals(Arrays.asList("slow", null, "burn"), Tokenizer.tokenize("Slow " + overlong + " burn."));
+        assertEquals(Collections.emptyList(), index.search("\"slow burn\"", null, 10));
+        assertEquals(Arrays.asList(4), index.search("\"slow " + overlong + " burn\"", null, 10));
+        assertEquals(Arrays.asList(4), index.search("slow burn", null, 10));
+    }
+
+    @Test
+    void testBookFilter() {
+        assertEquals(Arrays.asList(2, 1), index.search("ending", 10, 10));
+        assertEquals(Collections.emptyList(), index.search("ending", 12, 10));
+    }
+
+    @Test
+    void testLimit() {
+        assertEquals(Arrays.asList(3), index.search("ending", null, 1));
+    }
+
+    @Test
+    void testReviewEvents() {
+        Review review = new Review(2, 1, 10, new BigDecimal("3.00"), "Great characters. The ending felt rushed.");
+        Review updated = new Review(2, 1, 10, new BigDecimal("3.00"), "Slow start, strong finish.");
+
+        index.onReviewEvent(ReviewEvent.updated(review, updated));
+        assertEquals(Arrays.asList(2), index.search("finish", null, 10));
+        assertEquals(Collections.emptyList(), index.search("rushed", null, 10));
+
+        index.onReviewEvent(ReviewEvent.deleted(updated));
+        assertEquals(Collections.emptyList(), index.search("finish", null, 10));
+        assertEquals(2, index.documentCount());
+    }
+
+    @Test
+    void testSegmentsSurviveRestart(@TempDir Path directory) throws IOException {
+        ReviewSearchIndex persisted = new ReviewSearchIndex(directory.toString(), 2, 60000);
+        persisted.index(1, 10, "First review about dragons.");
+        persisted.index(2, 10, "Second review about wizards.");
+        persisted.flush();
+        persisted.index(3, 11, "Third review about dragons and wizards.");
+        persisted.remove(1);
+        persisted.flush();
+        persisted.index(2, 10, "Second review, rewritten, about knights.");
+        persisted.flush();
+
+        ReviewSearchIndex restarted = new ReviewSearchIndex(directory.toString(), 2, 60000);
+        long watermark = restarted.replaySegments();
+
+        assertTrue(watermark > 0);
+        assertEquals(2, restarted.documentCount());
+        assertEquals(Arrays.asList(3), restarted.search("dragons", null, 10));
+        assertEquals(Arrays.asList(2), restarted.search("knights", null, 10));
+        assertEquals(Arrays.asList(3), restarted.search("wizards", null, 10));
+    }
+
+    @Test
+    void testRestartCatchesUpOutOfOrderIdsAndEdits(@TempDir Path directory) throws IOException {
+        ReviewSearchIndex persisted = new ReviewSearchIndex(directory.toString(), 10, 1000);
+        persisted.index(1, 10, "First review about dragons.");
+        persisted.index(3, 10, "Third review about wizards.");
+        persisted.flush();
+
+        // after the flush: id 2 commits late, id 1 is edited and id 3 deleted.
+        ReviewRepository repository = mock(ReviewRepository.class);
+        when(repository.streamTextsUpdatedSince(any())).thenReturn(Stream.<Object[]>of(
+                new Object[]{1, 10, "First review, rewritten, about knights."}));
+        when(repository.streamIds()).thenReturn(Stream.of(1, 2));
+        when(repository.findTextsByIdIn(Collections.singletonList(2))).thenReturn(Collections.singletonList(
+                new Object[]{2, 11, "Second review about dragons."}));
+
+        ReviewSearchIndex restarted = new ReviewSearchIndex(directory.toString(), 10, 1000);
+        ReflectionTestUtils.setField(restarted, "repository", repository);
+        restarted.load();
+
+        assertEquals(2, restarted.documentCount());
+        assertEquals(Arrays.asList(2), restarted.search("dragons", null, 10));
+        assertEquals(Arrays.asList(1), restarted.search("knights", null, 10));
+        assertEquals(Collections.emptyList(), restarted.search("wizards", null, 10));
+        verify(repository, never()).streamTexts();
+
+        // the catch-up is flushed with the next segment.
+        restarted.flush();
+        ReviewSearchIndex again = new ReviewSearchIndex(directory.toString(), 10, 1000);
+        again.replaySegments();
+        assertEquals(Arrays.asList(1), again.search("knights", null, 10));
+        assertEquals(Arrays.asList(2), again.search("dragons", null, 10));
+    }
+
+    @Test
+    void testTokenizer() {
+        assertEquals(Arrays.asList("it", "s", "a", "5", "star", "read"), Tokenizer.tokenize("It's a 5-star read!"));
+    }
+
+    @Test
+    void testOnReviewBatch() {
+        index.onReviewBatch(new ReviewBatchEvent(Arrays.asList(
+                new Review(4, 1, 12, new BigDecimal("4.00"), "A slow burn."),
+                new Review(5, 2, 12, new BigDecimal("2.00"), "Too slow for me."))));
+
+        assertEquals(5, index.documentCount());
+        assertEquals(Arrays.asList(5, 4), index.search("slow", 12, 10));
+    }
+}
@@ -0,0 +1,147 @@
+package com.organicautonomy.reviewservice.util.timeline;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.ReviewSummary;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class UserTimelineCacheTest {
+    private static final Instant NOW = Instant.ofEpochMilli(1_600_000_000_000L);
+
+    private ReviewRepository repository;
+    private UserTimelineCache cache;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(ReviewRepository.class);
+        cache = new UserTimelineCache(2, 3);
+        ReflectionTestUtils.setField(cache, "repository", repository);
+    }
+
+    @Test
+    void testHitsDoNotQueryTheRepository() {
+        List<ReviewSummary> history = Arrays.asList(summary(2, 1, 20), summary(1, 1, 10));
+        when(repository.findLatestSummariesByUserId(1, PageRequest.of(0, 3))).thenReturn(history);
+
+        assertEquals(history, cache.recent(1, 3));
+        assertEquals(history.subList(0, 1), cache.recent(1, 1));
+
+        verify(repository, times(1)).findLatestSummariesByUserId(anyInt(), any());
+    }
+
+    @Test
+    void testCreatedReviewsArePrependedAndCapped() {
+        when(repository.findLatestSummariesByUserId(1, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(summary(2, 1, 20), summary(1, 1, 10)));
+        cache.recent(1, 3);
+
+        cache.onReviewEvent(ReviewEvent.created(review(3, 1, 30)));
+        cache.onReviewBatch(new ReviewBatchEvent(Arrays.asList(review(4, 1, 40), review(5, 2, 50))));
+
+        assertEquals(Arrays.asList(4, 3, 2), ids(cache.recent(1, 3)));
+        assertEquals(1, cache.size());
+        verify(repository, times(1)).findLatestSummariesByUserId(anyInt(), any());
+    }
+
+    @Test
+    void testUpdatesArePatchedInPlace() {
+        Review review = review(2, 1, 20);
+        when(repository.findLatestSummariesByUserId(1, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(ReviewSummary.of(review), summary(1, 1, 10)));
+        cache.recent(1, 3);
+
+        Review updated = new Review(review);
+        updated.setText("Changed my mind.");
+        cache.onReviewEvent(ReviewEvent.updated(review, updated));
+
+        assertEquals("Changed my mind.", cache.recent(1, 1).get(0).getSnippet());
+    }
+
+    @Test
+    void testDeleteFromCompleteTimelineIsPatched() {
+        Review deleted = review(2, 1, 20);
+        when(repository.findLatestSummariesByUserId(1, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(ReviewSummary.of(deleted), summary(1, 1, 10)));
+        cache.recent(1, 3);
+
+        cache.onReviewEvent(ReviewEvent.deleted(deleted));
+
+        assertEquals(Arrays.asList(1), ids(cache.recent(1, 3)));
+        verify(repository, times(1)).findLatestSummariesByUserId(anyInt(), any());
+    }
+
+    @Test
+    void testDeleteFromFullTimelineReloads() {
+        Review deleted = review(4, 1, 40);
+        when(repository.findLatestSummariesByUserId(1, PageRequest.of(0, 3)))
+                .thenReturn(Arrays.asList(ReviewSummary.of(deleted), summary(3, 1, 30), summary(2, 1, 20)))
+                .thenReturn(Arrays.asList(summary(3, 1, 30), summary(2, 1, 20), summary(1, 1, 10)));
+        cache.recent(1, 3);
+
+        cache.onReviewEvent(ReviewEvent.deleted(deleted));
+
+        assertEquals(Arrays.asList(3, 2, 1), ids(cache.recent(1, 3)));
+        verify(repository, times(2)).findLatestSummariesByUserId(anyInt(), any());
+    }
+
+    @Test
+    void testLeastRecentlyUsedUserIsEvicted() {
+        when(repository.findLatestSummariesByUserId(anyInt(), any())).thenReturn(new ArrayList<>());
+
+        cache.recent(1, 3);
+        cache.recent(2, 3);
+        cache.recent(1, 3);
+        cache.recent(3, 3);
+        cache.recent(1, 3);
+        cache.recent(2, 3);
+
+        // users 1 and 3 stayed cached, user 2 was evicted and loaded twice.
+        verify(repository, times(1)).findLatestSummariesByUserId(eq(1), any());
+        verify(repository, times(2)).findLatestSummariesByUserId(eq(2), any());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void testLoadRacingAWriteIsNotCached() {
+        when(repository.findLatestSummariesByUserId(1, PageRequest.of(0, 3))).thenAnswer(invocation -> {
+            cache.onReviewEvent(ReviewEvent.created(review(3, 1, 30)));
+            return Arrays.asList(summary(2, 1, 20));
+        });
+
+        cache.recent(1, 3);
+
+        assertEquals(0, cache.size());
+    }
+
+    private static Review review(int id, int userId, int secondsAfter) {
+        Review review = new Review(id, userId, 1, new BigDecimal("4.00"), "Review " + id + ".");
+        review.setCreatedAt(NOW.plusSeconds(secondsAfter));
+        return review;
+    }
+
+    private static ReviewSummary summary(int id, int userId, int secondsAfter) {
+        return ReviewSummary.of(review(id, userId, secondsAfter));
+    }
+
+    private static List<Integer> ids(List<ReviewSummary> summaries) {
+        List<Integer> ids = new ArrayList<>();
+        summaries.forEach(summary -> ids.add(summary.getId()));
+        return ids;
+    }
+}
@@ -0,0 +1,47 @@
+package com.organicautonomy.reviewservice.util.trending;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long NOW = 1_600_000_000_000L;
+
+    @Test
+    void testEstimateNeverUndercounts() {
+        CountMinSketch sketch = new CountMinSketch(4, 256, HOUR);
+        for (int key = 0; key < 1_000; key++) {
+            for (int i = 0; i <= key % 10; i++) {
+                sketch.add(key, NOW);
+            }
+        }
+
+        long overcount = 0;
+        for (int key = 0; key < 1_000; key++) {
+            long estimate = sketch.estimate(key, NOW);
+            assertTrue(estimate >= key % 10 + 1);
+            overcount += estimate - (key % 10 + 1);
+        }
+        // ~5.5k events over 256 columns, the minimum over four rows keeps the error small.
+        assertTrue(overcount / 1_000.0 < 20);
+    }
+
+    @Test
+    void testOldCountsAgeOut() {
+        CountMinSketch sketch = new CountMinSketch(4, 256, HOUR);
+        sketch.add(1, NOW);
+        sketch.add(1, NOW);
+
+        assertEquals(2, sketch.estimate(1, NOW + HOUR / 2));
+        assertEquals(0, sketch.estimate(1, NOW + 2 * HOUR));
+    }
+
+    @Test
+    void testInvalidDimensions() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(4, 100, HOUR));
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(0, 256, HOUR));
+    }
+}
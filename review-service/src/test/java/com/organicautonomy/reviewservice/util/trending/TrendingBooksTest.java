@@ -0,0 +1,182 @@
+package com.organicautonomy.reviewservice.util.trending;
+
+import com.organicautonomy.reviewservice.dao.ReviewRepository;
+import com.organicautonomy.reviewservice.dto.Review;
+import com.organicautonomy.reviewservice.dto.TrendingBook;
+import com.organicautonomy.reviewservice.event.ReviewBatchEvent;
+import com.organicautonomy.reviewservice.event.ReviewEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TrendingBooksTest {
+    private static final long HOUR = TimeUnit.HOURS.toMillis(1);
+    private static final long NOW = 1_600_000_000_000L;
+
+    private TrendingBooks trendingBooks;
+
+    @BeforeEach
+    void setUp() {
+        trendingBooks = new TrendingBooks(100, 1024);
+    }
+
+    @Test
+    void testRanksByGrowthOverPreviousWindow() {
+        // book 1 is busy but flat, book 2 is quieter but picking up.
+        record(1, 50, NOW - HOUR - 60_000);
+        record(1, 50, NOW - 60_000);
+        record(2, 5, NOW - HOUR - 60_000);
+        record(2, 20, NOW - 60_000);
+
+        List<TrendingBook> trending = trendingBooks.trending(TrendingWindow.HOUR, 10, NOW);
+
+        assertEquals(1, trending.size());
+        assertEquals(new TrendingBook(2, "1h", 20, 5, 15), trending.get(0));
+    }
+
+    @Test
+    void testWindowsSlide() {
+        record(1, 10, NOW - 60_000);
+
+        assertEquals(10, trendingBooks.trending(TrendingWindow.HOUR, 10, NOW).get(0).getReviewCount());
+        assertTrue(trendingBooks.trending(TrendingWindow.HOUR, 10, NOW + HOUR).isEmpty());
+        assertTrue(trendingBooks.trending(TrendingWindow.HOUR, 10, NOW + 3 * HOUR).isEmpty());
+        assertEquals(10, trendingBooks.trending(TrendingWindow.DAY, 10, NOW + 3 * HOUR).get(0).getReviewCount());
+    }
+
+    @Test
+    void testTrendingLimitsResults() {
+        for (int book = 1; book <= 20; book++) {
+            record(book, book, NOW - 60_000);
+        }
+
+        List<TrendingBook> trending = trendingBooks.trending(TrendingWindow.WEEK, 3, NOW);
+
+        assertEquals(3, trending.size());
+        assertEquals(20, trending.get(0).getBookId());
+        assertEquals(19, trending.get(1).getBookId());
+        assertEquals(18, trending.get(2).getBookId());
+    }
+
+    @Test
+    void testLongTailStaysBounded() {
+        record(1, 500, NOW - 60_000);
+        for (int book = 2; book <= 10_000; book++) {
+            record(book, 1, NOW - 60_000);
+        }
+
+        assertTrue(trendingBooks.tracked(TrendingWindow.HOUR) <= 200);
+        assertEquals(500, trendingBooks.trending(TrendingWindow.HOUR, 1, NOW).get(0).getReviewCount());
+    }
+
+    @Test
+    void testNewBooksTrendAfterABusyPeriod() {
+        // a busy hour leaves 100 books tracked and a bar of 10 reviews behind.
+        for (int book = 1; book <= 250; book++) {
+            record(book, 10, NOW - 2 * HOUR + 60_000);
+        }
+        assertEquals(100, trendingBooks.tracked(TrendingWindow.HOUR));
+
+        for (int book = 1001; book <= 1100; book++) {
+            record(book, 3, NOW - 60_000);
+        }
+
+        List<TrendingBook> trending = trendingBooks.trending(TrendingWindow.HOUR, 100, NOW);
+        assertEquals(100, trending.size());
+        assertTrue(trending.stream().allMatch(book -> book.getBookId() > 1000 && book.getReviewCount() == 3));
+        assertEquals(200, trendingBooks.tracked(TrendingWindow.HOUR));
+
+        // an hour on, the busy books have left both halves of the window and their rings go with them.
+        trendingBooks.record(1001, NOW + HOUR, NOW + HOUR);
+        assertEquals(100, trendingBooks.tracked(TrendingWindow.HOUR));
+    }
+
+    @Test
+    void testConcurrentRecordsAreNotLost() throws Exception {
+        // tracked up front, so every thread goes straight to the ring.
+        record(7, 1, NOW - 60_000);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.submit(() -> record(7, 10_000, NOW - 60_000));
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        assertEquals(80_001, trendingBooks.trending(TrendingWindow.HOUR, 1, NOW).get(0).getReviewCount());
+    }
+
+    @Test
+    void testOnlyCreatedReviewsCount() {
+        Review review = new Review(1, 1, 7, new BigDecimal("4.00"), "Good.");
+        review.setCreatedAt(Instant.now());
+
+        trendingBooks.onReviewEvent(ReviewEvent.created(review));
+        trendingBooks.onReviewEvent(ReviewEvent.updated(review, review));
+        trendingBooks.onReviewEvent(ReviewEvent.deleted(review));
+
+        List<TrendingBook> trending = trendingBooks.trending(TrendingWindow.HOUR, 10);
+        assertEquals(1, trending.size());
+        assertEquals(1, trending.get(0).getReviewCount());
+    }
+
+    @Test
+    void testImportedHistoryDoesNotTrend() {
+        Review imported = new Review(1, 1, 7, new BigDecimal("4.00"), "Written long ago.");
+        imported.setCreatedAt(Instant.now().minus(30, ChronoUnit.DAYS));
+
+        trendingBooks.onReviewBatch(new ReviewBatchEvent(Collections.singletonList(imported)));
+
+        for (TrendingWindow window : TrendingWindow.values()) {
+            assertTrue(trendingBooks.trending(window, 10).isEmpty());
+            assertEquals(0, trendingBooks.tracked(window));
+        }
+    }
+
+    @Test
+    void testLoadCountsReviewsCreatedDuringItOnce() {
+        ReviewRepository repository = mock(ReviewRepository.class);
+        ReflectionTestUtils.setField(trendingBooks, "repository", repository);
+        Instant now = Instant.now();
+        Review early = new Review(1, 1, 7, new BigDecimal("4.00"), "Good.");
+        early.setCreatedAt(now.minusSeconds(60));
+        Review late = new Review(2, 2, 7, new BigDecimal("5.00"), "Great.");
+        late.setCreatedAt(now);
+
+        // the first review's event arrives after the load read it, the second's before.
+        when(repository.streamActivitySince(any())).thenReturn(Stream.of(
+                new Object[]{1, 7, early.getCreatedAt()},
+                new Object[]{2, 7, late.getCreatedAt()})
+                .peek(row -> {
+                    if ((Integer) row[0] == 2) {
+                        trendingBooks.onReviewEvent(ReviewEvent.created(early));
+                        trendingBooks.onReviewEvent(ReviewEvent.created(late));
+                    }
+                }));
+
+        trendingBooks.load();
+
+        assertEquals(2, trendingBooks.trending(TrendingWindow.HOUR, 1).get(0).getReviewCount());
+    }
+
+    private void record(int bookId, int reviews, long timeMillis) {
+        for (int i = 0; i < reviews; i++) {
+            trendingBooks.record(bookId, timeMillis, NOW);
+        }
+    }
+}
@@ -14,6 +14,8 @@ import java.util.Optional;
 @RestController
 @RequestMapping("/users")
 public class UserController {
+    private static final int MAX_BATCH_SIZE = 100;
+
     @Autowired
     private UserRepository repository;
 
@@ -29,6 +31,17 @@ public class UserController {
         return repository.save(user);
     }
 
+    // one round trip for callers resolving many ids, unknown ids are left out of the result.
+    @GetMapping("/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public List<User> getUsersByIds(@RequestParam List<Integer> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("At most " + MAX_BATCH_SIZE + " ids can be requested at once.");
+        }
+
+        return repository.findAllById(ids);
+    }
+
     @GetMapping("/{userId}")
     @ResponseStatus(HttpStatus.OK)
     public User getUserById(@PathVariable Integer userId) {
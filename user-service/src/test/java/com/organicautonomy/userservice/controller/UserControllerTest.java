@@ -16,8 +16,11 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -228,4 +231,30 @@ class UserControllerTest {
                         result.getResolvedException().getMessage()))
                 .andDo(print());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testGetUsersByIds() throws Exception {
+        List<User> users = new ArrayList<>();
+        users.add(USER1);
+        users.add(USER2);
+
+        String outputJson = mapper.writeValueAsString(users);
+
+        when(repository.findAllById(Arrays.asList(1, 2, 3))).thenReturn(users);
+
+        this.mockMvc.perform(get("/users/batch").param("ids", "1,2,3"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(outputJson))
+                .andDo(print());
+    }
+
+    @Test
+    void testGetUsersByIdsWithTooManyIds() throws Exception {
+        String ids = IntStream.rangeClosed(1, 101).mapToObj(String::valueOf).collect(Collectors.joining(","));
+
+        this.mockMvc.perform(get("/users/batch").param("ids", ids))
+                .andExpect(status().isNotFound())
+                .andExpect(result -> assertTrue(result.getResolvedException() instanceof IllegalArgumentException))
+                .andDo(print());
+    }
+}